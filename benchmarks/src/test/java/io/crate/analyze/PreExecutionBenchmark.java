@@ -67,6 +67,7 @@ public class PreExecutionBenchmark {
     private Statement selectStatement;
     private Analysis selectAnalysis;
     private PlannerContext plannerContext;
+    private String multiRowInsert;
 
     @Setup
     public void setup() throws Exception {
@@ -81,6 +82,15 @@ public class PreExecutionBenchmark {
         selectAnalysis =
             e.analyzer.boundAnalyze(selectStatement, new TransactionContext(SessionContext.systemSessionContext()), ParameterContext.EMPTY);
         plannerContext = e.getPlannerContext(clusterService.state(), new Random(dummySeed));
+
+        StringBuilder insert = new StringBuilder("insert into users (id, name, text, date) values ");
+        for (int i = 0; i < 10_000; i++) {
+            if (i > 0) {
+                insert.append(", ");
+            }
+            insert.append("(").append(i).append(", 'Arthur', 'So long and thanks for all the fish', '2017-03-13')");
+        }
+        multiRowInsert = insert.toString();
     }
 
     @TearDown
@@ -125,6 +135,10 @@ public class PreExecutionBenchmark {
         return e.plan("insert into users (id, name, text, date) values (1, 'Arthur', 'So long and thanks for all the fish', '2017-03-13')");
     }
 
+    @Benchmark
+    public Plan measureParseAnalyzeAndPlanInsertFromValuesWithManyRows() {
+        return e.plan(multiRowInsert);
+    }
 
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
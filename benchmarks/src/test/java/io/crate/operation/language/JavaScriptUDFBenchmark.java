@@ -0,0 +1,80 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.operation.language;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.data.Input;
+import io.crate.expression.symbol.Literal;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Schemas;
+import io.crate.types.DataTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class JavaScriptUDFBenchmark {
+
+    private static final int NUM_ROWS = 1_000;
+
+    private JavaScriptUserDefinedFunction udf;
+    private Input<Object>[][] inputs;
+    private Object[][] rows;
+
+    @Setup
+    public void setUp() throws Exception {
+        udf = new JavaScriptUserDefinedFunction(
+            new FunctionInfo(
+                new FunctionIdent(Schemas.DOC_SCHEMA_NAME, "f", ImmutableList.of(DataTypes.LONG, DataTypes.DOUBLE)),
+                DataTypes.DOUBLE),
+            "function f(x, y) { return x * y + 1; }");
+        inputs = new Input[NUM_ROWS][];
+        rows = new Object[NUM_ROWS][];
+        for (int i = 0; i < NUM_ROWS; i++) {
+            rows[i] = new Object[]{(long) i, i * 0.5d};
+            inputs[i] = new Input[]{Literal.of((long) i), Literal.of(i * 0.5d)};
+        }
+    }
+
+    @Benchmark
+    public void measurePerRowEvaluation(Blackhole blackhole) {
+        for (Input<Object>[] row : inputs) {
+            blackhole.consume(udf.evaluate(row));
+        }
+    }
+
+    @Benchmark
+    public Object[] measureBatchEvaluation() {
+        return udf.evaluateBatch(rows);
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.blob;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A per node cache of frequently requested blobs.
+ *
+ * The content of cached blobs is kept in pooled direct buffers so that it can be written to plain and TLS
+ * connections without touching the disk. The cache is bounded by {@link #SETTING_CACHE_SIZE}.
+ *
+ * Entries are evicted in LRU order. A blob is only admitted if it has been requested more often recently than the
+ * entries it would evict (TinyLFU admission), which keeps one-off requests from flushing popular blobs.
+ */
+public class BlobCache extends AbstractComponent {
+
+    public static final Setting<ByteSizeValue> SETTING_CACHE_SIZE = Setting.byteSizeSetting(
+        "blobs.cache.size", new ByteSizeValue(0), Setting.Property.NodeScope);
+    public static final Setting<ByteSizeValue> SETTING_CACHE_MAX_BLOB_SIZE = Setting.byteSizeSetting(
+        "blobs.cache.max_blob_size", new ByteSizeValue(1, ByteSizeUnit.MB),
+        new ByteSizeValue(0), new ByteSizeValue(Integer.MAX_VALUE), Setting.Property.NodeScope);
+
+    /**
+     * Used to size the frequency sketch
+     */
+    private static final long EXPECTED_AVG_BLOB_SIZE = 16 * 1024;
+
+    private final long capacity;
+    private final long maxBlobSize;
+    private final ByteBufAllocator allocator;
+
+    // guarded by this
+    private final LinkedHashMap<Key, ByteBuf> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private long usedBytes = 0;
+
+    // guarded by this; loads which are reading a blob, used to detect invalidations which happen meanwhile
+    private final Map<Key, Load> loads = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    @Inject
+    public BlobCache(Settings settings) {
+        this(settings, PooledByteBufAllocator.DEFAULT);
+    }
+
+    @VisibleForTesting
+    BlobCache(Settings settings, ByteBufAllocator allocator) {
+        super(settings);
+        this.capacity = SETTING_CACHE_SIZE.get(settings).getBytes();
+        this.maxBlobSize = Math.min(capacity, SETTING_CACHE_MAX_BLOB_SIZE.get(settings).getBytes());
+        this.allocator = allocator;
+        int expectedEntries = (int) Math.min(1 << 20, Math.max(16, capacity / EXPECTED_AVG_BLOB_SIZE));
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public boolean enabled() {
+        return capacity > 0;
+    }
+
+    /**
+     * Returns the cached content of the blob and records the access.
+     *
+     * @return a retained duplicate of the content which must be released by the caller or null if the blob
+     *         isn't cached.
+     */
+    @Nullable
+    public ByteBuf get(String index, String digest) {
+        if (enabled() == false) {
+            return null;
+        }
+        Key key = new Key(index, digest);
+        synchronized (this) {
+            sketch.increment(key);
+            ByteBuf content = entries.get(key);
+            if (content != null) {
+                hits.increment();
+                return content.retainedDuplicate();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Loads the blob into the cache if it is admitted.
+     * Should be called after a {@link #get(String, String)} miss.
+     *
+     * @return a retained duplicate of the cached content which must be released by the caller or null if the blob
+     *         hasn't been admitted.
+     */
+    @Nullable
+    public ByteBuf load(String index, String digest, BlobRegion blob) throws IOException {
+        long length = blob.length();
+        if (length > maxBlobSize) {
+            return null;
+        }
+        Key key = new Key(index, digest);
+        Load load;
+        long generation;
+        synchronized (this) {
+            if (admits(key, length) == false) {
+                rejections.increment();
+                return null;
+            }
+            load = loads.computeIfAbsent(key, k -> new Load());
+            load.readers++;
+            generation = load.generation;
+        }
+        ByteBuf content = null;
+        try {
+            content = allocator.directBuffer((int) length, (int) length);
+            FileChannel channel = blob.file().getChannel();
+            while (content.isWritable()) {
+                int read = content.writeBytes(channel, blob.offset() + content.writerIndex(), content.writableBytes());
+                if (read < 0) {
+                    throw new EOFException("Unexpected end of blob " + digest);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (content != null) {
+                content.release();
+            }
+            synchronized (this) {
+                finishLoad(key, load);
+            }
+            throw e;
+        }
+        synchronized (this) {
+            finishLoad(key, load);
+            if (load.generation != generation || entries.containsKey(key)) {
+                // invalidated while reading (the content may be stale) or loaded concurrently
+                return content;
+            }
+            if (evictFor(key, length) == false) {
+                rejections.increment();
+                return content;
+            }
+            entries.put(key, content);
+            usedBytes += length;
+            return content.retainedDuplicate();
+        }
+    }
+
+    private void finishLoad(Key key, Load load) {
+        assert Thread.holdsLock(this) : "must hold the cache lock";
+        load.readers--;
+        if (load.readers == 0) {
+            loads.remove(key);
+        }
+    }
+
+    /**
+     * Removes the blob from the cache, e.g. because it has been deleted.
+     */
+    public void invalidate(String index, String digest) {
+        if (enabled() == false) {
+            return;
+        }
+        Key key = new Key(index, digest);
+        ByteBuf removed;
+        synchronized (this) {
+            Load load = loads.get(key);
+            if (load != null) {
+                load.generation++;
+            }
+            removed = entries.remove(key);
+            if (removed != null) {
+                usedBytes -= removed.readableBytes();
+            }
+        }
+        if (removed != null) {
+            removed.release();
+        }
+    }
+
+    /**
+     * Removes all blobs of the index from the cache
+     */
+    public synchronized void invalidateIndex(String index) {
+        for (Map.Entry<Key, Load> load : loads.entrySet()) {
+            if (load.getKey().index.equals(index)) {
+                load.getValue().generation++;
+            }
+        }
+        Iterator<Map.Entry<Key, ByteBuf>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, ByteBuf> entry = it.next();
+            if (entry.getKey().index.equals(index)) {
+                it.remove();
+                usedBytes -= entry.getValue().readableBytes();
+                entry.getValue().release();
+            }
+        }
+    }
+
+    private boolean admits(Key candidate, long length) {
+        assert Thread.holdsLock(this) : "must hold the cache lock";
+        if (usedBytes + length <= capacity) {
+            return true;
+        }
+        int candidateFrequency = sketch.frequency(candidate);
+        long freed = 0;
+        for (Map.Entry<Key, ByteBuf> victim : entries.entrySet()) {
+            if (sketch.frequency(victim.getKey()) >= candidateFrequency) {
+                return false;
+            }
+            freed += victim.getValue().readableBytes();
+            if (usedBytes - freed + length <= capacity) {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evicts entries in LRU order until the candidate fits
+     *
+     * @return false if the candidate isn't admitted
+     */
+    private boolean evictFor(Key candidate, long length) {
+        assert Thread.holdsLock(this) : "must hold the cache lock";
+        if (admits(candidate, length) == false) {
+            return false;
+        }
+        Iterator<ByteBuf> it = entries.values().iterator();
+        while (usedBytes + length > capacity && it.hasNext()) {
+            ByteBuf victim = it.next();
+            it.remove();
+            usedBytes -= victim.readableBytes();
+            victim.release();
+            evictions.increment();
+        }
+        return true;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public long rejections() {
+        return rejections.sum();
+    }
+
+    public double hitRatio() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private static final class Load {
+
+        /**
+         * incremented by every invalidation of the key, a load only caches the content if it didn't change
+         */
+        private long generation = 0;
+        private int readers = 0;
+    }
+
+    private static final class Key {
+
+        private final String index;
+        private final String digest;
+
+        private Key(String index, String digest) {
+            this.index = index;
+            this.digest = digest;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return index.equals(key.index) && digest.equals(key.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, digest);
+        }
+    }
+}
@@ -21,6 +21,7 @@
 
 package io.crate.blob;
 
+import com.google.common.collect.Iterables;
 import io.crate.blob.exceptions.DigestNotFoundException;
 import io.crate.common.Hex;
 import org.apache.logging.log4j.Logger;
@@ -40,6 +41,7 @@ import java.util.Locale;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class BlobContainer {
 
@@ -61,12 +63,28 @@ public class BlobContainer {
     private final Path tmpDirectory;
     private final Path varDirectory;
     private final BlobCoordinator blobCoordinator;
+    private final PackedBlobs packedBlobs;
+    private final long packThreshold;
+    private final AtomicBoolean[] pendingCompactions = new AtomicBoolean[256];
 
     public BlobContainer(Path baseDirectory) {
+        this(baseDirectory, 0L);
+    }
+
+    /**
+     * @param packThreshold blobs up to this size (in bytes) are stored in pack files instead of
+     *                      one file per blob. 0 disables packing.
+     */
+    public BlobContainer(Path baseDirectory, long packThreshold) {
         this.baseDirectory = baseDirectory;
         this.tmpDirectory = baseDirectory.resolve("tmp");
         this.varDirectory = baseDirectory.resolve("var");
         this.blobCoordinator = new BlobCoordinator();
+        this.packThreshold = packThreshold;
+        this.packedBlobs = new PackedBlobs(baseDirectory.resolve("packs"), SUB_DIRS);
+        for (int i = 0; i < pendingCompactions.length; i++) {
+            pendingCompactions[i] = new AtomicBoolean(false);
+        }
         try {
             Files.createDirectories(this.varDirectory);
             createSubDirectories(this.varDirectory);
@@ -98,8 +116,23 @@ public class BlobContainer {
         }
     }
 
+    /**
+     * Returns all blobs of the container. Packed blobs are returned as {@link File} instances
+     * which report the length and last modified time of the packed blob but don't exist on disk.
+     */
     public Iterable<File> getFiles() {
-        return new RecursiveFileIterable(subDirs);
+        return Iterables.concat(new RecursiveFileIterable(subDirs), packedFiles());
+    }
+
+    private Iterable<File> packedFiles() {
+        List<Iterable<File>> packed = new ArrayList<>(subDirs.length);
+        for (int i = 0; i < subDirs.length; i++) {
+            final int prefix = i;
+            packed.add(() -> Iterables.<PackedBlobs.PackedBlob, File>transform(
+                packedBlobs.blobs(prefix),
+                b -> new PackedBlobFile(subDirs[prefix], b)).iterator());
+        }
+        return Iterables.concat(packed);
     }
 
     /**
@@ -114,12 +147,15 @@ public class BlobContainer {
     public byte[][] cleanAndReturnDigests(byte prefix) {
         int index = prefix & 0xFF;  // byte is signed and may be negative, convert to int to get correct index
         String[] names = cleanDigests(subDirs[index].list(), index);
-        byte[][] digests = new byte[names.length][];
-        for (int i = 0; i < names.length; i++) {
+        List<String> packed = packedBlobs.digests(index);
+        int numLoose = names == null ? 0 : names.length;
+        byte[][] digests = new byte[numLoose + packed.size()][];
+        for (int i = 0; i < digests.length; i++) {
+            String name = i < numLoose ? names[i] : packed.get(i - numLoose);
             try {
-                digests[i] = Hex.decodeHex(names[i]);
+                digests[i] = Hex.decodeHex(name);
             } catch (IllegalStateException ex) {
-                logger.error("Can't convert string {} to byte array", names[i]);
+                logger.error("Can't convert string {} to byte array", name);
                 throw ex;
             }
         }
@@ -182,11 +218,166 @@ public class BlobContainer {
         return new DigestBlob(this, digest, transferId);
     }
 
-    public RandomAccessFile getRandomAccessFile(String digest) {
+    public long packThreshold() {
+        return packThreshold;
+    }
+
+    /**
+     * @return true if the blob is stored in the container, either as file or packed
+     */
+    public boolean exists(String digest) {
+        return getFile(digest).exists() || packedBlobs.contains(digest);
+    }
+
+    /**
+     * @return the length of the blob or 0 if it doesn't exist
+     */
+    public long blobLength(String digest) {
+        File file = getFile(digest);
+        if (file.exists()) {
+            return file.length();
+        }
+        return Math.max(0L, packedBlobs.length(digest));
+    }
+
+    /**
+     * Opens the blob for reading.
+     *
+     * @throws DigestNotFoundException if the blob doesn't exist
+     */
+    public BlobRegion openBlob(String digest) throws IOException {
         try {
-            return new RandomAccessFile(getFile(digest), "r");
+            RandomAccessFile raf = new RandomAccessFile(getFile(digest), "r");
+            return new BlobRegion(raf, 0L, raf.length());
         } catch (FileNotFoundException e) {
-            throw new DigestNotFoundException(digest);
+            BlobRegion region = packedBlobs.open(digest);
+            if (region == null) {
+                throw new DigestNotFoundException(digest);
+            }
+            return region;
+        }
+    }
+
+    /**
+     * Moves the given file into the pack of the digest.
+     * Must only be called while holding the {@link #digestCoordinator(String)} of the digest.
+     *
+     * @return false if the blob was already packed
+     */
+    boolean pack(String digest, File file) throws IOException {
+        if (packedBlobs.put(digest, file.toPath(), file.lastModified())) {
+            Files.deleteIfExists(file.toPath());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the loose blob of the digest into its pack if it is not larger than the pack threshold,
+     * e.g. once it has been received from another node during a recovery.
+     */
+    public void maybePack(String digest) throws IOException {
+        if (packThreshold <= 0) {
+            return;
+        }
+        File file = getFile(digest);
+        if (file.exists() == false || file.length() > packThreshold) {
+            return;
+        }
+        Semaphore semaphore = digestCoordinator(digest);
+        semaphore.acquireUninterruptibly();
+        try {
+            if (pack(digest, file) == false) {
+                // already packed, the loose file is a duplicate
+                Files.deleteIfExists(file.toPath());
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Deletes the blob.
+     *
+     * @return the length of the deleted blob or -1 if the blob didn't exist
+     */
+    public long delete(String digest) throws IOException {
+        Semaphore semaphore = digestCoordinator(digest);
+        semaphore.acquireUninterruptibly();
+        try {
+            Path blobPath = getFile(digest).toPath();
+            if (Files.exists(blobPath)) {
+                long blobSize = Files.size(blobPath);
+                if (Files.deleteIfExists(blobPath)) {
+                    return blobSize;
+                }
+            }
+            return packedBlobs.remove(digest);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Claims the compaction of the pack of the digest if packing is enabled, enough of the pack is taken by
+     * deleted blobs and no compaction of the pack is pending yet.
+     * A successful claim must be followed by {@link #compactPack(String)}.
+     */
+    public boolean claimPackCompaction(String digest) {
+        if (packThreshold <= 0) {
+            return false;
+        }
+        int prefix = Integer.parseInt(digest.substring(0, 2), 16);
+        return packedBlobs.needsCompaction(prefix) && pendingCompactions[prefix].compareAndSet(false, true);
+    }
+
+    /**
+     * Compacts the pack of the digest, see {@link #claimPackCompaction(String)}.
+     */
+    public void compactPack(String digest) throws IOException {
+        int prefix = Integer.parseInt(digest.substring(0, 2), 16);
+        try {
+            logger.debug("Compacting blob pack {}", SUB_DIRS[prefix]);
+            packedBlobs.compact(prefix);
+        } finally {
+            pendingCompactions[prefix].set(false);
+        }
+    }
+
+    PackedBlobs packedBlobs() {
+        return packedBlobs;
+    }
+
+    public long packedBlobsCount() {
+        return packedBlobs.count();
+    }
+
+    public long packedBlobsSize() {
+        return packedBlobs.size();
+    }
+
+    /**
+     * A blob within a pack file, exposed as a (non-existing) file at the location a loose blob would have.
+     */
+    private static class PackedBlobFile extends File {
+
+        private final long length;
+        private final long lastModified;
+
+        private PackedBlobFile(File subDir, PackedBlobs.PackedBlob blob) {
+            super(subDir, blob.digest);
+            this.length = blob.length;
+            this.lastModified = blob.lastModified;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
         }
     }
 
@@ -28,5 +28,6 @@ public class BlobModule extends AbstractModule {
     @Override
     protected void configure() {
         bind(BlobService.class).asEagerSingleton();
+        bind(BlobCache.class).asEagerSingleton();
     }
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.blob;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+
+/**
+ * The content of a single blob, which is either a whole file (loose blob) or
+ * a slice of a pack file (packed blob).
+ *
+ * The region owns the underlying {@link RandomAccessFile}; closing the region closes the file.
+ */
+public final class BlobRegion implements Closeable {
+
+    private final RandomAccessFile file;
+    private final long offset;
+    private final long length;
+
+    BlobRegion(RandomAccessFile file, long offset, long length) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public RandomAccessFile file() {
+        return file;
+    }
+
+    /**
+     * @return the position of the first byte of the blob within {@link #file()}
+     */
+    public long offset() {
+        return offset;
+    }
+
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Creates a stream that reads the blob content starting at {@code position} (relative to the blob start).
+     * Closing the stream also closes the region.
+     */
+    public InputStream newInputStream(long position) throws IOException {
+        file.getChannel().position(offset + position);
+        return ByteStreams.limit(Channels.newInputStream(file.getChannel()), Math.max(0L, length - position));
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -29,6 +29,8 @@ import io.crate.blob.v2.BlobIndicesService;
 import io.crate.plugin.PipelineRegistry;
 import io.crate.protocols.http.HttpBlobHandler;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.store.RateLimiter;
+import org.apache.lucene.store.RateLimiter.SimpleRateLimiter;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.node.DiscoveryNode;
@@ -39,8 +41,10 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.component.AbstractLifecycleComponent;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.indices.recovery.PeerRecoverySourceService;
+import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.recovery.RecoverySourceHandler;
 import org.elasticsearch.indices.recovery.RecoverySourceHandlerProvider;
 import org.elasticsearch.indices.recovery.RemoteRecoveryTargetHandler;
@@ -57,6 +61,13 @@ public class BlobService extends AbstractLifecycleComponent {
     private final BlobTransferTarget blobTransferTarget;
     private final Client client;
     private final PipelineRegistry piplineRegistry;
+    private final BlobCache blobCache;
+
+    /**
+     * Shared by all blob recoveries of this node, so that concurrent streams stay within
+     * {@link RecoverySettings#INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING}
+     */
+    private volatile SimpleRateLimiter recoveryRateLimiter;
 
     @Inject
     public BlobService(Settings settings,
@@ -67,7 +78,8 @@ public class BlobService extends AbstractLifecycleComponent {
                        TransportService transportService,
                        BlobTransferTarget blobTransferTarget,
                        Client client,
-                       PipelineRegistry pipelineRegistry) {
+                       PipelineRegistry pipelineRegistry,
+                       BlobCache blobCache) {
         super(settings);
         this.clusterService = clusterService;
         this.blobIndicesService = blobIndicesService;
@@ -77,6 +89,24 @@ public class BlobService extends AbstractLifecycleComponent {
         this.blobTransferTarget = blobTransferTarget;
         this.client = client;
         this.piplineRegistry = pipelineRegistry;
+        this.blobCache = blobCache;
+        setRecoveryMaxBytesPerSec(RecoverySettings.INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING.get(settings));
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            RecoverySettings.INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING, this::setRecoveryMaxBytesPerSec);
+    }
+
+    private void setRecoveryMaxBytesPerSec(ByteSizeValue maxBytesPerSec) {
+        if (maxBytesPerSec.getBytes() <= 0) {
+            recoveryRateLimiter = null;
+        } else if (recoveryRateLimiter != null) {
+            recoveryRateLimiter.setMBPerSec(maxBytesPerSec.getMbFrac());
+        } else {
+            recoveryRateLimiter = new SimpleRateLimiter(maxBytesPerSec.getMbFrac());
+        }
+    }
+
+    private RateLimiter recoveryRateLimiter() {
+        return recoveryRateLimiter;
     }
 
     public RemoteDigestBlob newBlob(String index, String digest) {
@@ -88,7 +118,7 @@ public class BlobService extends AbstractLifecycleComponent {
     protected void doStart() throws ElasticsearchException {
         piplineRegistry.addBefore(
             new PipelineRegistry.ChannelPipelineItem(
-                "aggregator", "blob_handler", ignored -> new HttpBlobHandler(this, blobIndicesService))
+                "aggregator", "blob_handler", ignored -> new HttpBlobHandler(this, blobIndicesService, blobCache))
         );
 
         blobHeadRequestHandler.registerHandler();
@@ -112,7 +142,8 @@ public class BlobService extends AbstractLifecycleComponent {
                     settings,
                     transportService,
                     blobTransferTarget,
-                    blobIndicesService
+                    blobIndicesService,
+                    BlobService.this::recoveryRateLimiter
                 );
             }
         });
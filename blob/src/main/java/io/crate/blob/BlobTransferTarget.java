@@ -45,7 +45,6 @@ import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -103,12 +102,11 @@ public class BlobTransferTarget extends AbstractComponent {
         logger.debug("startTransfer {} {}", request.transferId(), request.isLast());
 
         BlobShard blobShard = blobIndicesService.blobShardSafe(request.shardId());
-        File existing = blobShard.blobContainer().getFile(request.id());
-        long size = existing.length();
-        if (existing.exists()) {
-            // the file exists
+        BlobContainer blobContainer = blobShard.blobContainer();
+        if (blobContainer.exists(request.id())) {
+            // the blob exists
             response.status(RemoteDigestBlob.Status.EXISTS);
-            response.size(size);
+            response.size(blobContainer.blobLength(request.id()));
             return;
         }
 
@@ -28,6 +28,7 @@ import io.crate.common.Hex;
 import io.netty.buffer.ByteBuf;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.common.Nullable;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.transport.netty4.Netty4Utils;
@@ -40,7 +41,6 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
@@ -160,6 +160,13 @@ public class DigestBlob implements Closeable {
         }
     }
 
+    /**
+     * Moves the blob into the container. Blobs which aren't larger than the pack threshold of the container
+     * are appended to a pack file.
+     *
+     * @return the file of the blob or null if the blob has been packed
+     */
+    @Nullable
     public File commit() throws DigestMismatchException, BlobAlreadyExistsException {
         if (headLength > 0) {
             calculateDigest();
@@ -182,10 +189,16 @@ public class DigestBlob implements Closeable {
             semaphore.acquire();
 
             try {
-                if (Files.exists(newFile.toPath())) {
+                if (container.exists(digest)) {
                     throw new BlobAlreadyExistsException(digest);
                 }
-                file.renameTo(newFile);
+                long packThreshold = container.packThreshold();
+                if (packThreshold > 0 && file.length() <= packThreshold) {
+                    container.pack(digest, file);
+                    newFile = null;
+                } else {
+                    file.renameTo(newFile);
+                }
                 file = null;
             } finally {
                 // semaphore was acquired successfully, release it
@@ -194,6 +207,8 @@ public class DigestBlob implements Closeable {
         } catch (InterruptedException e) {
             logger.error("Unable to commit blob {}", e, file.getName());
             throw new IllegalStateException("Unable to commit blob because exclusive execution could not be achieved");
+        } catch (IOException e) {
+            throw new BlobWriteException(digest, size, e);
         }
 
         return newFile;
@@ -203,6 +218,10 @@ public class DigestBlob implements Closeable {
         return container.getFile(digest);
     }
 
+    public BlobRegion openContainerBlob() throws IOException {
+        return container.openBlob(digest);
+    }
+
     public void addContent(BytesReference content, boolean last) {
         try {
             addContent(Netty4Utils.toByteBuf(content), last);
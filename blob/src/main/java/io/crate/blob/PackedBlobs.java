@@ -0,0 +1,602 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.blob;
+
+import com.google.common.io.ByteStreams;
+import io.crate.common.Hex;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.util.IOUtils;
+import org.elasticsearch.common.logging.Loggers;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Storage for small blobs which packs them into append-only files instead of keeping one file per blob.
+ *
+ * There is one pack file per digest prefix (<code>packs/&lt;prefix&gt;.&lt;generation&gt;.pack</code>).
+ * Each record consists of
+ *
+ * <pre>
+ *     digest (20 bytes) | lastModified (long) | length (int) | content (length bytes)
+ * </pre>
+ *
+ * A delete appends a tombstone record (length -1). The index digest -> position is kept in memory and is rebuilt
+ * by scanning the pack files on startup. The space taken by deleted or overwritten records is reclaimed by
+ * {@link #compact(int)}, which rewrites the live records into the file of the next generation.
+ *
+ * Puts and removes only return once their record is durable. Records appended concurrently to the same pack are
+ * made durable by a shared fsync.
+ */
+class PackedBlobs {
+
+    private static final Logger LOGGER = Loggers.getLogger(PackedBlobs.class);
+
+    private static final String PACK_SUFFIX = ".pack";
+    private static final String COMPACTION_SUFFIX = ".compacting";
+    private static final int DIGEST_LENGTH = 20;
+    private static final int HEADER_LENGTH = DIGEST_LENGTH + Long.BYTES + Integer.BYTES;
+    private static final int TOMBSTONE = -1;
+
+    /**
+     * Pack files smaller than this are never compacted
+     */
+    static final long MIN_COMPACTION_SIZE = 1024 * 1024;
+
+    /**
+     * A pack is compacted once the garbage in it exceeds this ratio of the pack file size
+     */
+    static final double COMPACTION_GARBAGE_RATIO = 0.5;
+
+    private final Path directory;
+    private final Pack[] packs;
+
+    PackedBlobs(Path directory, String[] prefixes) {
+        this.directory = directory;
+        this.packs = new Pack[prefixes.length];
+        for (int i = 0; i < prefixes.length; i++) {
+            packs[i] = new Pack(directory, prefixes[i]);
+        }
+        if (Files.exists(directory)) {
+            for (Pack pack : packs) {
+                try {
+                    pack.load();
+                } catch (IOException e) {
+                    LOGGER.error("Could not load blob pack {}", pack.path);
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    private Pack pack(String digest) {
+        return packs[Integer.parseInt(digest.substring(0, 2), 16)];
+    }
+
+    boolean contains(String digest) {
+        return pack(digest).get(digest) != null;
+    }
+
+    /**
+     * @return the length of the blob or -1 if it isn't packed
+     */
+    long length(String digest) {
+        Entry entry = pack(digest).get(digest);
+        return entry == null ? -1 : entry.length;
+    }
+
+    /**
+     * Appends the content of {@code source} to the pack of the digest.
+     *
+     * @return false if the blob was already packed
+     */
+    boolean put(String digest, Path source, long lastModified) throws IOException {
+        Files.createDirectories(directory);
+        return pack(digest).put(digest, source, lastModified);
+    }
+
+    /**
+     * @return the length of the removed blob or -1 if it wasn't packed
+     */
+    long remove(String digest) throws IOException {
+        Entry entry = pack(digest).remove(digest);
+        return entry == null ? -1 : entry.length;
+    }
+
+    /**
+     * @return the region of the pack file containing the blob or null if the blob isn't packed
+     */
+    BlobRegion open(String digest) throws IOException {
+        return pack(digest).open(digest);
+    }
+
+    List<String> digests(int prefix) {
+        return packs[prefix].digests();
+    }
+
+    List<PackedBlob> blobs(int prefix) {
+        return packs[prefix].blobs();
+    }
+
+    long count() {
+        long count = 0;
+        for (Pack pack : packs) {
+            count += pack.count();
+        }
+        return count;
+    }
+
+    long size() {
+        long size = 0;
+        for (Pack pack : packs) {
+            size += pack.liveBytes();
+        }
+        return size;
+    }
+
+    boolean needsCompaction(int prefix) {
+        return packs[prefix].needsCompaction();
+    }
+
+    /**
+     * Rewrites the live records of the pack into the file of the next generation which is used from then on.
+     * Readers which opened a region before the compaction keep reading from the previous file.
+     */
+    void compact(int prefix) throws IOException {
+        packs[prefix].compact();
+    }
+
+    long fileSize(int prefix) {
+        return packs[prefix].fileLength();
+    }
+
+    static final class PackedBlob {
+
+        final String digest;
+        final long length;
+        final long lastModified;
+
+        private PackedBlob(String digest, long length, long lastModified) {
+            this.digest = digest;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class Entry {
+
+        private final long offset;
+        private final int length;
+        private final long lastModified;
+
+        private Entry(long offset, int length, long lastModified) {
+            this.offset = offset;
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final class Pack {
+
+        private final Path directory;
+        private final String prefix;
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        /**
+         * the pack file of the current generation; a compaction switches to the file of the next generation
+         */
+        private long generation = 0;
+        private Path path;
+
+        /**
+         * length of the valid records in the pack file; new records are appended here
+         */
+        private long length = 0;
+
+        /**
+         * bytes taken by tombstones and records of removed blobs
+         */
+        private long garbage = 0;
+
+        private boolean compacting = false;
+
+        /**
+         * Serializes the fsyncs of the pack file, so that a single fsync covers all records appended before it,
+         * see {@link #sync(Path, long, long)}.
+         */
+        private final Object syncLock = new Object();
+
+        /**
+         * generation and length of the pack file up to which the records are known to be durable, guarded by
+         * {@link #syncLock}
+         */
+        private long syncedGeneration = -1;
+        private long syncedLength = 0;
+
+        private Pack(Path directory, String prefix) {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.path = generationPath(generation);
+        }
+
+        private Path generationPath(long generation) {
+            return directory.resolve(prefix + '.' + generation + PACK_SUFFIX);
+        }
+
+        /**
+         * @return the generation of a pack file of this prefix or -1 if the file isn't a complete pack file
+         */
+        private long generation(Path file) {
+            String name = file.getFileName().toString();
+            if (name.endsWith(PACK_SUFFIX) == false) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(name.substring(prefix.length() + 1, name.length() - PACK_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        synchronized void load() throws IOException {
+            long latest = -1;
+            List<Path> stale = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + ".*")) {
+                for (Path file : files) {
+                    long fileGeneration = generation(file);
+                    if (fileGeneration > latest) {
+                        if (latest >= 0) {
+                            stale.add(generationPath(latest));
+                        }
+                        latest = fileGeneration;
+                    } else {
+                        // previous generations which couldn't be deleted and left-overs of interrupted compactions
+                        stale.add(file);
+                    }
+                }
+            }
+            for (Path file : stale) {
+                Files.deleteIfExists(file);
+            }
+            if (latest < 0) {
+                return;
+            }
+            generation = latest;
+            path = generationPath(latest);
+            long fileLength = Files.size(path);
+            byte[] digest = new byte[DIGEST_LENGTH];
+            long position = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                while (position + HEADER_LENGTH <= fileLength) {
+                    in.readFully(digest);
+                    long lastModified = in.readLong();
+                    int blobLength = in.readInt();
+                    long recordLength = HEADER_LENGTH + Math.max(blobLength, 0);
+                    if (blobLength < TOMBSTONE || position + recordLength > fileLength) {
+                        break;
+                    }
+                    String key = Hex.encodeHexString(digest);
+                    Entry previous;
+                    if (blobLength == TOMBSTONE) {
+                        previous = entries.remove(key);
+                        garbage += HEADER_LENGTH;
+                    } else {
+                        ByteStreams.skipFully(in, blobLength);
+                        previous = entries.put(key, new Entry(position + HEADER_LENGTH, blobLength, lastModified));
+                    }
+                    if (previous != null) {
+                        garbage += HEADER_LENGTH + previous.length;
+                    }
+                    position += recordLength;
+                }
+            }
+            length = position;
+            if (length < fileLength) {
+                // incomplete record left over from an interrupted write
+                LOGGER.warn("Truncating blob pack {} from {} to {} bytes", path, fileLength, length);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(length);
+                }
+            }
+        }
+
+        synchronized Entry get(String digest) {
+            return entries.get(digest);
+        }
+
+        boolean put(String digest, Path source, long lastModified) throws IOException {
+            Path file;
+            long fileGeneration;
+            long end;
+            synchronized (this) {
+                if (entries.containsKey(digest)) {
+                    return false;
+                }
+                long size = Files.size(source);
+                assert size <= Integer.MAX_VALUE : "packed blobs must be smaller than 2GB";
+                int blobLength = (int) size;
+                try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                     FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                    writeFully(out, header(digest, lastModified, blobLength), length);
+                    transferFully(in, 0, blobLength, out, length + HEADER_LENGTH);
+                }
+                entries.put(digest, new Entry(length + HEADER_LENGTH, blobLength, lastModified));
+                length += HEADER_LENGTH + blobLength;
+                file = path;
+                fileGeneration = generation;
+                end = length;
+            }
+            // the loose file is deleted once the blob is packed, so the record must be durable
+            sync(file, fileGeneration, end);
+            return true;
+        }
+
+        Entry remove(String digest) throws IOException {
+            Entry entry;
+            Path file;
+            long fileGeneration;
+            long end;
+            synchronized (this) {
+                entry = entries.get(digest);
+                if (entry == null) {
+                    return null;
+                }
+                try (FileChannel out = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    writeFully(out, header(digest, System.currentTimeMillis(), TOMBSTONE), length);
+                }
+                entries.remove(digest);
+                length += HEADER_LENGTH;
+                garbage += HEADER_LENGTH + HEADER_LENGTH + entry.length;
+                file = path;
+                fileGeneration = generation;
+                end = length;
+            }
+            sync(file, fileGeneration, end);
+            return entry;
+        }
+
+        /**
+         * Makes the records of the pack file up to {@code end} durable.
+         * <p>
+         * The fsync doesn't hold the lock of the pack, so other records can be appended meanwhile. Concurrent callers
+         * wait for the running fsync; if it covered their records as well, they return without another fsync.
+         */
+        private void sync(Path file, long fileGeneration, long end) throws IOException {
+            synchronized (syncLock) {
+                if (syncedGeneration == fileGeneration && syncedLength >= end) {
+                    return;
+                }
+                long syncLength;
+                synchronized (this) {
+                    if (generation != fileGeneration) {
+                        // compacted meanwhile; the file of the next generation was synced before it was used
+                        return;
+                    }
+                    syncLength = length;
+                }
+                try {
+                    IOUtils.fsync(file, false);
+                } catch (IOException e) {
+                    synchronized (this) {
+                        if (generation != fileGeneration) {
+                            // the file was replaced and deleted by a compaction while syncing it
+                            return;
+                        }
+                    }
+                    throw e;
+                }
+                syncedGeneration = fileGeneration;
+                syncedLength = syncLength;
+            }
+        }
+
+        synchronized BlobRegion open(String digest) throws IOException {
+            Entry entry = entries.get(digest);
+            if (entry == null) {
+                return null;
+            }
+            try {
+                return new BlobRegion(new RandomAccessFile(path.toFile(), "r"), entry.offset, entry.length);
+            } catch (FileNotFoundException e) {
+                return null;
+            }
+        }
+
+        synchronized List<String> digests() {
+            return new ArrayList<>(entries.keySet());
+        }
+
+        synchronized List<PackedBlob> blobs() {
+            List<PackedBlob> blobs = new ArrayList<>(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                blobs.add(new PackedBlob(e.getKey(), e.getValue().length, e.getValue().lastModified));
+            }
+            return blobs;
+        }
+
+        synchronized long count() {
+            return entries.size();
+        }
+
+        synchronized long liveBytes() {
+            long bytes = 0;
+            for (Entry entry : entries.values()) {
+                bytes += entry.length;
+            }
+            return bytes;
+        }
+
+        synchronized long fileLength() {
+            return length;
+        }
+
+        synchronized boolean needsCompaction() {
+            return length >= MIN_COMPACTION_SIZE && garbage >= length * COMPACTION_GARBAGE_RATIO;
+        }
+
+        /**
+         * Copies the live records into the file of the next generation. The bulk of the records is copied without
+         * holding the lock so that reads and writes of the pack aren't blocked. Only the records written while
+         * copying are applied to the new file while holding the lock, before switching to it.
+         *
+         * The file of the previous generation isn't replaced but deleted, which may fail while readers still have it
+         * open (e.g. on Windows); such files are removed on the next {@link #load()}.
+         */
+        void compact() throws IOException {
+            List<Map.Entry<String, Entry>> live;
+            Path source;
+            long sourceLength;
+            long nextGeneration;
+            synchronized (this) {
+                if (garbage == 0 || compacting) {
+                    return;
+                }
+                if (entries.isEmpty()) {
+                    Path previous = path;
+                    generation++;
+                    path = generationPath(generation);
+                    length = 0;
+                    garbage = 0;
+                    deleteQuietly(previous);
+                    return;
+                }
+                live = new ArrayList<>(entries.entrySet());
+                source = path;
+                sourceLength = length;
+                nextGeneration = generation + 1;
+                compacting = true;
+            }
+            live.sort((e1, e2) -> Long.compare(e1.getValue().offset, e2.getValue().offset));
+
+            Path target = generationPath(nextGeneration);
+            Path compacted = target.resolveSibling(target.getFileName() + COMPACTION_SUFFIX);
+            boolean switched = false;
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(compacted,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                Map<String, Entry> newEntries = new HashMap<>(live.size());
+                long position = 0;
+                for (Map.Entry<String, Entry> e : live) {
+                    position = copyRecord(in, e.getKey(), e.getValue(), out, position, newEntries);
+                }
+                synchronized (this) {
+                    assert path.equals(source) : "pack file must not change while compacting";
+                    long newGarbage = 0;
+                    for (Map.Entry<String, Entry> e : live) {
+                        Entry copied = e.getValue();
+                        if (entries.get(e.getKey()) != copied) {
+                            // removed while copying
+                            writeFully(out, header(e.getKey(), System.currentTimeMillis(), TOMBSTONE), position);
+                            position += HEADER_LENGTH;
+                            newEntries.remove(e.getKey());
+                            newGarbage += HEADER_LENGTH + HEADER_LENGTH + copied.length;
+                        }
+                    }
+                    for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                        if (e.getValue().offset > sourceLength) {
+                            // added while copying
+                            position = copyRecord(in, e.getKey(), e.getValue(), out, position, newEntries);
+                        }
+                    }
+                    out.force(false);
+                    out.close();
+                    in.close();
+                    Files.move(compacted, target, StandardCopyOption.ATOMIC_MOVE);
+                    switched = true;
+
+                    entries.clear();
+                    entries.putAll(newEntries);
+                    generation = nextGeneration;
+                    path = target;
+                    length = position;
+                    garbage = newGarbage;
+                    deleteQuietly(source);
+                }
+            } finally {
+                synchronized (this) {
+                    compacting = false;
+                }
+                if (switched == false) {
+                    Files.deleteIfExists(compacted);
+                }
+            }
+        }
+
+        private static long copyRecord(FileChannel in, String digest, Entry entry,
+                                       FileChannel out, long position, Map<String, Entry> copied) throws IOException {
+            writeFully(out, header(digest, entry.lastModified, entry.length), position);
+            transferFully(in, entry.offset, entry.length, out, position + HEADER_LENGTH);
+            copied.put(digest, new Entry(position + HEADER_LENGTH, entry.length, entry.lastModified));
+            return position + HEADER_LENGTH + entry.length;
+        }
+
+        private static void deleteQuietly(Path file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.debug("Could not delete previous blob pack {}, it is removed on the next start", file);
+            }
+        }
+
+        private static ByteBuffer header(String digest, long lastModified, int blobLength) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+            header.put(Hex.decodeHex(digest));
+            header.putLong(lastModified);
+            header.putInt(blobLength);
+            header.flip();
+            return header;
+        }
+
+        private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += out.write(buffer, position);
+            }
+        }
+
+        private static void transferFully(FileChannel in, long inPosition, long count,
+                                          FileChannel out, long outPosition) throws IOException {
+            long transferred = 0;
+            while (transferred < count) {
+                long n = in.transferTo(inPosition + transferred, count - transferred, out.position(outPosition + transferred));
+                if (n <= 0) {
+                    throw new IOException("Unexpected end of file while copying blob content into " + out);
+                }
+                transferred += n;
+            }
+        }
+    }
+}
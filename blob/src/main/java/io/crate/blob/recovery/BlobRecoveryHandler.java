@@ -22,19 +22,23 @@
 package io.crate.blob.recovery;
 
 import io.crate.blob.BlobContainer;
+import io.crate.blob.BlobRegion;
 import io.crate.blob.BlobTransferTarget;
 import io.crate.blob.v2.BlobIndex;
 import io.crate.blob.v2.BlobIndicesService;
 import io.crate.blob.v2.BlobShard;
 import io.crate.common.Hex;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.store.RateLimiter;
 import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ExceptionsHelper;
 import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.common.bytes.BytesReference;
 import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
-import org.elasticsearch.common.util.CancellableThreads;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.IndexShardClosedException;
 import org.elasticsearch.index.shard.IndexShardState;
@@ -46,32 +50,56 @@ import org.elasticsearch.indices.recovery.BlobRecoveryTarget;
 import org.elasticsearch.indices.recovery.BlobStartPrefixResponse;
 import org.elasticsearch.indices.recovery.BlobStartPrefixSyncRequest;
 import org.elasticsearch.indices.recovery.BlobStartRecoveryRequest;
+import org.elasticsearch.indices.recovery.RecoverySettings;
 import org.elasticsearch.indices.recovery.RecoverySourceHandler;
 import org.elasticsearch.indices.recovery.RecoveryTargetHandler;
 import org.elasticsearch.indices.recovery.StartRecoveryRequest;
+import org.elasticsearch.transport.ConnectTransportException;
 import org.elasticsearch.transport.EmptyTransportResponseHandler;
 import org.elasticsearch.transport.FutureTransportResponseHandler;
+import org.elasticsearch.transport.ReceiveTimeoutTransportException;
 import org.elasticsearch.transport.TransportRequestOptions;
 import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public class BlobRecoveryHandler extends RecoverySourceHandler {
 
+    /**
+     * Number of digest prefixes which are synced in parallel while recovering a blob shard
+     */
+    public static final Setting<Integer> SETTING_CONCURRENT_STREAMS = Setting.intSetting(
+        "indices.recovery.blobs.concurrent_streams", 2, 1, Setting.Property.NodeScope);
+
+    /**
+     * How often a prefix is retried after a network failure before the recovery fails
+     */
+    public static final Setting<Integer> SETTING_MAX_RETRIES = Setting.intSetting(
+        "indices.recovery.blobs.max_retries", 3, 0, Setting.Property.NodeScope);
+
     private static final Logger logger = Loggers.getLogger(BlobRecoveryHandler.class);
     private final StartRecoveryRequest request;
     private final TransportService transportService;
     private final BlobShard blobShard;
     private final IndexShard shard;
     private final BlobTransferTarget blobTransferTarget;
+    private final Supplier<RateLimiter> rateLimiterSupplier;
+    private final AtomicLong bytesSinceLastPause = new AtomicLong();
+    private final int concurrentStreams;
+    private final int maxRetries;
+    private final TimeValue retryDelay;
     private final int GET_HEAD_TIMEOUT;
 
 
@@ -82,7 +110,8 @@ public class BlobRecoveryHandler extends RecoverySourceHandler {
                                Settings nodeSettings,
                                final TransportService transportService,
                                BlobTransferTarget blobTransferTarget,
-                               BlobIndicesService blobIndicesService) {
+                               BlobIndicesService blobIndicesService,
+                               Supplier<RateLimiter> rateLimiterSupplier) {
         super(shard, recoveryTarget, request, fileChunkSizeInBytes, nodeSettings);
         assert BlobIndex.isBlobIndex(shard.shardId().getIndexName()) : "Shard must belong to a blob index";
         this.blobShard = blobIndicesService.blobShardSafe(request.shardId());
@@ -90,6 +119,10 @@ public class BlobRecoveryHandler extends RecoverySourceHandler {
         this.transportService = transportService;
         this.blobTransferTarget = blobTransferTarget;
         this.shard = shard;
+        this.rateLimiterSupplier = rateLimiterSupplier;
+        this.concurrentStreams = SETTING_CONCURRENT_STREAMS.get(nodeSettings);
+        this.maxRetries = SETTING_MAX_RETRIES.get(nodeSettings);
+        this.retryDelay = RecoverySettings.INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING.get(nodeSettings);
         String property = System.getProperty("tests.short_timeouts");
         if (property == null) {
             GET_HEAD_TIMEOUT = 30;
@@ -171,39 +204,88 @@ public class BlobRecoveryHandler extends RecoverySourceHandler {
             stopWatch.totalTime());
     }
 
+    /**
+     * Syncs the var files of all 256 digest prefixes using up to {@code concurrentStreams} workers.
+     * Each worker claims whole prefixes, so a failed prefix can be retried without touching the others.
+     */
     private void syncVarFiles(AtomicReference<Exception> lastException) throws InterruptedException, IOException {
-        for (byte prefix : BlobContainer.PREFIXES) {
-            // byte[1] and byte[1] have different hashCodes
-            // so setA.removeAll(setB) wouldn't work with byte[], that's why BytesArray is used here
-            Set<BytesArray> remoteDigests = getExistingDigestsFromTarget(prefix);
-            Set<BytesArray> localDigests = new HashSet<>();
-            for (byte[] digest : blobShard.currentDigests(prefix)) {
-                localDigests.add(new BytesArray(digest));
-            }
+        final AtomicInteger nextPrefix = new AtomicInteger(0);
+        final int numStreams = Math.min(concurrentStreams, BlobContainer.PREFIXES.length);
+        final CountDownLatch streamsDone = new CountDownLatch(numStreams);
+        Executor executor = transportService.getThreadPool().generic();
+        for (int i = 0; i < numStreams; i++) {
+            executor.execute(() -> {
+                try {
+                    int idx;
+                    while (lastException.get() == null &&
+                           (idx = nextPrefix.getAndIncrement()) < BlobContainer.PREFIXES.length) {
+                        syncPrefixWithRetry(BlobContainer.PREFIXES[idx]);
+                    }
+                } catch (Exception e) {
+                    logger.error("exception while syncing blob files", e);
+                    lastException.compareAndSet(null, e);
+                } finally {
+                    streamsDone.countDown();
+                }
+            });
+        }
+        cancellableThreads.execute(streamsDone::await);
+    }
 
-            Set<BytesArray> localButNotRemoteDigests = new HashSet<>(localDigests);
-            localButNotRemoteDigests.removeAll(remoteDigests);
-
-            final CountDownLatch latch = new CountDownLatch(localButNotRemoteDigests.size());
-            for (BytesArray digestBytes : localButNotRemoteDigests) {
-                final String digest = Hex.encodeHexString(BytesReference.toBytes(digestBytes));
-                logger.trace("[{}][{}] start to transfer file var/{} to {}",
-                    request.shardId().getIndexName(), request.shardId().id(), digest,
-                    request.targetNode().getName());
-                cancellableThreads.executeIO(
-                    new TransferFileRunnable(blobShard.blobContainer().getFile(digest),
-                        lastException, latch)
-                );
+    private void syncPrefixWithRetry(byte prefix) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            cancellableThreads.checkForCancel();
+            try {
+                cancellableThreads.executeIO(() -> syncPrefix(prefix));
+                return;
+            } catch (Exception e) {
+                if (attempt > maxRetries || !isNetworkFailure(e)) {
+                    throw e;
+                }
+                logger.info("[{}][{}] syncing blob prefix {} to {} failed, retrying ({}/{}) in [{}]",
+                    request.shardId().getIndexName(), request.shardId().id(), Hex.encodeHexString(new byte[]{prefix}),
+                    request.targetNode().getName(), attempt, maxRetries, retryDelay);
+                cancellableThreads.execute(() -> Thread.sleep(retryDelay.millis()));
             }
-            latch.await();
+        }
+    }
 
-            remoteDigests.removeAll(localDigests);
-            if (!remoteDigests.isEmpty()) {
-                deleteFilesRequest(remoteDigests.toArray(new BytesArray[remoteDigests.size()]));
-            }
+    private static boolean isNetworkFailure(Exception e) {
+        Throwable cause = ExceptionsHelper.unwrapCause(e);
+        return cause instanceof ConnectTransportException || cause instanceof ReceiveTimeoutTransportException;
+    }
+
+    /**
+     * Transfers all files of the prefix which the target doesn't have yet and removes the ones it shouldn't have.
+     * This is idempotent: after a retry only the files which didn't make it the first time are sent again.
+     */
+    private void syncPrefix(byte prefix) throws IOException {
+        // byte[1] and byte[1] have different hashCodes
+        // so setA.removeAll(setB) wouldn't work with byte[], that's why BytesArray is used here
+        Set<BytesArray> remoteDigests = getExistingDigestsFromTarget(prefix);
+        Set<BytesArray> localDigests = new HashSet<>();
+        for (byte[] digest : blobShard.currentDigests(prefix)) {
+            localDigests.add(new BytesArray(digest));
+        }
+
+        Set<BytesArray> localButNotRemoteDigests = new HashSet<>(localDigests);
+        localButNotRemoteDigests.removeAll(remoteDigests);
+
+        for (BytesArray digestBytes : localButNotRemoteDigests) {
+            final String digest = Hex.encodeHexString(BytesReference.toBytes(digestBytes));
+            logger.trace("[{}][{}] start to transfer file var/{} to {}",
+                request.shardId().getIndexName(), request.shardId().id(), digest,
+                request.targetNode().getName());
+            transferFile(digest);
+        }
+
+        remoteDigests.removeAll(localDigests);
+        if (!remoteDigests.isEmpty()) {
+            deleteFilesRequest(remoteDigests.toArray(new BytesArray[remoteDigests.size()]));
         }
     }
 
+
     private void deleteFilesRequest(BytesArray[] digests) {
         transportService.submitRequest(
             request.targetNode(),
@@ -232,108 +314,103 @@ public class BlobRecoveryHandler extends RecoverySourceHandler {
         ).txGet();
     }
 
-    private class TransferFileRunnable implements CancellableThreads.Interruptable {
-        private final AtomicReference<Exception> lastException;
-        private final String baseDir;
-        private final File file;
-        private final CountDownLatch latch;
-
-        TransferFileRunnable(File filePath, AtomicReference<Exception> lastException, CountDownLatch latch) {
-            this.file = filePath;
-            this.lastException = lastException;
-            this.latch = latch;
-            this.baseDir = blobShard.blobContainer().getBaseDirectory().toAbsolutePath().toString();
+
+    private void throttle(int bytes) throws IOException {
+        RateLimiter rateLimiter = rateLimiterSupplier.get();
+        if (rateLimiter != null) {
+            long bytesToPause = bytesSinceLastPause.addAndGet(bytes);
+            if (bytesToPause > rateLimiter.getMinPauseCheckBytes()) {
+                bytesSinceLastPause.addAndGet(-bytesToPause);
+                rateLimiter.pause(bytesToPause);
+            }
         }
+    }
 
-        @Override
-        public void run() {
+    private void transferFile(String digest) throws IOException {
+        final int BUFFER_SIZE = 4 * 4096;
 
-            try {
-                final int BUFFER_SIZE = 4 * 4096;
+        // packed blobs are transferred as regular files to this location, the target packs them again
+        File file = blobShard.blobContainer().getFile(digest);
+        String baseDir = blobShard.blobContainer().getBaseDirectory().toAbsolutePath().toString();
+        BlobRegion blob = blobShard.blobContainer().openBlob(digest);
+        long fileSize = blob.length();
 
-                long fileSize = file.length();
+        if (fileSize == 0) {
+            logger.warn("[{}][{}] empty file: {}",
+                request.shardId().getIndexName(), request.shardId().id(), file.getName());
+        }
 
-                if (fileSize == 0) {
-                    logger.warn("[{}][{}] empty file: {}",
-                        request.shardId().getIndexName(), request.shardId().id(), file.getName());
-                }
+        try (InputStream fileStream = blob.newInputStream(0L)) {
+            String filePath = file.getAbsolutePath();
+            String relPath = filePath.substring(baseDir.length() + 1, filePath.length());
+            assert !relPath.startsWith("/") : "relPath must not start with a /";
+            byte[] buf = new byte[BUFFER_SIZE];
+            int bytesRead = fileStream.read(buf, 0, BUFFER_SIZE);
+            long bytesReadTotal = 0;
+            BytesArray content = new BytesArray(buf, 0, bytesRead);
+            BlobRecoveryStartTransferRequest startTransferRequest =
+                new BlobRecoveryStartTransferRequest(request.recoveryId(), relPath, content,
+                    fileSize
+                );
+
+            if (bytesRead > 0) {
+                bytesReadTotal += bytesRead;
+                throttle(bytesRead);
 
-                try (FileInputStream fileStream = new FileInputStream(file)) {
-                    String filePath = file.getAbsolutePath();
-                    String relPath = filePath.substring(baseDir.length() + 1, filePath.length());
-                    assert !relPath.startsWith("/") : "relPath must not start with a /";
-                    byte[] buf = new byte[BUFFER_SIZE];
-                    int bytesRead = fileStream.read(buf, 0, BUFFER_SIZE);
-                    long bytesReadTotal = 0;
-                    BytesArray content = new BytesArray(buf, 0, bytesRead);
-                    BlobRecoveryStartTransferRequest startTransferRequest =
-                        new BlobRecoveryStartTransferRequest(request.recoveryId(), relPath, content,
-                            fileSize
-                        );
-
-                    if (bytesRead > 0) {
-                        bytesReadTotal += bytesRead;
-
-                        logger.trace("[{}][{}] send BlobRecoveryStartTransferRequest to {} for file {} with size {}",
-                            request.shardId().getIndexName(), request.shardId().id(),
-                            request.targetNode().getName(),
-                            relPath,
-                            fileSize
-                        );
-                        transportService.submitRequest(
-                            request.targetNode(),
-                            BlobRecoveryTarget.Actions.START_TRANSFER,
-                            startTransferRequest,
-                            TransportRequestOptions.EMPTY,
-                            EmptyTransportResponseHandler.INSTANCE_SAME
-                        ).txGet();
-
-                        boolean isLast = false;
-                        boolean sentChunks = false;
-                        while ((bytesRead = fileStream.read(buf, 0, BUFFER_SIZE)) > 0) {
-
-                            sentChunks = true;
-                            bytesReadTotal += bytesRead;
-
-                            if (shard.state() == IndexShardState.CLOSED) { // check if the shard got closed on us
-                                throw new IndexShardClosedException(shard.shardId());
-                            }
-                            if (bytesReadTotal == fileSize) {
-                                isLast = true;
-                            }
-                            content = new BytesArray(buf, 0, bytesRead);
-
-                            transportService.submitRequest(request.targetNode(),
-                                BlobRecoveryTarget.Actions.TRANSFER_CHUNK,
-                                new BlobRecoveryChunkRequest(request.recoveryId(),
-                                    startTransferRequest.transferId(), content, isLast),
-                                TransportRequestOptions.EMPTY,
-                                EmptyTransportResponseHandler.INSTANCE_SAME
-                            ).txGet();
-                        }
-
-                        if (!isLast && sentChunks) {
-                            logger.error("Sending isLast because it wasn't sent before for {}", relPath);
-                            transportService.submitRequest(request.targetNode(),
-                                BlobRecoveryTarget.Actions.TRANSFER_CHUNK,
-                                new BlobRecoveryChunkRequest(request.recoveryId(),
-                                    startTransferRequest.transferId(), BytesArray.EMPTY, true),
-                                TransportRequestOptions.EMPTY,
-                                EmptyTransportResponseHandler.INSTANCE_SAME
-                            ).txGet();
-                        }
+                logger.trace("[{}][{}] send BlobRecoveryStartTransferRequest to {} for file {} with size {}",
+                    request.shardId().getIndexName(), request.shardId().id(),
+                    request.targetNode().getName(),
+                    relPath,
+                    fileSize
+                );
+                transportService.submitRequest(
+                    request.targetNode(),
+                    BlobRecoveryTarget.Actions.START_TRANSFER,
+                    startTransferRequest,
+                    TransportRequestOptions.EMPTY,
+                    EmptyTransportResponseHandler.INSTANCE_SAME
+                ).txGet();
+
+                boolean isLast = false;
+                boolean sentChunks = false;
+                while ((bytesRead = fileStream.read(buf, 0, BUFFER_SIZE)) > 0) {
+
+                    sentChunks = true;
+                    bytesReadTotal += bytesRead;
+
+                    if (shard.state() == IndexShardState.CLOSED) { // check if the shard got closed on us
+                        throw new IndexShardClosedException(shard.shardId());
+                    }
+                    if (bytesReadTotal == fileSize) {
+                        isLast = true;
                     }
+                    content = new BytesArray(buf, 0, bytesRead);
+                    throttle(bytesRead);
+
+                    transportService.submitRequest(request.targetNode(),
+                        BlobRecoveryTarget.Actions.TRANSFER_CHUNK,
+                        new BlobRecoveryChunkRequest(request.recoveryId(),
+                            startTransferRequest.transferId(), content, isLast),
+                        TransportRequestOptions.EMPTY,
+                        EmptyTransportResponseHandler.INSTANCE_SAME
+                    ).txGet();
+                }
 
-                    logger.trace("[{}][{}] completed to transfer file {} to {}",
-                        request.shardId().getIndexName(), request.shardId().id(), file.getName(),
-                        request.targetNode().getName());
+                if (!isLast && sentChunks) {
+                    logger.error("Sending isLast because it wasn't sent before for {}", relPath);
+                    transportService.submitRequest(request.targetNode(),
+                        BlobRecoveryTarget.Actions.TRANSFER_CHUNK,
+                        new BlobRecoveryChunkRequest(request.recoveryId(),
+                            startTransferRequest.transferId(), BytesArray.EMPTY, true),
+                        TransportRequestOptions.EMPTY,
+                        EmptyTransportResponseHandler.INSTANCE_SAME
+                    ).txGet();
                 }
-            } catch (IOException ex) {
-                logger.error("exception while file transfer", ex);
-                lastException.set(ex);
-            } finally {
-                latch.countDown();
             }
+
+            logger.trace("[{}][{}] completed to transfer file {} to {}",
+                request.shardId().getIndexName(), request.shardId().id(), file.getName(),
+                request.targetNode().getName());
         }
     }
 }
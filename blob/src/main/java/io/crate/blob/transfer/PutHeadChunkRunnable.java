@@ -35,6 +35,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Path;
@@ -71,7 +72,7 @@ public class PutHeadChunkRunnable implements Runnable {
 
     @Override
     public void run() {
-        FileInputStream fileInputStream = null;
+        InputStream fileInputStream = null;
         try {
             int bufSize = 4096;
             int bytesRead;
@@ -86,12 +87,15 @@ public class PutHeadChunkRunnable implements Runnable {
                 pendingFile = digestBlob.file();
                 if (pendingFile == null) {
                     pendingFile = digestBlob.getContainerFile();
+                    fileInputStream = digestBlob.openContainerBlob().newInputStream(0L);
+                } else {
+                    fileInputStream = new FileInputStream(pendingFile);
                 }
-                fileInputStream = new FileInputStream(pendingFile);
             } catch (FileNotFoundException e) {
                 // this happens if the file has already been moved from tmpDirectory to containerDirectory
+                // or has been appended to a pack file
                 pendingFile = digestBlob.getContainerFile();
-                fileInputStream = new FileInputStream(pendingFile);
+                fileInputStream = digestBlob.openContainerBlob().newInputStream(0L);
             }
 
             while (remainingBytes > 0) {
@@ -22,6 +22,7 @@
 package io.crate.blob.v2;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.crate.blob.BlobCache;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.IOUtils;
 import org.elasticsearch.common.Nullable;
@@ -72,14 +73,16 @@ public class BlobIndex {
     private final Map<Integer, BlobShard> shards = new ConcurrentHashMap<>();
     private final Path globalBlobPath;
     private final Logger logger;
+    private final BlobCache blobCache;
 
-    BlobIndex(Logger logger, @Nullable Path globalBlobPath) {
+    BlobIndex(Logger logger, @Nullable Path globalBlobPath, BlobCache blobCache) {
         this.globalBlobPath = globalBlobPath;
         this.logger = logger;
+        this.blobCache = blobCache;
     }
 
     void createShard(IndexShard indexShard) {
-        shards.put(indexShard.shardId().id(), new BlobShard(indexShard, globalBlobPath));
+        shards.put(indexShard.shardId().id(), new BlobShard(indexShard, globalBlobPath, blobCache));
     }
 
     void initializeShard(IndexShard indexShard) {
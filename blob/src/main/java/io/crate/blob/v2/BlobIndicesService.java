@@ -22,6 +22,7 @@
 package io.crate.blob.v2;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.crate.blob.BlobCache;
 import io.crate.plugin.IndexEventListenerProxy;
 import org.elasticsearch.cluster.routing.ShardIterator;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -33,6 +34,7 @@ import org.elasticsearch.common.io.PathUtils;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsException;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.index.Index;
 import org.elasticsearch.index.IndexService;
 import org.elasticsearch.index.IndexSettings;
@@ -61,10 +63,14 @@ public class BlobIndicesService extends AbstractComponent implements IndexEventL
         "index.blobs.enabled", false, Setting.Property.IndexScope);
     public static final Setting<String> SETTING_INDEX_BLOBS_PATH = Setting.simpleString(
         "index.blobs.path", Setting.Property.IndexScope);
+    public static final Setting<ByteSizeValue> SETTING_INDEX_BLOBS_PACK_THRESHOLD = Setting.byteSizeSetting(
+        "index.blobs.pack_threshold", new ByteSizeValue(0), new ByteSizeValue(0), new ByteSizeValue(Integer.MAX_VALUE),
+        Setting.Property.IndexScope);
     public static final Setting<String> SETTING_BLOBS_PATH = Setting.simpleString(
         "blobs.path", Setting.Property.NodeScope);
 
     private final ClusterService clusterService;
+    private final BlobCache blobCache;
 
     @VisibleForTesting
     final Map<String, BlobIndex> indices = new ConcurrentHashMap<>();
@@ -73,9 +79,13 @@ public class BlobIndicesService extends AbstractComponent implements IndexEventL
     private final Path globalBlobPath;
 
     @Inject
-    public BlobIndicesService(Settings settings, ClusterService clusterService, IndexEventListenerProxy indexEventListenerProxy) {
+    public BlobIndicesService(Settings settings,
+                              ClusterService clusterService,
+                              IndexEventListenerProxy indexEventListenerProxy,
+                              BlobCache blobCache) {
         super(settings);
         this.clusterService = clusterService;
+        this.blobCache = blobCache;
         globalBlobPath = getGlobalBlobPath(settings);
         indexEventListenerProxy.addFirst(this);
     }
@@ -96,7 +106,7 @@ public class BlobIndicesService extends AbstractComponent implements IndexEventL
     public void afterIndexCreated(IndexService indexService) {
         String indexName = indexService.index().getName();
         if (isBlobIndex(indexName)) {
-            BlobIndex oldBlobIndex = indices.put(indexName, new BlobIndex(logger, globalBlobPath));
+            BlobIndex oldBlobIndex = indices.put(indexName, new BlobIndex(logger, globalBlobPath, blobCache));
             assert oldBlobIndex == null : "There must not be an index present if a new index is created";
         }
     }
@@ -109,6 +119,7 @@ public class BlobIndicesService extends AbstractComponent implements IndexEventL
         if (isBlobIndex(indexName)) {
             BlobIndex blobIndex = indices.remove(indexName);
             assert blobIndex != null : "BlobIndex not found on afterIndexDeleted";
+            blobCache.invalidateIndex(indexName);
         }
     }
 
@@ -21,6 +21,7 @@
 
 package io.crate.blob.v2;
 
+import io.crate.blob.BlobCache;
 import io.crate.blob.BlobContainer;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.IOUtils;
@@ -35,7 +36,6 @@ import org.elasticsearch.index.shard.ShardPath;
 
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
@@ -48,16 +48,20 @@ public class BlobShard {
     private final IndexShard indexShard;
     private final Logger logger;
     private final Path blobDir;
+    private final BlobCache blobCache;
 
     private long totalSize = 0;
     private long blobsCount = 0;
 
-    public BlobShard(IndexShard indexShard, @Nullable Path globalBlobPath) {
+    public BlobShard(IndexShard indexShard, @Nullable Path globalBlobPath, BlobCache blobCache) {
         this.indexShard = indexShard;
+        this.blobCache = blobCache;
         logger = Loggers.getLogger(BlobShard.class, indexShard.indexSettings().getSettings(), indexShard.shardId());
         blobDir = resolveBlobDir(indexShard.indexSettings(), indexShard.shardPath(), globalBlobPath);
         logger.info("creating BlobContainer at {}", blobDir);
-        this.blobContainer = new BlobContainer(blobDir);
+        long packThreshold = BlobIndicesService.SETTING_INDEX_BLOBS_PACK_THRESHOLD.get(
+            indexShard.indexSettings().getSettings()).getBytes();
+        this.blobContainer = new BlobContainer(blobDir, packThreshold);
     }
 
     void initialize() {
@@ -75,6 +79,8 @@ public class BlobShard {
             logger.error("Unable to compute initial blob shard size and count", e);
             throw new RuntimeException(e);
         }
+        blobsCount += blobContainer.packedBlobsCount();
+        totalSize += blobContainer.packedBlobsSize();
     }
 
     Path getBlobDir() {
@@ -91,16 +97,22 @@ public class BlobShard {
 
     public boolean delete(String digest) {
         try {
-            Path blobPath = blobContainer.getFile(digest).toPath();
-            long blobSize = 0;
-            if (Files.exists(blobPath)) {
-                blobSize = Files.size(blobPath);
+            long blobSize = blobContainer.delete(digest);
+            if (blobSize < 0) {
+                return false;
             }
-            boolean deleted = Files.deleteIfExists(blobPath);
-            if (deleted) {
-                decrementStats(blobSize);
+            blobCache.invalidate(indexShard.shardId().getIndexName(), digest);
+            decrementStats(blobSize);
+            if (blobContainer.claimPackCompaction(digest)) {
+                indexShard.getThreadPool().generic().execute(() -> {
+                    try {
+                        blobContainer.compactPack(digest);
+                    } catch (IOException e) {
+                        logger.warn("Unable to compact blob pack of digest " + digest, e);
+                    }
+                });
             }
-            return deleted;
+            return true;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
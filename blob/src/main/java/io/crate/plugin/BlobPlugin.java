@@ -22,6 +22,7 @@
 package io.crate.plugin;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.blob.BlobCache;
 import io.crate.blob.BlobModule;
 import io.crate.blob.BlobService;
 import io.crate.blob.DeleteBlobAction;
@@ -30,6 +31,7 @@ import io.crate.blob.StartBlobAction;
 import io.crate.blob.TransportDeleteBlobAction;
 import io.crate.blob.TransportPutChunkAction;
 import io.crate.blob.TransportStartBlobAction;
+import io.crate.blob.recovery.BlobRecoveryHandler;
 import io.crate.blob.v2.BlobIndicesModule;
 import io.crate.blob.v2.BlobIndicesService;
 import org.elasticsearch.action.ActionRequest;
@@ -79,8 +81,13 @@ public class BlobPlugin extends Plugin implements ActionPlugin {
     public List<Setting<?>> getSettings() {
         return Arrays.asList(
             BlobIndicesService.SETTING_BLOBS_PATH,
+            BlobCache.SETTING_CACHE_SIZE,
+            BlobCache.SETTING_CACHE_MAX_BLOB_SIZE,
+            BlobRecoveryHandler.SETTING_CONCURRENT_STREAMS,
+            BlobRecoveryHandler.SETTING_MAX_RETRIES,
             BlobIndicesService.SETTING_INDEX_BLOBS_ENABLED,
-            BlobIndicesService.SETTING_INDEX_BLOBS_PATH
+            BlobIndicesService.SETTING_INDEX_BLOBS_PATH,
+            BlobIndicesService.SETTING_INDEX_BLOBS_PACK_THRESHOLD
         );
     }
 
@@ -21,6 +21,8 @@
 
 package io.crate.protocols.http;
 
+import io.crate.blob.BlobCache;
+import io.crate.blob.BlobRegion;
 import io.crate.blob.BlobService;
 import io.crate.blob.RemoteDigestBlob;
 import io.crate.blob.exceptions.DigestMismatchException;
@@ -43,6 +45,7 @@ import io.netty.channel.FileRegion;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
 import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
 import io.netty.handler.codec.http.HttpChunkedInput;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpHeaderNames;
@@ -61,6 +64,7 @@ import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
 import org.elasticsearch.index.IndexNotFoundException;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.channels.ClosedChannelException;
@@ -90,6 +94,7 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
     private final Matcher blobsMatcher = BLOBS_PATTERN.matcher("");
     private final BlobService blobService;
     private final BlobIndicesService blobIndicesService;
+    private final BlobCache blobCache;
     private String activeScheme;
     private boolean sslEnabled;
     private HttpRequest currentMessage;
@@ -99,10 +104,11 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
     private String index;
     private String digest;
 
-    public HttpBlobHandler(BlobService blobService, BlobIndicesService blobIndicesService) {
+    public HttpBlobHandler(BlobService blobService, BlobIndicesService blobIndicesService, BlobCache blobCache) {
         super(false);
         this.blobService = blobService;
         this.blobIndicesService = blobIndicesService;
+        this.blobCache = blobCache;
         this.activeScheme = SCHEME_HTTP;
         this.sslEnabled = false;
     }
@@ -292,7 +298,7 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
         // should be a redirect upfront if data is not local
 
         BlobShard blobShard = localBlobShard(index, digest);
-        long length = blobShard.blobContainer().getFile(digest).length();
+        long length = blobShard.blobContainer().blobLength(digest);
         if (length < 1) {
             simpleResponse(HttpResponseStatus.NOT_FOUND);
             return;
@@ -327,46 +333,46 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
         }
         BlobShard blobShard = localBlobShard(index, digest);
 
-        final RandomAccessFile raf = blobShard.blobContainer().getRandomAccessFile(digest);
+        final BlobContent blob = openBlob(blobShard, index, digest);
         long start;
         long end;
         try {
             try {
                 start = Long.parseLong(matcher.group(1));
-                if (start > raf.length()) {
+                if (start > blob.length()) {
                     LOGGER.warn("416 Requested Range not satisfiable");
                     simpleResponse(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
-                    raf.close();
+                    blob.close();
                     return;
                 }
-                end = raf.length() - 1;
+                end = blob.length() - 1;
                 if (!matcher.group(2).equals("")) {
                     end = Long.parseLong(matcher.group(2));
                 }
             } catch (NumberFormatException ex) {
                 LOGGER.error("Couldn't parse Range Header", ex);
                 start = 0;
-                end = raf.length();
+                end = blob.length() - 1;
             }
 
             DefaultHttpResponse response = new DefaultHttpResponse(HTTP_1_1, PARTIAL_CONTENT);
             maybeSetConnectionCloseHeader(response);
             HttpUtil.setContentLength(response, end - start + 1);
-            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + raf.length());
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + blob.length());
             setDefaultGetHeaders(response);
 
             ctx.channel().write(response);
-            ChannelFuture writeFuture = transferFile(digest, raf, start, end - start + 1);
+            ChannelFuture writeFuture = transferFile(digest, blob, start, end - start + 1);
             if (!HttpUtil.isKeepAlive(request)) {
                 writeFuture.addListener(ChannelFutureListener.CLOSE);
             }
         } catch (Throwable t) {
             /*
-             * Make sure RandomAccessFile is closed when exception is raised.
+             * Make sure the BlobContent is released when exception is raised.
              * In case of success, the ChannelFutureListener in "transferFile" will take care
              * that the resources are released.
              */
-            raf.close();
+            blob.close();
             throw t;
         }
     }
@@ -374,43 +380,78 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
     private void fullContentResponse(HttpRequest request, String index, final String digest) throws IOException {
         BlobShard blobShard = localBlobShard(index, digest);
         HttpResponse response = new DefaultHttpResponse(HTTP_1_1, HttpResponseStatus.OK);
-        final RandomAccessFile raf = blobShard.blobContainer().getRandomAccessFile(digest);
+        final BlobContent blob = openBlob(blobShard, index, digest);
         try {
-            HttpUtil.setContentLength(response, raf.length());
+            HttpUtil.setContentLength(response, blob.length());
             setDefaultGetHeaders(response);
             LOGGER.trace("HttpResponse: {}", response);
             Channel channel = ctx.channel();
             channel.write(response);
-            ChannelFuture writeFuture = transferFile(digest, raf, 0, raf.length());
+            ChannelFuture writeFuture = transferFile(digest, blob, 0, blob.length());
             if (!HttpUtil.isKeepAlive(request)) {
                 writeFuture.addListener(ChannelFutureListener.CLOSE);
             }
         } catch (Throwable t) {
             /*
-             * Make sure RandomAccessFile is closed when exception is raised.
+             * Make sure the BlobContent is released when exception is raised.
              * In case of success, the ChannelFutureListener in "transferFile" will take care
              * that the resources are released.
              */
-            raf.close();
+            blob.close();
             throw t;
         }
     }
 
-    private ChannelFuture transferFile(final String digest, RandomAccessFile raf, long position, long count)
+    /**
+     * Serves the blob from the {@link BlobCache} if possible, loading it into the cache if it is admitted.
+     */
+    private BlobContent openBlob(BlobShard blobShard, String index, String digest) throws IOException {
+        ByteBuf cached = blobCache.get(index, digest);
+        if (cached != null) {
+            return new BlobContent(cached, null);
+        }
+        BlobRegion region = blobShard.blobContainer().openBlob(digest);
+        if (blobCache.enabled()) {
+            try {
+                cached = blobCache.load(index, digest, region);
+            } catch (Throwable t) {
+                region.close();
+                throw t;
+            }
+            if (cached != null) {
+                region.close();
+                return new BlobContent(cached, null);
+            }
+        }
+        return new BlobContent(null, region);
+    }
+
+    /**
+     * Writes {@code count} bytes of the blob, starting at {@code position} (relative to the start of the blob).
+     * The content is released once it has been written.
+     */
+    private ChannelFuture transferFile(final String digest, BlobContent blob, long position, long count)
         throws IOException {
 
         Channel channel = ctx.channel();
+        if (blob.cached != null) {
+            // the slice shares the reference count with the cached buffer, writing it releases the buffer
+            ByteBuf content = blob.cached.slice((int) position, (int) count);
+            return channel.writeAndFlush(new DefaultLastHttpContent(content));
+        }
         final ChannelFuture fileFuture;
         final ChannelFuture endMarkerFuture;
+        BlobRegion region = blob.region;
+        RandomAccessFile raf = region.file();
         if (sslEnabled) {
             HttpChunkedInput httpChunkedInput =
-                new HttpChunkedInput(new ChunkedFile(raf, 0, count, HTTPS_CHUNK_SIZE));
+                new HttpChunkedInput(new ChunkedFile(raf, region.offset() + position, count, HTTPS_CHUNK_SIZE));
             fileFuture = channel.writeAndFlush(httpChunkedInput, ctx.newProgressivePromise());
             // HttpChunkedInput also writes the end marker (LastHttpContent) for us.
             endMarkerFuture = fileFuture;
         } else {
-            FileRegion region = new DefaultFileRegion(raf.getChannel(), position, count);
-            fileFuture = channel.write(region, ctx.newProgressivePromise());
+            FileRegion fileRegion = new DefaultFileRegion(raf.getChannel(), region.offset() + position, count);
+            fileFuture = channel.write(fileRegion, ctx.newProgressivePromise());
             // Flushes and sets the ending marker
             endMarkerFuture = channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
         }
@@ -514,4 +555,34 @@ public class HttpBlobHandler extends SimpleChannelInboundHandler<Object> {
             this.activeScheme = SCHEME_HTTPS;
         }
     }
+
+    /**
+     * The content of a blob, either a cached buffer or a region on disk
+     */
+    private static final class BlobContent implements Closeable {
+
+        @Nullable
+        private final ByteBuf cached;
+        @Nullable
+        private final BlobRegion region;
+
+        private BlobContent(@Nullable ByteBuf cached, @Nullable BlobRegion region) {
+            assert cached != null ^ region != null : "either cached content or a region must be provided";
+            this.cached = cached;
+            this.region = region;
+        }
+
+        long length() {
+            return cached != null ? cached.readableBytes() : region.length();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (cached != null) {
+                cached.release();
+            } else {
+                region.close();
+            }
+        }
+    }
 }
@@ -39,9 +39,12 @@ import org.elasticsearch.transport.TransportResponse;
 import org.elasticsearch.transport.TransportService;
 
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
 
 
 public class BlobRecoveryTarget extends AbstractComponent {
@@ -151,11 +154,7 @@ public class BlobRecoveryTarget extends AbstractComponent {
 
             if (request.isLast()) {
                 transferStatus.outputStream().close();
-                Path baseDirectory = shard.blobContainer().getBaseDirectory();
-                Path source = baseDirectory.resolve(transferStatus.sourcePath());
-                Path target = baseDirectory.resolve(transferStatus.targetPath());
-
-                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                moveToBlobContainer(shard, transferStatus.sourcePath(), transferStatus.targetPath());
                 onGoingRecovery.onGoingTransfers().remove(request.transferId());
             }
 
@@ -176,6 +175,9 @@ public class BlobRecoveryTarget extends AbstractComponent {
             if (status.canceled()) {
                 throw new IndexShardClosedException(status.shardId());
             }
+            // a prefix is synced again if the source retries it after a network failure,
+            // transfers it didn't complete the first time are discarded and sent again
+            abortTransfers(status, Hex.encodeHexString(new byte[]{request.prefix()}));
             BlobStartPrefixResponse response = new BlobStartPrefixResponse();
             response.existingDigests = status.blobShard.currentDigests(request.prefix());
             channel.sendResponse(response);
@@ -183,6 +185,34 @@ public class BlobRecoveryTarget extends AbstractComponent {
     }
 
 
+    private void abortTransfers(BlobRecoveryStatus status, String prefix) throws IOException {
+        Path baseDirectory = status.blobShard.blobContainer().getBaseDirectory();
+        Iterator<BlobRecoveryTransferStatus> it = status.onGoingTransfers().values().iterator();
+        while (it.hasNext()) {
+            BlobRecoveryTransferStatus transferStatus = it.next();
+            Path parent = Paths.get(transferStatus.targetPath()).getParent();
+            if (parent != null && prefix.equals(parent.getFileName().toString())) {
+                logger.debug("aborting incomplete transfer of file {}", transferStatus.targetPath());
+                it.remove();
+                transferStatus.outputStream().close();
+                Files.deleteIfExists(baseDirectory.resolve(transferStatus.sourcePath()));
+            }
+        }
+    }
+
+    /**
+     * Moves a completely received file to its final location. Blobs below the pack threshold are packed,
+     * the same as they would be if they had been uploaded to this node.
+     */
+    private static void moveToBlobContainer(BlobShard shard, String sourcePath, String targetPath) throws IOException {
+        Path baseDirectory = shard.blobContainer().getBaseDirectory();
+        Path source = baseDirectory.resolve(sourcePath);
+        Path target = baseDirectory.resolve(targetPath);
+
+        Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        shard.blobContainer().maybePack(target.getFileName().toString());
+    }
+
     private class StartTransferRequestHandler implements TransportRequestHandler<BlobRecoveryStartTransferRequest> {
         @Override
         public void messageReceived(BlobRecoveryStartTransferRequest request, TransportChannel channel) throws Exception {
@@ -205,10 +235,7 @@ public class BlobRecoveryTarget extends AbstractComponent {
 
             if (request.size() == request.content().length()) {  // start request contains the whole file.
                 outputStream.close();
-                Path source = baseDirectory.resolve(tmpPath);
-                Path target = baseDirectory.resolve(request.path());
-
-                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moveToBlobContainer(shard, tmpPath, request.path());
             } else {
                 BlobRecoveryTransferStatus transferStatus = new BlobRecoveryTransferStatus(
                     request.transferId(), outputStream, tmpPath, request.path()
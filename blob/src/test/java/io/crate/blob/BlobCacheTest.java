@@ -0,0 +1,193 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.blob;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class BlobCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static BlobCache newCache(String size) {
+        return new BlobCache(
+            Settings.builder().put(BlobCache.SETTING_CACHE_SIZE.getKey(), size).build(),
+            new UnpooledByteBufAllocator(false));
+    }
+
+    private BlobRegion region(String content) throws IOException {
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), ("xx" + content).getBytes(StandardCharsets.UTF_8));
+        return new BlobRegion(new RandomAccessFile(file, "r"), 2, content.length());
+    }
+
+    private static String read(ByteBuf buf) {
+        try {
+            return buf.toString(StandardCharsets.UTF_8);
+        } finally {
+            buf.release();
+        }
+    }
+
+    @Test
+    public void testDisabledCacheNeverCachesBlobs() throws Exception {
+        BlobCache cache = new BlobCache(Settings.EMPTY);
+        assertThat(cache.enabled(), is(false));
+        assertThat(cache.get("t", "d1"), nullValue());
+        try (BlobRegion region = region("foo")) {
+            assertThat(cache.load("t", "d1", region), nullValue());
+        }
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void testLoadedBlobIsServedFromCache() throws Exception {
+        BlobCache cache = newCache("1kb");
+        assertThat(cache.get("t", "d1"), nullValue());
+        try (BlobRegion region = region("foo")) {
+            assertThat(read(cache.load("t", "d1", region)), is("foo"));
+        }
+        assertThat(read(cache.get("t", "d1")), is("foo"));
+        assertThat(cache.usedBytes(), is(3L));
+        assertThat(cache.hits(), is(1L));
+        assertThat(cache.misses(), is(1L));
+        assertThat(cache.hitRatio(), is(0.5));
+    }
+
+    @Test
+    public void testInfrequentBlobDoesNotEvictFrequentBlob() throws Exception {
+        BlobCache cache = newCache("4b");
+        cache.get("t", "hot");
+        try (BlobRegion region = region("hot")) {
+            read(cache.load("t", "hot", region));
+        }
+        for (int i = 0; i < 5; i++) {
+            read(cache.get("t", "hot"));
+        }
+
+        cache.get("t", "cold");
+        try (BlobRegion region = region("old")) {
+            ByteBuf content = cache.load("t", "cold", region);
+            assertThat(content, nullValue());
+        }
+        assertThat(cache.rejections(), is(1L));
+        assertThat(cache.get("t", "cold"), nullValue());
+        assertThat(read(cache.get("t", "hot")), is("hot"));
+    }
+
+    @Test
+    public void testFrequentBlobEvictsLeastRecentlyUsedBlob() throws Exception {
+        BlobCache cache = newCache("4b");
+        cache.get("t", "d1");
+        try (BlobRegion region = region("foo")) {
+            read(cache.load("t", "d1", region));
+        }
+        for (int i = 0; i < 3; i++) {
+            cache.get("t", "d2");
+        }
+        try (BlobRegion region = region("bar")) {
+            assertThat(read(cache.load("t", "d2", region)), is("bar"));
+        }
+        assertThat(cache.evictions(), is(1L));
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get("t", "d1"), nullValue());
+    }
+
+    @Test
+    public void testInvalidateReleasesContent() throws Exception {
+        BlobCache cache = newCache("1kb");
+        ByteBuf content;
+        try (BlobRegion region = region("foo")) {
+            content = cache.load("t", "d1", region);
+        }
+        assertThat(content, notNullValue());
+        content.release();
+        assertThat(content.refCnt(), is(1));
+
+        cache.invalidate("t", "d1");
+        assertThat(content.refCnt(), is(0));
+        assertThat(cache.get("t", "d1"), nullValue());
+        assertThat(cache.usedBytes(), is(0L));
+    }
+
+    @Test
+    public void testInvalidateIndexRemovesAllBlobsOfIndex() throws Exception {
+        BlobCache cache = newCache("1kb");
+        try (BlobRegion r1 = region("foo"); BlobRegion r2 = region("bar")) {
+            read(cache.load("t1", "d1", r1));
+            read(cache.load("t2", "d1", r2));
+        }
+        cache.invalidateIndex("t1");
+        assertThat(cache.get("t1", "d1"), nullValue());
+        assertThat(read(cache.get("t2", "d1")), is("bar"));
+    }
+
+    @Test
+    public void testBlobInvalidatedWhileLoadingIsNotCached() throws Exception {
+        AtomicReference<BlobCache> cacheRef = new AtomicReference<>();
+        AtomicBoolean invalidated = new AtomicBoolean(false);
+        BlobCache cache = new BlobCache(
+            Settings.builder().put(BlobCache.SETTING_CACHE_SIZE.getKey(), "1kb").build(),
+            new UnpooledByteBufAllocator(false) {
+                @Override
+                public ByteBuf directBuffer(int initialCapacity, int maxCapacity) {
+                    // the blob is deleted while the load reads its content
+                    if (invalidated.compareAndSet(false, true)) {
+                        cacheRef.get().invalidate("t", "d1");
+                    }
+                    return super.directBuffer(initialCapacity, maxCapacity);
+                }
+            });
+        cacheRef.set(cache);
+
+        try (BlobRegion region = region("foo")) {
+            assertThat(read(cache.load("t", "d1", region)), is("foo"));
+        }
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get("t", "d1"), nullValue());
+        assertThat(cache.rejections(), is(0L));
+
+        try (BlobRegion region = region("bar")) {
+            assertThat(read(cache.load("t", "d1", region)), is("bar"));
+        }
+        assertThat(read(cache.get("t", "d1")), is("bar"));
+    }
+}
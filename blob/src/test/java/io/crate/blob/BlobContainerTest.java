@@ -22,22 +22,34 @@
 
 package io.crate.blob;
 
+import com.google.common.io.ByteStreams;
 import io.crate.common.Hex;
 import io.crate.test.utils.Blobs;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.is;
 
 public class BlobContainerTest {
@@ -83,7 +95,205 @@ public class BlobContainerTest {
         assertThat(blobsCount.get(), is(3));
     }
 
+    @Test
+    public void testPackedBlobsCanBeReadAndAreListed() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        String digestA = pack(blobContainer, "Content A");
+        String digestB = pack(blobContainer, "Content B");
+
+        assertThat(blobContainer.getFile(digestA).exists(), is(false));
+        assertThat(blobContainer.exists(digestA), is(true));
+        assertThat(blobContainer.blobLength(digestB), is(9L));
+        assertThat(read(blobContainer, digestA), is("Content A"));
+        assertThat(read(blobContainer, digestB), is("Content B"));
+
+        List<String> names = new ArrayList<>();
+        for (File file : blobContainer.getFiles()) {
+            names.add(file.getName());
+            assertThat(file.length(), is(9L));
+        }
+        assertThat(names, containsInAnyOrder(digestA, digestB));
+
+        byte[][] digests = blobContainer.cleanAndReturnDigests(Hex.decodeHex(digestA)[0]);
+        assertThat(Hex.encodeHexString(digests[0]), is(digestA));
+    }
+
+    @Test
+    public void testPackedBlobsAreLoadedFromDisk() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        String digestA = pack(blobContainer, "Content A");
+        String digestB = pack(blobContainer, "Content B");
+        assertThat(blobContainer.delete(digestA), is(9L));
+
+        blobContainer = new BlobContainer(blobsPath, 1024);
+        assertThat(blobContainer.exists(digestA), is(false));
+        assertThat(blobContainer.packedBlobsCount(), is(1L));
+        assertThat(blobContainer.packedBlobsSize(), is(9L));
+        assertThat(read(blobContainer, digestB), is("Content B"));
+    }
+
+    @Test
+    public void testCompactionRemovesDeletedBlobsFromPack() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        // both digests start with 9d and are stored in the same pack
+        String digestA = pack(blobContainer, "Content 13");
+        String digestB = pack(blobContainer, "Content 16");
+        assertThat(blobContainer.delete(digestA), is(10L));
+        assertThat(blobContainer.delete(digestA), is(-1L));
+
+        PackedBlobs packedBlobs = blobContainer.packedBlobs();
+        int prefix = Integer.parseInt(digestB.substring(0, 2), 16);
+        long sizeBeforeCompaction = packedBlobs.fileSize(prefix);
+        try (BlobRegion openedBeforeCompaction = blobContainer.openBlob(digestB)) {
+            packedBlobs.compact(prefix);
+
+            assertThat(read(openedBeforeCompaction), is("Content 16"));
+        }
+        assertThat(packedBlobs.fileSize(prefix) < sizeBeforeCompaction, is(true));
+        assertThat(read(blobContainer, digestB), is("Content 16"));
+        assertThat(packFiles(blobsPath), containsInAnyOrder(digestB.substring(0, 2) + ".1.pack"));
+        assertThat(new BlobContainer(blobsPath, 1024).packedBlobsCount(), is(1L));
+    }
+
+    @Test
+    public void testLeftOversOfPreviousGenerationsAreRemovedOnLoad() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        String digestA = pack(blobContainer, "Content A");
+        String packPrefix = digestA.substring(0, 2);
+        Path packs = blobsPath.resolve("packs");
+        // a generation which couldn't be deleted because it was still opened and an interrupted compaction
+        Files.copy(packs.resolve(packPrefix + ".0.pack"), packs.resolve(packPrefix + ".1.pack"));
+        Files.write(packs.resolve(packPrefix + ".2.pack.compacting"), new byte[]{1, 2, 3});
+
+        blobContainer = new BlobContainer(blobsPath, 1024);
+
+        assertThat(packFiles(blobsPath), containsInAnyOrder(packPrefix + ".1.pack"));
+        assertThat(read(blobContainer, digestA), is("Content A"));
+        String digestB = pack(blobContainer, "Content B");
+        assertThat(read(new BlobContainer(blobsPath, 1024), digestB), is("Content B"));
+    }
+
+    @Test
+    public void testReceivedLooseBlobIsPackedIfBelowThreshold() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        String digest = digest("Content A");
+        Files.write(blobContainer.getFile(digest).toPath(), "Content A".getBytes(StandardCharsets.UTF_8));
+
+        blobContainer.maybePack(digest);
+
+        assertThat(blobContainer.getFile(digest).exists(), is(false));
+        assertThat(blobContainer.packedBlobsCount(), is(1L));
+        assertThat(read(blobContainer, digest), is("Content A"));
+    }
+
+    @Test
+    public void testBlobsLargerThanThresholdAreNotPacked() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 4);
+        String digest = pack(blobContainer, "Content A");
+
+        assertThat(blobContainer.getFile(digest).exists(), is(true));
+        assertThat(blobContainer.packedBlobsCount(), is(0L));
+        assertThat(read(blobContainer, digest), is("Content A"));
+    }
+
+    @Test
+    public void testPackCompactionIsOnlyClaimedOnceIfNeeded() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 2 * 1024 * 1024);
+        char[] content = new char[(int) PackedBlobs.MIN_COMPACTION_SIZE];
+        Arrays.fill(content, 'x');
+        String digest = pack(blobContainer, new String(content));
+        assertThat(blobContainer.claimPackCompaction(digest), is(false));
+
+        blobContainer.delete(digest);
+        assertThat(blobContainer.claimPackCompaction(digest), is(true));
+        assertThat(blobContainer.claimPackCompaction(digest), is(false));
+        blobContainer.compactPack(digest);
+        assertThat(blobContainer.claimPackCompaction(digest), is(false));
+        assertThat(packFiles(blobsPath).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testPackCompactionIsNotClaimedIfPackingIsDisabled() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath);
+        String digest = pack(blobContainer, "Content A");
+
+        blobContainer.delete(digest);
+
+        assertThat(blobContainer.claimPackCompaction(digest), is(false));
+    }
+
+    @Test
+    public void testConcurrentlyPackedBlobsAreDurable() throws Exception {
+        Path blobsPath = temporaryFolder.newFolder().toPath();
+        BlobContainer blobContainer = new BlobContainer(blobsPath, 1024);
+        int numThreads = 8;
+        int blobsPerThread = 50;
+        List<Thread> threads = new ArrayList<>(numThreads);
+        List<Exception> failures = new CopyOnWriteArrayList<>();
+        for (int t = 0; t < numThreads; t++) {
+            final int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < blobsPerThread; i++) {
+                        pack(blobContainer, "Content " + thread + "-" + i);
+                    }
+                } catch (Exception e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(failures.isEmpty(), is(true));
+        BlobContainer reloaded = new BlobContainer(blobsPath, 1024);
+        assertThat(reloaded.packedBlobsCount(), is((long) numThreads * blobsPerThread));
+        assertThat(read(reloaded, digest("Content 7-49")), is("Content 7-49"));
+    }
+
+    private static String pack(BlobContainer blobContainer, String content) throws Exception {
+        String digest = digest(content);
+        DigestBlob digestBlob = blobContainer.createBlob(digest, UUID.randomUUID());
+        digestBlob.addContent(new BytesArray(content.getBytes(StandardCharsets.UTF_8)), true);
+        digestBlob.commit();
+        return digest;
+    }
+
+    private static String read(BlobContainer blobContainer, String digest) throws IOException {
+        try (BlobRegion blob = blobContainer.openBlob(digest)) {
+            return read(blob);
+        }
+    }
+
+    private static String read(BlobRegion blob) throws IOException {
+        try (InputStream in = blob.newInputStream(0L)) {
+            return new String(ByteStreams.toByteArray(in), StandardCharsets.UTF_8);
+        }
+    }
+
     private static String digest(String content) {
         return Hex.encodeHexString(Blobs.digest(content));
     }
+
+    private static List<String> packFiles(Path blobsPath) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(blobsPath.resolve("packs"))) {
+            for (Path file : files) {
+                names.add(file.getFileName().toString());
+            }
+        }
+        return names;
+    }
 }
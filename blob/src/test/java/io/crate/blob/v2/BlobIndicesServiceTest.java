@@ -22,6 +22,7 @@
 
 package io.crate.blob.v2;
 
+import io.crate.blob.BlobCache;
 import io.crate.plugin.IndexEventListenerProxy;
 import io.crate.test.integration.CrateUnitTest;
 import org.apache.lucene.util.IOUtils;
@@ -58,7 +59,8 @@ public class BlobIndicesServiceTest extends CrateUnitTest {
         blobIndicesService = new BlobIndicesService(
             Settings.EMPTY,
             clusterService,
-            new IndexEventListenerProxy()
+            new IndexEventListenerProxy(),
+            new BlobCache(Settings.EMPTY)
         );
     }
 
@@ -0,0 +1,213 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.integrationtests;
+
+import io.crate.blob.StartBlobAction;
+import io.crate.blob.StartBlobRequest;
+import io.crate.blob.recovery.BlobRecoveryHandler;
+import io.crate.blob.v2.BlobAdminClient;
+import io.crate.blob.v2.BlobIndex;
+import io.crate.blob.v2.BlobIndicesService;
+import io.crate.blob.v2.BlobShard;
+import io.crate.common.Hex;
+import io.crate.test.utils.Blobs;
+import org.elasticsearch.action.admin.cluster.health.ClusterHealthResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.cluster.metadata.IndexMetaData;
+import org.elasticsearch.cluster.routing.allocation.command.MoveAllocationCommand;
+import org.elasticsearch.common.Priority;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.indices.recovery.BlobRecoveryTarget;
+import org.elasticsearch.indices.recovery.RecoverySettings;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.test.ESIntegTestCase;
+import org.elasticsearch.test.transport.MockTransportService;
+import org.elasticsearch.transport.ConnectTransportException;
+import org.elasticsearch.transport.Transport;
+import org.elasticsearch.transport.TransportRequest;
+import org.elasticsearch.transport.TransportRequestOptions;
+import org.elasticsearch.transport.TransportService;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+@ESIntegTestCase.ClusterScope(scope = ESIntegTestCase.Scope.TEST, numDataNodes = 0, numClientNodes = 0, transportClientRatio = 0)
+public class BlobRecoveryIntegrationTest extends BlobIntegrationTestBase {
+
+    private static final String INDEX = BlobIndex.fullIndexName("test");
+
+    @Override
+    protected Collection<Class<? extends Plugin>> nodePlugins() {
+        List<Class<? extends Plugin>> plugins = new ArrayList<>(super.nodePlugins());
+        plugins.add(MockTransportService.TestPlugin.class);
+        return plugins;
+    }
+
+    private String startNodeWithBlobTable(Settings nodeSettings) throws Exception {
+        String node = internalCluster().startNode(nodeSettings);
+        Settings indexSettings = Settings.builder()
+            .put(IndexMetaData.SETTING_NUMBER_OF_REPLICAS, 0)
+            .put(IndexMetaData.SETTING_NUMBER_OF_SHARDS, 1)
+            .put(IndexMetaData.SETTING_AUTO_EXPAND_REPLICAS, "false")
+            .build();
+        internalCluster().getInstance(BlobAdminClient.class, node).createBlobTable("test", indexSettings).get();
+        ensureGreen();
+        return node;
+    }
+
+    private static List<String> upload(Client client, int numBlobs, int blobSize) {
+        List<String> digests = new ArrayList<>(numBlobs);
+        for (int i = 0; i < numBlobs; i++) {
+            String content = i + randomAlphaOfLength(blobSize);
+            byte[] digest = Blobs.digest(content);
+            client.execute(StartBlobAction.INSTANCE, new StartBlobRequest(
+                INDEX, digest, new BytesArray(content.getBytes(StandardCharsets.UTF_8)), true)).actionGet();
+            digests.add(Hex.encodeHexString(digest));
+        }
+        return digests;
+    }
+
+    private void relocate(String fromNode, String toNode) {
+        client().admin().cluster().prepareReroute()
+            .add(new MoveAllocationCommand(INDEX, 0, fromNode, toNode))
+            .execute().actionGet();
+        ClusterHealthResponse health = client().admin().cluster().prepareHealth()
+            .setWaitForEvents(Priority.LANGUID)
+            .setWaitForNoRelocatingShards(true)
+            .setTimeout(TimeValue.timeValueMinutes(2))
+            .execute().actionGet();
+        assertThat(health.isTimedOut(), is(false));
+    }
+
+    private static void assertBlobsExist(String node, List<String> digests) {
+        BlobIndicesService blobIndicesService = internalCluster().getInstance(BlobIndicesService.class, node);
+        for (String digest : digests) {
+            BlobShard blobShard = blobIndicesService.localBlobShard(INDEX, digest);
+            assertThat("blob " + digest + " must exist on " + node, blobShard.blobContainer().exists(digest), is(true));
+        }
+    }
+
+    /**
+     * Files in the var directory which aren't blobs, e.g. incomplete transfers (&lt;digest&gt;.&lt;transferId&gt;)
+     */
+    private static List<Path> incompleteTransfers(String node) throws IOException {
+        BlobShard blobShard = internalCluster().getInstance(BlobIndicesService.class, node).blobShard(
+            internalCluster().clusterService(node).state().routingTable().index(INDEX).shard(0).shardId());
+        try (Stream<Path> files = Files.walk(blobShard.blobContainer().getBaseDirectory().resolve("var"))) {
+            return files
+                .filter(Files::isRegularFile)
+                .filter(f -> f.getFileName().toString().contains("."))
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testBlobsOfAllPrefixesAreRecoveredByConcurrentStreams() throws Exception {
+        Settings nodeSettings = Settings.builder()
+            .put(BlobRecoveryHandler.SETTING_CONCURRENT_STREAMS.getKey(), 4)
+            .build();
+        String node1 = startNodeWithBlobTable(nodeSettings);
+        List<String> digests = upload(internalCluster().client(node1), 100, 64);
+        String node2 = internalCluster().startNode(nodeSettings);
+
+        relocate(node1, node2);
+
+        assertBlobsExist(node2, digests);
+        assertThat(incompleteTransfers(node2), empty());
+    }
+
+    @Test
+    public void testPrefixIsResumedAfterTransferFailure() throws Exception {
+        Settings nodeSettings = Settings.builder()
+            .put(BlobRecoveryHandler.SETTING_CONCURRENT_STREAMS.getKey(), 2)
+            .put(BlobRecoveryHandler.SETTING_MAX_RETRIES.getKey(), 3)
+            .put(RecoverySettings.INDICES_RECOVERY_RETRY_DELAY_NETWORK_SETTING.getKey(), "10ms")
+            .build();
+        String node1 = startNodeWithBlobTable(nodeSettings);
+        // larger than a recovery chunk, so the target has an in-flight transfer when a chunk fails
+        List<String> digests = upload(internalCluster().client(node1), 10, 64 * 1024);
+        String node2 = internalCluster().startNode(nodeSettings);
+
+        AtomicInteger failedChunks = new AtomicInteger(0);
+        MockTransportService sourceTransport =
+            (MockTransportService) internalCluster().getInstance(TransportService.class, node1);
+        sourceTransport.addDelegate(
+            internalCluster().getInstance(TransportService.class, node2),
+            new MockTransportService.DelegateTransport(sourceTransport.original()) {
+                @Override
+                protected void sendRequest(Transport.Connection connection,
+                                           long requestId,
+                                           String action,
+                                           TransportRequest request,
+                                           TransportRequestOptions options) throws IOException {
+                    if (action.equals(BlobRecoveryTarget.Actions.TRANSFER_CHUNK) && failedChunks.get() < 2) {
+                        failedChunks.incrementAndGet();
+                        throw new ConnectTransportException(connection.getNode(), "simulated chunk failure");
+                    }
+                    super.sendRequest(connection, requestId, action, request, options);
+                }
+            });
+
+        relocate(node1, node2);
+
+        assertThat(failedChunks.get(), is(2));
+        assertBlobsExist(node2, digests);
+        // the retried prefixes discarded the transfers which were aborted by the failures
+        assertThat(incompleteTransfers(node2), empty());
+    }
+
+    @Test
+    public void testRecoveryIsThrottled() throws Exception {
+        Settings nodeSettings = Settings.builder()
+            .put(BlobRecoveryHandler.SETTING_CONCURRENT_STREAMS.getKey(), 4)
+            .put(RecoverySettings.INDICES_RECOVERY_MAX_BYTES_PER_SEC_SETTING.getKey(), "200kb")
+            .build();
+        String node1 = startNodeWithBlobTable(nodeSettings);
+        // ~1mb which takes about 5 seconds at 200kb/s, all streams share the rate limit
+        List<String> digests = upload(internalCluster().client(node1), 50, 20 * 1024);
+        String node2 = internalCluster().startNode(nodeSettings);
+
+        long startNanos = System.nanoTime();
+        relocate(node1, node2);
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+        assertThat(tookMillis, greaterThanOrEqualTo(3000L));
+        assertBlobsExist(node2, digests);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.profile;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named counters of an operator (e.g. rows received, pages sent) which are reported by <code>EXPLAIN ANALYZE</code>.
+ *
+ * It is thread-safe; counters are usually updated once per page or batch by different threads.
+ */
+public final class OperatorStats {
+
+    public static final String ROWS_IN = "rows_in";
+    public static final String ROWS_OUT = "rows_out";
+    public static final String PAGES_IN = "pages_in";
+    public static final String PAGES_OUT = "pages_out";
+    public static final String BYTES_IN = "bytes_in";
+    public static final String BYTES_OUT = "bytes_out";
+    public static final String BREAKER_BYTES = "breaker_bytes";
+    public static final String UPSTREAM_WAIT_NANOS = "upstream_wait_nanos";
+    public static final String HASH_JOIN_BLOCKS = "hash_join_blocks";
+    public static final String SHARDS_SKIPPED = "shards_skipped";
+    public static final String SEGMENTS_SKIPPED = "segments_skipped";
+
+    private final ConcurrentHashMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void add(String name, long value) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(value);
+    }
+
+    public void increment(String name) {
+        add(name, 1L);
+    }
+
+    public long get(String name) {
+        LongAdder counter = counters.get(name);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    public Map<String, Long> toMap() {
+        Map<String, Long> map = new TreeMap<>();
+        counters.forEach((name, counter) -> map.put(name, counter.sum()));
+        return map;
+    }
+}
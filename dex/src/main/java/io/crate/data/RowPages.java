@@ -0,0 +1,175 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.data;
+
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Stores rows with a fixed number of columns by copying their values into pages of cells,
+ * instead of allocating an array per row.
+ * <p>
+ * Rows are addressed by the index returned from {@link #add(Row)}.
+ * The pages are kept on {@link #clear()} and reused for the following rows.
+ */
+public final class RowPages {
+
+    public static final int DEFAULT_ROWS_PER_PAGE = 1024;
+
+    private final int numColumns;
+    private final int rowsPerPage;
+    private final LongConsumer onPageAllocated;
+    private final List<Object[]> pages = new ArrayList<>();
+    private int size = 0;
+
+    public RowPages(int numColumns) {
+        this(numColumns, DEFAULT_ROWS_PER_PAGE, bytes -> {});
+    }
+
+    /**
+     * @param onPageAllocated called with the (estimated) number of bytes of each newly allocated page
+     */
+    public RowPages(int numColumns, int rowsPerPage, LongConsumer onPageAllocated) {
+        assert rowsPerPage > 0 : "rowsPerPage must be greater than 0";
+        this.numColumns = numColumns;
+        this.rowsPerPage = rowsPerPage;
+        this.onPageAllocated = onPageAllocated;
+    }
+
+    /**
+     * Copies the first {@link #numColumns()} values of the row
+     *
+     * @return the index of the row
+     */
+    public int add(Row row) {
+        Object[] page = pageForNextRow();
+        int offset = (size % rowsPerPage) * numColumns;
+        for (int i = 0; i < numColumns; i++) {
+            page[offset + i] = row.get(i);
+        }
+        return size++;
+    }
+
+    /**
+     * Copies the values of the inputs
+     *
+     * @return the index of the row
+     */
+    public int add(Iterable<? extends Input<?>> inputs) {
+        Object[] page = pageForNextRow();
+        int offset = (size % rowsPerPage) * numColumns;
+        int i = 0;
+        for (Input<?> input : inputs) {
+            page[offset + i] = input.value();
+            i++;
+        }
+        assert i == numColumns : "number of inputs must match the number of columns";
+        return size++;
+    }
+
+    private Object[] pageForNextRow() {
+        int pageIdx = size / rowsPerPage;
+        if (pageIdx < pages.size()) {
+            return pages.get(pageIdx);
+        }
+        Object[] page = new Object[rowsPerPage * numColumns];
+        onPageAllocated.accept(RamUsageEstimator.alignObjectSize(
+            RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) RamUsageEstimator.NUM_BYTES_OBJECT_REF * page.length));
+        pages.add(page);
+        return page;
+    }
+
+    public Object get(int row, int column) {
+        assert row < size : "row index must be lower than size";
+        return pages.get(row / rowsPerPage)[(row % rowsPerPage) * numColumns + column];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int numColumns() {
+        return numColumns;
+    }
+
+    /**
+     * Removes all rows. The pages are retained to store the next rows.
+     */
+    public void clear() {
+        int numUsedPages = (size + rowsPerPage - 1) / rowsPerPage;
+        for (int i = 0; i < numUsedPages; i++) {
+            Arrays.fill(pages.get(i), null);
+        }
+        size = 0;
+    }
+
+    /**
+     * @return a row which can be moved to any of the stored rows, exposing the given number of columns.
+     */
+    public Cursor newCursor(int numColumns) {
+        assert numColumns <= this.numColumns : "cursor can't have more columns than the stored rows";
+        return new Cursor(numColumns);
+    }
+
+    public Cursor newCursor() {
+        return newCursor(numColumns);
+    }
+
+    public final class Cursor implements Row {
+
+        private final int numColumns;
+        private Object[] page;
+        private int offset;
+
+        private Cursor(int numColumns) {
+            this.numColumns = numColumns;
+        }
+
+        public Cursor moveTo(int row) {
+            assert row < size : "row index must be lower than size";
+            page = pages.get(row / rowsPerPage);
+            offset = (row % rowsPerPage) * RowPages.this.numColumns;
+            return this;
+        }
+
+        @Override
+        public int numColumns() {
+            return numColumns;
+        }
+
+        @Override
+        public Object get(int index) {
+            assert index < numColumns : "index must be lower than numColumns";
+            return page[offset + index];
+        }
+
+        @Override
+        public Object[] materialize() {
+            return Arrays.copyOfRange(page, offset, offset + numColumns);
+        }
+    }
+}
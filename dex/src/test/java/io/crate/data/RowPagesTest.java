@@ -0,0 +1,74 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class RowPagesTest {
+
+    @Test
+    public void testRowsSpanningMultiplePagesCanBeRead() throws Exception {
+        List<Long> allocated = new ArrayList<>();
+        RowPages rows = new RowPages(2, 2, allocated::add);
+        for (int i = 0; i < 5; i++) {
+            assertThat(rows.add(new RowN(new Object[]{i, "foo" + i, "ignored"})), is(i));
+        }
+        assertThat(rows.size(), is(5));
+        assertThat(allocated.size(), is(3));
+
+        RowPages.Cursor cursor = rows.newCursor(1);
+        assertThat(cursor.moveTo(3).numColumns(), is(1));
+        assertThat(cursor.get(0), is(3));
+        assertThat(cursor.materialize(), is(new Object[]{3}));
+        assertThat(rows.get(4, 1), is("foo4"));
+    }
+
+    @Test
+    public void testClearReusesPages() throws Exception {
+        List<Long> allocated = new ArrayList<>();
+        RowPages rows = new RowPages(1, 2, allocated::add);
+        rows.add(new Row1(1));
+        rows.add(new Row1(2));
+        rows.add(new Row1(3));
+        rows.clear();
+        assertThat(rows.size(), is(0));
+
+        rows.add(new Row1(4));
+        assertThat(rows.get(0, 0), is(4));
+        assertThat(rows.newCursor().moveTo(0).get(0), is(4));
+        assertThat(allocated.size(), is(2));
+        rows.add(new Row1(5));
+        rows.add(new Row1(6));
+        assertThat(allocated.size(), is(2));
+        rows.clear();
+        rows.add(new Row1(null));
+        assertThat(rows.get(0, 0), nullValue());
+    }
+}
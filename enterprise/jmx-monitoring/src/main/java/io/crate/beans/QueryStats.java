@@ -21,172 +21,282 @@ package io.crate.beans;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import io.crate.execution.engine.collect.stats.JobsLogs;
-import io.crate.expression.reference.sys.job.JobContextLog;
+import io.crate.execution.engine.collect.stats.StatementMetrics;
+import io.crate.execution.engine.collect.stats.StatementType;
 
-import java.util.HashMap;
-import java.util.Locale;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 
 public class QueryStats implements QueryStatsMBean {
 
-    static class Commands {
-        static final String TOTAL = "total";
-        static final String UNCLASSIFIED = "unclassified";
-
-        static final String SELECT = "select";
-        static final String INSERT = "insert";
-        static final String UPDATE = "update";
-        static final String DELETE = "delete";
-    }
-
     static class Metric {
 
-        private final long elapsedSinceUpdateInMs;
+        static final Metric EMPTY = new Metric(0L, 0L);
 
-        private long count;
-        private long sumOfDurations;
+        private final long count;
+        private final long sumOfDurations;
+
+        Metric(long count, long sumOfDurations) {
+            this.count = count;
+            this.sumOfDurations = sumOfDurations;
+        }
 
-        Metric(long duration, long elapsedSinceUpdateInMs) {
-            this.elapsedSinceUpdateInMs = elapsedSinceUpdateInMs;
-            sumOfDurations = duration;
-            count = 1;
+        Metric plus(Metric other) {
+            return new Metric(count + other.count, sumOfDurations + other.sumOfDurations);
         }
 
-        void inc(long duration) {
-            sumOfDurations += duration;
-            count++;
+        Metric minus(Metric other) {
+            return new Metric(count - other.count, sumOfDurations - other.sumOfDurations);
         }
 
-        double statementsPerSec() {
-            return count / (elapsedSinceUpdateInMs / 1000.0);
+        double statementsPerSec(long elapsedInMs) {
+            if (elapsedInMs <= 0) {
+                return 0.0;
+            }
+            return count / (elapsedInMs / 1000.0);
         }
 
         double avgDurationInMs() {
-            return sumOfDurations / count;
+            if (count == 0) {
+                return 0.0;
+            }
+            return sumOfDurations / (double) count;
         }
     }
 
-    public static final String NAME = "io.crate.monitoring:type=QueryStats";
-    private static final Pattern COMMAND_PATTERN = Pattern.compile("^\\s*(select|insert|update|delete).*");
-    private static final Metric DEFAULT_METRIC = new Metric(0, 0) {
+    /**
+     * The metrics of all statements which finished within the last update interval.
+     */
+    static class IntervalMetrics {
+
+        private final Map<StatementType, Metric> metricByType;
+        private final Metric total;
+        private final long elapsedInMs;
+
+        IntervalMetrics(Map<StatementType, Metric> metricByType, long elapsedInMs) {
+            this.metricByType = metricByType;
+            this.elapsedInMs = elapsedInMs;
+            Metric total = Metric.EMPTY;
+            for (Metric metric : metricByType.values()) {
+                total = total.plus(metric);
+            }
+            this.total = total;
+        }
 
-        @Override
-        void inc(long duration) {
-            throw new AssertionError("inc must not be called on default metric - it's immutable");
+        Metric get(StatementType type) {
+            return metricByType.getOrDefault(type, Metric.EMPTY);
         }
 
-        @Override
-        double statementsPerSec() {
-            return 0.0;
+        double statementsPerSec(StatementType type) {
+            return get(type).statementsPerSec(elapsedInMs);
         }
 
-        @Override
-        double avgDurationInMs() {
-            return 0.0;
+        double avgDurationInMs(StatementType type) {
+            return get(type).avgDurationInMs();
         }
-    };
+    }
 
-    private final Supplier<Map<String, Metric>> metricByCommand;
+    public static final String NAME = "io.crate.monitoring:type=QueryStats";
+
+    private final JobsLogs jobsLogs;
+    private final Supplier<IntervalMetrics> intervalMetrics;
 
     private volatile long lastUpdateTsInMillis = System.currentTimeMillis();
+    private volatile Map<StatementType, Metric> lastTotals = new EnumMap<>(StatementType.class);
 
     public QueryStats(JobsLogs jobsLogs) {
-        metricByCommand = Suppliers.memoizeWithExpiration(
+        this.jobsLogs = jobsLogs;
+        intervalMetrics = Suppliers.memoizeWithExpiration(
             () -> {
                 long currentTs = System.currentTimeMillis();
-                Map<String, Metric> metricByCommand = createMetricsMap(jobsLogs.jobsLog(), currentTs, lastUpdateTsInMillis);
+                Map<StatementType, Metric> totals = totals(jobsLogs.metrics());
+                IntervalMetrics metrics = new IntervalMetrics(
+                    difference(totals, lastTotals), currentTs - lastUpdateTsInMillis);
+                lastTotals = totals;
                 lastUpdateTsInMillis = currentTs;
-                return metricByCommand;
+                return metrics;
             },
             1,
             TimeUnit.SECONDS
         );
     }
 
-    static Map<String, Metric> createMetricsMap(Iterable<JobContextLog> logEntries, long currentTs, long lastUpdateTs) {
-        Map<String, Metric> metricsByCommand = new HashMap<>();
-        long elapsedSinceLastUpdateInMs = currentTs - lastUpdateTs;
-
-        Metric total = new Metric(0, elapsedSinceLastUpdateInMs);
-        for (JobContextLog logEntry : logEntries) {
-            if (logEntry.started() < lastUpdateTs || logEntry.started() > currentTs) {
-                continue;
-            }
-            String command = getCommand(logEntry.statement());
-            long duration = logEntry.ended() - logEntry.started();
-            total.inc(duration);
-            metricsByCommand.compute(command, (key, oldMetric) -> {
-                if (oldMetric == null) {
-                    return new Metric(duration, elapsedSinceLastUpdateInMs);
-                }
-                oldMetric.inc(duration);
-                return oldMetric;
-            });
+    static Map<StatementType, Metric> totals(Iterable<StatementMetrics> statementMetrics) {
+        Map<StatementType, Metric> totals = new EnumMap<>(StatementType.class);
+        for (StatementMetrics metrics : statementMetrics) {
+            totals.put(metrics.type(), new Metric(metrics.totalCount(), metrics.sumOfDurations()));
         }
-        metricsByCommand.put(Commands.TOTAL, total);
-        return metricsByCommand;
+        return totals;
     }
 
-    private static String getCommand(String statement) {
-        Matcher matcher = COMMAND_PATTERN.matcher(statement.toLowerCase(Locale.ENGLISH));
-        if (matcher.find()) {
-            return matcher.group(1);
-        } else {
-            return Commands.UNCLASSIFIED;
+    static Map<StatementType, Metric> difference(Map<StatementType, Metric> current,
+                                                 Map<StatementType, Metric> previous) {
+        Map<StatementType, Metric> difference = new EnumMap<>(StatementType.class);
+        for (Map.Entry<StatementType, Metric> entry : current.entrySet()) {
+            difference.put(entry.getKey(), entry.getValue().minus(previous.getOrDefault(entry.getKey(), Metric.EMPTY)));
         }
+        return difference;
     }
 
     @Override
     public double getSelectQueryFrequency() {
-        return metricByCommand.get().getOrDefault(Commands.SELECT, DEFAULT_METRIC).statementsPerSec();
+        return intervalMetrics.get().statementsPerSec(StatementType.SELECT);
     }
 
     @Override
     public double getInsertQueryFrequency() {
-        return metricByCommand.get().getOrDefault(Commands.INSERT, DEFAULT_METRIC).statementsPerSec();
+        return intervalMetrics.get().statementsPerSec(StatementType.INSERT);
     }
 
     @Override
     public double getUpdateQueryFrequency() {
-        return metricByCommand.get().getOrDefault(Commands.UPDATE, DEFAULT_METRIC).statementsPerSec();
+        return intervalMetrics.get().statementsPerSec(StatementType.UPDATE);
     }
 
     @Override
     public double getDeleteQueryFrequency() {
-        return metricByCommand.get().getOrDefault(Commands.DELETE, DEFAULT_METRIC).statementsPerSec();
+        return intervalMetrics.get().statementsPerSec(StatementType.DELETE);
     }
 
     @Override
     public double getSelectQueryAverageDuration() {
-        return metricByCommand.get().getOrDefault(Commands.SELECT, DEFAULT_METRIC).avgDurationInMs();
+        return intervalMetrics.get().avgDurationInMs(StatementType.SELECT);
     }
 
     @Override
     public double getInsertQueryAverageDuration() {
-        return metricByCommand.get().getOrDefault(Commands.INSERT, DEFAULT_METRIC).avgDurationInMs();
+        return intervalMetrics.get().avgDurationInMs(StatementType.INSERT);
     }
 
     @Override
     public double getUpdateQueryAverageDuration() {
-        return metricByCommand.get().getOrDefault(Commands.UPDATE, DEFAULT_METRIC).avgDurationInMs();
+        return intervalMetrics.get().avgDurationInMs(StatementType.UPDATE);
     }
 
     @Override
     public double getDeleteQueryAverageDuration() {
-        return metricByCommand.get().getOrDefault(Commands.DELETE, DEFAULT_METRIC).avgDurationInMs();
+        return intervalMetrics.get().avgDurationInMs(StatementType.DELETE);
     }
 
     @Override
     public double getOverallQueryFrequency() {
-        return metricByCommand.get().getOrDefault(Commands.TOTAL, DEFAULT_METRIC).statementsPerSec();
+        IntervalMetrics metrics = intervalMetrics.get();
+        return metrics.total.statementsPerSec(metrics.elapsedInMs);
     }
 
     @Override
     public double getOverallQueryAverageDuration() {
-        return metricByCommand.get().getOrDefault(Commands.TOTAL, DEFAULT_METRIC).avgDurationInMs();
+        return intervalMetrics.get().total.avgDurationInMs();
+    }
+
+    @Override
+    public long getSelectQueryP50Duration() {
+        return jobsLogs.metrics(StatementType.SELECT).percentile(50.0);
+    }
+
+    @Override
+    public long getInsertQueryP50Duration() {
+        return jobsLogs.metrics(StatementType.INSERT).percentile(50.0);
+    }
+
+    @Override
+    public long getUpdateQueryP50Duration() {
+        return jobsLogs.metrics(StatementType.UPDATE).percentile(50.0);
+    }
+
+    @Override
+    public long getDeleteQueryP50Duration() {
+        return jobsLogs.metrics(StatementType.DELETE).percentile(50.0);
+    }
+
+    @Override
+    public long getSelectQueryP95Duration() {
+        return jobsLogs.metrics(StatementType.SELECT).percentile(95.0);
+    }
+
+    @Override
+    public long getInsertQueryP95Duration() {
+        return jobsLogs.metrics(StatementType.INSERT).percentile(95.0);
+    }
+
+    @Override
+    public long getUpdateQueryP95Duration() {
+        return jobsLogs.metrics(StatementType.UPDATE).percentile(95.0);
+    }
+
+    @Override
+    public long getDeleteQueryP95Duration() {
+        return jobsLogs.metrics(StatementType.DELETE).percentile(95.0);
+    }
+
+    @Override
+    public long getSelectQueryP99Duration() {
+        return jobsLogs.metrics(StatementType.SELECT).percentile(99.0);
+    }
+
+    @Override
+    public long getInsertQueryP99Duration() {
+        return jobsLogs.metrics(StatementType.INSERT).percentile(99.0);
+    }
+
+    @Override
+    public long getUpdateQueryP99Duration() {
+        return jobsLogs.metrics(StatementType.UPDATE).percentile(99.0);
+    }
+
+    @Override
+    public long getDeleteQueryP99Duration() {
+        return jobsLogs.metrics(StatementType.DELETE).percentile(99.0);
+    }
+
+    @Override
+    public long getSelectQueryMaxDuration() {
+        return jobsLogs.metrics(StatementType.SELECT).maxDuration();
+    }
+
+    @Override
+    public long getInsertQueryMaxDuration() {
+        return jobsLogs.metrics(StatementType.INSERT).maxDuration();
+    }
+
+    @Override
+    public long getUpdateQueryMaxDuration() {
+        return jobsLogs.metrics(StatementType.UPDATE).maxDuration();
+    }
+
+    @Override
+    public long getDeleteQueryMaxDuration() {
+        return jobsLogs.metrics(StatementType.DELETE).maxDuration();
+    }
+
+    @Override
+    public long getSelectQueryFailedCount() {
+        return jobsLogs.metrics(StatementType.SELECT).failedCount();
+    }
+
+    @Override
+    public long getInsertQueryFailedCount() {
+        return jobsLogs.metrics(StatementType.INSERT).failedCount();
+    }
+
+    @Override
+    public long getUpdateQueryFailedCount() {
+        return jobsLogs.metrics(StatementType.UPDATE).failedCount();
+    }
+
+    @Override
+    public long getDeleteQueryFailedCount() {
+        return jobsLogs.metrics(StatementType.DELETE).failedCount();
+    }
+
+    @Override
+    public long getOverallQueryFailedCount() {
+        long failedCount = 0;
+        for (StatementMetrics metrics : jobsLogs.metrics()) {
+            failedCount += metrics.failedCount();
+        }
+        return failedCount;
     }
 }
@@ -48,4 +48,46 @@ public interface QueryStatsMBean {
     double getDeleteQueryAverageDuration();
 
     double getOverallQueryAverageDuration();
+
+    long getSelectQueryP50Duration();
+
+    long getInsertQueryP50Duration();
+
+    long getUpdateQueryP50Duration();
+
+    long getDeleteQueryP50Duration();
+
+    long getSelectQueryP95Duration();
+
+    long getInsertQueryP95Duration();
+
+    long getUpdateQueryP95Duration();
+
+    long getDeleteQueryP95Duration();
+
+    long getSelectQueryP99Duration();
+
+    long getInsertQueryP99Duration();
+
+    long getUpdateQueryP99Duration();
+
+    long getDeleteQueryP99Duration();
+
+    long getSelectQueryMaxDuration();
+
+    long getInsertQueryMaxDuration();
+
+    long getUpdateQueryMaxDuration();
+
+    long getDeleteQueryMaxDuration();
+
+    long getSelectQueryFailedCount();
+
+    long getInsertQueryFailedCount();
+
+    long getUpdateQueryFailedCount();
+
+    long getDeleteQueryFailedCount();
+
+    long getOverallQueryFailedCount();
 }
@@ -18,14 +18,12 @@
 
 package io.crate.beans;
 
-import com.google.common.collect.ImmutableList;
 import io.crate.auth.user.User;
 import io.crate.execution.engine.collect.stats.JobsLogs;
-import io.crate.expression.reference.sys.job.JobContext;
-import io.crate.expression.reference.sys.job.JobContextLog;
+import io.crate.execution.engine.collect.stats.StatementType;
 import org.junit.Test;
 
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -34,38 +32,31 @@ import static org.junit.Assert.assertThat;
 
 public class QueryStatsTest {
 
-    private final List<JobContextLog> log = ImmutableList.of(
-        new JobContextLog(new JobContext(UUID.randomUUID(), "select name", 100L, User.CRATE_USER), null, 150L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "select name", 300L, User.CRATE_USER), null, 320L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "update t1 set x = 10", 400L, User.CRATE_USER), null, 420L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "insert into t1 (x) values (20)", 111L, User.CRATE_USER), null, 130L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "delete from t1", 410L, User.CRATE_USER), null, 415L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "delete from t1", 110L, User.CRATE_USER), null, 120L),
-        new JobContextLog(new JobContext(UUID.randomUUID(), "create table t1 (x int)", 105L, User.CRATE_USER), null, 106L)
-    );
-
     @Test
-    public void testCreateMetricsMap() throws Exception {
-        Map<String, QueryStats.Metric> metricsByCommand = QueryStats.createMetricsMap(log, 2000, 0L);
-        assertThat(metricsByCommand.size(), is(6));
+    public void testIntervalMetricsAreTheDifferenceOfTheTotals() throws Exception {
+        Map<StatementType, QueryStats.Metric> previous = new EnumMap<>(StatementType.class);
+        previous.put(StatementType.SELECT, new QueryStats.Metric(2, 70));
+        previous.put(StatementType.DELETE, new QueryStats.Metric(1, 5));
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.SELECT).avgDurationInMs(), is(35.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.SELECT).statementsPerSec(), is(1.0));
+        Map<StatementType, QueryStats.Metric> current = new EnumMap<>(StatementType.class);
+        current.put(StatementType.SELECT, new QueryStats.Metric(4, 140));
+        current.put(StatementType.INSERT, new QueryStats.Metric(1, 19));
+        current.put(StatementType.DELETE, new QueryStats.Metric(2, 15));
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.INSERT).avgDurationInMs(), is(19.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.INSERT).statementsPerSec(), is(0.5));
+        QueryStats.IntervalMetrics metrics = new QueryStats.IntervalMetrics(
+            QueryStats.difference(current, previous), 2000L);
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.UPDATE).avgDurationInMs(), is(20.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.UPDATE).statementsPerSec(), is(0.5));
+        assertThat(metrics.avgDurationInMs(StatementType.SELECT), is(35.0));
+        assertThat(metrics.statementsPerSec(StatementType.SELECT), is(1.0));
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.DELETE).avgDurationInMs(), is(7.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.DELETE).statementsPerSec(), is(1.0));
+        assertThat(metrics.avgDurationInMs(StatementType.INSERT), is(19.0));
+        assertThat(metrics.statementsPerSec(StatementType.INSERT), is(0.5));
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.UNCLASSIFIED).avgDurationInMs(), is(1.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.UNCLASSIFIED).statementsPerSec(), is(0.5));
+        assertThat(metrics.avgDurationInMs(StatementType.DELETE), is(10.0));
+        assertThat(metrics.statementsPerSec(StatementType.DELETE), is(0.5));
 
-        assertThat(metricsByCommand.get(QueryStats.Commands.TOTAL).avgDurationInMs(), is(15.0));
-        assertThat(metricsByCommand.get(QueryStats.Commands.TOTAL).statementsPerSec(), is(4.0));
+        assertThat(metrics.avgDurationInMs(StatementType.UPDATE), is(0.0));
+        assertThat(metrics.statementsPerSec(StatementType.UPDATE), is(0.0));
     }
 
     @Test
@@ -73,5 +64,22 @@ public class QueryStatsTest {
         QueryStats queryStats = new QueryStats(new JobsLogs(() -> true));
         assertThat(queryStats.getSelectQueryFrequency(), is(0.0));
         assertThat(queryStats.getSelectQueryAverageDuration(), is(0.0));
+        assertThat(queryStats.getSelectQueryP99Duration(), is(0L));
+        assertThat(queryStats.getOverallQueryFailedCount(), is(0L));
+    }
+
+    @Test
+    public void testFailuresAreCountedIfStatsAreDisabled() throws Exception {
+        JobsLogs jobsLogs = new JobsLogs(() -> false);
+        QueryStats queryStats = new QueryStats(jobsLogs);
+
+        UUID jobId = UUID.randomUUID();
+        jobsLogs.logExecutionStart(jobId, "delete from t1", User.CRATE_USER);
+        jobsLogs.logExecutionEnd(jobId, "failed");
+        jobsLogs.logPreExecutionFailure(UUID.randomUUID(), "select * from unknown", "unknown table", User.CRATE_USER);
+
+        assertThat(queryStats.getDeleteQueryFailedCount(), is(1L));
+        assertThat(queryStats.getSelectQueryFailedCount(), is(1L));
+        assertThat(queryStats.getOverallQueryFailedCount(), is(2L));
     }
 }
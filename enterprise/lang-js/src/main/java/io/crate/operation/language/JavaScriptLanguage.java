@@ -34,6 +34,8 @@ import javax.script.Bindings;
 import javax.script.CompiledScript;
 import javax.script.ScriptException;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 public class JavaScriptLanguage implements UDFLanguage {
@@ -43,6 +45,8 @@ public class JavaScriptLanguage implements UDFLanguage {
     private static final NashornScriptEngine ENGINE = (NashornScriptEngine) new NashornScriptEngineFactory()
         .getScriptEngine("--no-java", "--no-syntax-extensions", "--language=es6");
 
+    private static final ConcurrentMap<Integer, CompiledScript> BATCH_CALLERS = new ConcurrentHashMap<>();
+
     @Inject
     public JavaScriptLanguage(UserDefinedFunctionService udfService) {
         udfService.registerLanguage(this);
@@ -74,12 +78,49 @@ public class JavaScriptLanguage implements UDFLanguage {
     }
 
     static Bindings bindScript(String source) throws ScriptException {
+        return bindScript(compile(source));
+    }
+
+    static CompiledScript compile(String source) throws ScriptException {
+        return ENGINE.compile(source);
+    }
+
+    static Bindings bindScript(CompiledScript compiledScript) throws ScriptException {
         Bindings bindings = ENGINE.createBindings();
-        CompiledScript compiledScript = ENGINE.compile(source);
         compiledScript.eval(bindings);
         return bindings;
     }
 
+    /**
+     * @return a script which evaluates to a function taking a function, the number of rows and one array of
+     *         values per argument, it calls the function for each row and returns an array of the results.
+     */
+    static CompiledScript batchCaller(int numArguments) throws ScriptException {
+        CompiledScript batchCaller = BATCH_CALLERS.get(numArguments);
+        if (batchCaller == null) {
+            StringBuilder params = new StringBuilder();
+            StringBuilder call = new StringBuilder("fn(");
+            for (int i = 0; i < numArguments; i++) {
+                params.append(", c").append(i);
+                if (i > 0) {
+                    call.append(", ");
+                }
+                call.append('c').append(i).append("[i]");
+            }
+            call.append(")");
+            batchCaller = compile(
+                "(function(fn, numRows" + params + ") {" +
+                "  var result = new Array(numRows);" +
+                "  for (var i = 0; i < numRows; i++) {" +
+                "    result[i] = " + call + ";" +
+                "  }" +
+                "  return result;" +
+                "})");
+            BATCH_CALLERS.putIfAbsent(numArguments, batchCaller);
+        }
+        return batchCaller;
+    }
+
     public String name() {
         return NAME;
     }
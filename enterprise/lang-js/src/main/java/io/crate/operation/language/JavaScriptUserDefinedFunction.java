@@ -18,14 +18,22 @@
 
 package io.crate.operation.language;
 
-import io.crate.expression.symbol.Symbol;
 import io.crate.data.Input;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Scalar;
 import io.crate.types.ArrayType;
+import io.crate.types.BooleanType;
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.crate.types.DoubleType;
+import io.crate.types.FloatType;
 import io.crate.types.GeoPointType;
+import io.crate.types.IntegerType;
+import io.crate.types.LongType;
 import io.crate.types.ObjectType;
 import io.crate.types.SetType;
+import io.crate.types.ShortType;
 import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import jdk.nashorn.internal.runtime.ECMAException;
 import jdk.nashorn.internal.runtime.Undefined;
@@ -33,21 +41,44 @@ import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.BytesRefs;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
 
+    /**
+     * Upper bound of idle function instances kept per function, more instances are only created
+     * if more threads evaluate the function at the same time and are discarded afterwards.
+     */
+    private static final int MAX_POOLED_INSTANCES = Runtime.getRuntime().availableProcessors();
+
     private final FunctionInfo info;
-    private final String script;
+    private final CompiledScript script;
+    private final List<DataType> argumentTypes;
+    private final Function<Object, Object>[] argumentConverters;
+
+    /**
+     * Nashorn functions must not be called concurrently, so each call takes its own instance from the pool.
+     * The script is only parsed and compiled once, creating an instance only evaluates it in new bindings.
+     */
+    private final BlockingQueue<FunctionInstance> instances = new ArrayBlockingQueue<>(MAX_POOLED_INSTANCES);
 
-    JavaScriptUserDefinedFunction(FunctionInfo info, String script) {
+    JavaScriptUserDefinedFunction(FunctionInfo info, String script) throws ScriptException {
         this.info = info;
-        this.script = script;
+        this.script = JavaScriptLanguage.compile(script);
+        this.argumentTypes = info.ident().argumentTypes();
+        this.argumentConverters = new Function[argumentTypes.size()];
+        for (int i = 0; i < argumentConverters.length; i++) {
+            argumentConverters[i] = argumentConverter(argumentTypes.get(i));
+        }
     }
 
     @Override
@@ -56,77 +87,182 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
     }
 
     @Override
-    public Scalar<Object, Object> compile(List<Symbol> arguments) {
+    public Object evaluate(Input<Object>[] values) {
+        Object[] args = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            args[i] = convertArgument(i, values[i].value());
+        }
+        FunctionInstance instance = acquireInstance();
         try {
-            return new CompiledFunction(JavaScriptLanguage.bindScript(script));
-        } catch (ScriptException e) {
-            // this should not happen if the script was evaluated upfront
-            throw new io.crate.exceptions.ScriptException(
-                "compile error",
-                e,
-                JavaScriptLanguage.NAME
-            );
+            return convertScriptResult(instance.call(args));
+        } finally {
+            instances.offer(instance);
         }
     }
 
-    @Override
-    public Object evaluate(Input<Object>[] values) {
+    /**
+     * Evaluates the function for multiple rows with a single call into the script engine.
+     * <p>
+     * The arguments are passed column-wise. Columns of numeric or boolean arguments without nulls are passed as
+     * primitive arrays, so their values don't have to be boxed.
+     *
+     * @param rows the arguments of each row, they must be of the argument types of the function
+     * @return the result of each row
+     */
+    public Object[] evaluateBatch(Object[][] rows) {
+        Object[] columns = new Object[argumentConverters.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = argumentColumn(i, rows);
+        }
+        ScriptObjectMirror results;
+        FunctionInstance instance = acquireInstance();
         try {
-            return evaluateScriptWithBindings(JavaScriptLanguage.bindScript(script), values);
+            results = instance.callBatch(rows.length, columns);
+        } finally {
+            instances.offer(instance);
+        }
+        Object[] values = new Object[rows.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = convertScriptResult(results.getSlot(i));
+        }
+        return values;
+    }
+
+    private Object argumentColumn(int idx, Object[][] rows) {
+        boolean hasNulls = false;
+        for (Object[] row : rows) {
+            if (row[idx] == null) {
+                hasNulls = true;
+                break;
+            }
+        }
+        if (!hasNulls) {
+            switch (argumentTypes.get(idx).id()) {
+                case LongType.ID:
+                    long[] longs = new long[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        longs[i] = ((Number) rows[i][idx]).longValue();
+                    }
+                    return longs;
+                case IntegerType.ID:
+                case ShortType.ID:
+                case ByteType.ID:
+                    int[] ints = new int[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        ints[i] = ((Number) rows[i][idx]).intValue();
+                    }
+                    return ints;
+                case DoubleType.ID:
+                case FloatType.ID:
+                    double[] doubles = new double[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        doubles[i] = ((Number) rows[i][idx]).doubleValue();
+                    }
+                    return doubles;
+                case BooleanType.ID:
+                    boolean[] booleans = new boolean[rows.length];
+                    for (int i = 0; i < rows.length; i++) {
+                        booleans[i] = (Boolean) rows[i][idx];
+                    }
+                    return booleans;
+                default:
+            }
+        }
+        Object[] values = new Object[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            values[i] = convertArgument(idx, rows[i][idx]);
+        }
+        return values;
+    }
+
+    private Object convertArgument(int idx, Object value) {
+        if (value == null) {
+            return null;
+        }
+        // the default arguments are used if a function is called with less arguments than declared
+        return idx < argumentConverters.length
+            ? argumentConverters[idx].apply(value)
+            : processBytesRefInputIfNeeded(value);
+    }
+
+    private FunctionInstance acquireInstance() {
+        FunctionInstance instance = instances.poll();
+        if (instance != null) {
+            return instance;
+        }
+        try {
+            return new FunctionInstance(JavaScriptLanguage.bindScript(script));
         } catch (ScriptException e) {
-            // this should not happen if the script was evaluated upfront
+            // the definition was evaluated upfront, so this only fails if evaluating it depends on its environment
             throw new io.crate.exceptions.ScriptException(
-                "evaluation error",
+                "Couldn't evaluate the function definition: " + e.getMessage(),
                 e,
                 JavaScriptLanguage.NAME
             );
         }
     }
 
-    private class CompiledFunction extends Scalar<Object, Object> {
+    private class FunctionInstance {
 
         private final Bindings bindings;
+        private ScriptObjectMirror batchCaller;
 
-        private CompiledFunction(Bindings bindings) {
+        private FunctionInstance(Bindings bindings) {
             this.bindings = bindings;
         }
 
-        @Override
-        public FunctionInfo info() {
-            // return the functionInfo of the outer class,
-            // because the function info is the same for every compiled instance of a function
-            return info;
-        }
-
-        @Override
-        public final Object evaluate(Input<Object>[] values) {
-            return evaluateScriptWithBindings(bindings, values);
+        private ScriptObjectMirror function() {
+            ScriptObjectMirror function = (ScriptObjectMirror) bindings.get(info.ident().name());
+            if (function == null) {
+                throw new io.crate.exceptions.ScriptException(
+                    "The name of the function signature doesn't match the function name in the function definition.",
+                    JavaScriptLanguage.NAME
+                );
+            }
+            return function;
         }
 
-    }
-
-    private Object evaluateScriptWithBindings(Bindings bindings, Input<Object>[] values) {
-        Object[] args = new Object[values.length];
-        for (int i = 0; i < values.length; i++) {
-            args[i] = processBytesRefInputIfNeeded(values[i].value());
+        Object call(Object[] args) {
+            ScriptObjectMirror function = function();
+            try {
+                return function.call(JavaScriptUserDefinedFunction.this, args);
+            } catch (ECMAException e) {
+                throw new io.crate.exceptions.ScriptException(
+                    e.getMessage(),
+                    e,
+                    JavaScriptLanguage.NAME
+                );
+            }
         }
 
-        Object result;
-        try {
-            result = ((ScriptObjectMirror) bindings.get(info.ident().name())).call(this, args);
-        } catch (NullPointerException e) {
-            throw new io.crate.exceptions.ScriptException(
-                "The name of the function signature doesn't match the function name in the function definition.",
-                JavaScriptLanguage.NAME
-            );
-        } catch (ECMAException e) {
-            throw new io.crate.exceptions.ScriptException(
-                e.getMessage(),
-                e,
-                JavaScriptLanguage.NAME
-            );
+        ScriptObjectMirror callBatch(int numRows, Object[] columns) {
+            ScriptObjectMirror function = function();
+            Object[] args = new Object[columns.length + 2];
+            args[0] = function;
+            args[1] = numRows;
+            System.arraycopy(columns, 0, args, 2, columns.length);
+            try {
+                if (batchCaller == null) {
+                    batchCaller = (ScriptObjectMirror) JavaScriptLanguage.batchCaller(columns.length).eval(bindings);
+                }
+                return (ScriptObjectMirror) batchCaller.call(JavaScriptUserDefinedFunction.this, args);
+            } catch (ECMAException e) {
+                throw new io.crate.exceptions.ScriptException(
+                    e.getMessage(),
+                    e,
+                    JavaScriptLanguage.NAME
+                );
+            } catch (ScriptException e) {
+                throw new io.crate.exceptions.ScriptException(
+                    "evaluation error",
+                    e,
+                    JavaScriptLanguage.NAME
+                );
+            }
         }
+    }
 
+    private Object convertScriptResult(Object result) {
         if (result instanceof ScriptObjectMirror) {
             return info.returnType().value(convertScriptResult((ScriptObjectMirror) result));
         } else if (result instanceof Undefined) {
@@ -136,6 +272,17 @@ public class JavaScriptUserDefinedFunction extends Scalar<Object, Object> {
         }
     }
 
+    private static Function<Object, Object> argumentConverter(DataType type) {
+        if (DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(type) || type.equals(DataTypes.BOOLEAN)) {
+            // passed to the script engine as they are
+            return Function.identity();
+        }
+        if (type.equals(DataTypes.STRING)) {
+            return BytesRefs::toString;
+        }
+        return JavaScriptUserDefinedFunction::processBytesRefInputIfNeeded;
+    }
+
     private static Object processBytesRefInputIfNeeded(Object value) {
         if (value instanceof BytesRef) {
             value = BytesRefs.toString(value);
@@ -21,8 +21,10 @@ package io.crate.operation.language;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.crate.analyze.FunctionArgumentDefinition;
+import io.crate.data.Input;
 import io.crate.expression.symbol.Literal;
 import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.Schemas;
 import io.crate.expression.scalar.AbstractScalarFunctionsTest;
@@ -303,4 +305,35 @@ public class JavascriptUserDefinedFunctionTest extends AbstractScalarFunctionsTe
         assertEvaluate("f(array_string_array)", "foo",
             Literal.of(new Object[][]{new Object[]{new BytesRef("foo")}}, new ArrayType(new ArrayType(DataTypes.STRING))));
     }
+
+    @Test
+    public void testEvaluateBatch() throws Exception {
+        JavaScriptUserDefinedFunction udf = new JavaScriptUserDefinedFunction(
+            new FunctionInfo(
+                new FunctionIdent(Schemas.DOC_SCHEMA_NAME, "f", ImmutableList.of(DataTypes.LONG, DataTypes.STRING)),
+                DataTypes.STRING),
+            "function f(x, s) { return s + x; }");
+        Object[] results = udf.evaluateBatch(new Object[][]{
+            new Object[]{1L, new BytesRef("a")},
+            new Object[]{2L, new BytesRef("b")},
+            new Object[]{null, new BytesRef("c")}
+        });
+        assertThat(results, is(new Object[]{new BytesRef("a1"), new BytesRef("b2"), new BytesRef("cnull")}));
+    }
+
+    @Test
+    public void testEvaluateBatchWithPrimitiveColumnsMatchesPerRowEvaluation() throws Exception {
+        JavaScriptUserDefinedFunction udf = new JavaScriptUserDefinedFunction(
+            new FunctionInfo(
+                new FunctionIdent(Schemas.DOC_SCHEMA_NAME, "f",
+                    ImmutableList.of(DataTypes.LONG, DataTypes.DOUBLE, DataTypes.BOOLEAN)),
+                DataTypes.DOUBLE),
+            "function f(x, y, negate) { return negate ? -(x * y) : x * y; }");
+        Object[][] rows = new Object[][]{
+            new Object[]{2L, 0.5d, false},
+            new Object[]{3L, 1.5d, true}
+        };
+        assertThat(udf.evaluateBatch(rows), is(new Object[]{1.0d, -4.5d}));
+        assertThat(udf.evaluate(new Input[]{Literal.of(3L), Literal.of(1.5d), Literal.of(true)}), is(-4.5d));
+    }
 }
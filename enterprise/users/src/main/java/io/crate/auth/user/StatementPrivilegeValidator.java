@@ -59,6 +59,7 @@ import io.crate.analyze.OptimizeTableAnalyzedStatement;
 import io.crate.analyze.PrivilegesAnalyzedStatement;
 import io.crate.analyze.QueriedSelectRelation;
 import io.crate.analyze.QueriedTable;
+import io.crate.analyze.RefreshMaterializedViewAnalyzedStatement;
 import io.crate.analyze.RefreshTableAnalyzedStatement;
 import io.crate.analyze.RerouteRetryFailedAnalyzedStatement;
 import io.crate.analyze.ResetAnalyzedStatement;
@@ -239,6 +240,11 @@ class StatementPrivilegeValidator implements StatementAuthorizedValidator {
             return null;
         }
 
+        @Override
+        public Void visitRefreshMaterializedView(RefreshMaterializedViewAnalyzedStatement analysis, User user) {
+            return visitInsertFromSubQueryStatement(analysis.insert(), user);
+        }
+
         @Override
         public Void visitSelectStatement(QueriedRelation relation, User user) {
             visitRelation(relation, user, Privilege.Type.DQL);
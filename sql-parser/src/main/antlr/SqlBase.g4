@@ -36,6 +36,7 @@ statement
     | EXPLAIN (ANALYZE)? statement                                                   #explain
     | OPTIMIZE TABLE tableWithPartitions withProperties?                             #optimize
     | REFRESH TABLE tableWithPartitions                                              #refreshTable
+    | REFRESH MATERIALIZED VIEW name=qname                                           #refreshMaterializedView
     | UPDATE aliasedRelation SET assignment (',' assignment)* where?                 #update
     | DELETE FROM aliasedRelation where?                                             #delete
     | SHOW (TRANSACTION ISOLATION LEVEL | TRANSACTION_ISOLATION)                     #showTransaction
@@ -220,9 +221,9 @@ valueExpression
 
 primaryExpression
     : parameterOrLiteral                                                             #defaultParamOrLiteral
-    | qname '(' ASTERISK ')'                                                         #functionCall
+    | qname '(' ASTERISK ')' over?                                                   #functionCall
     | ident                                                                          #columnReference
-    | qname '(' (setQuant? expr (',' expr)*)? ')'                                    #functionCall
+    | qname '(' (setQuant? expr (',' expr)*)? ')' over?                              #functionCall
     | subqueryExpression                                                             #subqueryExpressionDefault
     // This case handles a simple parenthesized expression.
     | '(' expr ')'                                                                   #nestedExpression
@@ -245,6 +246,28 @@ primaryExpression
     | IF '('condition=expr ',' trueValue=expr (',' falseValue=expr)? ')'             #ifCase
     ;
 
+over
+    : OVER '('
+        (PARTITION BY partition+=expr (',' partition+=expr)*)?
+        (ORDER BY sortItem (',' sortItem)*)?
+        windowFrame?
+      ')'
+    ;
+
+windowFrame
+    : frameType=RANGE start=frameBound
+    | frameType=ROWS start=frameBound
+    | frameType=RANGE BETWEEN start=frameBound AND end=frameBound
+    | frameType=ROWS BETWEEN start=frameBound AND end=frameBound
+    ;
+
+frameBound
+    : UNBOUNDED boundType=PRECEDING                                                  #unboundedFrame
+    | UNBOUNDED boundType=FOLLOWING                                                  #unboundedFrame
+    | CURRENT ROW                                                                    #currentRowBound
+    | expr boundType=(PRECEDING | FOLLOWING)                                         #boundedFrame
+    ;
+
 parenthesizedPrimaryExpressionOrSubquery
     : parenthesizedPrimaryExpression
     | subqueryExpression
@@ -438,6 +461,8 @@ createStmt
         AS body=parameterOrString                                                    #createFunction
     | CREATE USER name=ident withProperties?                                         #createUser
     | CREATE ( OR REPLACE )? VIEW name=qname AS query                                #createView
+    | CREATE MATERIALIZED VIEW (IF NOT EXISTS)? name=qname
+        withProperties? AS query                                                     #createMaterializedView
     | CREATE INGEST RULE rule_name=ident
         ON source_ident=ident
         (where)?
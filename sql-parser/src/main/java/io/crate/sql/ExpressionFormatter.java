@@ -43,6 +43,7 @@ import io.crate.sql.tree.DoubleLiteral;
 import io.crate.sql.tree.ExistsPredicate;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Extract;
+import io.crate.sql.tree.FrameBound;
 import io.crate.sql.tree.FunctionCall;
 import io.crate.sql.tree.GenericProperties;
 import io.crate.sql.tree.IfExpression;
@@ -72,6 +73,8 @@ import io.crate.sql.tree.TimeLiteral;
 import io.crate.sql.tree.TimestampLiteral;
 import io.crate.sql.tree.TryCast;
 import io.crate.sql.tree.WhenClause;
+import io.crate.sql.tree.Window;
+import io.crate.sql.tree.WindowFrame;
 
 import java.util.List;
 import java.util.Locale;
@@ -299,10 +302,70 @@ public final class ExpressionFormatter {
             if (!FUNCTION_CALLS_WITHOUT_PARENTHESIS.contains(node.getName().toString())) {
                 builder.append('(').append(arguments).append(')');
             }
+            if (node.getWindow().isPresent()) {
+                builder.append(" OVER ").append(visitWindow(node.getWindow().get(), context));
+            }
 
             return builder.toString();
         }
 
+        @Override
+        protected String visitWindow(Window node, Void context) {
+            StringBuilder builder = new StringBuilder("(");
+            if (!node.getPartitions().isEmpty()) {
+                builder.append("PARTITION BY ")
+                    .append(joinExpressions(node.getPartitions()));
+            }
+            if (!node.getOrderBy().isEmpty()) {
+                if (!node.getPartitions().isEmpty()) {
+                    builder.append(' ');
+                }
+                builder.append("ORDER BY ")
+                    .append(node.getOrderBy().stream()
+                        .map(SqlFormatter.orderByFormatterFunction)
+                        .collect(COMMA_JOINER));
+            }
+            if (node.getWindowFrame().isPresent()) {
+                if (!node.getPartitions().isEmpty() || !node.getOrderBy().isEmpty()) {
+                    builder.append(' ');
+                }
+                builder.append(process(node.getWindowFrame().get(), context));
+            }
+            return builder.append(')').toString();
+        }
+
+        @Override
+        protected String visitWindowFrame(WindowFrame node, Void context) {
+            StringBuilder builder = new StringBuilder(node.getType().toString());
+            if (node.getEnd().isPresent()) {
+                builder.append(" BETWEEN ")
+                    .append(process(node.getStart(), context))
+                    .append(" AND ")
+                    .append(process(node.getEnd().get(), context));
+            } else {
+                builder.append(' ').append(process(node.getStart(), context));
+            }
+            return builder.toString();
+        }
+
+        @Override
+        protected String visitFrameBound(FrameBound node, Void context) {
+            switch (node.getType()) {
+                case UNBOUNDED_PRECEDING:
+                    return "UNBOUNDED PRECEDING";
+                case PRECEDING:
+                    return process(node.getValue(), context) + " PRECEDING";
+                case CURRENT_ROW:
+                    return "CURRENT ROW";
+                case FOLLOWING:
+                    return process(node.getValue(), context) + " FOLLOWING";
+                case UNBOUNDED_FOLLOWING:
+                    return "UNBOUNDED FOLLOWING";
+                default:
+                    throw new IllegalArgumentException("Unsupported frame bound type: " + node.getType());
+            }
+        }
+
         @Override
         protected String visitLogicalBinaryExpression(LogicalBinaryExpression node, Void context) {
             return formatBinaryExpression(node.getType().toString(), node.getLeft(), node.getRight());
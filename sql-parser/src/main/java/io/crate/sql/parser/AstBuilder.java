@@ -64,6 +64,7 @@ import io.crate.sql.tree.CreateAnalyzer;
 import io.crate.sql.tree.CreateBlobTable;
 import io.crate.sql.tree.CreateFunction;
 import io.crate.sql.tree.CreateIngestRule;
+import io.crate.sql.tree.CreateMaterializedView;
 import io.crate.sql.tree.CreateRepository;
 import io.crate.sql.tree.CreateSnapshot;
 import io.crate.sql.tree.CreateTable;
@@ -88,6 +89,7 @@ import io.crate.sql.tree.ExistsPredicate;
 import io.crate.sql.tree.Explain;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Extract;
+import io.crate.sql.tree.FrameBound;
 import io.crate.sql.tree.FunctionArgument;
 import io.crate.sql.tree.FunctionCall;
 import io.crate.sql.tree.GenericProperties;
@@ -133,6 +135,7 @@ import io.crate.sql.tree.QualifiedNameReference;
 import io.crate.sql.tree.Query;
 import io.crate.sql.tree.QueryBody;
 import io.crate.sql.tree.QuerySpecification;
+import io.crate.sql.tree.RefreshMaterializedView;
 import io.crate.sql.tree.RefreshStatement;
 import io.crate.sql.tree.Relation;
 import io.crate.sql.tree.RerouteAllocateReplicaShard;
@@ -171,6 +174,8 @@ import io.crate.sql.tree.Union;
 import io.crate.sql.tree.Update;
 import io.crate.sql.tree.ValuesList;
 import io.crate.sql.tree.WhenClause;
+import io.crate.sql.tree.Window;
+import io.crate.sql.tree.WindowFrame;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
@@ -238,6 +243,21 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         );
     }
 
+    @Override
+    public Node visitCreateMaterializedView(SqlBaseParser.CreateMaterializedViewContext ctx) {
+        return new CreateMaterializedView(
+            getQualifiedName(ctx.qname()),
+            (Query) visit(ctx.query()),
+            extractGenericProperties(ctx.withProperties()),
+            ctx.EXISTS() != null
+        );
+    }
+
+    @Override
+    public Node visitRefreshMaterializedView(SqlBaseParser.RefreshMaterializedViewContext ctx) {
+        return new RefreshMaterializedView(getQualifiedName(ctx.qname()));
+    }
+
     @Override
     public Node visitDropView(SqlBaseParser.DropViewContext ctx) {
         return new DropView(getQualifiedNames(ctx.qnames()), ctx.EXISTS() != null);
@@ -1385,7 +1405,39 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         return new FunctionCall(
             getQualifiedName(context.qname()),
             isDistinct(context.setQuant()),
-            visitCollection(context.expr(), Expression.class));
+            visitCollection(context.expr(), Expression.class),
+            visitIfPresent(context.over(), Window.class));
+    }
+
+    @Override
+    public Node visitOver(SqlBaseParser.OverContext context) {
+        return new Window(
+            visitCollection(context.partition, Expression.class),
+            visitCollection(context.sortItem(), SortItem.class),
+            visitIfPresent(context.windowFrame(), WindowFrame.class));
+    }
+
+    @Override
+    public Node visitWindowFrame(SqlBaseParser.WindowFrameContext context) {
+        return new WindowFrame(
+            getFrameType(context.frameType),
+            (FrameBound) visit(context.start),
+            visitIfPresent(context.end, FrameBound.class));
+    }
+
+    @Override
+    public Node visitUnboundedFrame(SqlBaseParser.UnboundedFrameContext context) {
+        return new FrameBound(getUnboundedFrameBoundType(context.boundType));
+    }
+
+    @Override
+    public Node visitBoundedFrame(SqlBaseParser.BoundedFrameContext context) {
+        return new FrameBound(getBoundedFrameBoundType(context.boundType), (Expression) visit(context.expr()));
+    }
+
+    @Override
+    public Node visitCurrentRowBound(SqlBaseParser.CurrentRowBoundContext context) {
+        return new FrameBound(FrameBound.Type.CURRENT_ROW);
     }
 
     // Literals
@@ -1664,6 +1716,39 @@ class AstBuilder extends SqlBaseBaseVisitor<Node> {
         }
     }
 
+    private static WindowFrame.Type getFrameType(Token type) {
+        switch (type.getType()) {
+            case SqlBaseLexer.RANGE:
+                return WindowFrame.Type.RANGE;
+            case SqlBaseLexer.ROWS:
+                return WindowFrame.Type.ROWS;
+            default:
+                throw new IllegalArgumentException("Unsupported frame type: " + type.getText());
+        }
+    }
+
+    private static FrameBound.Type getBoundedFrameBoundType(Token token) {
+        switch (token.getType()) {
+            case SqlBaseLexer.PRECEDING:
+                return FrameBound.Type.PRECEDING;
+            case SqlBaseLexer.FOLLOWING:
+                return FrameBound.Type.FOLLOWING;
+            default:
+                throw new IllegalArgumentException("Unsupported bound type: " + token.getText());
+        }
+    }
+
+    private static FrameBound.Type getUnboundedFrameBoundType(Token token) {
+        switch (token.getType()) {
+            case SqlBaseLexer.PRECEDING:
+                return FrameBound.Type.UNBOUNDED_PRECEDING;
+            case SqlBaseLexer.FOLLOWING:
+                return FrameBound.Type.UNBOUNDED_FOLLOWING;
+            default:
+                throw new IllegalArgumentException("Unsupported bound type: " + token.getText());
+        }
+    }
+
     private static SortItem.Ordering getOrderingType(Token token) {
         switch (token.getType()) {
             case SqlBaseLexer.ASC:
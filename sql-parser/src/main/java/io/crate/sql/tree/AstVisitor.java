@@ -145,6 +145,18 @@ public abstract class AstVisitor<R, C> {
         return visitExpression(node, context);
     }
 
+    protected R visitWindow(Window node, C context) {
+        return visitNode(node, context);
+    }
+
+    protected R visitWindowFrame(WindowFrame node, C context) {
+        return visitNode(node, context);
+    }
+
+    protected R visitFrameBound(FrameBound node, C context) {
+        return visitNode(node, context);
+    }
+
     protected R visitSimpleCaseExpression(SimpleCaseExpression node, C context) {
         return visitExpression(node, context);
     }
@@ -572,4 +584,12 @@ public abstract class AstVisitor<R, C> {
     public R visitDropView(DropView dropView, C context) {
         return visitStatement(dropView, context);
     }
+
+    public R visitCreateMaterializedView(CreateMaterializedView createMaterializedView, C context) {
+        return visitStatement(createMaterializedView, context);
+    }
+
+    public R visitRefreshMaterializedView(RefreshMaterializedView refreshMaterializedView, C context) {
+        return visitStatement(refreshMaterializedView, context);
+    }
 }
@@ -110,7 +110,41 @@ public abstract class DefaultTraversalVisitor<R, C>
         for (Expression argument : node.getArguments()) {
             process(argument, context);
         }
+        if (node.getWindow().isPresent()) {
+            process(node.getWindow().get(), context);
+        }
+
+        return null;
+    }
+
+    @Override
+    protected R visitWindow(Window node, C context) {
+        for (Expression partition : node.getPartitions()) {
+            process(partition, context);
+        }
+        for (SortItem sortItem : node.getOrderBy()) {
+            process(sortItem, context);
+        }
+        if (node.getWindowFrame().isPresent()) {
+            process(node.getWindowFrame().get(), context);
+        }
+        return null;
+    }
+
+    @Override
+    protected R visitWindowFrame(WindowFrame node, C context) {
+        process(node.getStart(), context);
+        if (node.getEnd().isPresent()) {
+            process(node.getEnd().get(), context);
+        }
+        return null;
+    }
 
+    @Override
+    protected R visitFrameBound(FrameBound node, C context) {
+        if (node.getValue() != null) {
+            process(node.getValue(), context);
+        }
         return null;
     }
 
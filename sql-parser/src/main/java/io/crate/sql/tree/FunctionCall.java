@@ -24,21 +24,28 @@ package io.crate.sql.tree;
 import com.google.common.base.Objects;
 
 import java.util.List;
+import java.util.Optional;
 
 public class FunctionCall
     extends Expression {
     private final QualifiedName name;
     private final boolean distinct;
     private final List<Expression> arguments;
+    private final Optional<Window> window;
 
     public FunctionCall(QualifiedName name, List<Expression> arguments) {
-        this(name, false, arguments);
+        this(name, false, arguments, Optional.empty());
     }
 
     public FunctionCall(QualifiedName name, boolean distinct, List<Expression> arguments) {
+        this(name, distinct, arguments, Optional.empty());
+    }
+
+    public FunctionCall(QualifiedName name, boolean distinct, List<Expression> arguments, Optional<Window> window) {
         this.name = name;
         this.distinct = distinct;
         this.arguments = arguments;
+        this.window = window;
     }
 
     public QualifiedName getName() {
@@ -53,6 +60,10 @@ public class FunctionCall
         return arguments;
     }
 
+    public Optional<Window> getWindow() {
+        return window;
+    }
+
     @Override
     public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
         return visitor.visitFunctionCall(this, context);
@@ -69,11 +80,12 @@ public class FunctionCall
         FunctionCall o = (FunctionCall) obj;
         return Objects.equal(name, o.name) &&
                Objects.equal(distinct, o.distinct) &&
-               Objects.equal(arguments, o.arguments);
+               Objects.equal(arguments, o.arguments) &&
+               Objects.equal(window, o.window);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(name, distinct, arguments);
+        return Objects.hashCode(name, distinct, arguments, window);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.sql.tree;
+
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The window specification of a function call:
+ *
+ * <pre>
+ *     OVER ( [PARTITION BY expr [, ...]] [ORDER BY sortItem [, ...]] [frame] )
+ * </pre>
+ */
+public class Window extends Node {
+
+    private final List<Expression> partitions;
+    private final List<SortItem> orderBy;
+    private final Optional<WindowFrame> windowFrame;
+
+    public Window(List<Expression> partitions, List<SortItem> orderBy, Optional<WindowFrame> windowFrame) {
+        this.partitions = partitions;
+        this.orderBy = orderBy;
+        this.windowFrame = windowFrame;
+    }
+
+    public List<Expression> getPartitions() {
+        return partitions;
+    }
+
+    public List<SortItem> getOrderBy() {
+        return orderBy;
+    }
+
+    public Optional<WindowFrame> getWindowFrame() {
+        return windowFrame;
+    }
+
+    @Override
+    public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+        return visitor.visitWindow(this, context);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Window window = (Window) o;
+        return Objects.equals(partitions, window.partitions) &&
+               Objects.equals(orderBy, window.orderBy) &&
+               Objects.equals(windowFrame, window.windowFrame);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitions, orderBy, windowFrame);
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+            .add("partitions", partitions)
+            .add("orderBy", orderBy)
+            .add("windowFrame", windowFrame)
+            .toString();
+    }
+}
@@ -42,6 +42,7 @@ import io.crate.sql.tree.DenyPrivilege;
 import io.crate.sql.tree.DropIngestRule;
 import io.crate.sql.tree.DropUser;
 import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.FrameBound;
 import io.crate.sql.tree.FunctionCall;
 import io.crate.sql.tree.GrantPrivilege;
 import io.crate.sql.tree.InsertFromValues;
@@ -60,6 +61,8 @@ import io.crate.sql.tree.Statement;
 import io.crate.sql.tree.StringLiteral;
 import io.crate.sql.tree.SubqueryExpression;
 import io.crate.sql.tree.SubscriptExpression;
+import io.crate.sql.tree.Window;
+import io.crate.sql.tree.WindowFrame;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -924,6 +927,34 @@ public class TestStatementBuilder {
         printStatement("select try_cast(y as integer) from foo");
     }
 
+    @Test
+    public void testWindowFunctions() {
+        printStatement("select row_number() over () from t");
+        printStatement("select rank() over (partition by x) from t");
+        printStatement("select sum(y) over (partition by x order by z desc) from t");
+        printStatement("select lag(y, 2) over (order by z rows between 2 preceding and current row) from t");
+        printStatement("select avg(y) over (rows between unbounded preceding and 1 following) from t");
+        printStatement("select count(*) over (range unbounded preceding) from t");
+    }
+
+    @Test
+    public void testWindowDefinitionIsPartOfFunctionCall() {
+        Expression expression = SqlParser.createExpression(
+            "sum(y) over (partition by x order by z rows between 1 preceding and 1 following)");
+        assertThat(expression, instanceOf(FunctionCall.class));
+        FunctionCall functionCall = (FunctionCall) expression;
+        assertTrue(functionCall.getWindow().isPresent());
+        Window window = functionCall.getWindow().get();
+        assertThat(window.getPartitions().size(), is(1));
+        assertThat(window.getOrderBy().size(), is(1));
+        WindowFrame frame = window.getWindowFrame().get();
+        assertThat(frame.getType(), is(WindowFrame.Type.ROWS));
+        assertThat(frame.getStart().getType(), is(FrameBound.Type.PRECEDING));
+        assertThat(frame.getEnd().get().getType(), is(FrameBound.Type.FOLLOWING));
+        assertThat(expression.toString(),
+            is("sum(\"y\") OVER (PARTITION BY \"x\" ORDER BY \"z\" ASC ROWS BETWEEN 1 PRECEDING AND 1 FOLLOWING)"));
+    }
+
     @Test
     public void testSubscriptExpression() throws Exception {
         Expression expression = SqlParser.createExpression("a['sub']");
@@ -1268,6 +1299,19 @@ public class TestStatementBuilder {
         printStatement("CREATE OR REPLACE VIEW myView AS SELECT * FROM foobar");
     }
 
+    @Test
+    public void testCreateMaterializedViewParsing() {
+        printStatement("CREATE MATERIALIZED VIEW mv AS SELECT x, count(*) FROM t GROUP BY x");
+        printStatement("CREATE MATERIALIZED VIEW IF NOT EXISTS mv " +
+                       "WITH (incremental_column = 'ts') AS SELECT x, count(*) FROM t GROUP BY x");
+    }
+
+    @Test
+    public void testRefreshMaterializedViewParsing() {
+        printStatement("REFRESH MATERIALIZED VIEW mv");
+        printStatement("REFRESH MATERIALIZED VIEW doc.mv");
+    }
+
     @Test
     public void testDropViewParsing() {
         printStatement("DROP VIEW myView");
@@ -226,4 +226,8 @@ public class AnalyzedStatementVisitor<C, R> {
     public R visitDropView(DropViewStmt dropViewStmt, C context) {
         return visitAnalyzedStatement(dropViewStmt, context);
     }
+
+    public R visitRefreshMaterializedView(RefreshMaterializedViewAnalyzedStatement refreshMaterializedView, C context) {
+        return visitAnalyzedStatement(refreshMaterializedView, context);
+    }
 }
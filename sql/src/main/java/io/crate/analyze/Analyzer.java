@@ -47,6 +47,7 @@ import io.crate.sql.tree.CreateAnalyzer;
 import io.crate.sql.tree.CreateBlobTable;
 import io.crate.sql.tree.CreateFunction;
 import io.crate.sql.tree.CreateIngestRule;
+import io.crate.sql.tree.CreateMaterializedView;
 import io.crate.sql.tree.CreateRepository;
 import io.crate.sql.tree.CreateSnapshot;
 import io.crate.sql.tree.CreateTable;
@@ -72,6 +73,7 @@ import io.crate.sql.tree.Node;
 import io.crate.sql.tree.OptimizeStatement;
 import io.crate.sql.tree.QualifiedName;
 import io.crate.sql.tree.Query;
+import io.crate.sql.tree.RefreshMaterializedView;
 import io.crate.sql.tree.RefreshStatement;
 import io.crate.sql.tree.ResetStatement;
 import io.crate.sql.tree.RestoreSnapshot;
@@ -134,6 +136,7 @@ public class Analyzer {
     private final CreateUserAnalyzer createUserAnalyzer;
     private final AlterUserAnalyzer alterUserAnalyzer;
     private final CreateViewAnalyzer createViewAnalyzer;
+    private final MaterializedViewAnalyzer materializedViewAnalyzer;
 
     /**
      * @param relationAnalyzer is injected because we also need to inject it in
@@ -169,6 +172,13 @@ public class Analyzer {
         this.deleteAnalyzer = new DeleteAnalyzer(functions, relationAnalyzer);
         this.insertFromValuesAnalyzer = new InsertFromValuesAnalyzer(functions, schemas);
         this.insertFromSubQueryAnalyzer = new InsertFromSubQueryAnalyzer(functions, schemas, relationAnalyzer);
+        this.materializedViewAnalyzer = new MaterializedViewAnalyzer(
+            functions,
+            schemas,
+            relationAnalyzer,
+            createTableStatementAnalyzer,
+            insertFromSubQueryAnalyzer
+        );
         this.unboundAnalyzer = new UnboundAnalyzer(
             relationAnalyzer,
             showCreateTableAnalyzer,
@@ -483,6 +493,18 @@ public class Analyzer {
                 createView, analysis.transactionContext(), analysis.sessionContext().defaultSchema());
         }
 
+        @Override
+        public AnalyzedStatement visitCreateMaterializedView(CreateMaterializedView createMaterializedView,
+                                                             Analysis analysis) {
+            return materializedViewAnalyzer.analyze(createMaterializedView, analysis);
+        }
+
+        @Override
+        public AnalyzedStatement visitRefreshMaterializedView(RefreshMaterializedView refreshMaterializedView,
+                                                              Analysis analysis) {
+            return materializedViewAnalyzer.analyze(refreshMaterializedView, analysis);
+        }
+
         @Override
         public AnalyzedStatement visitDropView(DropView dropView, Analysis analysis) {
             // No exists check to avoid stale clusterState race conditions
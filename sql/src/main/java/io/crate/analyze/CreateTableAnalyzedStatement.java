@@ -27,6 +27,7 @@ import io.crate.metadata.IndexMappings;
 import io.crate.metadata.PartitionName;
 import io.crate.metadata.RelationName;
 import io.crate.metadata.Schemas;
+import io.crate.metadata.view.MaterializedViewMetaData;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
@@ -41,6 +42,8 @@ public class CreateTableAnalyzedStatement extends AbstractDDLAnalyzedStatement {
     private RelationName relationName;
     private boolean noOp = false;
     private boolean ifNotExists = false;
+    @Nullable
+    private MaterializedViewMetaData materializedView;
 
     public CreateTableAnalyzedStatement() {
     }
@@ -121,6 +124,9 @@ public class CreateTableAnalyzedStatement extends AbstractDDLAnalyzedStatement {
             if (routingColumn != null) {
                 metaMap.put("routing", routingColumn.fqn());
             }
+            if (materializedView != null) {
+                metaMap.put(MaterializedViewMetaData.META_KEY, materializedView.toMap());
+            }
             IndexMappings.putDefaultSettingsToMeta(metaMap);
 
             // merge in user defined mapping parameter
@@ -145,6 +151,15 @@ public class CreateTableAnalyzedStatement extends AbstractDDLAnalyzedStatement {
         return routingColumn;
     }
 
+    void materializedView(MaterializedViewMetaData materializedView) {
+        this.materializedView = materializedView;
+    }
+
+    @Nullable
+    public MaterializedViewMetaData materializedView() {
+        return materializedView;
+    }
+
     /**
      * return true if a columnDefinition with name <code>columnName</code> exists
      */
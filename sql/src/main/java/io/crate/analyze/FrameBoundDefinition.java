@@ -0,0 +1,118 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze;
+
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.sql.tree.FrameBound;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Analyzed form of a {@link FrameBound}.
+ * The offset is only present for {@link FrameBound.Type#PRECEDING} and {@link FrameBound.Type#FOLLOWING}
+ */
+public class FrameBoundDefinition implements Writeable {
+
+    public static final FrameBoundDefinition UNBOUNDED_PRECEDING =
+        new FrameBoundDefinition(FrameBound.Type.UNBOUNDED_PRECEDING, null);
+    public static final FrameBoundDefinition CURRENT_ROW =
+        new FrameBoundDefinition(FrameBound.Type.CURRENT_ROW, null);
+
+    private final FrameBound.Type type;
+
+    @Nullable
+    private final Symbol offset;
+
+    public FrameBoundDefinition(FrameBound.Type type, @Nullable Symbol offset) {
+        this.type = type;
+        this.offset = offset;
+    }
+
+    public FrameBoundDefinition(StreamInput in) throws IOException {
+        type = FrameBound.Type.values()[in.readVInt()];
+        offset = in.readBoolean() ? Symbols.fromStream(in) : null;
+    }
+
+    public FrameBound.Type type() {
+        return type;
+    }
+
+    @Nullable
+    public Symbol offset() {
+        return offset;
+    }
+
+    public FrameBoundDefinition map(Function<? super Symbol, ? extends Symbol> mapper) {
+        if (offset == null) {
+            return this;
+        }
+        Symbol newOffset = mapper.apply(offset);
+        if (newOffset == offset) {
+            return this;
+        }
+        return new FrameBoundDefinition(type, newOffset);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(type.ordinal());
+        out.writeBoolean(offset != null);
+        if (offset != null) {
+            Symbols.toStream(offset, out);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FrameBoundDefinition that = (FrameBoundDefinition) o;
+        return type == that.type && Objects.equals(offset, that.offset);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, offset);
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case UNBOUNDED_PRECEDING:
+                return "UNBOUNDED PRECEDING";
+            case UNBOUNDED_FOLLOWING:
+                return "UNBOUNDED FOLLOWING";
+            case CURRENT_ROW:
+                return "CURRENT ROW";
+            default:
+                return (offset == null ? "?" : offset.representation()) + ' ' + type.name();
+        }
+    }
+}
@@ -30,12 +30,14 @@ import io.crate.analyze.relations.ExcludedFieldProvider;
 import io.crate.analyze.relations.FieldProvider;
 import io.crate.analyze.relations.NameFieldProvider;
 import io.crate.expression.eval.EvaluatingNormalizer;
+import io.crate.expression.symbol.DynamicReference;
 import io.crate.expression.symbol.Field;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.RefReplacer;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolType;
 import io.crate.expression.symbol.format.SymbolFormatter;
+import io.crate.expression.symbol.format.SymbolPrinter;
 import io.crate.core.StringUtils;
 import io.crate.core.collections.StringObjectMaps;
 import io.crate.data.Input;
@@ -53,13 +55,20 @@ import io.crate.metadata.TransactionContext;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.table.Operation;
 import io.crate.sql.tree.Assignment;
+import io.crate.sql.tree.BooleanLiteral;
+import io.crate.sql.tree.DoubleLiteral;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Insert;
 import io.crate.sql.tree.Insert.DuplicateKeyContext.Type;
 import io.crate.sql.tree.InsertFromValues;
+import io.crate.sql.tree.LongLiteral;
+import io.crate.sql.tree.NegativeExpression;
+import io.crate.sql.tree.NullLiteral;
 import io.crate.sql.tree.ParameterExpression;
+import io.crate.sql.tree.StringLiteral;
 import io.crate.sql.tree.ValuesList;
 import io.crate.types.DataType;
+import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.common.lucene.BytesRefs;
 
@@ -222,6 +231,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         );
         ExpressionAnalysisContext expressionAnalysisContext = new ExpressionAnalysisContext();
         analyzeColumns(statement.tableInfo(), statement.columns());
+        RowContext rowContext = new RowContext(tableInfo, statement.columns(), convertParamFunction);
         for (ValuesList valuesList : node.valuesLists()) {
             analyzeValues(
                 tableRelation,
@@ -235,7 +245,8 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                 duplicateKeyContext.getAssignments(),
                 statement,
                 analysis.parameterContext(),
-                refToLiteral);
+                refToLiteral,
+                rowContext);
         }
         return statement;
     }
@@ -281,14 +292,11 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                                List<Assignment> onDuplicateKeyAssignments,
                                InsertFromValuesAnalyzedStatement statement,
                                ParameterContext parameterContext,
-                               ReferenceToLiteralConverter refToLiteral) {
+                               ReferenceToLiteralConverter refToLiteral,
+                               RowContext rowContext) {
         validateValuesSize(node.values(), statement, tableRelation);
 
         try {
-            DocTableInfo tableInfo = statement.tableInfo();
-            int numPks = tableInfo.primaryKey().size();
-            Function<List<BytesRef>, String> idFunction =
-                Id.compileWithNullValidation(tableInfo.primaryKey(), tableInfo.clusteredBy());
             if (parameterContext.numBulkParams() > 0) {
                 for (int i = 0; i < parameterContext.numBulkParams(); i++) {
                     parameterContext.setBulkIdx(i);
@@ -304,8 +312,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                         onDuplicateKeyAssignments,
                         statement,
                         refToLiteral,
-                        numPks,
-                        idFunction,
+                        rowContext,
                         i
                     );
                 }
@@ -322,8 +329,7 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                     onDuplicateKeyAssignments,
                     statement,
                     refToLiteral,
-                    numPks,
-                    idFunction,
+                    rowContext,
                     -1
                 );
             }
@@ -343,14 +349,13 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
                            List<Assignment> onDuplicateKeyAssignments,
                            InsertFromValuesAnalyzedStatement context,
                            ReferenceToLiteralConverter refToLiteral,
-                           int numPrimaryKeys,
-                           Function<List<BytesRef>, String> idFunction,
+                           RowContext rowContext,
                            int bulkIdx) throws IOException {
         DocTableInfo tableInfo = context.tableInfo();
         if (tableInfo.isPartitioned()) {
             context.newPartitionMap();
         }
-        BytesRef[] primaryKeyValues = new BytesRef[numPrimaryKeys];
+        BytesRef[] primaryKeyValues = new BytesRef[rowContext.numPrimaryKeys];
         String routingValue = null;
         List<ColumnIdent> primaryKey = tableInfo.primaryKey();
         Object[] insertValues = new Object[node.values().size()];
@@ -359,21 +364,19 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
             Reference column = context.columns().get(i);
             final ColumnIdent columnIdent = column.column();
             Expression expression = node.values().get(i);
-            Symbol valuesSymbol = normalizer.normalize(
-                expressionAnalyzer.convert(expression, expressionAnalysisContext),
-                transactionContext);
 
-            // implicit type conversion
-            Object value;
-            try {
-                valuesSymbol = ValueNormalizer.normalizeInputForReference(valuesSymbol, column, tableRelation.tableInfo());
-                value = ((Input) valuesSymbol).value();
-            } catch (IllegalArgumentException | UnsupportedOperationException e) {
-                throw new ColumnValidationException(columnIdent.sqlFqn(), tableInfo.ident(), e);
-            } catch (ClassCastException e) {
-                // symbol is no Input
-                throw new ColumnValidationException(columnIdent.name(), tableInfo.ident(),
-                    SymbolFormatter.format("Invalid value '%s' in insert statement", valuesSymbol));
+            Object value = rowContext.rawValue(i, expression);
+            if (value == NO_VALUE) {
+                value = analyzeValue(
+                    tableRelation,
+                    normalizer,
+                    expressionAnalyzer,
+                    expressionAnalysisContext,
+                    transactionContext,
+                    column,
+                    expression);
+            } else {
+                value = rowContext.convert(i, value);
             }
 
             if (context.primaryKeyColumnIndices().contains(i)) {
@@ -451,13 +454,132 @@ class InsertFromValuesAnalyzer extends AbstractInsertAnalyzer {
         routingValue = ctx.routingValue;
 
         context.sourceMaps().add(insertValues);
-        String id = idFunction.apply(Arrays.asList(primaryKeyValues));
+        String id = rowContext.idFunction.apply(Arrays.asList(primaryKeyValues));
         context.addIdAndRouting(id, routingValue);
         if (bulkIdx >= 0) {
             context.bulkIndices().add(bulkIdx);
         }
     }
 
+    private static Object analyzeValue(DocTableRelation tableRelation,
+                                       EvaluatingNormalizer normalizer,
+                                       ExpressionAnalyzer expressionAnalyzer,
+                                       ExpressionAnalysisContext expressionAnalysisContext,
+                                       TransactionContext transactionContext,
+                                       Reference column,
+                                       Expression expression) {
+        DocTableInfo tableInfo = tableRelation.tableInfo();
+        ColumnIdent columnIdent = column.column();
+        Symbol valuesSymbol = normalizer.normalize(
+            expressionAnalyzer.convert(expression, expressionAnalysisContext),
+            transactionContext);
+
+        // implicit type conversion
+        try {
+            valuesSymbol = ValueNormalizer.normalizeInputForReference(valuesSymbol, column, tableInfo);
+            return ((Input) valuesSymbol).value();
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            throw new ColumnValidationException(columnIdent.sqlFqn(), tableInfo.ident(), e);
+        } catch (ClassCastException e) {
+            // symbol is no Input
+            throw new ColumnValidationException(columnIdent.name(), tableInfo.ident(),
+                SymbolFormatter.format("Invalid value '%s' in insert statement", valuesSymbol));
+        }
+    }
+
+    /**
+     * Returned by {@link RowContext#rawValue(int, Expression)} if the expression has to be analyzed
+     */
+    private static final Object NO_VALUE = new Object();
+
+    /**
+     * State which is shared by all rows of an insert statement.
+     *
+     * Literals and parameters for columns with a primitive type are converted using the column type,
+     * which is resolved once per statement, instead of analyzing and normalizing them as expressions for each row.
+     */
+    private static final class RowContext {
+
+        private final DocTableInfo tableInfo;
+        private final List<Reference> columns;
+        private final Function<ParameterExpression, Symbol> convertParamFunction;
+        private final DataType[] primitiveColumnTypes;
+        private final int numPrimaryKeys;
+        private final Function<List<BytesRef>, String> idFunction;
+
+        RowContext(DocTableInfo tableInfo,
+                   List<Reference> columns,
+                   Function<ParameterExpression, Symbol> convertParamFunction) {
+            this.tableInfo = tableInfo;
+            this.columns = columns;
+            this.convertParamFunction = convertParamFunction;
+            this.numPrimaryKeys = tableInfo.primaryKey().size();
+            this.idFunction = Id.compileWithNullValidation(tableInfo.primaryKey(), tableInfo.clusteredBy());
+            this.primitiveColumnTypes = new DataType[columns.size()];
+            for (int i = 0; i < primitiveColumnTypes.length; i++) {
+                Reference column = columns.get(i);
+                if (!(column instanceof DynamicReference) && DataTypes.PRIMITIVE_TYPES.contains(column.valueType())) {
+                    primitiveColumnTypes[i] = column.valueType();
+                }
+            }
+        }
+
+        /**
+         * @return the value of a literal or parameter if the column has a primitive type, otherwise {@link #NO_VALUE}
+         */
+        Object rawValue(int columnIdx, Expression expression) {
+            if (columnIdx >= primitiveColumnTypes.length || primitiveColumnTypes[columnIdx] == null) {
+                return NO_VALUE;
+            }
+            if (expression instanceof StringLiteral) {
+                return new BytesRef(((StringLiteral) expression).getValue());
+            }
+            if (expression instanceof LongLiteral) {
+                return ((LongLiteral) expression).getValue();
+            }
+            if (expression instanceof DoubleLiteral) {
+                return ((DoubleLiteral) expression).getValue();
+            }
+            if (expression instanceof BooleanLiteral) {
+                return ((BooleanLiteral) expression).getValue();
+            }
+            if (expression instanceof NullLiteral) {
+                return null;
+            }
+            if (expression instanceof NegativeExpression) {
+                Expression negated = ((NegativeExpression) expression).getValue();
+                if (negated instanceof LongLiteral) {
+                    return -((LongLiteral) negated).getValue();
+                }
+                if (negated instanceof DoubleLiteral) {
+                    return -((DoubleLiteral) negated).getValue();
+                }
+                return NO_VALUE;
+            }
+            if (expression instanceof ParameterExpression) {
+                Symbol symbol = convertParamFunction.apply((ParameterExpression) expression);
+                if (symbol instanceof Literal) {
+                    return ((Literal) symbol).value();
+                }
+            }
+            return NO_VALUE;
+        }
+
+        Object convert(int columnIdx, Object rawValue) {
+            DataType type = primitiveColumnTypes[columnIdx];
+            try {
+                return type.value(rawValue);
+            } catch (IllegalArgumentException | ClassCastException e) {
+                Literal literal = Literal.of(DataTypes.guessType(rawValue), rawValue);
+                throw new ColumnValidationException(
+                    columns.get(columnIdx).column().name(),
+                    tableInfo.ident(),
+                    String.format(Locale.ENGLISH, "Cannot cast %s to type %s",
+                        SymbolPrinter.INSTANCE.printUnqualified(literal), type.getName()));
+            }
+        }
+    }
+
     /**
      * Sets a primary key value at the correct index of the given array structure.
      * Values could be applied in an unordered way, so given the correct column index of the defined primary key
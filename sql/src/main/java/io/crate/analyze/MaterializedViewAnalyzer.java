@@ -0,0 +1,513 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.analyze;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.analyze.relations.RelationAnalyzer;
+import io.crate.analyze.expressions.ExpressionToStringVisitor;
+import io.crate.analyze.expressions.ExpressionToTimeValueVisitor;
+import io.crate.expression.scalar.timestamp.CurrentTimestampFunction;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.format.SymbolPrinter;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Functions;
+import io.crate.metadata.GeneratedReference;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Schemas;
+import io.crate.metadata.TransactionContext;
+import io.crate.metadata.blob.BlobSchemaInfo;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.Operation;
+import io.crate.metadata.table.TableInfo;
+import io.crate.metadata.view.MaterializedViewMetaData;
+import io.crate.sql.Identifiers;
+import io.crate.sql.parser.SqlParser;
+import io.crate.sql.tree.Assignment;
+import io.crate.sql.tree.CollectionColumnType;
+import io.crate.sql.tree.ColumnDefinition;
+import io.crate.sql.tree.ColumnType;
+import io.crate.sql.tree.CreateMaterializedView;
+import io.crate.sql.tree.CreateTable;
+import io.crate.sql.tree.Expression;
+import io.crate.sql.tree.GenericProperties;
+import io.crate.sql.tree.GenericProperty;
+import io.crate.sql.tree.Insert;
+import io.crate.sql.tree.InsertFromSubquery;
+import io.crate.sql.tree.LogicalBinaryExpression;
+import io.crate.sql.tree.ObjectColumnType;
+import io.crate.sql.tree.PrimaryKeyConstraint;
+import io.crate.sql.tree.QualifiedName;
+import io.crate.sql.tree.QualifiedNameReference;
+import io.crate.sql.tree.Query;
+import io.crate.sql.tree.QuerySpecification;
+import io.crate.sql.tree.RefreshMaterializedView;
+import io.crate.sql.tree.Select;
+import io.crate.sql.tree.SelectItem;
+import io.crate.sql.tree.SingleColumn;
+import io.crate.sql.tree.Table;
+import io.crate.sql.tree.TableElement;
+import io.crate.types.ArrayType;
+import io.crate.types.CollectionType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import io.crate.types.ObjectType;
+import io.crate.types.SetType;
+import org.elasticsearch.common.unit.TimeValue;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Analyzer for <code>CREATE MATERIALIZED VIEW</code> and <code>REFRESH MATERIALIZED VIEW</code>.
+ *
+ * A materialized view is a regular table holding the result of a grouping query on a single table.
+ * The group keys of the query become the primary key of that table.
+ *
+ * <code>REFRESH MATERIALIZED VIEW</code> is analyzed as an <code>INSERT INTO ... (SELECT ...) ON CONFLICT</code>
+ * statement:
+ *
+ * <ul>
+ *     <li>Without <code>incremental_column</code> the whole query is evaluated and all groups are replaced.</li>
+ *     <li>With <code>incremental_column</code> only the source rows with a value above the highest watermark stored
+ *     in the view and at most <code>now - incremental_delay</code> are aggregated, and that upper bound becomes the
+ *     new watermark. The partial results are merged into the stored groups (count and sum are added up, min and max
+ *     are compared).</li>
+ * </ul>
+ *
+ * The incremental column must be a <code>GENERATED ALWAYS AS CURRENT_TIMESTAMP</code> column, so that its value is
+ * assigned on insert and rows can't arrive with a value below an already processed window. Rows sharing the same
+ * timestamp always fall into the same window because the windows are bounded by the refresh time instead of the
+ * values found in the source. <code>incremental_delay</code> has to cover the time it takes for an inserted row to
+ * become visible to a refresh, plus the clock difference between the nodes.
+ */
+public final class MaterializedViewAnalyzer {
+
+    private static final String INCREMENTAL_COLUMN = "incremental_column";
+    private static final String INCREMENTAL_DELAY = "incremental_delay";
+    private static final Set<String> MERGEABLE_AGGREGATES = ImmutableSet.of("count", "sum", "min", "max");
+
+    private final Schemas schemas;
+    private final RelationAnalyzer relationAnalyzer;
+    private final CreateTableStatementAnalyzer createTableStatementAnalyzer;
+    private final InsertFromSubQueryAnalyzer insertFromSubQueryAnalyzer;
+    private final SymbolPrinter symbolPrinter;
+    private final SQLPrinter sqlPrinter;
+
+    MaterializedViewAnalyzer(Functions functions,
+                             Schemas schemas,
+                             RelationAnalyzer relationAnalyzer,
+                             CreateTableStatementAnalyzer createTableStatementAnalyzer,
+                             InsertFromSubQueryAnalyzer insertFromSubQueryAnalyzer) {
+        this.schemas = schemas;
+        this.relationAnalyzer = relationAnalyzer;
+        this.createTableStatementAnalyzer = createTableStatementAnalyzer;
+        this.insertFromSubQueryAnalyzer = insertFromSubQueryAnalyzer;
+        this.symbolPrinter = new SymbolPrinter(functions);
+        this.sqlPrinter = new SQLPrinter(symbolPrinter);
+    }
+
+    public CreateTableAnalyzedStatement analyze(CreateMaterializedView createMaterializedView, Analysis analysis) {
+        RelationName name = RelationName.of(createMaterializedView.name(), analysis.sessionContext().defaultSchema());
+        if (BlobSchemaInfo.NAME.equals(name.schema())) {
+            throw new UnsupportedOperationException(
+                "Creating a materialized view in the \"blob\" schema is not supported");
+        }
+        GenericProperties tableProperties = new GenericProperties();
+        String incrementalColumn = null;
+        TimeValue incrementalDelay = null;
+        for (Map.Entry<String, Expression> property : createMaterializedView.properties().properties().entrySet()) {
+            if (INCREMENTAL_COLUMN.equals(property.getKey())) {
+                incrementalColumn = ExpressionToStringVisitor.convert(
+                    property.getValue(), analysis.parameterContext().parameters());
+            } else if (INCREMENTAL_DELAY.equals(property.getKey())) {
+                incrementalDelay = ExpressionToTimeValueVisitor.convert(
+                    property.getValue(), analysis.parameterContext().parameters(), INCREMENTAL_DELAY);
+            } else {
+                tableProperties.add(new GenericProperty(property.getKey(), property.getValue()));
+            }
+        }
+        if (incrementalDelay != null) {
+            if (incrementalColumn == null) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "'%s' requires '%s' to be set", INCREMENTAL_DELAY, INCREMENTAL_COLUMN));
+            }
+            if (incrementalDelay.millis() < 0) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "'%s' must not be negative", INCREMENTAL_DELAY));
+            }
+        }
+
+        TransactionContext txnCtx = analysis.transactionContext();
+        Definition definition = analyzeDefinition(createMaterializedView.query(), incrementalColumn, txnCtx);
+
+        // sqlPrinter isn't feature complete yet; so restrict CREATE MATERIALIZED VIEW to only support queries
+        // where the format->analyze round-trip works.
+        String formattedQuery;
+        try {
+            formattedQuery = sqlPrinter.format(definition.query);
+            relationAnalyzer.analyzeUnbound((Query) SqlParser.createStatement(formattedQuery), txnCtx, ParamTypeHints.EMPTY);
+        } catch (Exception e) {
+            throw new UnsupportedOperationException(
+                "Query cannot be used in a MATERIALIZED VIEW: " + createMaterializedView.query());
+        }
+
+        List<TableElement> tableElements = new ArrayList<>(definition.columnNames.size() + 2);
+        List<Symbol> outputs = definition.query.outputs();
+        for (int i = 0; i < outputs.size(); i++) {
+            tableElements.add(new ColumnDefinition(
+                definition.columnNames.get(i),
+                null,
+                toColumnType(outputs.get(i).valueType()),
+                Collections.emptyList()
+            ));
+        }
+        if (definition.incrementalColumn != null) {
+            tableElements.add(new ColumnDefinition(
+                MaterializedViewMetaData.WATERMARK_COLUMN,
+                null,
+                toColumnType(definition.incrementalColumn.valueType()),
+                Collections.emptyList()
+            ));
+        }
+        List<Expression> primaryKeys = new ArrayList<>(definition.keyColumnNames.size());
+        for (String keyColumnName : definition.keyColumnNames) {
+            primaryKeys.add(new QualifiedNameReference(QualifiedName.of(keyColumnName)));
+        }
+        tableElements.add(new PrimaryKeyConstraint(primaryKeys));
+
+        CreateTable createTable = new CreateTable(
+            new Table(QualifiedName.of(name.schema(), name.name())),
+            tableElements,
+            Collections.emptyList(),
+            tableProperties,
+            createMaterializedView.ifNotExists()
+        );
+        CreateTableAnalyzedStatement statement = createTableStatementAnalyzer.analyze(
+            createTable, analysis.parameterContext(), txnCtx);
+        statement.materializedView(new MaterializedViewMetaData(
+            formattedQuery,
+            incrementalColumn,
+            incrementalDelay == null ? MaterializedViewMetaData.DEFAULT_INCREMENTAL_DELAY : incrementalDelay.millis()
+        ));
+        return statement;
+    }
+
+    public RefreshMaterializedViewAnalyzedStatement analyze(RefreshMaterializedView refreshMaterializedView,
+                                                            Analysis analysis) {
+        RelationName name = RelationName.of(refreshMaterializedView.name(), analysis.sessionContext().defaultSchema());
+        TableInfo tableInfo = schemas.getTableInfo(name, Operation.INSERT);
+        MaterializedViewMetaData materializedView = tableInfo instanceof DocTableInfo
+            ? ((DocTableInfo) tableInfo).materializedView()
+            : null;
+        if (materializedView == null) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Relation '%s' is not a materialized view", name));
+        }
+        Query query = (Query) SqlParser.createStatement(materializedView.stmt());
+        Definition definition = analyzeDefinition(
+            query, materializedView.incrementalColumn(), analysis.transactionContext());
+
+        List<String> targetColumns = new ArrayList<>(definition.columnNames);
+        Query sourceQuery = query;
+        if (definition.incrementalColumn != null) {
+            targetColumns.add(MaterializedViewMetaData.WATERMARK_COLUMN);
+            long upperBound = analysis.transactionContext().currentTimeMillis() - materializedView.incrementalDelay();
+            sourceQuery = aggregateNewRowsOnly(
+                query,
+                name,
+                definition.query.tableRelation().getQualifiedName(),
+                definition.incrementalColumn,
+                upperBound
+            );
+        }
+        InsertFromSubquery insert = new InsertFromSubquery(
+            new Table(QualifiedName.of(name.schema(), name.name())),
+            sourceQuery,
+            targetColumns,
+            duplicateKeyContext(definition)
+        );
+        InsertFromSubQueryAnalyzedStatement insertStatement =
+            (InsertFromSubQueryAnalyzedStatement) insertFromSubQueryAnalyzer.analyze(insert, analysis);
+        return new RefreshMaterializedViewAnalyzedStatement(
+            (DocTableInfo) tableInfo,
+            definition.query.tableRelation().tableInfo(),
+            insertStatement
+        );
+    }
+
+    private Definition analyzeDefinition(Query query, @Nullable String incrementalColumn, TransactionContext txnCtx) {
+        QueriedRelation relation = (QueriedRelation) relationAnalyzer.analyzeUnbound(
+            query, txnCtx, ParamTypeHints.EMPTY);
+        if (!(relation instanceof QueriedTable)
+            || !(((QueriedTable<?>) relation).tableRelation() instanceof DocTableRelation)) {
+            throw new UnsupportedOperationException(
+                "The query of a materialized view must select from a single table");
+        }
+        @SuppressWarnings("unchecked")
+        QueriedTable<DocTableRelation> queriedTable = (QueriedTable<DocTableRelation>) relation;
+        QuerySpec querySpec = queriedTable.querySpec();
+        if (querySpec.groupBy().isEmpty()) {
+            throw new UnsupportedOperationException("The query of a materialized view must contain a GROUP BY clause");
+        }
+        if (querySpec.orderBy() != null || querySpec.limit() != null || querySpec.offset() != null) {
+            throw new UnsupportedOperationException(
+                "ORDER BY, LIMIT and OFFSET are not supported in the query of a materialized view");
+        }
+        if (querySpec.hasWindowFunctions()) {
+            throw new UnsupportedOperationException(
+                "Window functions are not supported in the query of a materialized view");
+        }
+
+        List<Symbol> outputs = querySpec.outputs();
+        List<String> columnNames = new ArrayList<>(outputs.size());
+        Set<String> uniqueColumnNames = new HashSet<>();
+        for (int i = 0; i < outputs.size(); i++) {
+            String columnName = queriedTable.fields().get(i).outputName();
+            if (!uniqueColumnNames.add(columnName)) {
+                throw new IllegalArgumentException(
+                    "Query in CREATE MATERIALIZED VIEW must not have duplicate column names");
+            }
+            columnNames.add(columnName);
+        }
+        List<String> keyColumnNames = new ArrayList<>(querySpec.groupBy().size());
+        for (Symbol groupKey : querySpec.groupBy()) {
+            int idx = outputs.indexOf(groupKey);
+            if (idx < 0) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "GROUP BY expression '%s' must be part of the outputs of a materialized view",
+                    symbolPrinter.printUnqualified(groupKey)));
+            }
+            keyColumnNames.add(columnNames.get(idx));
+        }
+
+        Reference incrementalColumnRef = null;
+        if (incrementalColumn != null) {
+            if (uniqueColumnNames.contains(MaterializedViewMetaData.WATERMARK_COLUMN)) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Column name '%s' is reserved for incremental materialized views",
+                    MaterializedViewMetaData.WATERMARK_COLUMN));
+            }
+            if (querySpec.having() != null && querySpec.having().hasQuery()) {
+                throw new UnsupportedOperationException(
+                    "HAVING is not supported in incremental materialized views");
+            }
+            DocTableInfo sourceTable = queriedTable.tableRelation().tableInfo();
+            incrementalColumnRef = sourceTable.getReference(ColumnIdent.fromPath(incrementalColumn));
+            if (incrementalColumnRef == null) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Incremental column '%s' does not exist in table '%s'", incrementalColumn, sourceTable.ident()));
+            }
+            if (!isAssignedOnInsert(incrementalColumnRef)) {
+                throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                    "Incremental column '%s' must be a column generated always as CURRENT_TIMESTAMP",
+                    incrementalColumn));
+            }
+            for (int i = 0; i < outputs.size(); i++) {
+                if (!keyColumnNames.contains(columnNames.get(i)) && mergeableAggregate(outputs.get(i)) == null) {
+                    throw new UnsupportedOperationException(String.format(Locale.ENGLISH,
+                        "'%s' cannot be refreshed incrementally, only group keys and the aggregates %s are supported",
+                        columnNames.get(i), MERGEABLE_AGGREGATES));
+                }
+            }
+        }
+        return new Definition(queriedTable, columnNames, keyColumnNames, incrementalColumnRef);
+    }
+
+    /**
+     * Only a column which is assigned the insert time guarantees that rows can't appear below the watermark
+     * after a refresh. Values of any other column may tie with or fall behind the watermark.
+     */
+    private static boolean isAssignedOnInsert(Reference reference) {
+        if (!(reference instanceof GeneratedReference)) {
+            return false;
+        }
+        Symbol generatedExpression = ((GeneratedReference) reference).generatedExpression();
+        return generatedExpression instanceof Function
+               && ((Function) generatedExpression).info().ident().name().equals(CurrentTimestampFunction.NAME);
+    }
+
+    @Nullable
+    private static String mergeableAggregate(Symbol symbol) {
+        if (symbol instanceof Function) {
+            FunctionInfo info = ((Function) symbol).info();
+            if (info.type() == FunctionInfo.Type.AGGREGATE && MERGEABLE_AGGREGATES.contains(info.ident().name())) {
+                return info.ident().name();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Restricts the query to the rows between the watermark of the last refresh and the given upper bound and adds
+     * the upper bound as the new watermark:
+     *
+     * <pre>
+     *     SELECT x, count(*), upperBound FROM t
+     *     WHERE ... AND (ts > (SELECT max(mv_watermark) FROM mv) OR (SELECT max(mv_watermark) FROM mv) IS NULL)
+     *         AND ts <= upperBound
+     *     GROUP BY x
+     * </pre>
+     */
+    private static Query aggregateNewRowsOnly(Query query,
+                                              RelationName viewName,
+                                              QualifiedName sourceRelationName,
+                                              Reference incrementalColumn,
+                                              long upperBound) {
+        QuerySpecification querySpec = (QuerySpecification) query.getQueryBody();
+        // qualified by the name the source relation has in the query, which is the alias if one is used
+        String column = sourceRelationName.getParts().stream()
+                            .map(Identifiers::quote)
+                            .collect(Collectors.joining(".")) +
+                        '.' + incrementalColumn.column().quotedOutputName();
+        String watermark = String.format(Locale.ENGLISH, "(SELECT max(%s) FROM %s)",
+            Identifiers.quote(MaterializedViewMetaData.WATERMARK_COLUMN), viewName.sqlFqn());
+        Expression newRowsOnly = SqlParser.createExpression(String.format(Locale.ENGLISH,
+            "(%s > %s OR %s IS NULL) AND %s <= %d", column, watermark, watermark, column, upperBound));
+        Expression where = querySpec.getWhere()
+            .map(w -> (Expression) new LogicalBinaryExpression(LogicalBinaryExpression.Type.AND, w, newRowsOnly))
+            .orElse(newRowsOnly);
+
+        List<SelectItem> selectItems = new ArrayList<>(querySpec.getSelect().getSelectItems());
+        selectItems.add(new SingleColumn(
+            SqlParser.createExpression(Long.toString(upperBound)), MaterializedViewMetaData.WATERMARK_COLUMN));
+        return new Query(
+            new QuerySpecification(
+                new Select(querySpec.getSelect().isDistinct(), selectItems),
+                querySpec.getFrom(),
+                Optional.of(where),
+                querySpec.getGroupBy(),
+                querySpec.getHaving(),
+                querySpec.getOrderBy(),
+                querySpec.getLimit(),
+                querySpec.getOffset()
+            ),
+            query.getOrderBy(),
+            query.getLimit(),
+            query.getOffset()
+        );
+    }
+
+    private static Insert.DuplicateKeyContext duplicateKeyContext(Definition definition) {
+        List<Assignment> assignments = new ArrayList<>();
+        List<Symbol> outputs = definition.query.querySpec().outputs();
+        for (int i = 0; i < outputs.size(); i++) {
+            String columnName = definition.columnNames.get(i);
+            if (definition.keyColumnNames.contains(columnName)) {
+                continue;
+            }
+            String column = Identifiers.quote(columnName);
+            String value;
+            if (definition.incrementalColumn == null) {
+                value = "excluded." + column;
+            } else {
+                value = mergeExpression(mergeableAggregate(outputs.get(i)), column);
+            }
+            assignments.add(assignment(columnName, value));
+        }
+        if (definition.incrementalColumn != null) {
+            String watermark = Identifiers.quote(MaterializedViewMetaData.WATERMARK_COLUMN);
+            assignments.add(assignment(
+                MaterializedViewMetaData.WATERMARK_COLUMN,
+                "greatest(" + watermark + ", excluded." + watermark + ")"));
+        }
+        if (assignments.isEmpty()) {
+            return new Insert.DuplicateKeyContext(
+                Insert.DuplicateKeyContext.Type.ON_CONFLICT_DO_NOTHING,
+                Collections.emptyList(),
+                definition.keyColumnNames);
+        }
+        return new Insert.DuplicateKeyContext(
+            Insert.DuplicateKeyContext.Type.ON_CONFLICT_DO_UPDATE_SET,
+            assignments,
+            definition.keyColumnNames);
+    }
+
+    private static String mergeExpression(String aggregate, String column) {
+        switch (aggregate) {
+            case "count":
+            case "sum":
+                return String.format(Locale.ENGLISH,
+                    "coalesce(%s + excluded.%s, %s, excluded.%s)", column, column, column, column);
+            case "min":
+                return "least(" + column + ", excluded." + column + ")";
+            case "max":
+                return "greatest(" + column + ", excluded." + column + ")";
+            default:
+                throw new IllegalStateException("Aggregate cannot be merged: " + aggregate);
+        }
+    }
+
+    private static Assignment assignment(String columnName, String expression) {
+        return new Assignment(
+            new QualifiedNameReference(QualifiedName.of(columnName)),
+            SqlParser.createExpression(expression));
+    }
+
+    private static ColumnType toColumnType(DataType<?> dataType) {
+        if (dataType.id() == ObjectType.ID) {
+            return new ObjectColumnType(null, Collections.emptyList());
+        }
+        if (dataType.id() == ArrayType.ID) {
+            return CollectionColumnType.array(toColumnType(((CollectionType) dataType).innerType()));
+        }
+        if (dataType.id() == SetType.ID) {
+            return CollectionColumnType.set(toColumnType(((CollectionType) dataType).innerType()));
+        }
+        if (dataType.id() == DataTypes.UNDEFINED.id()) {
+            throw new IllegalArgumentException("Cannot create a materialized view column with an undefined type");
+        }
+        return new ColumnType(dataType.getName());
+    }
+
+    private static class Definition {
+
+        private final QueriedTable<DocTableRelation> query;
+        private final List<String> columnNames;
+        private final List<String> keyColumnNames;
+        @Nullable
+        private final Reference incrementalColumn;
+
+        Definition(QueriedTable<DocTableRelation> query,
+                   List<String> columnNames,
+                   List<String> keyColumnNames,
+                   @Nullable Reference incrementalColumn) {
+            this.query = query;
+            this.columnNames = columnNames;
+            this.keyColumnNames = keyColumnNames;
+            this.incrementalColumn = incrementalColumn;
+        }
+    }
+}
@@ -34,7 +34,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
-import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -122,7 +121,10 @@ public class OrderBy implements Writeable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(orderBySymbols, reverseFlags, nullsFirst);
+        int result = orderBySymbols.hashCode();
+        result = 31 * result + Arrays.hashCode(reverseFlags);
+        result = 31 * result + Arrays.hashCode(nullsFirst);
+        return result;
     }
 
     @Override
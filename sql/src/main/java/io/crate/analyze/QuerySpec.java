@@ -24,6 +24,7 @@ package io.crate.analyze;
 import io.crate.collections.Lists2;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.WindowFunction;
 
 import javax.annotation.Nullable;
 import java.util.Collections;
@@ -128,6 +129,10 @@ public class QuerySpec {
         return hasAggregates;
     }
 
+    public boolean hasWindowFunctions() {
+        return WindowFunction.containsWindowFunction(outputs);
+    }
+
     public QuerySpec hasAggregates(boolean hasAggregates) {
         this.hasAggregates = hasAggregates;
         return this;
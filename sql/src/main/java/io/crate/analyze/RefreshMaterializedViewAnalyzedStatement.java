@@ -0,0 +1,71 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.analyze;
+
+import io.crate.metadata.doc.DocTableInfo;
+
+public final class RefreshMaterializedViewAnalyzedStatement implements AnalyzedStatement {
+
+    private final DocTableInfo view;
+    private final DocTableInfo source;
+    private final InsertFromSubQueryAnalyzedStatement insert;
+
+    RefreshMaterializedViewAnalyzedStatement(DocTableInfo view,
+                                             DocTableInfo source,
+                                             InsertFromSubQueryAnalyzedStatement insert) {
+        this.view = view;
+        this.source = source;
+        this.insert = insert;
+    }
+
+    /**
+     * The table holding the result of the materialized view.
+     */
+    public DocTableInfo view() {
+        return view;
+    }
+
+    /**
+     * The table the query of the materialized view selects from.
+     */
+    public DocTableInfo source() {
+        return source;
+    }
+
+    /**
+     * The statement which upserts the (partial) result of the query into the table of the view.
+     */
+    public InsertFromSubQueryAnalyzedStatement insert() {
+        return insert;
+    }
+
+    @Override
+    public <C, R> R accept(AnalyzedStatementVisitor<C, R> analyzedStatementVisitor, C context) {
+        return analyzedStatementVisitor.visitRefreshMaterializedView(this, context);
+    }
+
+    @Override
+    public boolean isWriteOperation() {
+        return true;
+    }
+}
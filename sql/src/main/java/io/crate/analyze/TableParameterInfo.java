@@ -56,6 +56,7 @@ public class TableParameterInfo {
     public static final String BLOCKS_METADATA = IndexMetaData.SETTING_BLOCKS_METADATA;
     public static final String SETTING_WAIT_FOR_ACTIVE_SHARDS = IndexMetaData.SETTING_WAIT_FOR_ACTIVE_SHARDS.getKey();
     public static final String BLOBS_PATH = BlobIndicesService.SETTING_INDEX_BLOBS_PATH.getKey();
+    public static final String BLOBS_PACK_THRESHOLD = BlobIndicesService.SETTING_INDEX_BLOBS_PACK_THRESHOLD.getKey();
     public static final String FLUSH_THRESHOLD_SIZE = IndexSettings.INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING.getKey();
     public static final String TRANSLOG_DURABILITY = IndexSettings.INDEX_TRANSLOG_DURABILITY_SETTING.getKey();
     public static final String TRANSLOG_SYNC_INTERVAL = IndexSettings.INDEX_TRANSLOG_SYNC_INTERVAL_SETTING.getKey();
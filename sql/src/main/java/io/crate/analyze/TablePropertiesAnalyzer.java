@@ -72,6 +72,7 @@ public final class TablePropertiesAnalyzer {
             .put(stripIndexPrefix(TableParameterInfo.MAX_NGRAM_DIFF), TableParameterInfo.MAX_NGRAM_DIFF)
             .put(stripIndexPrefix(TableParameterInfo.MAX_SHINGLE_DIFF), TableParameterInfo.MAX_SHINGLE_DIFF)
             .put("blobs_path", TableParameterInfo.BLOBS_PATH)
+            .put("blobs_pack_threshold", TableParameterInfo.BLOBS_PACK_THRESHOLD)
             .build();
 
     private static final ImmutableBiMap<String, String> ES_TO_CRATE_SETTINGS_MAP =
@@ -109,6 +110,7 @@ public final class TablePropertiesAnalyzer {
             .put(TableParameterInfo.MAX_NGRAM_DIFF, new SettingsAppliers.IntSettingsApplier(CrateTableSettings.MAX_NGRAM_DIFF))
             .put(TableParameterInfo.MAX_SHINGLE_DIFF, new SettingsAppliers.IntSettingsApplier(CrateTableSettings.MAX_SHINGLE_DIFF))
             .put(TableParameterInfo.BLOBS_PATH, new BlobPathSettingApplier())
+            .put(TableParameterInfo.BLOBS_PACK_THRESHOLD, new SettingsAppliers.ByteSizeSettingsApplier(CrateTableSettings.BLOBS_PACK_THRESHOLD))
             .build();
 
     private static final ImmutableMap<String, MappingsApplier> MAPPINGS_APPLIER =
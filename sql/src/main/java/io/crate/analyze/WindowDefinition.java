@@ -0,0 +1,133 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze;
+
+import io.crate.collections.Lists2;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.planner.ExplainLeaf;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Analyzed form of the <pre>OVER (PARTITION BY ... ORDER BY ... frame)</pre> clause of a window function.
+ */
+public class WindowDefinition implements Writeable {
+
+    private final List<Symbol> partitions;
+
+    @Nullable
+    private final OrderBy orderBy;
+
+    private final WindowFrameDefinition windowFrame;
+
+    public WindowDefinition(List<Symbol> partitions, @Nullable OrderBy orderBy, WindowFrameDefinition windowFrame) {
+        this.partitions = partitions;
+        this.orderBy = orderBy;
+        this.windowFrame = windowFrame;
+    }
+
+    public WindowDefinition(StreamInput in) throws IOException {
+        partitions = Symbols.listFromStream(in);
+        orderBy = in.readOptionalWriteable(OrderBy::new);
+        windowFrame = new WindowFrameDefinition(in);
+    }
+
+    public List<Symbol> partitions() {
+        return partitions;
+    }
+
+    @Nullable
+    public OrderBy orderBy() {
+        return orderBy;
+    }
+
+    public WindowFrameDefinition windowFrame() {
+        return windowFrame;
+    }
+
+    public WindowDefinition map(Function<? super Symbol, ? extends Symbol> mapper) {
+        return new WindowDefinition(
+            Lists2.copyAndReplace(partitions, mapper),
+            orderBy == null ? null : orderBy.copyAndReplace(mapper),
+            windowFrame.map(mapper)
+        );
+    }
+
+    /**
+     * Calls the consumer for each partition and order by symbol
+     */
+    public void accept(Consumer<? super Symbol> consumer) {
+        for (Symbol partition : partitions) {
+            consumer.accept(partition);
+        }
+        if (orderBy != null) {
+            orderBy.accept(consumer);
+        }
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        Symbols.toStream(partitions, out);
+        out.writeOptionalWriteable(orderBy);
+        windowFrame.writeTo(out);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WindowDefinition that = (WindowDefinition) o;
+        return partitions.equals(that.partitions) &&
+               Objects.equals(orderBy, that.orderBy) &&
+               windowFrame.equals(that.windowFrame);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(partitions, orderBy, windowFrame);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        if (!partitions.isEmpty()) {
+            sb.append("PARTITION BY ").append(ExplainLeaf.printList(partitions)).append(' ');
+        }
+        if (orderBy != null) {
+            sb.append("ORDER BY ");
+            OrderBy.explainRepresentation(sb, orderBy.orderBySymbols(), orderBy.reverseFlags(), orderBy.nullsFirst());
+            sb.append(' ');
+        }
+        sb.append(windowFrame).append(')');
+        return sb.toString();
+    }
+}
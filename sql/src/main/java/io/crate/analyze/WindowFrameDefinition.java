@@ -0,0 +1,109 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze;
+
+import io.crate.expression.symbol.Symbol;
+import io.crate.sql.tree.WindowFrame;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+import org.elasticsearch.common.io.stream.Writeable;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Analyzed form of a {@link WindowFrame}.
+ * If a window definition doesn't contain a frame clause {@link #DEFAULT} is used,
+ * which is <pre>RANGE BETWEEN UNBOUNDED PRECEDING AND CURRENT ROW</pre>
+ */
+public class WindowFrameDefinition implements Writeable {
+
+    public static final WindowFrameDefinition DEFAULT = new WindowFrameDefinition(
+        WindowFrame.Type.RANGE,
+        FrameBoundDefinition.UNBOUNDED_PRECEDING,
+        FrameBoundDefinition.CURRENT_ROW
+    );
+
+    private final WindowFrame.Type type;
+    private final FrameBoundDefinition start;
+    private final FrameBoundDefinition end;
+
+    public WindowFrameDefinition(WindowFrame.Type type, FrameBoundDefinition start, FrameBoundDefinition end) {
+        this.type = type;
+        this.start = start;
+        this.end = end;
+    }
+
+    public WindowFrameDefinition(StreamInput in) throws IOException {
+        type = WindowFrame.Type.values()[in.readVInt()];
+        start = new FrameBoundDefinition(in);
+        end = new FrameBoundDefinition(in);
+    }
+
+    public WindowFrame.Type type() {
+        return type;
+    }
+
+    public FrameBoundDefinition start() {
+        return start;
+    }
+
+    public FrameBoundDefinition end() {
+        return end;
+    }
+
+    public WindowFrameDefinition map(Function<? super Symbol, ? extends Symbol> mapper) {
+        FrameBoundDefinition newStart = start.map(mapper);
+        FrameBoundDefinition newEnd = end.map(mapper);
+        if (newStart == start && newEnd == end) {
+            return this;
+        }
+        return new WindowFrameDefinition(type, newStart, newEnd);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVInt(type.ordinal());
+        start.writeTo(out);
+        end.writeTo(out);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WindowFrameDefinition that = (WindowFrameDefinition) o;
+        return type == that.type && start.equals(that.start) && end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, start, end);
+    }
+
+    @Override
+    public String toString() {
+        return type.name() + " BETWEEN " + start + " AND " + end;
+    }
+}
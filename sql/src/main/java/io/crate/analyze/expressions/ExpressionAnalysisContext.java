@@ -38,6 +38,7 @@ public class ExpressionAnalysisContext {
     private final Map<SubqueryExpression, Object> arrayExpressionsChildren = new IdentityHashMap<>();
 
     private boolean hasAggregates;
+    private boolean hasWindowFunctions;
 
     void indicateAggregates() {
         hasAggregates = true;
@@ -47,6 +48,14 @@ public class ExpressionAnalysisContext {
         return hasAggregates;
     }
 
+    void indicateWindowFunctions() {
+        hasWindowFunctions = true;
+    }
+
+    public boolean hasWindowFunctions() {
+        return hasWindowFunctions;
+    }
+
     /**
      * Registers the given expression as the child of an ArrayComparisonExpression.
      * Can be used by downstream operators to check if a SubqueryExpression is part of
@@ -29,9 +29,13 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import io.crate.action.sql.Option;
 import io.crate.analyze.DataTypeAnalyzer;
+import io.crate.analyze.FrameBoundDefinition;
 import io.crate.analyze.NegativeLiteralVisitor;
+import io.crate.analyze.OrderBy;
 import io.crate.analyze.SubscriptContext;
 import io.crate.analyze.SubscriptValidator;
+import io.crate.analyze.WindowDefinition;
+import io.crate.analyze.WindowFrameDefinition;
 import io.crate.analyze.relations.FieldProvider;
 import io.crate.analyze.relations.QueriedRelation;
 import io.crate.exceptions.ColumnUnknownException;
@@ -63,6 +67,7 @@ import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.expression.symbol.format.SymbolFormatter;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionImplementation;
@@ -88,6 +93,7 @@ import io.crate.sql.tree.CurrentTime;
 import io.crate.sql.tree.DoubleLiteral;
 import io.crate.sql.tree.Expression;
 import io.crate.sql.tree.Extract;
+import io.crate.sql.tree.FrameBound;
 import io.crate.sql.tree.FunctionCall;
 import io.crate.sql.tree.IfExpression;
 import io.crate.sql.tree.InListExpression;
@@ -108,11 +114,14 @@ import io.crate.sql.tree.ParameterExpression;
 import io.crate.sql.tree.QualifiedNameReference;
 import io.crate.sql.tree.SearchedCaseExpression;
 import io.crate.sql.tree.SimpleCaseExpression;
+import io.crate.sql.tree.SortItem;
 import io.crate.sql.tree.StringLiteral;
 import io.crate.sql.tree.SubqueryExpression;
 import io.crate.sql.tree.SubscriptExpression;
 import io.crate.sql.tree.TryCast;
 import io.crate.sql.tree.WhenClause;
+import io.crate.sql.tree.Window;
+import io.crate.sql.tree.WindowFrame;
 import io.crate.types.ArrayType;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
@@ -228,6 +237,12 @@ public class ExpressionAnalyzer {
             name = parts.get(1);
         }
 
+        if (node.getWindow().isPresent()) {
+            if (node.isDistinct()) {
+                throw new UnsupportedFeatureException("DISTINCT is not supported in window functions");
+            }
+            return allocateWindowFunction(schema, name, arguments, node.getWindow().get(), context);
+        }
         if (node.isDistinct()) {
             if (arguments.size() > 1) {
                 throw new UnsupportedOperationException(String.format(Locale.ENGLISH,
@@ -252,6 +267,121 @@ public class ExpressionAnalyzer {
         }
     }
 
+    private Symbol allocateWindowFunction(@Nullable String schema,
+                                          String name,
+                                          List<Symbol> arguments,
+                                          Window window,
+                                          ExpressionAnalysisContext context) {
+        FunctionImplementation funcImpl = getFuncImpl(
+            schema,
+            transactionContext.sessionContext().defaultSchema(),
+            name,
+            arguments,
+            functions);
+        FunctionInfo functionInfo = funcImpl.info();
+        if (functionInfo.type() != FunctionInfo.Type.WINDOW && functionInfo.type() != FunctionInfo.Type.AGGREGATE) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "OVER clause can only be used with window or aggregate functions, %s is neither", name));
+        }
+        List<Symbol> partitions = new ArrayList<>(window.getPartitions().size());
+        for (Expression partition : window.getPartitions()) {
+            partitions.add(partition.accept(innerAnalyzer, context));
+        }
+        WindowDefinition windowDefinition = new WindowDefinition(
+            partitions,
+            toOrderBy(window.getOrderBy(), context),
+            toWindowFrameDefinition(window.getWindowFrame(), context)
+        );
+        windowDefinition.accept(symbol -> ensureNoNestedWindowFunction(symbol, name));
+        for (Symbol argument : arguments) {
+            ensureNoNestedWindowFunction(argument, name);
+        }
+        context.indicateWindowFunctions();
+        return new WindowFunction(
+            functionInfo,
+            cast(arguments, functionInfo.ident().argumentTypes()),
+            windowDefinition
+        );
+    }
+
+    private static void ensureNoNestedWindowFunction(Symbol symbol, String name) {
+        if (WindowFunction.containsWindowFunction(symbol)) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Window function calls cannot be nested within the window function %s", name));
+        }
+    }
+
+    @Nullable
+    private OrderBy toOrderBy(List<SortItem> sortItems, ExpressionAnalysisContext context) {
+        int size = sortItems.size();
+        if (size == 0) {
+            return null;
+        }
+        List<Symbol> symbols = new ArrayList<>(size);
+        boolean[] reverseFlags = new boolean[size];
+        Boolean[] nullsFirst = new Boolean[size];
+        for (int i = 0; i < size; i++) {
+            SortItem sortItem = sortItems.get(i);
+            symbols.add(sortItem.getSortKey().accept(innerAnalyzer, context));
+            switch (sortItem.getNullOrdering()) {
+                case FIRST:
+                    nullsFirst[i] = true;
+                    break;
+                case LAST:
+                    nullsFirst[i] = false;
+                    break;
+                default:
+                    nullsFirst[i] = null;
+            }
+            reverseFlags[i] = sortItem.getOrdering() == SortItem.Ordering.DESCENDING;
+        }
+        return new OrderBy(symbols, reverseFlags, nullsFirst);
+    }
+
+    private WindowFrameDefinition toWindowFrameDefinition(Optional<WindowFrame> windowFrame,
+                                                          ExpressionAnalysisContext context) {
+        if (!windowFrame.isPresent()) {
+            return WindowFrameDefinition.DEFAULT;
+        }
+        WindowFrame frame = windowFrame.get();
+        FrameBoundDefinition start = toFrameBoundDefinition(frame.getStart(), context);
+        FrameBoundDefinition end = frame.getEnd().isPresent()
+            ? toFrameBoundDefinition(frame.getEnd().get(), context)
+            : FrameBoundDefinition.CURRENT_ROW;
+        if (start.type() == FrameBound.Type.UNBOUNDED_FOLLOWING) {
+            throw new IllegalArgumentException("Frame start cannot be UNBOUNDED FOLLOWING");
+        }
+        if (end.type() == FrameBound.Type.UNBOUNDED_PRECEDING) {
+            throw new IllegalArgumentException("Frame end cannot be UNBOUNDED PRECEDING");
+        }
+        if (start.type().ordinal() > end.type().ordinal()) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Frame starting from %s cannot end with %s", start, end));
+        }
+        if (frame.getType() == WindowFrame.Type.RANGE && (start.offset() != null || end.offset() != null)) {
+            throw new UnsupportedFeatureException("RANGE frames with offset PRECEDING or FOLLOWING are not supported");
+        }
+        return new WindowFrameDefinition(frame.getType(), start, end);
+    }
+
+    private FrameBoundDefinition toFrameBoundDefinition(FrameBound frameBound, ExpressionAnalysisContext context) {
+        Expression value = frameBound.getValue();
+        if (value == null) {
+            return new FrameBoundDefinition(frameBound.getType(), null);
+        }
+        Symbol offset = value.accept(innerAnalyzer, context).cast(DataTypes.LONG, false);
+        if (offset instanceof Literal) {
+            Long offsetValue = (Long) ((Literal) offset).value();
+            if (offsetValue == null) {
+                throw new IllegalArgumentException("Frame offset must not be NULL");
+            }
+            if (offsetValue < 0) {
+                throw new IllegalArgumentException("Frame offset must not be negative");
+            }
+        }
+        return new FrameBoundDefinition(frameBound.getType(), offset);
+    }
+
     public ExpressionAnalyzer copyForOperation(Operation operation) {
         return new ExpressionAnalyzer(
             functions,
@@ -914,6 +1044,9 @@ public class ExpressionAnalyzer {
         FunctionInfo functionInfo = funcImpl.info();
         if (functionInfo.type() == FunctionInfo.Type.AGGREGATE) {
             context.indicateAggregates();
+        } else if (functionInfo.type() == FunctionInfo.Type.WINDOW) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Window function %s requires an OVER clause", functionName));
         }
         List<Symbol> castArguments = cast(arguments, functionInfo.ident().argumentTypes());
         Function newFunction = new Function(functionInfo, castArguments);
@@ -51,6 +51,7 @@ import io.crate.expression.symbol.Field;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.expression.symbol.format.SymbolPrinter;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionImplementation;
@@ -311,8 +312,12 @@ public class RelationAnalyzer extends DefaultTraversalVisitor<AnalyzedRelation,
             ensureNonAggregatesInGroupBy(selectAnalysis.outputSymbols(), groupBy);
         }
 
+        ensureNoWindowFunctions(groupBy, "GROUP BY");
         boolean distinctProcessed = false;
         boolean isDistinct = node.getSelect().isDistinct();
+        if (isDistinct && expressionAnalysisContext.hasWindowFunctions()) {
+            throw new UnsupportedFeatureException("SELECT DISTINCT is not supported in combination with window functions");
+        }
         if (isDistinct) {
             List<Symbol> newGroupBy = rewriteGlobalDistinct(selectAnalysis.outputSymbols());
             if (groupBy.isEmpty() || Sets.newHashSet(newGroupBy).equals(Sets.newHashSet(groupBy))) {
@@ -326,6 +331,7 @@ public class RelationAnalyzer extends DefaultTraversalVisitor<AnalyzedRelation,
             groupBy = null;
         }
         Symbol querySymbol = expressionAnalyzer.generateQuerySymbol(node.getWhere(), expressionAnalysisContext);
+        ensureNoWindowFunctions(Collections.singletonList(querySymbol), "WHERE");
         WhereClause whereClause = new WhereClause(querySymbol);
         QuerySpec querySpec = new QuerySpec()
             .orderBy(analyzeOrderBy(
@@ -450,6 +456,13 @@ public class RelationAnalyzer extends DefaultTraversalVisitor<AnalyzedRelation,
         return groupBy;
     }
 
+    private static void ensureNoWindowFunctions(@Nullable List<Symbol> symbols, String clause) {
+        if (symbols != null && WindowFunction.containsWindowFunction(symbols)) {
+            throw new IllegalArgumentException(String.format(Locale.ENGLISH,
+                "Window functions are not allowed in %s", clause));
+        }
+    }
+
     private static void ensureNonAggregatesInGroupBy(List<Symbol> outputSymbols,
                                                      List<Symbol> groupBy) throws IllegalArgumentException {
         for (int i = 0; i < outputSymbols.size(); i++) {
@@ -544,6 +557,7 @@ public class RelationAnalyzer extends DefaultTraversalVisitor<AnalyzedRelation,
                 throw new IllegalArgumentException("HAVING clause can only be used in GROUP BY or global aggregate queries");
             }
             Symbol symbol = expressionAnalyzer.convert(having.get(), expressionAnalysisContext);
+            ensureNoWindowFunctions(Collections.singletonList(symbol), "HAVING");
             HavingSymbolValidator.validate(symbol, groupBy);
             return new HavingClause(symbol);
         }
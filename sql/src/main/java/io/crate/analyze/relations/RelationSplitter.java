@@ -123,12 +123,12 @@ public final class RelationSplitter {
         // collect all fields from all join conditions
         FieldsVisitor.visitFields(joinConditions, addFieldToMap);
 
-        // push down the limit + offset only if there is no filtering, ordering, global aggregation or grouping
+        // push down the limit + offset only if there is no filtering, ordering, global aggregation, grouping or window function
         // after the join and only if the relations are not part of a join condition.
         Symbol limit = querySpec.limit();
         boolean filterNeeded = querySpec.where().hasQuery() && !(querySpec.where().query() instanceof Literal);
         if (limit != null && groupBy.isEmpty() && !querySpec.hasAggregates() && !filterNeeded
-            && querySpec.orderBy() == null) {
+            && querySpec.orderBy() == null && !querySpec.hasWindowFunctions()) {
             Symbol limitAndOffset = Limits.mergeAdd(limit, querySpec.offset());
             for (AnalyzedRelation rel : Sets.difference(specs.keySet(), fieldsByRelation.keySet())) {
                 if (!relationPartOfJoinConditions.contains(rel.getQualifiedName())) {
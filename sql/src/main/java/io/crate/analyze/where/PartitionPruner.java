@@ -0,0 +1,188 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.analyze.where;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.operator.any.AnyOperators;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.doc.PartitionIndex;
+import io.crate.types.CollectionType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static io.crate.expression.operator.any.AnyOperators.collectionValueToIterable;
+
+/**
+ * Selects the partitions which can match a query using the {@link PartitionIndex} of the table.
+ *
+ * Only conditions of the form {@code column <op> literal} with {@code op} being =, &lt;, &lt;=, &gt;, &gt;= or = ANY
+ * which are part of the top-level conjunction of the query are used. Partitions are pruned only if one of these
+ * conditions is false or null for them, which makes the whole query false or null.
+ * All other predicates are left for the per-partition normalization in {@link WhereClauseAnalyzer}.
+ */
+final class PartitionPruner {
+
+    private static final Set<String> COMPARISONS = ImmutableSet.of(
+        EqOperator.NAME, GtOperator.NAME, GteOperator.NAME, LtOperator.NAME, LteOperator.NAME);
+
+    private PartitionPruner() {
+    }
+
+    static List<PartitionName> candidates(Symbol query, DocTableInfo table) {
+        PartitionIndex index = table.partitionIndex();
+        BitSet matching = matching(query, index);
+        if (matching == null) {
+            return table.partitions();
+        }
+        List<PartitionName> partitions = table.partitions();
+        List<PartitionName> candidates = new ArrayList<>(matching.cardinality());
+        for (int i = matching.nextSetBit(0); i >= 0; i = matching.nextSetBit(i + 1)) {
+            candidates.add(partitions.get(i));
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the positions of the partitions which can match or null if the query can't be used to prune partitions
+     */
+    @Nullable
+    private static BitSet matching(Symbol query, PartitionIndex index) {
+        if (!(query instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) query;
+        String name = function.info().ident().name();
+        List<Symbol> args = function.arguments();
+        if (name.equals(AndOperator.NAME)) {
+            BitSet left = matching(args.get(0), index);
+            BitSet right = matching(args.get(1), index);
+            if (left == null) {
+                return right;
+            }
+            if (right != null) {
+                left.and(right);
+            }
+            return left;
+        }
+        if (args.size() != 2) {
+            return null;
+        }
+        Symbol first = args.get(0);
+        Symbol second = args.get(1);
+        if (first instanceof Literal && second instanceof Reference && !name.equals(AnyOperators.Names.EQ)) {
+            return comparison(swapped(name), (Reference) second, (Literal) first, index);
+        }
+        if (first instanceof Reference && second instanceof Literal) {
+            return comparison(name, (Reference) first, (Literal) second, index);
+        }
+        return null;
+    }
+
+    @Nullable
+    private static BitSet comparison(String name, Reference ref, Literal literal, PartitionIndex index) {
+        int column = index.columnIndex(ref);
+        if (column < 0 || !supportsRangeLookup(ref.valueType())) {
+            return null;
+        }
+        Object value = literal.value();
+        if (name.equals(AnyOperators.Names.EQ)) {
+            if (value == null) {
+                return new BitSet();
+            }
+            return isCollectionOf(literal.valueType(), ref.valueType())
+                ? index.anyOf(column, collectionValueToIterable(value))
+                : null;
+        }
+        if (!COMPARISONS.contains(name)) {
+            return null;
+        }
+        if (value == null) {
+            // comparisons with null are null and can't match
+            return new BitSet();
+        }
+        if (!literal.valueType().equals(ref.valueType())) {
+            return null;
+        }
+        switch (name) {
+            case EqOperator.NAME:
+                return index.range(column, value, true, value, true);
+            case GtOperator.NAME:
+                return index.range(column, value, false, null, false);
+            case GteOperator.NAME:
+                return index.range(column, value, true, null, false);
+            case LtOperator.NAME:
+                return index.range(column, null, false, value, false);
+            case LteOperator.NAME:
+                return index.range(column, null, false, value, true);
+            default:
+                return null;
+        }
+    }
+
+    private static String swapped(String name) {
+        switch (name) {
+            case GtOperator.NAME:
+                return LtOperator.NAME;
+            case GteOperator.NAME:
+                return LteOperator.NAME;
+            case LtOperator.NAME:
+                return GtOperator.NAME;
+            case LteOperator.NAME:
+                return GteOperator.NAME;
+            default:
+                return name;
+        }
+    }
+
+    private static boolean isCollectionOf(DataType collectionType, DataType innerType) {
+        return DataTypes.isCollectionType(collectionType)
+               && ((CollectionType) collectionType).innerType().equals(innerType);
+    }
+
+    /**
+     * Types for which the order of {@link DataType#compareValueTo} matches the comparison operators
+     */
+    private static boolean supportsRangeLookup(DataType type) {
+        return DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(type)
+               || type.equals(DataTypes.TIMESTAMP)
+               || type.equals(DataTypes.STRING)
+               || type.equals(DataTypes.BOOLEAN);
+    }
+}
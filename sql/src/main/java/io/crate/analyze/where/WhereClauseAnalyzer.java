@@ -130,7 +130,8 @@ public class WhereClauseAnalyzer {
         Symbol normalized;
         Map<Symbol, List<Literal>> queryPartitionMap = new HashMap<>();
 
-        for (PartitionName partitionName : tableInfo.partitions()) {
+        // partitions ruled out by equality or range conditions don't need to be normalized
+        for (PartitionName partitionName : PartitionPruner.candidates(query, tableInfo)) {
             for (PartitionExpression partitionExpression : partitionReferenceResolver.expressions()) {
                 partitionExpression.setNextRow(partitionName);
             }
@@ -49,6 +49,8 @@ import io.crate.metadata.Schemas;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.doc.DocTableInfo;
 import io.crate.metadata.table.Operation;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.util.Supplier;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.ElasticsearchGenerationException;
@@ -75,6 +77,8 @@ import org.elasticsearch.index.engine.DocumentSourceMissingException;
 import org.elasticsearch.index.engine.Engine;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.get.GetResult;
+import org.elasticsearch.index.mapper.DocumentMapper;
+import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.ParentFieldMapper;
 import org.elasticsearch.index.mapper.RoutingFieldMapper;
 import org.elasticsearch.index.mapper.SourceToParse;
@@ -99,6 +103,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import static io.crate.exceptions.Exceptions.userFriendlyMessage;
 
@@ -146,8 +151,12 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             notUsedNonGeneratedColumns = getNotUsedNonGeneratedColumns(request.insertColumns(), tableInfo);
         }
 
+        BulkMappingUpdateConsumer mappingUpdateConsumer =
+            new BulkMappingUpdateConsumer(tableInfo, request, indexShard, notUsedNonGeneratedColumns);
         Translog.Location translogLocation = null;
-        for (ShardUpsertRequest.Item item : request.items()) {
+        List<ShardUpsertRequest.Item> items = request.items();
+        for (int i = 0; i < items.size(); i++) {
+            ShardUpsertRequest.Item item = items.get(i);
             int location = item.location();
             if (killed.get()) {
                 // set failure on response and skip all next items.
@@ -156,6 +165,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                 shardResponse.failure(new InterruptedException());
                 break;
             }
+            mappingUpdateConsumer.currentItemIdx = i;
             try {
                 translogLocation = indexItem(
                     tableInfo,
@@ -163,7 +173,8 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                     item,
                     indexShard,
                     item.insertValues() != null, // try insert first
-                    notUsedNonGeneratedColumns);
+                    notUsedNonGeneratedColumns,
+                    mappingUpdateConsumer);
                 if (translogLocation != null) {
                     shardResponse.add(location);
                 }
@@ -229,11 +240,13 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                         ShardUpsertRequest.Item item,
                                         IndexShard indexShard,
                                         boolean tryInsertFirst,
-                                        Collection<ColumnIdent> notUsedNonGeneratedColumns) throws Exception {
+                                        Collection<ColumnIdent> notUsedNonGeneratedColumns,
+                                        Consumer<Mapping> onMappingUpdate) throws Exception {
         VersionConflictEngineException lastException = null;
         for (int retryCount = 0; retryCount < MAX_RETRY_LIMIT; retryCount++) {
             try {
-                return indexItem(tableInfo, request, item, indexShard, tryInsertFirst, notUsedNonGeneratedColumns, retryCount > 0);
+                return indexItem(tableInfo, request, item, indexShard, tryInsertFirst, notUsedNonGeneratedColumns,
+                    retryCount > 0, onMappingUpdate);
             } catch (VersionConflictEngineException e) {
                 lastException = e;
                 if (request.duplicateKeyAction() == DuplicateKeyAction.IGNORE) {
@@ -271,7 +284,8 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
                                           IndexShard indexShard,
                                           boolean tryInsertFirst,
                                           Collection<ColumnIdent> notUsedNonGeneratedColumns,
-                                          boolean isRetry) throws Exception {
+                                          boolean isRetry,
+                                          Consumer<Mapping> onMappingUpdate) throws Exception {
         long version;
         // try insert first without fetching the document
         if (tryInsertFirst) {
@@ -300,7 +314,7 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
             sourceToParse,
             -1,
             isRetry,
-            getMappingUpdateConsumer(request)
+            onMappingUpdate
         );
 
         Exception failure = indexResult.getFailure();
@@ -315,6 +329,78 @@ public class TransportShardUpsertAction extends TransportShardAction<ShardUpsert
         return indexResult.getTranslogLocation();
     }
 
+    /**
+     * Applies dynamic mapping updates of a bulk on the master.
+     * <p>
+     * On the first update, the new columns of all remaining insert items of the bulk are looked up as well and
+     * applied together in a single update. The remaining items then find their columns in the local mapping and
+     * don't have to wait for the master again.
+     * <p>
+     * This includes the columns of items which are rejected later on because their key already exists
+     * (e.g. ON CONFLICT DO NOTHING). That's no change in behaviour: the dynamic mapping of an insert is applied
+     * before the engine detects the duplicate key, so these items added their columns when indexed one by one, too.
+     */
+    private class BulkMappingUpdateConsumer implements Consumer<Mapping> {
+
+        private final DocTableInfo tableInfo;
+        private final ShardUpsertRequest request;
+        private final IndexShard indexShard;
+        private final Collection<ColumnIdent> notUsedNonGeneratedColumns;
+        private final Consumer<Mapping> mappingUpdateConsumer;
+
+        private int currentItemIdx = 0;
+        private boolean remainingItemsIncluded = false;
+
+        BulkMappingUpdateConsumer(DocTableInfo tableInfo,
+                                  ShardUpsertRequest request,
+                                  IndexShard indexShard,
+                                  Collection<ColumnIdent> notUsedNonGeneratedColumns) {
+            this.tableInfo = tableInfo;
+            this.request = request;
+            this.indexShard = indexShard;
+            this.notUsedNonGeneratedColumns = notUsedNonGeneratedColumns;
+            this.mappingUpdateConsumer = getMappingUpdateConsumer(request);
+        }
+
+        @Override
+        public void accept(Mapping mapping) {
+            if (!remainingItemsIncluded) {
+                remainingItemsIncluded = true;
+                mapping = mergeUpdatesOfRemainingItems(mapping);
+            }
+            mappingUpdateConsumer.accept(mapping);
+        }
+
+        private Mapping mergeUpdatesOfRemainingItems(Mapping mapping) {
+            DocumentMapper documentMapper =
+                indexShard.mapperService().documentMapperWithAutoCreate(request.type()).getDocumentMapper();
+            List<ShardUpsertRequest.Item> items = request.items();
+            for (int i = currentItemIdx + 1; i < items.size(); i++) {
+                ShardUpsertRequest.Item item = items.get(i);
+                if (item.insertValues() == null) {
+                    continue;
+                }
+                try {
+                    SourceToParse sourceToParse = SourceToParse.source(request.index(), request.type(), item.id(),
+                        prepareInsert(tableInfo, notUsedNonGeneratedColumns, request, item), XContentType.JSON);
+                    Mapping update = documentMapper.parse(sourceToParse).dynamicMappingsUpdate();
+                    if (update != null) {
+                        validateMapping(update.root().iterator(), false);
+                        mapping = mapping.merge(update, false);
+                    }
+                } catch (Exception e) {
+                    // invalid items fail once they're indexed, their columns must not prevent the update of the others
+                    if (logger.isTraceEnabled()) {
+                        logger.trace((Supplier<?>) () -> new ParameterizedMessage(
+                            "[{}] Couldn't include mapping update of document id={} into bulk update",
+                            indexShard.shardId(), item.id()), e);
+                    }
+                }
+            }
+            return mapping;
+        }
+    }
+
     private GetResult getDocument(IndexShard indexShard, ShardUpsertRequest request, ShardUpsertRequest.Item item) {
         GetResult getResult = indexShard.getService().get(
             request.type(),
@@ -40,7 +40,8 @@ public enum ProjectionType {
     DELETE(DeleteProjection::new),
     FETCH(null),
     TOPN_ORDERED(OrderedTopNProjection::new),
-    EVAL(EvalProjection::new);
+    EVAL(EvalProjection::new),
+    WINDOW_AGGREGATION(WindowAggProjection::new);
 
     private final Projection.ProjectionFactory factory;
 
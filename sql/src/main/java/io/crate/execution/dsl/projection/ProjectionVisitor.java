@@ -89,5 +89,9 @@ public class ProjectionVisitor<C, R> {
     public R visitEvalProjection(EvalProjection evalProjection, C context) {
         return visitProjection(evalProjection, context);
     }
+
+    public R visitWindowAgg(WindowAggProjection windowAggProjection, C context) {
+        return visitProjection(windowAggProjection, context);
+    }
 }
 
@@ -0,0 +1,128 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.dsl.projection;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.analyze.WindowDefinition;
+import io.crate.collections.Lists2;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.Symbols;
+import io.crate.expression.symbol.WindowFunction;
+import io.crate.planner.ExplainLeaf;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A projection which evaluates window functions sharing the same {@link WindowDefinition}.
+ * <p>
+ * The input rows must be sorted by the partition keys followed by the ORDER BY symbols of the window definition.
+ * The outputs are the standalone inputs followed by the results of the window functions.
+ */
+public class WindowAggProjection extends Projection {
+
+    private final WindowDefinition windowDefinition;
+    private final List<Symbol> standalone;
+    private final List<WindowFunction> windowFunctions;
+
+    public WindowAggProjection(WindowDefinition windowDefinition,
+                               List<Symbol> standalone,
+                               List<WindowFunction> windowFunctions) {
+        this.windowDefinition = windowDefinition;
+        this.standalone = standalone;
+        this.windowFunctions = windowFunctions;
+    }
+
+    public WindowAggProjection(StreamInput in) throws IOException {
+        windowDefinition = new WindowDefinition(in);
+        standalone = Symbols.listFromStream(in);
+        int numWindowFunctions = in.readVInt();
+        windowFunctions = new ArrayList<>(numWindowFunctions);
+        for (int i = 0; i < numWindowFunctions; i++) {
+            windowFunctions.add((WindowFunction) Symbols.fromStream(in));
+        }
+    }
+
+    public WindowDefinition windowDefinition() {
+        return windowDefinition;
+    }
+
+    public List<Symbol> standalone() {
+        return standalone;
+    }
+
+    public List<WindowFunction> windowFunctions() {
+        return windowFunctions;
+    }
+
+    @Override
+    public ProjectionType projectionType() {
+        return ProjectionType.WINDOW_AGGREGATION;
+    }
+
+    @Override
+    public <C, R> R accept(ProjectionVisitor<C, R> visitor, C context) {
+        return visitor.visitWindowAgg(this, context);
+    }
+
+    @Override
+    public List<? extends Symbol> outputs() {
+        return Lists2.concat(standalone, windowFunctions);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        windowDefinition.writeTo(out);
+        Symbols.toStream(standalone, out);
+        Symbols.toStream(windowFunctions, out);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WindowAggProjection that = (WindowAggProjection) o;
+        return windowDefinition.equals(that.windowDefinition) &&
+               standalone.equals(that.standalone) &&
+               windowFunctions.equals(that.windowFunctions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), windowDefinition, standalone, windowFunctions);
+    }
+
+    @Override
+    public Map<String, Object> mapRepresentation() {
+        return ImmutableMap.of(
+            "type", "WindowAggregation",
+            "windowFunctions", ExplainLeaf.printList(windowFunctions),
+            "window", windowDefinition.toString()
+        );
+    }
+}
@@ -28,6 +28,7 @@ import io.crate.expression.symbol.Aggregation;
 import io.crate.expression.symbol.DefaultTraversalSymbolVisitor;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.metadata.FunctionInfo;
 
 import java.util.ArrayList;
@@ -40,10 +41,17 @@ final class SplitPointVisitor extends DefaultTraversalSymbolVisitor<SplitPointVi
     static class Context {
         final ArrayList<Symbol> toCollect;
         final ArrayList<Function> aggregates;
+        final ArrayList<WindowFunction> windowFunctions;
+        final boolean collectLeaves;
 
-        Context(ArrayList<Symbol> toCollect, ArrayList<Function> aggregates) {
+        Context(ArrayList<Symbol> toCollect,
+                ArrayList<Function> aggregates,
+                ArrayList<WindowFunction> windowFunctions,
+                boolean collectLeaves) {
             this.toCollect = toCollect;
             this.aggregates = aggregates;
+            this.windowFunctions = windowFunctions;
+            this.collectLeaves = collectLeaves;
         }
 
         void allocateCollectSymbol(Symbol symbol) {
@@ -57,6 +65,12 @@ final class SplitPointVisitor extends DefaultTraversalSymbolVisitor<SplitPointVi
                 aggregates.add(aggregate);
             }
         }
+
+        void allocateWindowFunction(WindowFunction windowFunction) {
+            if (windowFunctions.contains(windowFunction) == false) {
+                windowFunctions.add(windowFunction);
+            }
+        }
     }
 
     private void process(Collection<Symbol> symbols, Context context) {
@@ -66,7 +80,8 @@ final class SplitPointVisitor extends DefaultTraversalSymbolVisitor<SplitPointVi
     }
 
     static void addAggregatesAndToCollectSymbols(QueriedRelation relation, SplitPoints splitContext) {
-        Context context = new Context(splitContext.toCollect(), splitContext.aggregates());
+        Context context = new Context(
+            splitContext.toCollect(), splitContext.aggregates(), splitContext.windowFunctions(), false);
         INSTANCE.process(relation.outputs(), context);
         OrderBy orderBy = relation.orderBy();
         if (orderBy != null) {
@@ -81,8 +96,57 @@ final class SplitPointVisitor extends DefaultTraversalSymbolVisitor<SplitPointVi
         }
     }
 
+    /**
+     * Adds the window functions of the given symbols to the window functions of the split points.
+     * Symbols which don't contain a window function and the arguments, partition and order by symbols of
+     * the window functions are added to toCollect.
+     */
+    static void addWindowFunctionsAndToCollectSymbols(Collection<Symbol> symbols, SplitPoints splitContext) {
+        Context context = new Context(
+            splitContext.toCollect(), splitContext.aggregates(), splitContext.windowFunctions(), true);
+        for (Symbol symbol : symbols) {
+            if (WindowFunction.containsWindowFunction(symbol)) {
+                INSTANCE.process(symbol, context);
+            } else {
+                context.allocateCollectSymbol(symbol);
+            }
+        }
+    }
+
+    @Override
+    protected Void visitSymbol(Symbol symbol, Context context) {
+        if (context.collectLeaves) {
+            context.allocateCollectSymbol(symbol);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitWindowFunction(WindowFunction windowFunction, Context context) {
+        context.allocateWindowFunction(windowFunction);
+        for (Symbol arg : windowFunction.arguments()) {
+            if (context.collectLeaves) {
+                context.allocateCollectSymbol(arg);
+            } else {
+                process(arg, context);
+            }
+        }
+        windowFunction.windowDefinition().accept(symbol -> {
+            if (context.collectLeaves) {
+                context.allocateCollectSymbol(symbol);
+            } else {
+                process(symbol, context);
+            }
+        });
+        return null;
+    }
+
     @Override
     public Void visitFunction(Function symbol, Context context) {
+        if (context.collectLeaves && !WindowFunction.containsWindowFunction(symbol)) {
+            context.allocateCollectSymbol(symbol);
+            return null;
+        }
         if (symbol.info().type() == FunctionInfo.Type.AGGREGATE) {
             context.allocateAggregate(symbol);
             for (Symbol arg : symbol.arguments()) {
@@ -25,9 +25,11 @@ import io.crate.analyze.OrderBy;
 import io.crate.analyze.relations.QueriedRelation;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.collections.Lists2;
 
 import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -48,6 +50,7 @@ public class SplitPoints {
 
     private final ArrayList<Symbol> toCollect;
     private final ArrayList<Function> aggregates;
+    private final ArrayList<WindowFunction> windowFunctions;
 
     public static SplitPoints create(QueriedRelation relation) {
         SplitPoints splitPoints = new SplitPoints();
@@ -55,10 +58,13 @@ public class SplitPoints {
             SplitPointVisitor.addAggregatesAndToCollectSymbols(relation, splitPoints);
         } else {
             OrderBy orderBy = relation.orderBy();
-            if (orderBy == null) {
-                splitPoints.toCollect.addAll(relation.outputs());
+            List<Symbol> outputs = orderBy == null
+                ? relation.outputs()
+                : Lists2.concatUnique(relation.outputs(), orderBy.orderBySymbols());
+            if (WindowFunction.containsWindowFunction(outputs)) {
+                SplitPointVisitor.addWindowFunctionsAndToCollectSymbols(outputs, splitPoints);
             } else {
-                splitPoints.toCollect.addAll(Lists2.concatUnique(relation.outputs(), orderBy.orderBySymbols()));
+                splitPoints.toCollect.addAll(outputs);
             }
         }
         return splitPoints;
@@ -67,6 +73,7 @@ public class SplitPoints {
     private SplitPoints() {
         this.toCollect = new ArrayList<>();
         this.aggregates = new ArrayList<>();
+        this.windowFunctions = new ArrayList<>();
     }
 
     public ArrayList<Symbol> toCollect() {
@@ -76,4 +83,11 @@ public class SplitPoints {
     public ArrayList<Function> aggregates() {
         return aggregates;
     }
+
+    /**
+     * Window functions which have to be evaluated on top of the aggregates or toCollect symbols.
+     */
+    public ArrayList<WindowFunction> windowFunctions() {
+        return windowFunctions;
+    }
 }
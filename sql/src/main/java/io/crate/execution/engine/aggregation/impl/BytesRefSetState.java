@@ -0,0 +1,215 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of string and ip values.
+ *
+ * The bytes of the values are copied into pages which start small and double in size up to {@link #MAX_PAGE_SIZE},
+ * so that many small sets (e.g. one per group) stay cheap and large sets don't need to copy their values if they grow.
+ * Values are looked up using an open-addressing table of value ids.
+ */
+final class BytesRefSetState extends PrimitiveSetState {
+
+    private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(BytesRefSetState.class)
+                                             + RamUsageEstimator.shallowSizeOfInstance(BytesRef.class);
+    private static final int FIRST_PAGE_SIZE = 128;
+    static final int MAX_PAGE_SIZE = 1 << 14;
+    private static final int INITIAL_CAPACITY = 4;
+
+    private byte[][] pages = new byte[0][];
+    private int pageCount = 0;
+    private int pageOffset = 0;
+
+    // per value id: page << 32 | offset within page
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+
+    // value id + 1, 0 marks an empty slot
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    private int size = 0;
+
+    private final BytesRef scratch = new BytesRef();
+
+    @Override
+    long addValue(Object value) {
+        return add((BytesRef) value);
+    }
+
+    private long add(BytesRef value) {
+        int hash = value.hashCode();
+        int slot = slot(value, hash);
+        if (table[slot] != 0) {
+            return 0L;
+        }
+        long grownBy = 0L;
+        if (size == addresses.length) {
+            grownBy += growIds();
+        }
+        grownBy += copyBytes(value);
+        lengths[size] = value.length;
+        hashes[size] = hash;
+        size++;
+        table[slot] = size;
+        if (size > (table.length >> 1) + (table.length >> 2)) {
+            grownBy += rehash();
+        }
+        return grownBy;
+    }
+
+    /**
+     * @return the slot which contains the value or the empty slot where it has to be inserted
+     */
+    private int slot(BytesRef value, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        int id;
+        while ((id = table[slot]) != 0) {
+            if (hashes[id - 1] == hash && get(id - 1, scratch).bytesEquals(value)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private BytesRef get(int id, BytesRef ref) {
+        long address = addresses[id];
+        ref.bytes = pages[(int) (address >>> 32)];
+        ref.offset = (int) address;
+        ref.length = lengths[id];
+        return ref;
+    }
+
+    private long copyBytes(BytesRef value) {
+        long grownBy = 0L;
+        if (pageCount == 0 || pages[pageCount - 1].length - pageOffset < value.length) {
+            int pageSize = pageCount == 0 ? FIRST_PAGE_SIZE : Math.min(pages[pageCount - 1].length << 1, MAX_PAGE_SIZE);
+            if (pageCount == pages.length) {
+                byte[][] newPages = Arrays.copyOf(pages, ArrayUtil.oversize(pageCount + 1, RamUsageEstimator.NUM_BYTES_OBJECT_REF));
+                grownBy += RamUsageEstimator.shallowSizeOf(newPages) - RamUsageEstimator.shallowSizeOf(pages);
+                pages = newPages;
+            }
+            byte[] page = new byte[Math.max(pageSize, value.length)];
+            grownBy += RamUsageEstimator.sizeOf(page);
+            pages[pageCount++] = page;
+            pageOffset = 0;
+        }
+        System.arraycopy(value.bytes, value.offset, pages[pageCount - 1], pageOffset, value.length);
+        addresses[size] = ((long) (pageCount - 1) << 32) | pageOffset;
+        pageOffset += value.length;
+        return grownBy;
+    }
+
+    private long growIds() {
+        long sizeBefore = idsBytesUsed();
+        int newCapacity = addresses.length << 1;
+        addresses = Arrays.copyOf(addresses, newCapacity);
+        lengths = Arrays.copyOf(lengths, newCapacity);
+        hashes = Arrays.copyOf(hashes, newCapacity);
+        return idsBytesUsed() - sizeBefore;
+    }
+
+    private long rehash() {
+        long sizeBefore = RamUsageEstimator.sizeOf(table);
+        int[] newTable = new int[table.length << 1];
+        int mask = newTable.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (newTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            newTable[slot] = id + 1;
+        }
+        table = newTable;
+        return RamUsageEstimator.sizeOf(table) - sizeBefore;
+    }
+
+    private long idsBytesUsed() {
+        return RamUsageEstimator.sizeOf(addresses) + RamUsageEstimator.sizeOf(lengths) + RamUsageEstimator.sizeOf(hashes);
+    }
+
+    @Override
+    long merge(PrimitiveSetState other) {
+        BytesRefSetState otherState = (BytesRefSetState) other;
+        BytesRef ref = new BytesRef();
+        long grownBy = 0L;
+        for (int id = 0; id < otherState.size; id++) {
+            grownBy += add(otherState.get(id, ref));
+        }
+        return grownBy;
+    }
+
+    @Override
+    long ramBytesUsed() {
+        long bytes = SHALLOW_SIZE + RamUsageEstimator.shallowSizeOf(pages) + idsBytesUsed() + RamUsageEstimator.sizeOf(table);
+        for (int i = 0; i < pageCount; i++) {
+            bytes += RamUsageEstimator.sizeOf(pages[i]);
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (o instanceof BytesRef) {
+            BytesRef value = (BytesRef) o;
+            return table[slot(value, value.hashCode())] != 0;
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        return new Iterator<Object>() {
+
+            private int id = 0;
+
+            @Override
+            public boolean hasNext() {
+                return id < size;
+            }
+
+            @Override
+            public Object next() {
+                if (id >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(id++, new BytesRef());
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -49,9 +49,14 @@ public class CollectSetAggregation extends AggregationFunction<Set<Object>, Set<
 
     public static void register(AggregationImplModule mod) {
         for (final DataType dataType : DataTypes.PRIMITIVE_TYPES) {
-            mod.register(new CollectSetAggregation(new FunctionInfo(new FunctionIdent(NAME,
+            FunctionInfo info = new FunctionInfo(new FunctionIdent(NAME,
                 ImmutableList.of(dataType)),
-                new SetType(dataType), FunctionInfo.Type.AGGREGATE)));
+                new SetType(dataType), FunctionInfo.Type.AGGREGATE);
+            if (PrimitiveSetState.supports(dataType)) {
+                mod.register(new PrimitiveCollectSetAggregation(info));
+            } else {
+                mod.register(new CollectSetAggregation(info));
+            }
         }
     }
 
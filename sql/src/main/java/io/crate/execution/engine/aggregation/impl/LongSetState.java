@@ -0,0 +1,95 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import io.crate.types.DataType;
+import org.apache.lucene.util.RamUsageEstimator;
+
+import java.util.Iterator;
+
+/**
+ * Set of long and timestamp values backed by an open-addressing {@link LongHashSet}
+ */
+final class LongSetState extends PrimitiveSetState {
+
+    private static final long SHALLOW_SIZE = RamUsageEstimator.shallowSizeOfInstance(LongSetState.class)
+                                             + RamUsageEstimator.shallowSizeOfInstance(LongHashSet.class);
+
+    private final DataType<?> innerType;
+    private final LongHashSet values = new LongHashSet();
+
+    LongSetState(DataType<?> innerType) {
+        this.innerType = innerType;
+    }
+
+    @Override
+    long addValue(Object value) {
+        return add(((Number) value).longValue());
+    }
+
+    private long add(long value) {
+        long keysSize = RamUsageEstimator.sizeOf(values.keys);
+        values.add(value);
+        return RamUsageEstimator.sizeOf(values.keys) - keysSize;
+    }
+
+    @Override
+    long merge(PrimitiveSetState other) {
+        long keysSize = RamUsageEstimator.sizeOf(values.keys);
+        values.addAll(((LongSetState) other).values);
+        return RamUsageEstimator.sizeOf(values.keys) - keysSize;
+    }
+
+    @Override
+    long ramBytesUsed() {
+        return SHALLOW_SIZE + RamUsageEstimator.sizeOf(values.keys);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Number && values.contains(((Number) o).longValue());
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+        Iterator<LongCursor> it = values.iterator();
+        return new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                return innerType.value(it.next().value);
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+}
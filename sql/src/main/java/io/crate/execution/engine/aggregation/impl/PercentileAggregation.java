@@ -90,17 +90,19 @@ class PercentileAggregation extends AggregationFunction<TDigestState, Object> {
 
     private void initState(TDigestState state, Object argValue) {
         if (argValue != null) {
-            if (argValue.getClass().isArray()) {
-                Object[] values = (Object[]) argValue;
-                if (values.length == 0 || Arrays.asList(values).contains(null)) {
-                    throw new IllegalArgumentException("no fraction value specified");
-                }
-                state.fractions(toDoubleArray(values));
-            } else {
-                state.fractions(
-                    new double[]{DataTypes.DOUBLE.value(argValue)}
-                );
+            state.fractions(toFractions(argValue));
+        }
+    }
+
+    static double[] toFractions(Object argValue) {
+        if (argValue.getClass().isArray()) {
+            Object[] values = (Object[]) argValue;
+            if (values.length == 0 || Arrays.asList(values).contains(null)) {
+                throw new IllegalArgumentException("no fraction value specified");
             }
+            return toDoubleArray(values);
+        } else {
+            return new double[]{DataTypes.DOUBLE.value(argValue)};
         }
     }
 
@@ -0,0 +1,120 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.DataType;
+import io.crate.types.SetType;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.util.BigArrays;
+
+import javax.annotation.Nullable;
+import java.util.Set;
+
+/**
+ * collect_set for types which can be kept unboxed in a {@link PrimitiveSetState}.
+ * Also used for count(distinct x) on these types.
+ *
+ * The partial results are streamed as {@link SetType}, the same way as by {@link CollectSetAggregation}, so that
+ * nodes running an older version, which don't know about the primitive states, can take part in the reduce phase.
+ * Partial sets received from other nodes are therefore regular sets which are added to the primitive state.
+ */
+class PrimitiveCollectSetAggregation extends AggregationFunction<Set<Object>, Set<Object>> {
+
+    private final FunctionInfo info;
+    private final DataType<?> innerType;
+
+    PrimitiveCollectSetAggregation(FunctionInfo info) {
+        this.info = info;
+        this.innerType = ((SetType) info.returnType()).innerType();
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return info;
+    }
+
+    @Nullable
+    @Override
+    public Set<Object> newState(RamAccountingContext ramAccountingContext,
+                                Version indexVersionCreated,
+                                BigArrays bigArrays) {
+        PrimitiveSetState state = PrimitiveSetState.create(innerType);
+        ramAccountingContext.addBytes(state.ramBytesUsed());
+        return state;
+    }
+
+    @Override
+    public Set<Object> iterate(RamAccountingContext ramAccountingContext,
+                               Set<Object> state,
+                               Input... args) throws CircuitBreakingException {
+        Object value = args[0].value();
+        if (value != null) {
+            ramAccountingContext.addBytes(((PrimitiveSetState) state).addValue(value));
+        }
+        return state;
+    }
+
+    @Override
+    public Set<Object> reduce(RamAccountingContext ramAccountingContext, Set<Object> state1, Set<Object> state2) {
+        PrimitiveSetState state = toPrimitiveState(ramAccountingContext, state1);
+        if (state2 instanceof PrimitiveSetState) {
+            ramAccountingContext.addBytes(state.merge((PrimitiveSetState) state2));
+        } else {
+            addValues(ramAccountingContext, state, state2);
+        }
+        return state;
+    }
+
+    private PrimitiveSetState toPrimitiveState(RamAccountingContext ramAccountingContext, Set<Object> set) {
+        if (set instanceof PrimitiveSetState) {
+            return (PrimitiveSetState) set;
+        }
+        PrimitiveSetState state = PrimitiveSetState.create(innerType);
+        ramAccountingContext.addBytes(state.ramBytesUsed());
+        addValues(ramAccountingContext, state, set);
+        return state;
+    }
+
+    private static void addValues(RamAccountingContext ramAccountingContext, PrimitiveSetState state, Set<Object> values) {
+        for (Object value : values) {
+            if (value != null) {
+                ramAccountingContext.addBytes(state.addValue(value));
+            }
+        }
+    }
+
+    @Override
+    public Set<Object> terminatePartial(RamAccountingContext ramAccountingContext, Set<Object> state) {
+        return state;
+    }
+
+    @Override
+    public DataType partialType() {
+        return info.returnType();
+    }
+}
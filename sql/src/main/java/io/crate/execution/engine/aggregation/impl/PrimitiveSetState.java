@@ -0,0 +1,94 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import io.crate.types.ByteType;
+import io.crate.types.DataType;
+import io.crate.types.IntegerType;
+import io.crate.types.IpType;
+import io.crate.types.LongType;
+import io.crate.types.ShortType;
+import io.crate.types.StringType;
+import io.crate.types.TimestampType;
+
+import java.util.AbstractSet;
+
+/**
+ * State of {@link PrimitiveCollectSetAggregation}.
+ * Values are kept unboxed and are only boxed if the set is iterated.
+ *
+ * All methods which add values return the number of bytes the state grew by,
+ * so the memory usage can be accounted exactly.
+ */
+abstract class PrimitiveSetState extends AbstractSet<Object> {
+
+    static boolean supports(DataType<?> innerType) {
+        switch (innerType.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+            case StringType.ID:
+            case IpType.ID:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    static PrimitiveSetState create(DataType<?> innerType) {
+        switch (innerType.id()) {
+            case LongType.ID:
+            case TimestampType.ID:
+                return new LongSetState(innerType);
+
+            case IntegerType.ID:
+            case ShortType.ID:
+            case ByteType.ID:
+                return new IntSetState(innerType);
+
+            case StringType.ID:
+            case IpType.ID:
+                return new BytesRefSetState();
+
+            default:
+                throw new IllegalArgumentException("No primitive set state for type " + innerType);
+        }
+    }
+
+    /**
+     * @return the number of bytes the state grew by
+     */
+    abstract long addValue(Object value);
+
+    /**
+     * Adds all values of the other state, which must be of the same type
+     *
+     * @return the number of bytes the state grew by
+     */
+    abstract long merge(PrimitiveSetState other);
+
+    abstract long ramBytesUsed();
+}
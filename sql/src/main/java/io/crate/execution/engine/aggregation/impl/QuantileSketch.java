@@ -0,0 +1,274 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+
+/**
+ * A quantile sketch with a relative error guarantee (DDSketch).
+ *
+ * Values are counted in logarithmically sized buckets: bucket {@code i} holds the values within
+ * {@code (gamma^(i-1), gamma^i]} where {@code gamma = (1 + a) / (1 - a)} for the relative accuracy {@code a}.
+ * Any quantile is estimated within the relative accuracy, as long as the sketch didn't need to collapse
+ * its lowest buckets to stay within {@link #MAX_BUCKETS} buckets per sign.
+ *
+ * Two sketches with the same relative accuracy can be merged without any loss of accuracy.
+ */
+class QuantileSketch {
+
+    static final int MAX_BUCKETS = 2048;
+
+    /**
+     * Smaller accuracies need more buckets than {@link #MAX_BUCKETS} for any realistic range of values,
+     * the lowest buckets would be collapsed and the accuracy wouldn't be guaranteed anyway.
+     */
+    static final double MIN_RELATIVE_ACCURACY = 1e-4;
+    static final long SHALLOW_SIZE = 96L;
+
+    private static final int GROW_BY = 32;
+    private static final double MIN_INDEXABLE_VALUE = Double.MIN_NORMAL;
+
+    private final Buckets positive = new Buckets();
+    private final Buckets negative = new Buckets();
+    private double relativeAccuracy;
+    private double gamma;
+    private double logGamma;
+    private double[] fractions = new double[0];
+    private long zeroCount;
+
+    /**
+     * Sets the accuracy and the fractions the sketch is queried for.
+     * Must be called before any value is added.
+     */
+    void init(double relativeAccuracy, double[] fractions) {
+        if (!(relativeAccuracy >= MIN_RELATIVE_ACCURACY && relativeAccuracy < 1.0)) {
+            throw new IllegalArgumentException(
+                "relative accuracy must be at least " + MIN_RELATIVE_ACCURACY + " and less than 1, got " + relativeAccuracy);
+        }
+        for (double fraction : fractions) {
+            if (fraction < 0.0 || fraction > 1.0) {
+                throw new IllegalArgumentException("q should be in [0,1], got " + fraction);
+            }
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.fractions = fractions;
+    }
+
+    boolean isEmpty() {
+        return fractions.length == 0;
+    }
+
+    double[] fractions() {
+        return fractions;
+    }
+
+    double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    long count() {
+        return zeroCount + positive.count + negative.count;
+    }
+
+    /**
+     * @return the number of bytes the sketch grew by
+     */
+    long add(double value) {
+        if (value > MIN_INDEXABLE_VALUE) {
+            return positive.add(index(value), 1L);
+        } else if (value < -MIN_INDEXABLE_VALUE) {
+            return negative.add(index(-value), 1L);
+        } else {
+            zeroCount++;
+            return 0L;
+        }
+    }
+
+    /**
+     * Adds all values of the other sketch to this one
+     *
+     * @return the number of bytes the sketch grew by
+     */
+    long merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge quantile sketches with different relative accuracies");
+        }
+        zeroCount += other.zeroCount;
+        return positive.merge(other.positive) + negative.merge(other.negative);
+    }
+
+    /**
+     * @return the estimated value at the given quantile or NaN if the sketch is empty
+     */
+    double quantile(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0) {
+            throw new IllegalArgumentException("q should be in [0,1], got " + quantile);
+        }
+        long count = count();
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = quantile * (count - 1);
+        long seen = 0;
+        for (int i = negative.counts.length - 1; i >= 0; i--) {
+            seen += negative.counts[i];
+            if (seen > rank) {
+                return -value(negative.offset + i);
+            }
+        }
+        seen += zeroCount;
+        if (seen > rank) {
+            return 0.0;
+        }
+        for (int i = 0; i < positive.counts.length; i++) {
+            seen += positive.counts[i];
+            if (seen > rank) {
+                return value(positive.offset + i);
+            }
+        }
+        return value(positive.offset + positive.counts.length - 1);
+    }
+
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    static void write(QuantileSketch sketch, StreamOutput out) throws IOException {
+        out.writeDouble(sketch.relativeAccuracy);
+        out.writeDoubleArray(sketch.fractions);
+        out.writeVLong(sketch.zeroCount);
+        sketch.positive.writeTo(out);
+        sketch.negative.writeTo(out);
+    }
+
+    static QuantileSketch read(StreamInput in) throws IOException {
+        QuantileSketch sketch = new QuantileSketch();
+        double relativeAccuracy = in.readDouble();
+        double[] fractions = in.readDoubleArray();
+        if (fractions.length > 0) {
+            sketch.init(relativeAccuracy, fractions);
+        }
+        sketch.zeroCount = in.readVLong();
+        sketch.positive.readFrom(in);
+        sketch.negative.readFrom(in);
+        return sketch;
+    }
+
+    /**
+     * Counts per bucket index, stored densely starting at {@code offset}.
+     * If the range of indices exceeds {@link #MAX_BUCKETS} the lowest buckets are collapsed into one.
+     */
+    private static class Buckets {
+
+        private long[] counts = new long[0];
+        private int offset;
+        private long count;
+
+        long add(int index, long n) {
+            long grownBy = 0L;
+            if (counts.length == 0) {
+                counts = new long[GROW_BY];
+                offset = index - GROW_BY / 2;
+                grownBy = GROW_BY * Long.BYTES;
+            } else if (index < offset || index >= offset + counts.length) {
+                grownBy = extendRange(Math.min(index, offset), Math.max(index, offset + counts.length - 1));
+            }
+            if (index < offset) {
+                // collapsed into the lowest bucket
+                index = offset;
+            }
+            counts[index - offset] += n;
+            count += n;
+            return grownBy;
+        }
+
+        private long extendRange(int minIndex, int maxIndex) {
+            int oldLength = counts.length;
+            int newMin = Math.max(minIndex - (minIndex < offset ? GROW_BY : 0), maxIndex - MAX_BUCKETS + 1);
+            int newMax = maxIndex + (maxIndex >= offset + oldLength ? GROW_BY : 0);
+            newMax = Math.min(newMax, newMin + MAX_BUCKETS - 1);
+            long[] newCounts = new long[newMax - newMin + 1];
+            for (int i = 0; i < oldLength; i++) {
+                long c = counts[i];
+                if (c != 0) {
+                    int index = Math.max(offset + i, newMin);
+                    newCounts[index - newMin] += c;
+                }
+            }
+            counts = newCounts;
+            offset = newMin;
+            return (long) (newCounts.length - oldLength) * Long.BYTES;
+        }
+
+        long merge(Buckets other) {
+            long grownBy = 0L;
+            for (int i = 0; i < other.counts.length; i++) {
+                long c = other.counts[i];
+                if (c != 0) {
+                    grownBy += add(other.offset + i, c);
+                }
+            }
+            return grownBy;
+        }
+
+        void writeTo(StreamOutput out) throws IOException {
+            int first = 0;
+            while (first < counts.length && counts[first] == 0) {
+                first++;
+            }
+            int last = counts.length - 1;
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            int length = last - first + 1;
+            out.writeVInt(length);
+            if (length > 0) {
+                out.writeInt(offset + first);
+                for (int i = first; i <= last; i++) {
+                    out.writeVLong(counts[i]);
+                }
+            }
+        }
+
+        void readFrom(StreamInput in) throws IOException {
+            int length = in.readVInt();
+            if (length > 0) {
+                offset = in.readInt();
+                counts = new long[length];
+                for (int i = 0; i < length; i++) {
+                    counts[i] = in.readVLong();
+                    count += counts[i];
+                }
+            }
+        }
+    }
+}
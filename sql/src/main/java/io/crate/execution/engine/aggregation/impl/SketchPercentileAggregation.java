@@ -0,0 +1,145 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.exceptions.CircuitBreakingException;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.ArrayType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.util.BigArrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * percentile(value, fraction(s), relative_accuracy)
+ *
+ * Like {@link PercentileAggregation} but backed by a {@link QuantileSketch}, which guarantees
+ * the relative accuracy for every percentile and has a compact state.
+ */
+class SketchPercentileAggregation extends AggregationFunction<QuantileSketch, Object> {
+
+    private static final String NAME = "percentile";
+
+    static {
+        DataTypes.register(QuantileSketchType.ID, () -> QuantileSketchType.INSTANCE);
+    }
+
+    public static void register(AggregationImplModule mod) {
+        for (DataType<?> t : DataTypes.NUMERIC_PRIMITIVE_TYPES) {
+            mod.register(new SketchPercentileAggregation(new FunctionInfo(
+                new FunctionIdent(NAME, ImmutableList.<DataType>of(t, DataTypes.DOUBLE, DataTypes.DOUBLE)),
+                DataTypes.DOUBLE,
+                FunctionInfo.Type.AGGREGATE)));
+            mod.register(new SketchPercentileAggregation(new FunctionInfo(
+                new FunctionIdent(NAME, ImmutableList.of(t, DataTypes.DOUBLE_ARRAY, DataTypes.DOUBLE)),
+                DataTypes.DOUBLE_ARRAY,
+                FunctionInfo.Type.AGGREGATE)));
+        }
+    }
+
+    private final FunctionInfo info;
+
+    SketchPercentileAggregation(FunctionInfo info) {
+        this.info = info;
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return info;
+    }
+
+    @Nullable
+    @Override
+    public QuantileSketch newState(RamAccountingContext ramAccountingContext,
+                                   Version indexVersionCreated,
+                                   BigArrays bigArrays) {
+        ramAccountingContext.addBytes(QuantileSketch.SHALLOW_SIZE);
+        return new QuantileSketch();
+    }
+
+    @Override
+    public QuantileSketch iterate(RamAccountingContext ramAccountingContext,
+                                  QuantileSketch state,
+                                  Input... args) throws CircuitBreakingException {
+        if (state.isEmpty()) {
+            Object fractionValue = args[1].value();
+            Double relativeAccuracy = DataTypes.DOUBLE.value(args[2].value());
+            if (fractionValue != null && relativeAccuracy != null) {
+                state.init(relativeAccuracy, PercentileAggregation.toFractions(fractionValue));
+            }
+        }
+        Double value = DataTypes.DOUBLE.value(args[0].value());
+        if (value != null && !state.isEmpty()) {
+            long grownBy = state.add(value);
+            if (grownBy > 0) {
+                ramAccountingContext.addBytes(grownBy);
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public QuantileSketch reduce(RamAccountingContext ramAccountingContext, QuantileSketch state1, QuantileSketch state2) {
+        if (state1.isEmpty()) {
+            return state2;
+        }
+        if (!state2.isEmpty()) {
+            long grownBy = state1.merge(state2);
+            if (grownBy > 0) {
+                ramAccountingContext.addBytes(grownBy);
+            }
+        }
+        return state1;
+    }
+
+    @Override
+    @Nullable
+    public Object terminatePartial(RamAccountingContext ramAccountingContext, QuantileSketch state) {
+        if (state.isEmpty()) {
+            return null;
+        }
+        double[] fractions = state.fractions();
+        if (info.returnType() instanceof ArrayType) {
+            Double[] percentiles = new Double[fractions.length];
+            for (int i = 0; i < fractions.length; i++) {
+                double percentile = state.quantile(fractions[i]);
+                percentiles[i] = Double.isNaN(percentile) ? null : percentile;
+            }
+            return percentiles;
+        }
+        double percentile = state.quantile(fractions[0]);
+        return Double.isNaN(percentile) ? null : percentile;
+    }
+
+    @Override
+    public DataType partialType() {
+        return QuantileSketchType.INSTANCE;
+    }
+}
@@ -32,6 +32,7 @@ import io.crate.execution.dsl.phases.RoutedCollectPhase;
 import io.crate.execution.jobs.AbstractExecutionSubContext;
 import io.crate.execution.jobs.SharedShardContexts;
 import io.crate.metadata.RowGranularity;
+import io.crate.profile.OperatorStats;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.common.StopWatch;
 import org.elasticsearch.common.logging.Loggers;
@@ -51,6 +52,7 @@ public class JobCollectContext extends AbstractExecutionSubContext {
     private final RamAccountingContext queryPhaseRamAccountingContext;
     private final ListenableRowConsumer consumer;
     private final SharedShardContexts sharedShardContexts;
+    private final OperatorStats operatorStats;
 
     private final IntObjectHashMap<Engine.Searcher> searchers = new IntObjectHashMap<>();
     private final Object subContextLock = new Object();
@@ -63,6 +65,16 @@ public class JobCollectContext extends AbstractExecutionSubContext {
                              RamAccountingContext queryPhaseRamAccountingContext,
                              RowConsumer consumer,
                              SharedShardContexts sharedShardContexts) {
+        this(collectPhase, collectOperation, queryPhaseRamAccountingContext, consumer, sharedShardContexts,
+            new OperatorStats());
+    }
+
+    public JobCollectContext(final CollectPhase collectPhase,
+                             MapSideDataCollectOperation collectOperation,
+                             RamAccountingContext queryPhaseRamAccountingContext,
+                             RowConsumer consumer,
+                             SharedShardContexts sharedShardContexts,
+                             OperatorStats operatorStats) {
         super(collectPhase.phaseId(), LOGGER);
         this.collectPhase = collectPhase;
         this.collectOperation = collectOperation;
@@ -71,6 +83,7 @@ public class JobCollectContext extends AbstractExecutionSubContext {
         this.consumer = new ListenableRowConsumer(consumer);
         this.consumer.completionFuture().whenComplete((result, ex) -> close(ex));
         this.threadPoolName = threadPoolName(collectPhase);
+        this.operatorStats = operatorStats;
     }
 
     public void addSearcher(int searcherId, Engine.Searcher searcher) {
@@ -166,6 +179,10 @@ public class JobCollectContext extends AbstractExecutionSubContext {
         return sharedShardContexts;
     }
 
+    public OperatorStats operatorStats() {
+        return operatorStats;
+    }
+
     @VisibleForTesting
     static String threadPoolName(CollectPhase phase) {
         if (phase instanceof RoutedCollectPhase) {
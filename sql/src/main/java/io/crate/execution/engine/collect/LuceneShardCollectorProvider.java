@@ -21,12 +21,20 @@
 
 package io.crate.execution.engine.collect;
 
+import com.google.common.collect.Iterables;
+import io.crate.data.Row;
 import io.crate.execution.TransportActionProvider;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
+import io.crate.execution.engine.aggregation.AggregationContext;
 import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
 import io.crate.execution.engine.collect.collectors.CrateDocCollectorBuilder;
+import io.crate.execution.engine.collect.collectors.IndexMetadataAggregations;
 import io.crate.execution.engine.collect.collectors.LuceneOrderedDocCollector;
+import io.crate.execution.engine.collect.collectors.MetadataAggregationCollectorBuilder;
 import io.crate.execution.engine.collect.collectors.OptimizeQueryForSearchAfter;
+import io.crate.execution.engine.collect.collectors.OrdinalsGroupingCollectorBuilder;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
 import io.crate.execution.engine.sort.LuceneSortGenerator;
 import io.crate.execution.jobs.NodeJobsCounter;
@@ -35,14 +43,28 @@ import io.crate.expression.InputFactory;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
 import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
 import io.crate.expression.reference.doc.lucene.LuceneReferenceResolver;
+import io.crate.expression.reference.doc.lucene.OrdinalsColumnReference;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
 import io.crate.expression.symbol.Symbols;
 import io.crate.lucene.FieldTypeLookup;
 import io.crate.lucene.LuceneQueryBuilder;
+import io.crate.lucene.PointValueBounds;
 import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
 import io.crate.metadata.Schemas;
 import io.crate.metadata.doc.DocSysColumns;
 import io.crate.metadata.shard.ShardReferenceResolver;
+import io.crate.profile.OperatorStats;
+import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.settings.Settings;
@@ -56,6 +78,11 @@ import org.elasticsearch.index.shard.IndexShard;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.threadpool.ThreadPool;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -68,6 +95,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
     private final IndexShard indexShard;
     private final DocInputFactory docInputFactory;
     private final FieldTypeLookup fieldTypeLookup;
+    private final BigArrays bigArrays;
 
     public LuceneShardCollectorProvider(Schemas schemas,
                                         LuceneQueryBuilder luceneQueryBuilder,
@@ -83,6 +111,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
             functions, threadPool, settings, transportActionProvider, indexShard, bigArrays);
         this.luceneQueryBuilder = luceneQueryBuilder;
         this.indexShard = indexShard;
+        this.bigArrays = bigArrays;
         this.localNodeId = () -> clusterService.localNode().getId();
         fieldTypeLookup = indexShard.mapperService()::fullName;
         this.docInputFactory = new DocInputFactory(functions,
@@ -99,6 +128,10 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         Engine.Searcher searcher = sharedShardContext.acquireSearcher();
         IndexShard indexShard = sharedShardContext.indexShard();
         try {
+            if (canSkipShard(collectPhase.where(), searcher.reader(), jobCollectContext.operatorStats())) {
+                searcher.close();
+                return RowsCollector.emptyBuilder();
+            }
             QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext(
                 shardId.getId(), searcher.reader(), System::currentTimeMillis, null);
             LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
@@ -127,6 +160,139 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         }
     }
 
+    @Override
+    protected CrateCollector.Builder getAggregationBuilder(RoutedCollectPhase collectPhase,
+                                                           AggregationProjection aggregationProjection,
+                                                           JobCollectContext jobCollectContext) {
+        IndexMetadataAggregations metadataAggregations = IndexMetadataAggregations.of(
+            collectPhase.toCollect(), aggregationProjection.aggregations(), collectPhase.where(), fieldTypeLookup);
+        if (metadataAggregations == null) {
+            return null;
+        }
+        ShardId shardId = indexShard.shardId();
+        SharedShardContext sharedShardContext = jobCollectContext.sharedShardContexts().getOrCreateContext(shardId);
+        Engine.Searcher searcher = sharedShardContext.acquireSearcher();
+        IndexShard indexShard = sharedShardContext.indexShard();
+        try {
+            QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext(
+                shardId.getId(), searcher.reader(), System::currentTimeMillis, null);
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                collectPhase.where(),
+                indexShard.mapperService(),
+                queryShardContext,
+                sharedShardContext.indexService().cache()
+            );
+            jobCollectContext.addSearcher(sharedShardContext.readerId(), searcher);
+            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx =
+                docInputFactory.extractImplementations(collectPhase);
+            InputFactory.Context<CollectExpression<Row, ?>> aggregationCtx = inputFactory.ctxForAggregations();
+            aggregationCtx.add(aggregationProjection.aggregations());
+
+            return new MetadataAggregationCollectorBuilder(
+                searcher.searcher(),
+                queryContext.query(),
+                metadataAggregations,
+                getCollectorContext(sharedShardContext.readerId(), docCtx, queryShardContext::getForField),
+                jobCollectContext.queryPhaseRamAccountingContext(),
+                docCtx.topLevelInputs(),
+                docCtx.expressions(),
+                aggregationCtx.expressions(),
+                aggregationCtx.aggregations().toArray(new AggregationContext[0]),
+                indexShard.indexSettings().getIndexVersionCreated(),
+                bigArrays
+            );
+        } catch (Throwable t) {
+            searcher.close();
+            throw t;
+        }
+    }
+
+    @Override
+    protected CrateCollector.Builder getGroupingBuilder(RoutedCollectPhase collectPhase,
+                                                        GroupProjection groupProjection,
+                                                        JobCollectContext jobCollectContext) {
+        OrdinalsColumnReference keyExpression = ordinalsKeyExpression(collectPhase.toCollect(), groupProjection);
+        if (keyExpression == null) {
+            return null;
+        }
+        int keyIndex = ((InputColumn) groupProjection.keys().get(0)).index();
+        // the key is read from the ordinals by the grouping collector and doesn't need to be collected as value
+        List<Symbol> toCollect = new ArrayList<>(collectPhase.toCollect());
+        toCollect.set(keyIndex, Literal.NULL);
+
+        ShardId shardId = indexShard.shardId();
+        SharedShardContext sharedShardContext = jobCollectContext.sharedShardContexts().getOrCreateContext(shardId);
+        Engine.Searcher searcher = sharedShardContext.acquireSearcher();
+        IndexShard indexShard = sharedShardContext.indexShard();
+        try {
+            QueryShardContext queryShardContext = sharedShardContext.indexService().newQueryShardContext(
+                shardId.getId(), searcher.reader(), System::currentTimeMillis, null);
+            LuceneQueryBuilder.Context queryContext = luceneQueryBuilder.convert(
+                collectPhase.where(),
+                indexShard.mapperService(),
+                queryShardContext,
+                sharedShardContext.indexService().cache()
+            );
+            jobCollectContext.addSearcher(sharedShardContext.readerId(), searcher);
+            InputFactory.Context<? extends LuceneCollectorExpression<?>> docCtx = docInputFactory.getCtx();
+            docCtx.add(toCollect);
+            InputFactory.Context<CollectExpression<Row, ?>> aggregationCtx = inputFactory.ctxForAggregations();
+            aggregationCtx.add(groupProjection.values());
+
+            return new OrdinalsGroupingCollectorBuilder(
+                searcher.searcher(),
+                queryContext.query(),
+                queryContext.minScore(),
+                Symbols.containsColumn(toCollect, DocSysColumns.SCORE),
+                getCollectorContext(sharedShardContext.readerId(), docCtx, queryShardContext::getForField),
+                jobCollectContext.queryPhaseRamAccountingContext(),
+                docCtx.topLevelInputs(),
+                docCtx.expressions(),
+                keyExpression,
+                Iterables.toArray(aggregationCtx.expressions(), CollectExpression.class),
+                groupProjection.mode(),
+                aggregationCtx.aggregations().toArray(new AggregationContext[0]),
+                indexShard.indexSettings().getIndexVersionCreated(),
+                bigArrays
+            );
+        } catch (Throwable t) {
+            searcher.close();
+            throw t;
+        }
+    }
+
+    /**
+     * @return an expression providing the ordinals of the group key if the projection groups by a single
+     *         string column with doc values which isn't used by any aggregation, otherwise null
+     */
+    @Nullable
+    private OrdinalsColumnReference ordinalsKeyExpression(List<Symbol> toCollect, GroupProjection groupProjection) {
+        List<Symbol> keys = groupProjection.keys();
+        if (keys.size() != 1 || !(keys.get(0) instanceof InputColumn)) {
+            return null;
+        }
+        int keyIndex = ((InputColumn) keys.get(0)).index();
+        Symbol key = toCollect.get(keyIndex);
+        if (!(key instanceof Reference) || !key.valueType().equals(DataTypes.STRING)) {
+            return null;
+        }
+        Reference keyRef = (Reference) key;
+        if (keyRef.granularity() != RowGranularity.DOC) {
+            return null;
+        }
+        String fqn = keyRef.column().fqn();
+        MappedFieldType fieldType = fieldTypeLookup.get(fqn);
+        if (fieldType == null || !fieldType.hasDocValues() || !"keyword".equals(fieldType.typeName())) {
+            return null;
+        }
+        for (Aggregation aggregation : groupProjection.values()) {
+            if (SymbolVisitors.any(s -> s instanceof InputColumn && ((InputColumn) s).index() == keyIndex, aggregation)) {
+                return null;
+            }
+        }
+        return new OrdinalsColumnReference(fqn, fieldType);
+    }
+
     @Override
     public OrderedDocCollector getOrderedCollector(RoutedCollectPhase phase,
                                                    SharedShardContext sharedShardContext,
@@ -138,6 +304,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         InputFactory.Context<? extends LuceneCollectorExpression<?>> ctx;
         Engine.Searcher searcher = null;
         LuceneQueryBuilder.Context queryContext;
+        Query query;
         try {
             searcher = sharedShardContext.acquireSearcher();
             IndexService indexService = sharedShardContext.indexService();
@@ -149,6 +316,11 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
                 queryShardContext,
                 indexService.cache()
             );
+            if (canSkipShard(collectPhase.where(), searcher.reader(), jobCollectContext.operatorStats())) {
+                query = new MatchNoDocsQuery("no segment of the shard can match");
+            } else {
+                query = queryContext.query();
+            }
             jobCollectContext.addSearcher(sharedShardContext.readerId(), searcher);
             ctx = docInputFactory.extractImplementations(collectPhase);
             collectorContext = getCollectorContext(sharedShardContext.readerId(), ctx, queryShardContext::getForField);
@@ -173,7 +345,7 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         return new LuceneOrderedDocCollector(
             indexShard.shardId(),
             searcher.searcher(),
-            queryContext.query(),
+            query,
             queryContext.minScore(),
             Symbols.containsColumn(collectPhase.toCollect(), DocSysColumns.SCORE),
             batchSize,
@@ -185,6 +357,29 @@ public class LuceneShardCollectorProvider extends ShardCollectorProvider {
         );
     }
 
+    /**
+     * Uses the point value bounds of the segments to check if any document of the shard can match the query.
+     * The number of segments and shards which can't match is added to the stats of the collect operation.
+     */
+    private boolean canSkipShard(Symbol query, IndexReader reader, OperatorStats stats) {
+        PointValueBounds bounds = PointValueBounds.of(query, fieldTypeLookup);
+        if (bounds.isEmpty()) {
+            return false;
+        }
+        int nonMatchingSegments;
+        try {
+            nonMatchingSegments = bounds.countNonMatchingSegments(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        stats.add(OperatorStats.SEGMENTS_SKIPPED, nonMatchingSegments);
+        if (nonMatchingSegments == reader.leaves().size()) {
+            stats.increment(OperatorStats.SHARDS_SKIPPED);
+            return true;
+        }
+        return false;
+    }
+
     private CollectorContext getCollectorContext(int readerId,
                                                  InputFactory.Context ctx,
                                                  Function<MappedFieldType, IndexFieldData<?>> getFieldData) {
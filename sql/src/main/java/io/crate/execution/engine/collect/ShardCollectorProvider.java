@@ -22,12 +22,16 @@
 
 package io.crate.execution.engine.collect;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import io.crate.analyze.QueryClause;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.execution.TransportActionProvider;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.AggregationProjection;
+import io.crate.execution.dsl.projection.GroupProjection;
 import io.crate.execution.dsl.projection.Projection;
 import io.crate.execution.dsl.projection.Projections;
 import io.crate.execution.engine.collect.collectors.OrderedDocCollector;
@@ -40,6 +44,7 @@ import io.crate.expression.InputFactory;
 import io.crate.expression.NestableInput;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.reference.ReferenceResolver;
+import io.crate.expression.symbol.AggregateMode;
 import io.crate.metadata.Functions;
 import io.crate.metadata.RowGranularity;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -55,7 +60,7 @@ import java.util.List;
 public abstract class ShardCollectorProvider {
 
     private final ProjectorFactory projectorFactory;
-    private final InputFactory inputFactory;
+    final InputFactory inputFactory;
     final EvaluatingNormalizer shardNormalizer;
 
     ShardCollectorProvider(ClusterService clusterService,
@@ -126,16 +131,36 @@ public abstract class ShardCollectorProvider {
                null : "getDocCollector shouldn't be called if there is an orderBy on the collectPhase";
         RoutedCollectPhase normalizedCollectNode = collectPhase.normalize(shardNormalizer, null);
 
+        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
         final CrateCollector.Builder builder;
+        final Collection<? extends Projection> projectionsToApply;
         if (!QueryClause.canMatch(normalizedCollectNode.where())) {
             builder = RowsCollector.emptyBuilder();
+            projectionsToApply = shardProjections;
         } else {
             assert normalizedCollectNode.maxRowGranularity() == RowGranularity.DOC : "granularity must be DOC";
-            builder = getBuilder(normalizedCollectNode, requiresScroll, jobCollectContext);
+            CrateCollector.Builder aggregationBuilder = null;
+            Projection firstProjection = Iterables.getFirst(shardProjections, null);
+            if (firstProjection instanceof AggregationProjection &&
+                ((AggregationProjection) firstProjection).mode() == AggregateMode.ITER_PARTIAL) {
+                aggregationBuilder = getAggregationBuilder(
+                    normalizedCollectNode, (AggregationProjection) firstProjection, jobCollectContext);
+            } else if (firstProjection instanceof GroupProjection &&
+                       ((GroupProjection) firstProjection).mode() != AggregateMode.PARTIAL_FINAL) {
+                aggregationBuilder = getGroupingBuilder(
+                    normalizedCollectNode, (GroupProjection) firstProjection, jobCollectContext);
+            }
+            if (aggregationBuilder == null) {
+                builder = getBuilder(normalizedCollectNode, requiresScroll, jobCollectContext);
+                projectionsToApply = shardProjections;
+            } else {
+                // the builder emits the aggregated rows, so the aggregation projection is already applied
+                builder = aggregationBuilder;
+                projectionsToApply = ImmutableList.copyOf(Iterables.skip(shardProjections, 1));
+            }
         }
 
-        Collection<? extends Projection> shardProjections = Projections.shardProjections(collectPhase.projections());
-        if (shardProjections.isEmpty()) {
+        if (projectionsToApply.isEmpty()) {
             return builder;
         } else {
             return new CrateCollector.Builder() {
@@ -148,7 +173,7 @@ public abstract class ShardCollectorProvider {
                 public RowConsumer applyProjections(RowConsumer consumer) {
                     return ProjectingRowConsumer.create(
                         consumer,
-                        shardProjections,
+                        projectionsToApply,
                         normalizedCollectNode.jobId(),
                         jobCollectContext.queryPhaseRamAccountingContext(),
                         projectorFactory
@@ -163,6 +188,32 @@ public abstract class ShardCollectorProvider {
                                                          JobCollectContext jobCollectContext);
 
 
+    /**
+     * Create a CrateCollector.Builder which emits the partial states of the given shard-level aggregation
+     * without collecting every row.
+     *
+     * @return null if the aggregation can't be computed without collecting the rows
+     */
+    @Nullable
+    protected CrateCollector.Builder getAggregationBuilder(RoutedCollectPhase collectPhase,
+                                                           AggregationProjection aggregationProjection,
+                                                           JobCollectContext jobCollectContext) {
+        return null;
+    }
+
+    /**
+     * Create a CrateCollector.Builder which emits the result of the given shard-level group projection
+     * using a more efficient grouping than the generic one.
+     *
+     * @return null if the rows have to be grouped by the group projection
+     */
+    @Nullable
+    protected CrateCollector.Builder getGroupingBuilder(RoutedCollectPhase collectPhase,
+                                                        GroupProjection groupProjection,
+                                                        JobCollectContext jobCollectContext) {
+        return null;
+    }
+
     public abstract OrderedDocCollector getOrderedCollector(RoutedCollectPhase collectPhase,
                                                             SharedShardContext sharedShardContext,
                                                             JobCollectContext jobCollectContext,
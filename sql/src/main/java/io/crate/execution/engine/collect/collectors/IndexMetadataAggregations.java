@@ -0,0 +1,344 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.aggregation.impl.MaximumAggregation;
+import io.crate.execution.engine.aggregation.impl.MinimumAggregation;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.lucene.FieldTypeLookup;
+import io.crate.metadata.Reference;
+import io.crate.metadata.RowGranularity;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the partial states of {@code min}, {@code max} and {@code count} aggregations of a segment
+ * from the metadata Lucene keeps for it instead of visiting the matching documents:
+ *
+ * <ul>
+ *     <li>min and max of indexed numeric or timestamp columns are the bounds of the point values</li>
+ *     <li>count(column) is the number of documents with a point value</li>
+ *     <li>count(*) is the number of documents, or the document frequency of the term the query filters on</li>
+ * </ul>
+ *
+ * This is only possible if the query matches all documents or is an equality condition on a string column.
+ * Segments with deleted documents or where only some documents match the term, have to be scanned.
+ */
+public final class IndexMetadataAggregations {
+
+    private final List<Source> sources;
+    @Nullable
+    private final Term filter;
+
+    private IndexMetadataAggregations(List<Source> sources, @Nullable Term filter) {
+        this.sources = sources;
+        this.filter = filter;
+    }
+
+    /**
+     * @param toCollect the symbols collected from the shard, referred to by the inputs of the aggregations
+     * @param aggregations the aggregations of the shard-level aggregation projection
+     * @param where the normalized query of the collect phase
+     * @return null if the aggregations or the query can't be answered from the segment metadata
+     */
+    @Nullable
+    public static IndexMetadataAggregations of(List<? extends Symbol> toCollect,
+                                               List<Aggregation> aggregations,
+                                               Symbol where,
+                                               FieldTypeLookup fieldTypeLookup) {
+        Term filter = null;
+        if (!Literal.BOOLEAN_TRUE.equals(where)) {
+            filter = termFilter(where, fieldTypeLookup);
+            if (filter == null) {
+                return null;
+            }
+        }
+        List<Source> sources = new ArrayList<>(aggregations.size());
+        for (Aggregation aggregation : aggregations) {
+            Source source = Source.of(aggregation, toCollect, fieldTypeLookup);
+            if (source == null) {
+                return null;
+            }
+            sources.add(source);
+        }
+        return new IndexMetadataAggregations(sources, filter);
+    }
+
+    @Nullable
+    private static Term termFilter(Symbol where, FieldTypeLookup fieldTypeLookup) {
+        if (!(where instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) where;
+        if (!function.info().ident().name().equals(EqOperator.NAME)) {
+            return null;
+        }
+        Symbol first = function.arguments().get(0);
+        Symbol second = function.arguments().get(1);
+        if (!(first instanceof Reference) || !(second instanceof Literal)) {
+            return null;
+        }
+        Reference ref = (Reference) first;
+        Object value = ((Literal) second).value();
+        if (!ref.valueType().equals(DataTypes.STRING) || !(value instanceof BytesRef)) {
+            return null;
+        }
+        String field = ref.column().fqn();
+        MappedFieldType fieldType = fieldTypeLookup.get(field);
+        if (fieldType == null || fieldType.indexOptions() == IndexOptions.NONE || !"keyword".equals(fieldType.typeName())) {
+            return null;
+        }
+        return new Term(field, (BytesRef) value);
+    }
+
+    /**
+     * @return the partial states of the aggregations for the documents of the segment matching the query,
+     *         or null if the segment has to be scanned
+     */
+    @Nullable
+    public Object[] segmentStates(LeafReader reader) throws IOException {
+        if (reader.hasDeletions()) {
+            // deleted documents are still part of the doc frequencies and point values
+            return null;
+        }
+        int matchingDocs = filter == null ? reader.maxDoc() : reader.docFreq(filter);
+        Object[] states = new Object[sources.size()];
+        for (int i = 0; i < states.length; i++) {
+            Source source = sources.get(i);
+            if (matchingDocs == 0) {
+                states[i] = source.emptyState();
+            } else if (matchingDocs == reader.maxDoc() || source instanceof CountAll) {
+                Object state = source.state(reader, matchingDocs);
+                if (state == Source.SCAN) {
+                    return null;
+                }
+                states[i] = state;
+            } else {
+                return null;
+            }
+        }
+        return states;
+    }
+
+    private abstract static class Source {
+
+        private static final Object SCAN = new Object();
+
+        @Nullable
+        static Source of(Aggregation aggregation, List<? extends Symbol> toCollect, FieldTypeLookup fieldTypeLookup) {
+            String name = aggregation.functionIdent().name();
+            List<Symbol> inputs = aggregation.inputs();
+            if (name.equals(CountAggregation.NAME) && inputs.isEmpty()) {
+                return new CountAll();
+            }
+            if (inputs.size() != 1 || !(inputs.get(0) instanceof InputColumn)) {
+                return null;
+            }
+            Symbol input = toCollect.get(((InputColumn) inputs.get(0)).index());
+            if (!(input instanceof Reference) || ((Reference) input).granularity() != RowGranularity.DOC) {
+                return null;
+            }
+            Reference ref = (Reference) input;
+            DataType type = ref.valueType();
+            if (!DataTypes.NUMERIC_PRIMITIVE_TYPES.contains(type) && !type.equals(DataTypes.TIMESTAMP)) {
+                return null;
+            }
+            String field = ref.column().fqn();
+            MappedFieldType fieldType = fieldTypeLookup.get(field);
+            if (fieldType == null || fieldType.indexOptions() == IndexOptions.NONE) {
+                return null;
+            }
+            PointType pointType = PointType.of(fieldType.typeName());
+            if (pointType == null) {
+                return null;
+            }
+            switch (name) {
+                case CountAggregation.NAME:
+                    return new CountValues(field);
+                case MinimumAggregation.NAME:
+                    return new Bound(field, pointType, type, true);
+                case MaximumAggregation.NAME:
+                    return new Bound(field, pointType, type, false);
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * @return the state if no document matches
+         */
+        abstract Object emptyState();
+
+        /**
+         * @param matchingDocs the number of documents matching the query,
+         *                     all documents of the segment unless this is a {@link CountAll}
+         * @return the state for the matching documents of the segment or {@link #SCAN} if it can't be computed
+         */
+        abstract Object state(LeafReader reader, int matchingDocs) throws IOException;
+
+        /**
+         * @return the point values of the field, null if there are none, or {@link #SCAN} if they can't be used
+         */
+        @Nullable
+        static Object pointValues(LeafReader reader, String field) throws IOException {
+            FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+            if (fieldInfo == null) {
+                return null;
+            }
+            if (fieldInfo.getPointDimensionCount() != 1) {
+                return SCAN;
+            }
+            return reader.getPointValues(field);
+        }
+    }
+
+    private static final class CountAll extends Source {
+
+        @Override
+        Object emptyState() {
+            return new CountAggregation.LongState(0L);
+        }
+
+        @Override
+        Object state(LeafReader reader, int matchingDocs) {
+            return new CountAggregation.LongState(matchingDocs);
+        }
+    }
+
+    private static final class CountValues extends Source {
+
+        private final String field;
+
+        CountValues(String field) {
+            this.field = field;
+        }
+
+        @Override
+        Object emptyState() {
+            return new CountAggregation.LongState(0L);
+        }
+
+        @Override
+        Object state(LeafReader reader, int matchingDocs) throws IOException {
+            Object points = pointValues(reader, field);
+            if (points == SCAN) {
+                return SCAN;
+            }
+            return new CountAggregation.LongState(points == null ? 0L : ((PointValues) points).getDocCount());
+        }
+    }
+
+    private static final class Bound extends Source {
+
+        private final String field;
+        private final PointType pointType;
+        private final DataType type;
+        private final boolean min;
+
+        Bound(String field, PointType pointType, DataType type, boolean min) {
+            this.field = field;
+            this.pointType = pointType;
+            this.type = type;
+            this.min = min;
+        }
+
+        @Override
+        Object emptyState() {
+            return null;
+        }
+
+        @Override
+        Object state(LeafReader reader, int matchingDocs) throws IOException {
+            Object points = pointValues(reader, field);
+            if (points == null || points == SCAN) {
+                return points;
+            }
+            PointValues pointValues = (PointValues) points;
+            byte[] packedValue = min ? pointValues.getMinPackedValue() : pointValues.getMaxPackedValue();
+            return type.value(pointType.decode(packedValue));
+        }
+    }
+
+    private enum PointType {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE;
+
+        @Nullable
+        static PointType of(String fieldTypeName) {
+            switch (fieldTypeName) {
+                case "byte":
+                case "short":
+                case "integer":
+                    return INT;
+                case "long":
+                case "date":
+                    return LONG;
+                case "float":
+                    return FLOAT;
+                case "double":
+                    return DOUBLE;
+                default:
+                    return null;
+            }
+        }
+
+        Number decode(byte[] packedValue) {
+            switch (this) {
+                case INT:
+                    return IntPoint.decodeDimension(packedValue, 0);
+                case LONG:
+                    return LongPoint.decodeDimension(packedValue, 0);
+                case FLOAT:
+                    return FloatPoint.decodeDimension(packedValue, 0);
+                case DOUBLE:
+                    return DoublePoint.decodeDimension(packedValue, 0);
+                default:
+                    throw new AssertionError("Unexpected point type: " + this);
+            }
+        }
+    }
+}
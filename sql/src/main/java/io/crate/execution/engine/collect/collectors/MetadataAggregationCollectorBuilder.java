@@ -0,0 +1,221 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchIterator;
+import io.crate.data.CollectingBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowConsumer;
+import io.crate.data.RowN;
+import io.crate.execution.engine.aggregation.AggregateCollector;
+import io.crate.execution.engine.aggregation.AggregationContext;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.execution.engine.collect.BatchIteratorCollectorBridge;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.CrateCollector;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.symbol.AggregateMode;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.FilterWeight;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.util.BigArrays;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Builds a collector which emits the partial states of a shard-level aggregation as a single row.
+ * <p>
+ * The states of segments which can be answered from their metadata (see {@link IndexMetadataAggregations})
+ * are merged without visiting any document, only the documents of the remaining segments are collected.
+ */
+public class MetadataAggregationCollectorBuilder implements CrateCollector.Builder {
+
+    private final IndexSearcher indexSearcher;
+    private final Query query;
+    private final IndexMetadataAggregations metadataAggregations;
+    private final CollectorContext collectorContext;
+    private final RamAccountingContext ramAccountingContext;
+    private final List<Input<?>> inputs;
+    private final Collection<? extends LuceneCollectorExpression<?>> expressions;
+    private final AggregationFunction[] functions;
+    private final AggregateCollector aggregateCollector;
+
+    public MetadataAggregationCollectorBuilder(IndexSearcher indexSearcher,
+                                               Query query,
+                                               IndexMetadataAggregations metadataAggregations,
+                                               CollectorContext collectorContext,
+                                               RamAccountingContext ramAccountingContext,
+                                               List<Input<?>> inputs,
+                                               Collection<? extends LuceneCollectorExpression<?>> expressions,
+                                               List<CollectExpression<Row, ?>> aggregationExpressions,
+                                               AggregationContext[] aggregations,
+                                               Version indexVersionCreated,
+                                               BigArrays bigArrays) {
+        this.indexSearcher = indexSearcher;
+        this.query = query;
+        this.metadataAggregations = metadataAggregations;
+        this.collectorContext = collectorContext;
+        this.ramAccountingContext = ramAccountingContext;
+        this.inputs = inputs;
+        this.expressions = expressions;
+        functions = new AggregationFunction[aggregations.length];
+        Input[][] aggregationInputs = new Input[aggregations.length][];
+        for (int i = 0; i < aggregations.length; i++) {
+            functions[i] = aggregations[i].function();
+            aggregationInputs[i] = aggregations[i].inputs();
+        }
+        aggregateCollector = new AggregateCollector(
+            aggregationExpressions,
+            ramAccountingContext,
+            AggregateMode.ITER_PARTIAL,
+            functions,
+            indexVersionCreated,
+            bigArrays,
+            aggregationInputs
+        );
+    }
+
+    @Override
+    public CrateCollector build(RowConsumer consumer) {
+        List<LeafReaderContext> leaves = indexSearcher.getTopReaderContext().leaves();
+        List<Object[]> segmentStates = new ArrayList<>(leaves.size());
+        BitSet leavesToScan = new BitSet(leaves.size());
+        try {
+            for (LeafReaderContext leaf : leaves) {
+                Object[] states = metadataAggregations.segmentStates(leaf.reader());
+                if (states == null) {
+                    leavesToScan.set(leaf.ord);
+                } else {
+                    segmentStates.add(states);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        BatchIterator<Row> scanned = new LuceneBatchIterator(
+            indexSearcher,
+            new ScanLeavesQuery(query, leavesToScan),
+            null,
+            false,
+            collectorContext,
+            ramAccountingContext,
+            inputs,
+            expressions
+        );
+        Supplier<Object[]> initialStates = () -> {
+            Object[] states = aggregateCollector.supplier().get();
+            for (Object[] segment : segmentStates) {
+                for (int i = 0; i < states.length; i++) {
+                    states[i] = functions[i].reduce(ramAccountingContext, states[i], segment[i]);
+                }
+            }
+            return states;
+        };
+        Collector<Row, Object[], Object[]> collector = Collector.of(
+            initialStates,
+            aggregateCollector.accumulator(),
+            aggregateCollector.combiner(),
+            aggregateCollector.finisher()
+        );
+        Collector<Row, ?, Iterable<Row>> collectAndConvertToRows = Collectors.collectingAndThen(
+            collector,
+            cells -> {
+                Row row = new RowN(cells);
+                return Collections.singletonList(row);
+            });
+        return BatchIteratorCollectorBridge.newInstance(
+            CollectingBatchIterator.newInstance(scanned, collectAndConvertToRows), consumer);
+    }
+
+    /**
+     * Restricts a query to the segments which couldn't be answered from their metadata.
+     */
+    static final class ScanLeavesQuery extends Query {
+
+        private final Query query;
+        private final BitSet leavesToScan;
+
+        ScanLeavesQuery(Query query, BitSet leavesToScan) {
+            this.query = query;
+            this.leavesToScan = leavesToScan;
+        }
+
+        @Override
+        public Query rewrite(IndexReader reader) throws IOException {
+            Query rewritten = query.rewrite(reader);
+            if (rewritten != query) {
+                return new ScanLeavesQuery(rewritten, leavesToScan);
+            }
+            return this;
+        }
+
+        @Override
+        public Weight createWeight(IndexSearcher searcher, boolean needsScores, float boost) throws IOException {
+            return new FilterWeight(this, searcher.createWeight(query, needsScores, boost)) {
+                @Override
+                public Scorer scorer(LeafReaderContext context) throws IOException {
+                    if (leavesToScan.get(context.ord)) {
+                        return in.scorer(context);
+                    }
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public String toString(String field) {
+            return "ScanLeaves(" + query.toString(field) + ", leaves=" + leavesToScan + ')';
+        }
+
+        /**
+         * Leaf ordinals are only valid within one searcher; the query is only equal to itself so that the query cache
+         * never re-uses its results for other searchers. The wrapped query is still cached on its own.
+         */
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
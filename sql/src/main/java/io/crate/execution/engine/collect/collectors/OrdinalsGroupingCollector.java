@@ -0,0 +1,255 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import com.google.common.collect.Iterables;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.SizeEstimator;
+import io.crate.breaker.SizeEstimatorFactory;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.reference.doc.lucene.OrdinalsColumnReference;
+import io.crate.expression.symbol.AggregateMode;
+import io.crate.types.DataTypes;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.RamUsageEstimator;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.util.BigArrays;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * Collector which groups rows by a single string column using the ordinals of its doc values.
+ * <p>
+ * Within a segment the aggregation states are kept in an array indexed by the ordinal of the key,
+ * so neither hashing nor copying of the key is necessary per row.
+ * Once the segment is exhausted, each distinct ordinal is resolved to its value and
+ * the states are merged into the states of the previous segments.
+ * <p>
+ * Segments with more than {@link #MAX_ORDINALS} distinct values and rows without a key
+ * are grouped by the resolved value.
+ */
+public class OrdinalsGroupingCollector implements Collector<Row, OrdinalsGroupingCollector.Groups, Iterable<Row>> {
+
+    static final int MAX_ORDINALS = 1 << 16;
+
+    private final OrdinalsColumnReference keyExpression;
+    private final CollectExpression<Row, ?>[] expressions;
+    private final AggregationFunction[] aggregations;
+    private final AggregateMode mode;
+    private final Input[][] inputs;
+    private final RamAccountingContext ramAccountingContext;
+    private final SizeEstimator<Object> keySizeEstimator;
+    private final Version indexVersionCreated;
+    private final BigArrays bigArrays;
+
+    OrdinalsGroupingCollector(OrdinalsColumnReference keyExpression,
+                              CollectExpression<Row, ?>[] expressions,
+                              AggregationFunction[] aggregations,
+                              AggregateMode mode,
+                              Input[][] inputs,
+                              RamAccountingContext ramAccountingContext,
+                              Version indexVersionCreated,
+                              BigArrays bigArrays) {
+        assert mode != AggregateMode.PARTIAL_FINAL : "ordinals can only be used if the rows are iterated";
+        this.keyExpression = keyExpression;
+        this.expressions = expressions;
+        this.aggregations = aggregations;
+        this.mode = mode;
+        this.inputs = inputs;
+        this.ramAccountingContext = ramAccountingContext;
+        this.keySizeEstimator = SizeEstimatorFactory.create(DataTypes.STRING);
+        this.indexVersionCreated = indexVersionCreated;
+        this.bigArrays = bigArrays;
+    }
+
+    static final class Groups {
+
+        private final Map<BytesRef, Object[]> statesByKey = new HashMap<>();
+
+        private SortedSetDocValues segmentValues;
+        private Object[][] statesByOrdinal;
+    }
+
+    @Override
+    public Supplier<Groups> supplier() {
+        return Groups::new;
+    }
+
+    @Override
+    public BiConsumer<Groups, Row> accumulator() {
+        return this::onNextRow;
+    }
+
+    @Override
+    public BinaryOperator<Groups> combiner() {
+        return (state1, state2) -> {
+            throw new UnsupportedOperationException("combine not supported");
+        };
+    }
+
+    @Override
+    public Function<Groups, Iterable<Row>> finisher() {
+        return this::groupsToRows;
+    }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+        return Collections.emptySet();
+    }
+
+    private void onNextRow(Groups groups, Row row) {
+        for (CollectExpression<Row, ?> expression : expressions) {
+            expression.setNextRow(row);
+        }
+        SortedSetDocValues values = keyExpression.values();
+        if (values != groups.segmentValues) {
+            nextSegment(groups, values);
+        }
+        long ordinal = keyExpression.ordinal();
+        if (ordinal == OrdinalsColumnReference.NO_ORDINAL || groups.statesByOrdinal == null) {
+            onNextKey(groups.statesByKey, keyExpression.value());
+            return;
+        }
+        Object[] states = groups.statesByOrdinal[(int) ordinal];
+        if (states == null) {
+            groups.statesByOrdinal[(int) ordinal] = newStates();
+        } else {
+            iterate(states);
+        }
+    }
+
+    private void onNextKey(Map<BytesRef, Object[]> statesByKey, BytesRef key) {
+        Object[] states = statesByKey.get(key);
+        if (states == null) {
+            addEntry(statesByKey, key, newStates());
+        } else {
+            iterate(states);
+        }
+    }
+
+    private Object[] newStates() {
+        Object[] states = new Object[aggregations.length];
+        for (int i = 0; i < aggregations.length; i++) {
+            AggregationFunction aggregation = aggregations[i];
+            states[i] = mode.onRow(
+                ramAccountingContext, aggregation,
+                aggregation.newState(ramAccountingContext, indexVersionCreated, bigArrays), inputs[i]);
+        }
+        return states;
+    }
+
+    private void iterate(Object[] states) {
+        for (int i = 0; i < aggregations.length; i++) {
+            states[i] = mode.onRow(ramAccountingContext, aggregations[i], states[i], inputs[i]);
+        }
+    }
+
+    private void addEntry(Map<BytesRef, Object[]> statesByKey, BytesRef key, Object[] states) {
+        // key size + 32 bytes for entry + 4 bytes for increased capacity
+        ramAccountingContext.addBytes(
+            RamAccountingContext.roundUp(keySizeEstimator.estimateSize(key) + 36L));
+        statesByKey.put(key, states);
+    }
+
+    private void nextSegment(Groups groups, SortedSetDocValues values) {
+        mergeSegment(groups);
+        groups.segmentValues = values;
+        long valueCount = values.getValueCount();
+        if (valueCount <= MAX_ORDINALS) {
+            ramAccountingContext.addBytes(
+                RamAccountingContext.roundUp(RamUsageEstimator.NUM_BYTES_OBJECT_REF * valueCount));
+            groups.statesByOrdinal = new Object[(int) valueCount][];
+        } else {
+            groups.statesByOrdinal = null;
+        }
+    }
+
+    /**
+     * Resolves the ordinals of the current segment and merges their states into the states by key
+     */
+    private void mergeSegment(Groups groups) {
+        Object[][] statesByOrdinal = groups.statesByOrdinal;
+        if (statesByOrdinal == null) {
+            return;
+        }
+        try {
+            for (int ordinal = 0; ordinal < statesByOrdinal.length; ordinal++) {
+                Object[] segmentStates = statesByOrdinal[ordinal];
+                if (segmentStates == null) {
+                    continue;
+                }
+                BytesRef key = groups.segmentValues.lookupOrd(ordinal);
+                Object[] states = groups.statesByKey.get(key);
+                if (states == null) {
+                    addEntry(groups.statesByKey, BytesRef.deepCopyOf(key), segmentStates);
+                } else {
+                    for (int i = 0; i < aggregations.length; i++) {
+                        states[i] = aggregations[i].reduce(ramAccountingContext, states[i], segmentStates[i]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        groups.statesByOrdinal = null;
+    }
+
+    private Iterable<Row> groupsToRows(Groups groups) {
+        mergeSegment(groups);
+        groups.segmentValues = null;
+        return Iterables.transform(groups.statesByKey.entrySet(), new com.google.common.base.Function<Map.Entry<BytesRef, Object[]>, Row>() {
+
+            RowN row = new RowN(1 + aggregations.length);
+            Object[] cells = new Object[row.numColumns()];
+
+            {
+                row.cells(cells);
+            }
+
+            @Override
+            public Row apply(Map.Entry<BytesRef, Object[]> input) {
+                cells[0] = input.getKey();
+                Object[] states = input.getValue();
+                for (int i = 0; i < states.length; i++) {
+                    cells[i + 1] = mode.finishCollect(ramAccountingContext, aggregations[i], states[i]);
+                }
+                return row;
+            }
+        });
+    }
+}
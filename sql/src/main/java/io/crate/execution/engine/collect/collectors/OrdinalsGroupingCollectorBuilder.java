@@ -0,0 +1,123 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.CollectingBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowConsumer;
+import io.crate.execution.engine.aggregation.AggregationContext;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.execution.engine.collect.BatchIteratorCollectorBridge;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.execution.engine.collect.CrateCollector;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.reference.doc.lucene.OrdinalsColumnReference;
+import io.crate.expression.symbol.AggregateMode;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.util.BigArrays;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds a collector which emits the result of a shard-level group projection
+ * with a single string key, grouped by the ordinals of the key, see {@link OrdinalsGroupingCollector}.
+ */
+public class OrdinalsGroupingCollectorBuilder implements CrateCollector.Builder {
+
+    private final IndexSearcher indexSearcher;
+    private final Query query;
+    private final Float minScore;
+    private final boolean doScores;
+    private final CollectorContext collectorContext;
+    private final RamAccountingContext ramAccountingContext;
+    private final List<Input<?>> inputs;
+    private final List<LuceneCollectorExpression<?>> expressions;
+    private final OrdinalsGroupingCollector collector;
+
+    public OrdinalsGroupingCollectorBuilder(IndexSearcher indexSearcher,
+                                            Query query,
+                                            @Nullable Float minScore,
+                                            boolean doScores,
+                                            CollectorContext collectorContext,
+                                            RamAccountingContext ramAccountingContext,
+                                            List<Input<?>> inputs,
+                                            Collection<? extends LuceneCollectorExpression<?>> expressions,
+                                            OrdinalsColumnReference keyExpression,
+                                            CollectExpression<Row, ?>[] aggregationExpressions,
+                                            AggregateMode mode,
+                                            AggregationContext[] aggregations,
+                                            Version indexVersionCreated,
+                                            BigArrays bigArrays) {
+        this.indexSearcher = indexSearcher;
+        this.query = query;
+        this.minScore = minScore;
+        this.doScores = doScores;
+        this.collectorContext = collectorContext;
+        this.ramAccountingContext = ramAccountingContext;
+        this.inputs = inputs;
+        this.expressions = new ArrayList<>(expressions.size() + 1);
+        this.expressions.addAll(expressions);
+        this.expressions.add(keyExpression);
+
+        AggregationFunction[] functions = new AggregationFunction[aggregations.length];
+        Input[][] aggregationInputs = new Input[aggregations.length][];
+        for (int i = 0; i < aggregations.length; i++) {
+            functions[i] = aggregations[i].function();
+            aggregationInputs[i] = aggregations[i].inputs();
+        }
+        collector = new OrdinalsGroupingCollector(
+            keyExpression,
+            aggregationExpressions,
+            functions,
+            mode,
+            aggregationInputs,
+            ramAccountingContext,
+            indexVersionCreated,
+            bigArrays
+        );
+    }
+
+    @Override
+    public CrateCollector build(RowConsumer consumer) {
+        LuceneBatchIterator batchIterator = new LuceneBatchIterator(
+            indexSearcher,
+            query,
+            minScore,
+            doScores,
+            collectorContext,
+            ramAccountingContext,
+            inputs,
+            expressions
+        );
+        return BatchIteratorCollectorBridge.newInstance(
+            CollectingBatchIterator.newInstance(batchIterator, collector), consumer);
+    }
+}
@@ -176,7 +176,8 @@ public class RemoteCollector implements CrateCollector {
             pagingIterator,
             DataTypes.getStreamers(collectPhase.outputTypes()),
             ramAccountingContext,
-            1
+            1,
+            builder.operatorStats(RECEIVER_PHASE_ID, "RemoteCollectPhase")
         ));
         return builder;
     }
@@ -22,9 +22,13 @@
 package io.crate.execution.engine.collect.count;
 
 import io.crate.execution.support.ThreadPools;
+import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.lucene.LuceneQueryBuilder;
 import io.crate.metadata.IndexParts;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -48,6 +52,8 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static io.crate.concurrent.CompletableFutures.failedFuture;
+
 @Singleton
 public class InternalCountOperation implements CountOperation {
 
@@ -56,6 +62,7 @@ public class InternalCountOperation implements CountOperation {
     private final ClusterService clusterService;
     private final ThreadPoolExecutor executor;
     private final int corePoolSize;
+    private final SegmentTermCounts segmentTermCounts = new SegmentTermCounts();
 
     @Inject
     public InternalCountOperation(LuceneQueryBuilder queryBuilder,
@@ -95,6 +102,19 @@ public class InternalCountOperation implements CountOperation {
                 });
             }
         }
+        if (filter instanceof Literal) {
+            // WHERE true/false, also the case if the filter only involved partition columns;
+            // answered from the shard statistics, which is cheap enough to not need the search pool
+            try {
+                long result = 0L;
+                for (Supplier<Long> supplier : suppliers) {
+                    result += supplier.get();
+                }
+                return CompletableFuture.completedFuture(result);
+            } catch (Exception e) {
+                return failedFuture(e);
+            }
+        }
         MergePartialCountFunction mergeFunction = new MergePartialCountFunction();
         CompletableFuture<List<Long>> futurePartialCounts = ThreadPools.runWithAvailableThreads(
             executor, corePoolSize, suppliers, mergeFunction);
@@ -114,7 +134,13 @@ public class InternalCountOperation implements CountOperation {
         }
 
         IndexShard indexShard = indexService.getShard(shardId);
+        if (filter instanceof Literal && !Boolean.TRUE.equals(((Literal) filter).value())) {
+            return 0L;
+        }
         try (Engine.Searcher searcher = indexShard.acquireSearcher("count-operation")) {
+            if (filter instanceof Literal) {
+                return searcher.reader().numDocs();
+            }
             LuceneQueryBuilder.Context queryCtx = queryBuilder.convert(
                 filter,
                 indexService.mapperService(),
@@ -123,7 +149,14 @@ public class InternalCountOperation implements CountOperation {
             if (Thread.interrupted()) {
                 throw new InterruptedException("thread interrupted during count-operation");
             }
-            return searcher.searcher().count(queryCtx.query());
+            Query query = queryCtx.query();
+            while (query instanceof ConstantScoreQuery) {
+                query = ((ConstantScoreQuery) query).getQuery();
+            }
+            if (query instanceof TermQuery) {
+                return segmentTermCounts.count(searcher.reader(), ((TermQuery) query).getTerm());
+            }
+            return searcher.searcher().count(query);
         }
     }
 
@@ -0,0 +1,100 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.collect.count;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the live documents containing a term.
+ *
+ * Segments without deletions are answered from the term statistics.
+ * Segments with deletions have to walk the postings; their counts are cached per segment reader,
+ * which is replaced whenever the deletions of the segment change, and dropped once the reader is closed.
+ */
+final class SegmentTermCounts {
+
+    private static final int MAX_TERMS_PER_SEGMENT = 256;
+
+    private final Map<IndexReader.CacheKey, Map<Term, Integer>> countsBySegment = new ConcurrentHashMap<>();
+
+    long count(IndexReader reader, Term term) throws IOException {
+        long count = 0;
+        for (LeafReaderContext leaf : reader.leaves()) {
+            count += count(leaf.reader(), term);
+        }
+        return count;
+    }
+
+    private int count(LeafReader reader, Term term) throws IOException {
+        Bits liveDocs = reader.getLiveDocs();
+        if (liveDocs == null) {
+            return reader.docFreq(term);
+        }
+        IndexReader.CacheHelper cacheHelper = reader.getReaderCacheHelper();
+        if (cacheHelper == null) {
+            return countLiveDocs(reader, term, liveDocs);
+        }
+        Map<Term, Integer> segmentCounts = countsBySegment.get(cacheHelper.getKey());
+        if (segmentCounts == null) {
+            segmentCounts = new ConcurrentHashMap<>();
+            Map<Term, Integer> existing = countsBySegment.putIfAbsent(cacheHelper.getKey(), segmentCounts);
+            if (existing == null) {
+                cacheHelper.addClosedListener(countsBySegment::remove);
+            } else {
+                segmentCounts = existing;
+            }
+        }
+        Integer count = segmentCounts.get(term);
+        if (count == null) {
+            count = countLiveDocs(reader, term, liveDocs);
+            if (segmentCounts.size() < MAX_TERMS_PER_SEGMENT) {
+                segmentCounts.put(term, count);
+            }
+        }
+        return count;
+    }
+
+    private static int countLiveDocs(LeafReader reader, Term term, Bits liveDocs) throws IOException {
+        PostingsEnum postings = reader.postings(term, PostingsEnum.NONE);
+        if (postings == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            if (liveDocs.get(doc)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -21,11 +21,18 @@
 
 package io.crate.execution.engine.collect.sources;
 
+import com.carrotsearch.hppc.cursors.ObjectCursor;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.crate.execution.engine.collect.files.SqlFeatureContext;
 import io.crate.execution.engine.collect.files.SqlFeaturesIterable;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
 import io.crate.expression.reference.information.ColumnContext;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
 import io.crate.expression.udf.UserDefinedFunctionsMetaData;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.FulltextAnalyzerResolver;
@@ -34,6 +41,7 @@ import io.crate.metadata.IngestionRuleInfo;
 import io.crate.metadata.IngestionRuleInfos;
 import io.crate.metadata.PartitionInfo;
 import io.crate.metadata.PartitionInfos;
+import io.crate.metadata.PartitionName;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationInfo;
 import io.crate.metadata.RelationName;
@@ -47,21 +55,30 @@ import io.crate.metadata.rule.ingest.IngestRulesMetaData;
 import io.crate.metadata.sys.SysSchemaInfo;
 import io.crate.metadata.table.ConstraintInfo;
 import io.crate.metadata.table.SchemaInfo;
+import io.crate.metadata.table.TableInfo;
 import io.crate.metadata.view.ViewInfo;
+import io.crate.metadata.view.ViewsMetaData;
 import io.crate.types.DataTypes;
 import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.ClusterStateListener;
+import org.elasticsearch.cluster.metadata.IndexTemplateMetaData;
 import org.elasticsearch.cluster.metadata.MetaData;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.lucene.BytesRefs;
+import org.elasticsearch.index.Index;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
 
@@ -74,6 +91,9 @@ public class InformationSchemaIterables implements ClusterStateListener {
     private static final Set<String> IGNORED_SCHEMAS =
         ImmutableSet.of(InformationSchemaInfo.NAME, SysSchemaInfo.NAME, BlobSchemaInfo.NAME, PgCatalogSchemaInfo.NAME);
 
+    private static final String TABLE_SCHEMA = "table_schema";
+    private static final String TABLE_NAME = "table_name";
+
     private final Schemas schemas;
     private final FluentIterable<RelationInfo> tables;
     private final FluentIterable<ViewInfo> views;
@@ -85,6 +105,13 @@ public class InformationSchemaIterables implements ClusterStateListener {
     private final Iterable<Void> referentialConstraints;
     private final FulltextAnalyzerResolver fulltextAnalyzerResolver;
 
+    /**
+     * Columns and constraints of each relation, materialized on first use.
+     * An entry is valid as long as the schema still returns the same {@link RelationInfo} instance;
+     * entries of dropped relations are removed when the cluster state changes.
+     */
+    private final Map<RelationName, RelationEntry> relationEntries = new ConcurrentHashMap<>();
+
     private Iterable<RoutineInfo> routines;
     private Iterable<IngestionRuleInfo> ingestionRules;
     private boolean initialClusterStateReceived = false;
@@ -104,17 +131,15 @@ public class InformationSchemaIterables implements ClusterStateListener {
                 .filter(i -> !IndexParts.isPartitioned(i.ident().indexName())));
 
         partitionInfos = new PartitionInfos(clusterService);
-        columns = tables.append(views).transformAndConcat(ColumnsIterable::new);
+        columns = tables.append(views).transformAndConcat(r -> relationEntry(r).columns);
 
-        primaryKeys = tables
-            .filter(i -> i != null && (i.primaryKey().size() > 1 ||
-                                       (i.primaryKey().size() == 1 && !i.primaryKey().get(0).name().equals("_id"))));
+        primaryKeys = tables.filter(InformationSchemaIterables::hasPrimaryKeyConstraint);
         FluentIterable<ConstraintInfo> primaryKeyConstraints = primaryKeys
             .transform(t -> new ConstraintInfo(
                 t.ident(),
                 t.ident().name() + PK_SUFFIX,
                 ConstraintInfo.Constraint.PRIMARY_KEY));
-        FluentIterable<ConstraintInfo> notnullConstraints = tables.transformAndConcat(NotNullConstraintIterable::new);
+        FluentIterable<ConstraintInfo> notnullConstraints = tables.transformAndConcat(r -> relationEntry(r).notNullConstraints);
         constraints = FluentIterable.concat(primaryKeyConstraints, notnullConstraints);
 
         sqlFeatures = new SqlFeaturesIterable();
@@ -134,6 +159,44 @@ public class InformationSchemaIterables implements ClusterStateListener {
         return FluentIterable.concat(tables, views);
     }
 
+    /**
+     * Like {@link #relations()} but only looks up the relations which can match
+     * {@code table_schema = ?} and {@code table_name = ?} conditions of the given filter.
+     */
+    public Iterable<RelationInfo> relations(Symbol where) {
+        String schemaName = equalityValue(where, TABLE_SCHEMA);
+        String tableName = equalityValue(where, TABLE_NAME);
+        if (schemaName == null) {
+            if (tableName == null) {
+                return relations();
+            }
+            return FluentIterable.from(relations()).filter(r -> tableName.equals(r.ident().name()));
+        }
+        SchemaInfo schemaInfo = null;
+        for (SchemaInfo schema : schemas) {
+            if (schema.name().equals(schemaName)) {
+                schemaInfo = schema;
+                break;
+            }
+        }
+        if (schemaInfo == null) {
+            return Collections.emptyList();
+        }
+        FluentIterable<ViewInfo> schemaViews = FluentIterable.from(schemaInfo.getViews());
+        if (tableName == null) {
+            return FluentIterable.<RelationInfo>from(schemaInfo.getTables())
+                .append(schemaViews)
+                .filter(i -> !IndexParts.isPartitioned(i.ident().indexName()));
+        }
+        TableInfo tableInfo = schemaInfo.getTableInfo(tableName);
+        if (tableInfo != null && !IndexParts.isPartitioned(tableInfo.ident().indexName())) {
+            return Collections.singletonList(tableInfo);
+        }
+        return schemaViews
+            .filter(i -> tableName.equals(i.ident().name()) && !IndexParts.isPartitioned(i.ident().indexName()))
+            .transform(i -> (RelationInfo) i);
+    }
+
     public Iterable<ViewInfo> views() {
         return views;
     }
@@ -146,10 +209,23 @@ public class InformationSchemaIterables implements ClusterStateListener {
         return columns;
     }
 
+    public Iterable<ColumnContext> columns(Symbol where) {
+        return FluentIterable.from(relations(where)).transformAndConcat(r -> relationEntry(r).columns);
+    }
+
     public Iterable<ConstraintInfo> constraints() {
         return constraints;
     }
 
+    public Iterable<ConstraintInfo> constraints(Symbol where) {
+        FluentIterable<RelationInfo> relations = FluentIterable.from(relations(where))
+            .filter(r -> !(r instanceof ViewInfo));
+        return FluentIterable.concat(
+            relations.filter(InformationSchemaIterables::hasPrimaryKeyConstraint).transform(
+                t -> new ConstraintInfo(t.ident(), t.ident().name() + PK_SUFFIX, ConstraintInfo.Constraint.PRIMARY_KEY)),
+            relations.transformAndConcat(r -> relationEntry(r).notNullConstraints));
+    }
+
     public Iterable<RoutineInfo> routines() {
         return routines;
     }
@@ -179,8 +255,75 @@ public class InformationSchemaIterables implements ClusterStateListener {
         return referentialConstraints;
     }
 
+    private static boolean hasPrimaryKeyConstraint(@Nullable RelationInfo i) {
+        return i != null && (i.primaryKey().size() > 1 ||
+                             (i.primaryKey().size() == 1 && !i.primaryKey().get(0).name().equals("_id")));
+    }
+
+    private RelationEntry relationEntry(RelationInfo relationInfo) {
+        RelationEntry entry = relationEntries.get(relationInfo.ident());
+        if (entry == null || entry.relationInfo != relationInfo) {
+            entry = new RelationEntry(relationInfo);
+            relationEntries.put(relationInfo.ident(), entry);
+        }
+        return entry;
+    }
+
+    /**
+     * @return the string value of a {@code column = 'value'} condition which must hold for the filter to match,
+     *         or null if there is none.
+     */
+    @Nullable
+    static String equalityValue(@Nullable Symbol where, String column) {
+        if (!(where instanceof Function)) {
+            return null;
+        }
+        Function function = (Function) where;
+        String name = function.info().ident().name();
+        if (name.equals(AndOperator.NAME)) {
+            for (Symbol arg : function.arguments()) {
+                String value = equalityValue(arg, column);
+                if (value != null) {
+                    return value;
+                }
+            }
+        } else if (name.equals(EqOperator.NAME)) {
+            Symbol left = function.arguments().get(0);
+            Symbol right = function.arguments().get(1);
+            if (left instanceof Reference &&
+                ((Reference) left).column().fqn().equals(column) &&
+                right instanceof Literal &&
+                ((Literal) right).value() != null) {
+                return BytesRefs.toString(((Literal) right).value());
+            }
+        }
+        return null;
+    }
+
+    private void removeDroppedRelations(ClusterChangedEvent event) {
+        for (Index index : event.indicesDeleted()) {
+            if (!IndexParts.isPartitioned(index.getName())) {
+                relationEntries.remove(RelationName.fromIndexName(index.getName()));
+            }
+        }
+        MetaData metaData = event.state().metaData();
+        for (ObjectCursor<IndexTemplateMetaData> template : event.previousState().metaData().templates().values()) {
+            String templateName = template.value.getName();
+            if (IndexParts.isPartitioned(templateName) && !metaData.templates().containsKey(templateName)) {
+                relationEntries.remove(PartitionName.fromIndexOrTemplate(templateName).relationName());
+            }
+        }
+        if (event.changedCustomMetaDataSet().contains(ViewsMetaData.TYPE)) {
+            relationEntries.values().removeIf(entry -> entry.relationInfo instanceof ViewInfo);
+        }
+    }
+
     @Override
     public void clusterChanged(ClusterChangedEvent event) {
+        if (event.metaDataChanged()) {
+            partitionInfos.clusterChanged(event);
+            removeDroppedRelations(event);
+        }
         if (initialClusterStateReceived) {
             Set<String> changedCustomMetaDataSet = event.changedCustomMetaDataSet();
             if (changedCustomMetaDataSet.contains(UserDefinedFunctionsMetaData.TYPE) == false &&
@@ -201,6 +344,19 @@ public class InformationSchemaIterables implements ClusterStateListener {
         ingestionRules = new IngestionRuleInfos(metaData.custom(IngestRulesMetaData.TYPE));
     }
 
+    private static class RelationEntry {
+
+        private final RelationInfo relationInfo;
+        private final List<ColumnContext> columns;
+        private final List<ConstraintInfo> notNullConstraints;
+
+        RelationEntry(RelationInfo relationInfo) {
+            this.relationInfo = relationInfo;
+            this.columns = ImmutableList.copyOf(new ColumnsIterable(relationInfo));
+            this.notNullConstraints = ImmutableList.copyOf(new NotNullConstraintIterable(relationInfo));
+        }
+    }
+
     /**
      * Iterable for extracting not null constraints from table info.
      */
@@ -123,7 +123,7 @@ public class SystemCollectSource implements CollectSource {
         StaticTableDefinition<?> tableDefinition = tableDefinition(relationName);
 
         return BatchIteratorCollectorBridge.newInstance(
-            () -> tableDefinition.retrieveRecords(collectPhase.user()).thenApply(records ->
+            () -> tableDefinition.retrieveRecords(collectPhase.user(), collectPhase.where()).thenApply(records ->
                 InMemoryBatchIterator.of(
                     recordsToRows(
                         collectPhase,
@@ -24,30 +24,45 @@ package io.crate.execution.engine.collect.sources;
 
 import com.google.common.collect.Iterables;
 import io.crate.analyze.OrderBy;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
 import io.crate.data.Input;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.execution.dsl.phases.CollectPhase;
 import io.crate.execution.dsl.phases.TableFunctionCollectPhase;
+import io.crate.execution.engine.collect.BatchIteratorCollectorBridge;
+import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.execution.engine.collect.CrateCollector;
 import io.crate.execution.engine.collect.InputCollectExpression;
 import io.crate.execution.engine.collect.JobCollectContext;
-import io.crate.execution.engine.collect.RowsCollector;
-import io.crate.execution.engine.collect.RowsTransformer;
 import io.crate.execution.engine.collect.ValueAndInputRow;
+import io.crate.execution.engine.sort.OrderingByPosition;
+import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.expression.InputCondition;
 import io.crate.expression.InputFactory;
+import io.crate.expression.symbol.InputColumn;
 import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
 import io.crate.metadata.table.TableInfo;
 import io.crate.metadata.tablefunctions.TableFunctionImplementation;
+import io.crate.planner.consumer.OrderByPositionVisitor;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.common.inject.Singleton;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static io.crate.data.SentinelRow.SENTINEL;
+
+/**
+ * Collects the rows of a table function.
+ * <p>
+ * The rows are evaluated lazily while the consumer moves through the {@link BatchIterator}.
+ * Only if the rows have to be sorted, they're buffered by a {@link SortingProjector} which accounts their memory.
+ */
 @Singleton
 public class TableFunctionCollectSource implements CollectSource {
 
@@ -82,10 +97,31 @@ public class TableFunctionCollectSource implements CollectSource {
             new ValueAndInputRow<>(topLevelInputs, ctx.expressions()));
         Input<Boolean> condition = (Input<Boolean>) ctx.add(phase.where());
         rows = Iterables.filter(rows, InputCondition.asPredicate(condition));
+        BatchIterator<Row> batchIterator = InMemoryBatchIterator.of(rows, SENTINEL);
         OrderBy orderBy = phase.orderBy();
         if (orderBy != null) {
-            rows = RowsTransformer.sortRows(Iterables.transform(rows, Row::materialize), phase);
+            batchIterator = sortingProjector(phase, orderBy, jobCollectContext.queryPhaseRamAccountingContext())
+                .apply(batchIterator);
         }
-        return RowsCollector.forRows(rows, consumer);
+        return BatchIteratorCollectorBridge.newInstance(batchIterator, consumer);
+    }
+
+    private SortingProjector sortingProjector(TableFunctionCollectPhase phase,
+                                              OrderBy orderBy,
+                                              RamAccountingContext ramAccountingContext) {
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
+        ctx.add(InputColumn.fromSymbols(phase.toCollect()));
+        return new SortingProjector(
+            ctx.topLevelInputs(),
+            ctx.expressions(),
+            phase.toCollect().size(),
+            OrderingByPosition.rowOrdering(
+                OrderByPositionVisitor.orderByPositions(orderBy.orderBySymbols(), phase.toCollect()),
+                orderBy.reverseFlags(),
+                orderBy.nullsFirst()
+            ),
+            0,
+            ramAccountingContext
+        );
     }
 }
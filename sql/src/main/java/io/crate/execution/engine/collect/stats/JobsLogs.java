@@ -31,9 +31,11 @@ import org.elasticsearch.common.collect.Tuple;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BooleanSupplier;
@@ -41,7 +43,7 @@ import java.util.function.BooleanSupplier;
 /**
  * JobsLogs is responsible for adding jobs and operations of that node.
  * It also provides the functionality to expose that data for system tables,
- * such as sys.jobs, sys.jobs_log, sys.operations and sys.operations_log;
+ * such as sys.jobs, sys.jobs_log, sys.operations, sys.operations_log and sys.jobs_metrics;
  * <p>
  * The data is exposed via the properties
  *
@@ -49,6 +51,9 @@ import java.util.function.BooleanSupplier;
  *   - {@link #jobsLog()} ()}
  *   - {@link #activeOperations()} ()}
  *   - {@link #operationsLog()} ()}
+ *   - {@link #metrics()}
+ *
+ * The {@link StatementMetrics} are always recorded, regardless of whether statistics are enabled or not.
  *
  * Note that on configuration updates (E.g.: resizing of jobs-log size, etc.) the Iterable instances previously returned
  * from the properties may become obsolete.
@@ -60,6 +65,8 @@ public class JobsLogs {
 
     private final Map<UUID, JobContext> jobsTable = new ConcurrentHashMap<>();
     private final Map<Tuple<Integer, UUID>, OperationContext> operationsTable = new ConcurrentHashMap<>();
+    private final Map<UUID, ExecutionStart> executionStarts = new ConcurrentHashMap<>();
+    private final EnumMap<StatementType, StatementMetrics> metrics = new EnumMap<>(StatementType.class);
 
     final AtomicReference<LogSink<JobContextLog>> jobsLog = new AtomicReference<>(NoopLogSink.instance());
     final AtomicReference<LogSink<OperationContextLog>> operationsLog = new AtomicReference<>(NoopLogSink.instance());
@@ -69,6 +76,9 @@ public class JobsLogs {
 
     public JobsLogs(BooleanSupplier enabled) {
         this.enabled = enabled;
+        for (StatementType type : StatementType.values()) {
+            metrics.put(type, new StatementMetrics(type));
+        }
     }
 
     /**
@@ -94,6 +104,7 @@ public class JobsLogs {
      */
     public void logExecutionStart(UUID jobId, String statement, User user) {
         activeRequests.increment();
+        executionStarts.put(jobId, new ExecutionStart(StatementType.of(statement), System.nanoTime()));
         if (!isEnabled()) {
             return;
         }
@@ -107,6 +118,11 @@ public class JobsLogs {
      */
     public void logExecutionEnd(UUID jobId, @Nullable String errorMessage) {
         activeRequests.decrement();
+        ExecutionStart executionStart = executionStarts.remove(jobId);
+        if (executionStart != null) {
+            long durationInMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - executionStart.startedNanos);
+            metrics.get(executionStart.type).record(durationInMs, errorMessage != null);
+        }
         JobContext jobContext = jobsTable.remove(jobId);
         if (!isEnabled() || jobContext == null) {
             return;
@@ -123,6 +139,7 @@ public class JobsLogs {
      * {@link #logExecutionStart(UUID, String, User)} is only called after a Plan has been created and execution starts.
      */
     public void logPreExecutionFailure(UUID jobId, String stmt, String errorMessage, @Nullable User user) {
+        metrics.get(StatementType.of(stmt)).record(0L, true);
         LogSink<JobContextLog> jobContextLogs = jobsLog.get();
         JobContext jobContext = new JobContext(jobId, stmt, System.currentTimeMillis(), user);
         jobContextLogs.add(new JobContextLog(jobContext, errorMessage));
@@ -171,6 +188,14 @@ public class JobsLogs {
         return activeRequests.longValue();
     }
 
+    public Iterable<StatementMetrics> metrics() {
+        return metrics.values();
+    }
+
+    public StatementMetrics metrics(StatementType type) {
+        return metrics.get(type);
+    }
+
     void updateOperationsLog(LogSink<OperationContextLog> sink) {
         operationsLog.set(sink);
     }
@@ -179,4 +204,15 @@ public class JobsLogs {
         jobsLog.set(sink);
     }
 
+    private static class ExecutionStart {
+
+        private final StatementType type;
+        private final long startedNanos;
+
+        ExecutionStart(StatementType type, long startedNanos) {
+            this.type = type;
+            this.startedNanos = startedNanos;
+        }
+    }
+
 }
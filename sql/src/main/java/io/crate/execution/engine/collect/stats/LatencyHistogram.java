@@ -0,0 +1,124 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.stats;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of non-negative values (e.g. durations in milliseconds) which can be recorded concurrently
+ * without any locking.
+ * <p>
+ * Like a HdrHistogram the values are counted in log-linear buckets:
+ * Values below {@code 2 * SUB_BUCKETS} are counted exactly, bigger values are counted in one of
+ * {@code SUB_BUCKETS} buckets per power of two. This results in a relative error of less than
+ * {@code 1 / SUB_BUCKETS} for percentiles while using a fixed amount of memory.
+ */
+@ThreadSafe
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong(0L);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(bucketIdx(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        long count = count();
+        if (count == 0) {
+            return 0.0;
+        }
+        return sum() / (double) count;
+    }
+
+    /**
+     * @param percentile the percentile in the range of [0, 100]
+     * @return the highest value which is equivalent (within the precision of the buckets) to the value
+     *         at the given percentile, 0 if no values have been recorded.
+     */
+    public long percentile(double percentile) {
+        assert percentile >= 0.0 && percentile <= 100.0 : "percentile must be within [0, 100]";
+        long[] snapshot = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), max());
+            }
+        }
+        return max();
+    }
+
+    static int bucketIdx(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long highestEquivalentValue(int bucketIdx) {
+        if (bucketIdx < 2 * SUB_BUCKETS) {
+            return bucketIdx;
+        }
+        int shift = bucketIdx / SUB_BUCKETS - 1;
+        long subBucket = bucketIdx - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
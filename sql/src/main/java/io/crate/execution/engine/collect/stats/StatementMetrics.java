@@ -0,0 +1,77 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.stats;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durations and failures of all statements of a {@link StatementType} executed on this node
+ * since the node has been started.
+ */
+@ThreadSafe
+public class StatementMetrics {
+
+    private final StatementType type;
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final LongAdder failedCount = new LongAdder();
+
+    StatementMetrics(StatementType type) {
+        this.type = type;
+    }
+
+    void record(long durationInMs, boolean failed) {
+        durations.record(durationInMs);
+        if (failed) {
+            failedCount.increment();
+        }
+    }
+
+    public StatementType type() {
+        return type;
+    }
+
+    public long totalCount() {
+        return durations.count();
+    }
+
+    public long failedCount() {
+        return failedCount.sum();
+    }
+
+    public long sumOfDurations() {
+        return durations.sum();
+    }
+
+    public long maxDuration() {
+        return durations.max();
+    }
+
+    public double meanDuration() {
+        return durations.mean();
+    }
+
+    public long percentile(double percentile) {
+        return durations.percentile(percentile);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.stats;
+
+import java.util.Locale;
+
+/**
+ * Classification of statements used to group the {@link StatementMetrics}.
+ */
+public enum StatementType {
+
+    SELECT,
+    INSERT,
+    UPDATE,
+    DELETE,
+    UNCLASSIFIED;
+
+    /**
+     * Classifies a statement by its first keyword.
+     */
+    public static StatementType of(String statement) {
+        int length = statement.length();
+        int start = 0;
+        while (start < length && !Character.isLetter(statement.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < length && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        switch (statement.substring(start, end).toLowerCase(Locale.ENGLISH)) {
+            case "select":
+                return SELECT;
+            case "insert":
+                return INSERT;
+            case "update":
+                return UPDATE;
+            case "delete":
+                return DELETE;
+            default:
+                return UNCLASSIFIED;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
 import io.crate.exceptions.SQLExceptions;
+import io.crate.profile.OperatorStats;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.common.util.concurrent.EsRejectedExecutionException;
@@ -64,6 +65,7 @@ public class DistributingConsumer implements RowConsumer {
     private final Bucket[] buckets;
     private final List<Downstream> downstreams;
     private final boolean traceEnabled;
+    private final OperatorStats stats;
 
     @VisibleForTesting
     final MultiBucketBuilder multiBucketBuilder;
@@ -80,7 +82,8 @@ public class DistributingConsumer implements RowConsumer {
                                 Collection<String> downstreamNodeIds,
                                 TransportDistributedResultAction distributedResultAction,
                                 Streamer<?>[] streamers,
-                                int pageSize) {
+                                int pageSize,
+                                OperatorStats stats) {
         this.traceEnabled = logger.isTraceEnabled();
         this.logger = logger;
         this.responseExecutor = responseExecutor;
@@ -92,6 +95,7 @@ public class DistributingConsumer implements RowConsumer {
         this.distributedResultAction = distributedResultAction;
         this.streamers = streamers;
         this.pageSize = pageSize;
+        this.stats = stats;
         this.buckets = new Bucket[downstreamNodeIds.size()];
         downstreams = new ArrayList<>(downstreamNodeIds.size());
         for (String downstreamNodeId : downstreamNodeIds) {
@@ -170,6 +174,14 @@ public class DistributingConsumer implements RowConsumer {
         }
     }
 
+    private void recordSentBucket(Bucket bucket) {
+        stats.increment(OperatorStats.PAGES_OUT);
+        stats.add(OperatorStats.ROWS_OUT, bucket.size());
+        if (bucket instanceof StreamBucket) {
+            stats.add(OperatorStats.BYTES_OUT, ((StreamBucket) bucket).serializedSize());
+        }
+    }
+
     private void countdownAndMaybeCloseIt(AtomicInteger numActiveRequests, @Nullable BatchIterator it) {
         if (numActiveRequests.decrementAndGet() == 0) {
             if (it != null) {
@@ -192,6 +204,7 @@ public class DistributingConsumer implements RowConsumer {
                 logger.trace("forwardResults targetNode={} jobId={} targetPhase={}/{} bucket={} isLast={}",
                     downstream.nodeId, jobId, targetPhaseId, inputId, bucketIdx, isLast);
             }
+            recordSentBucket(buckets[i]);
             distributedResultAction.pushResult(
                 downstream.nodeId,
                 new DistributedResultRequest(jobId, targetPhaseId, inputId, bucketIdx, streamers, buckets[i], isLast),
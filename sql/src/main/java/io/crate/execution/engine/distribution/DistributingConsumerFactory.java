@@ -28,6 +28,7 @@ import io.crate.execution.dsl.phases.ExecutionPhases;
 import io.crate.execution.dsl.phases.NodeOperation;
 import io.crate.planner.distribution.DistributionInfo;
 import io.crate.planner.node.StreamerVisitor;
+import io.crate.profile.OperatorStats;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.component.AbstractComponent;
@@ -67,7 +68,8 @@ public class DistributingConsumerFactory extends AbstractComponent {
     public RowConsumer create(NodeOperation nodeOperation,
                               DistributionInfo distributionInfo,
                               UUID jobId,
-                              int pageSize) {
+                              int pageSize,
+                              OperatorStats stats) {
         Streamer<?>[] streamers = StreamerVisitor.streamersFromOutputs(nodeOperation.executionPhase());
         assert !ExecutionPhases.hasDirectResponseDownstream(nodeOperation.downstreamNodes())
             : "trying to build a DistributingDownstream but nodeOperation has a directResponse downstream";
@@ -104,7 +106,8 @@ public class DistributingConsumerFactory extends AbstractComponent {
             nodeOperation.downstreamNodes(),
             transportDistributedResultAction,
             streamers,
-            pageSize
+            pageSize,
+            stats
         );
     }
 
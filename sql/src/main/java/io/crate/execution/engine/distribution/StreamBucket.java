@@ -105,6 +105,13 @@ public class StreamBucket implements Bucket, Streamable {
         return size;
     }
 
+    /**
+     * @return the number of serialized bytes backing this bucket, 0 if it has not been built or read yet
+     */
+    public int serializedSize() {
+        return bytes == null ? 0 : bytes.length();
+    }
+
     public void streamers(Streamer<?>[] streamers) {
         assert validStreamers(streamers) : "streamers must not be null and they shouldn't be of undefinedType";
         this.streamers = streamers;
@@ -0,0 +1,235 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.crate.expression.scalar.DateTruncFunction;
+import io.crate.expression.scalar.TimeZoneParser;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.GeneratedReference;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.metadata.Schemas;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.SchemaInfo;
+import io.crate.metadata.table.TableInfo;
+import io.crate.settings.CrateSetting;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.admin.indices.create.CreatePartitionsRequest;
+import org.elasticsearch.action.admin.indices.create.CreatePartitionsResponse;
+import org.elasticsearch.action.admin.indices.create.TransportCreatePartitionsAction;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.metadata.MetaData;
+import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.component.AbstractComponent;
+import org.elasticsearch.common.inject.Inject;
+import org.elasticsearch.common.inject.Singleton;
+import org.elasticsearch.common.rounding.Rounding;
+import org.elasticsearch.common.settings.Setting;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.threadpool.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Periodically creates the upcoming partitions of tables which are partitioned by a generated
+ * <code>date_trunc(interval, [timezone,] timestamp)</code> column, so that inserts don't have to wait for the
+ * partition creation once the current partition is left behind.
+ *
+ * {@link #PRECREATION_COUNT_SETTING} defines how many upcoming partitions are created, 0 disables the service.
+ * Partitions are only created by the elected master node.
+ */
+@Singleton
+public class PartitionPreCreationService extends AbstractComponent implements Runnable {
+
+    public static final CrateSetting<Integer> PRECREATION_COUNT_SETTING = CrateSetting.of(Setting.intSetting(
+        "bulk.partition_precreation.count", 0, 0, Setting.Property.NodeScope, Setting.Property.Dynamic),
+        DataTypes.INTEGER);
+
+    public static final CrateSetting<TimeValue> PRECREATION_INTERVAL_SETTING = CrateSetting.of(Setting.positiveTimeSetting(
+        "bulk.partition_precreation.interval", TimeValue.timeValueMinutes(10), Setting.Property.NodeScope, Setting.Property.Dynamic),
+        DataTypes.STRING);
+
+    private final ClusterService clusterService;
+    private final ThreadPool threadPool;
+    private final Schemas schemas;
+    private final TransportCreatePartitionsAction createPartitionsAction;
+
+    private volatile int count;
+    private ThreadPool.Cancellable scheduledTask;
+
+    @Inject
+    public PartitionPreCreationService(Settings settings,
+                                       ClusterService clusterService,
+                                       ThreadPool threadPool,
+                                       Schemas schemas,
+                                       TransportCreatePartitionsAction createPartitionsAction) {
+        super(settings);
+        this.clusterService = clusterService;
+        this.threadPool = threadPool;
+        this.schemas = schemas;
+        this.createPartitionsAction = createPartitionsAction;
+        count = PRECREATION_COUNT_SETTING.setting().get(settings);
+        scheduledTask = schedule(PRECREATION_INTERVAL_SETTING.setting().get(settings));
+
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            PRECREATION_COUNT_SETTING.setting(), newCount -> count = newCount);
+        clusterService.getClusterSettings().addSettingsUpdateConsumer(
+            PRECREATION_INTERVAL_SETTING.setting(), this::setInterval);
+    }
+
+    @Override
+    public void run() {
+        int count = this.count;
+        if (count == 0 || clusterService.localNode() == null) {
+            return;
+        }
+        ClusterState state = clusterService.state();
+        if (!state.nodes().isLocalNodeElectedMaster()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        MetaData metaData = state.metaData();
+        List<String> missingPartitions = new ArrayList<>();
+        try {
+            for (SchemaInfo schemaInfo : schemas) {
+                for (TableInfo tableInfo : schemaInfo.getTables()) {
+                    if (!(tableInfo instanceof DocTableInfo)) {
+                        continue;
+                    }
+                    for (String partition : upcomingPartitions((DocTableInfo) tableInfo, now, count)) {
+                        if (!metaData.hasIndex(partition)) {
+                            missingPartitions.add(partition);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("error resolving upcoming partitions", e);
+            return;
+        }
+        if (missingPartitions.isEmpty()) {
+            return;
+        }
+        logger.debug("creating upcoming partitions {}", missingPartitions);
+        createPartitionsAction.execute(
+            new CreatePartitionsRequest(missingPartitions, UUID.randomUUID()),
+            new ActionListener<CreatePartitionsResponse>() {
+                @Override
+                public void onResponse(CreatePartitionsResponse response) {
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    logger.warn("error creating upcoming partitions " + missingPartitions, e);
+                }
+            });
+    }
+
+    /**
+     * @return the index names of the {@code count} partitions following the partition of {@code now}
+     *         or an empty list if the partitions of the table can't be computed in advance.
+     */
+    @VisibleForTesting
+    static List<String> upcomingPartitions(DocTableInfo table, long now, int count) {
+        if (!table.isPartitioned() || table.isClosed() || table.partitionedByColumns().size() != 1) {
+            return Collections.emptyList();
+        }
+        Rounding rounding = dateTruncRounding(table, table.partitionedByColumns().get(0));
+        if (rounding == null) {
+            return Collections.emptyList();
+        }
+        List<String> partitions = new ArrayList<>(count);
+        long value = rounding.round(now);
+        for (int i = 0; i < count; i++) {
+            value = rounding.nextRoundingValue(value);
+            partitions.add(new PartitionName(
+                table.ident(), Collections.singletonList(new BytesRef(Long.toString(value)))).asIndexName());
+        }
+        return partitions;
+    }
+
+    private static Rounding dateTruncRounding(DocTableInfo table, Reference partitionColumn) {
+        if (!partitionColumn.valueType().equals(DataTypes.TIMESTAMP)) {
+            return null;
+        }
+        for (GeneratedReference generatedColumn : table.generatedColumns()) {
+            if (!generatedColumn.column().equals(partitionColumn.column())) {
+                continue;
+            }
+            Symbol expression = generatedColumn.generatedExpression();
+            if (!(expression instanceof Function)) {
+                return null;
+            }
+            Function function = (Function) expression;
+            if (!function.info().ident().name().equals(DateTruncFunction.NAME)) {
+                return null;
+            }
+            List<Symbol> args = function.arguments();
+            Symbol timestamp = args.get(args.size() - 1);
+            if (!(timestamp instanceof Reference) || !timestamp.valueType().equals(DataTypes.TIMESTAMP)) {
+                return null;
+            }
+            BytesRef interval = literalValue(args.get(0));
+            BytesRef timeZone = args.size() == 3 ? literalValue(args.get(1)) : TimeZoneParser.DEFAULT_TZ_BYTES_REF;
+            if (interval == null || timeZone == null) {
+                return null;
+            }
+            try {
+                return DateTruncFunction.rounding(interval, timeZone);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static BytesRef literalValue(Symbol symbol) {
+        if (symbol instanceof Literal && ((Literal) symbol).value() instanceof BytesRef) {
+            return (BytesRef) ((Literal) symbol).value();
+        }
+        return null;
+    }
+
+    private ThreadPool.Cancellable schedule(TimeValue interval) {
+        if (interval.millis() > 0) {
+            return threadPool.scheduleWithFixedDelay(this, interval, ThreadPool.Names.GENERIC);
+        }
+        return null;
+    }
+
+    private void setInterval(TimeValue interval) {
+        if (scheduledTask != null) {
+            scheduledTask.cancel();
+        }
+        scheduledTask = schedule(interval);
+    }
+}
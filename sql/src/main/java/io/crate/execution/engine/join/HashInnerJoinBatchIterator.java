@@ -22,17 +22,15 @@
 
 package io.crate.execution.engine.join;
 
-import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntIntHashMap;
 import io.crate.data.BatchIterator;
 import io.crate.data.Paging;
 import io.crate.data.Row;
-import io.crate.data.UnsafeArrayRow;
+import io.crate.data.RowPages;
 import io.crate.data.join.ElementCombiner;
 import io.crate.data.join.JoinBatchIterator;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -78,23 +76,29 @@ import java.util.function.Supplier;
  */
 public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends JoinBatchIterator<L, R, C> {
 
-    private final Predicate<C> joinCondition;
+    private static final int NO_ROW = -1;
 
-    /**
-     * Used to avoid instantiating multiple times RowN in {@link #findMatchingRows()}
-     */
-    private final UnsafeArrayRow leftRow = new UnsafeArrayRow();
+    private final Predicate<C> joinCondition;
     private final Function<L, Integer> hashBuilderForLeft;
     private final Function<R, Integer> hashBuilderForRight;
     private final Supplier<Integer> blockSizeSupplier;
 
-    private IntObjectHashMap<List<Object[]>> buffer;
+    /**
+     * The rows of the left side are copied into pages which are reused for every block.
+     * Rows with the same hash are chained: {@link #firstRowByHash} points to the first row,
+     * {@link #nextRow} to the next row with the same hash.
+     */
+    private RowPages leftRows;
+    private RowPages.Cursor leftRow;
+    private IntIntHashMap firstRowByHash;
+    private IntIntHashMap lastRowByHash;
+    private final IntArrayList nextRow = new IntArrayList();
     private int blockSize;
     private int numberOfRowsInBuffer = 0;
     private boolean leftBatchHasItems = false;
     private int numberOfLeftBatchesForBlock;
     private int numberOfLeftBatchesLoadedForBlock;
-    private Iterator<Object[]> leftMatchingRowsIterator;
+    private int nextMatchingLeftRow = NO_ROW;
 
     public HashInnerJoinBatchIterator(RamAccountingBatchIterator<L> left,
                                       BatchIterator<R> right,
@@ -126,7 +130,7 @@ public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends
         activeIt = left;
         recreateBuffer();
         ((RamAccountingBatchIterator) left).releaseAccountedRows();
-        leftMatchingRowsIterator = null;
+        nextMatchingLeftRow = NO_ROW;
     }
 
     @Override
@@ -162,7 +166,12 @@ public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends
 
     private void recreateBuffer() {
         blockSize = blockSizeSupplier.get();
-        this.buffer = new IntObjectHashMap<>(this.blockSize);
+        firstRowByHash = new IntIntHashMap(blockSize);
+        lastRowByHash = new IntIntHashMap(blockSize);
+        nextRow.clear();
+        if (leftRows != null) {
+            leftRows.clear();
+        }
         numberOfRowsInBuffer = 0;
 
         // A batch is not guaranteed to deliver PAGE_SIZE number of rows. It could be more or less.
@@ -175,9 +184,8 @@ public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends
     private boolean buildBufferAndMatchRight() {
         if (activeIt == left) {
             while (leftBatchHasItems = left.moveNext()) {
-                Object[] currentRow = left.currentElement().materialize();
                 int hash = hashBuilderForLeft.apply(left.currentElement());
-                addToBuffer(currentRow, hash);
+                addToBuffer(left.currentElement(), hash);
                 if (numberOfRowsInBuffer == blockSize) {
                     break;
                 }
@@ -194,15 +202,13 @@ public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends
         }
 
         // In case of multiple matches on the left side (duplicate values or hash collisions)
-        if (leftMatchingRowsIterator != null && findMatchingRows()) {
+        if (nextMatchingLeftRow != NO_ROW && findMatchingRows()) {
             return true;
         }
-        leftMatchingRowsIterator = null;
         while (right.moveNext()) {
             int rightHash = hashBuilderForRight.apply(right.currentElement());
-            List<Object[]> leftMatchingRows = buffer.get(rightHash);
-            if (leftMatchingRows != null) {
-                leftMatchingRowsIterator = leftMatchingRows.iterator();
+            if (firstRowByHash.containsKey(rightHash)) {
+                nextMatchingLeftRow = firstRowByHash.get(rightHash);
                 combiner.setRight(right.currentElement());
                 if (findMatchingRows()) {
                     return true;
@@ -214,20 +220,27 @@ public class HashInnerJoinBatchIterator<L extends Row, R extends Row, C> extends
         return false;
     }
 
-    private void addToBuffer(Object[] currentRow, int hash) {
-        List<Object[]> existingRows = buffer.get(hash);
-        if (existingRows == null) {
-            existingRows = new ArrayList<>();
-            buffer.put(hash, existingRows);
+    private void addToBuffer(Row currentRow, int hash) {
+        if (leftRows == null) {
+            leftRows = new RowPages(currentRow.numColumns());
+            leftRow = leftRows.newCursor();
+        }
+        int rowIdx = leftRows.add(currentRow);
+        nextRow.add(NO_ROW);
+        if (lastRowByHash.containsKey(hash)) {
+            nextRow.set(lastRowByHash.get(hash), rowIdx);
+        } else {
+            firstRowByHash.put(hash, rowIdx);
         }
-        existingRows.add(currentRow);
+        lastRowByHash.put(hash, rowIdx);
         numberOfRowsInBuffer++;
     }
 
     @SuppressWarnings("unchecked")
     private boolean findMatchingRows() {
-        while (leftMatchingRowsIterator.hasNext()) {
-            leftRow.cells(leftMatchingRowsIterator.next());
+        while (nextMatchingLeftRow != NO_ROW) {
+            leftRow.moveTo(nextMatchingLeftRow);
+            nextMatchingLeftRow = nextRow.get(nextMatchingLeftRow);
             combiner.setLeft((L) leftRow);
             if (joinCondition.test(combiner.currentElement())) {
                 return true;
@@ -32,6 +32,7 @@ import io.crate.data.join.CombinedRow;
 import io.crate.execution.engine.collect.CollectExpression;
 import io.crate.expression.InputFactory;
 import io.crate.expression.symbol.Symbol;
+import io.crate.profile.OperatorStats;
 import org.elasticsearch.common.breaker.CircuitBreaker;
 
 import java.util.List;
@@ -39,6 +40,7 @@ import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 public class HashJoinOperation implements CompletionListenable {
 
@@ -56,7 +58,8 @@ public class HashJoinOperation implements CompletionListenable {
                              InputFactory inputFactory,
                              CircuitBreaker circuitBreaker,
                              long estimatedRowSizeForLeft,
-                             long numberOfRowsForLeft) {
+                             long numberOfRowsForLeft,
+                             OperatorStats stats) {
 
         CompletableFuture.allOf(leftBatchIterator, rightBatchIterator)
             .whenComplete((result, failure) -> {
@@ -72,7 +75,9 @@ public class HashJoinOperation implements CompletionListenable {
                             getHashBuilderFromSymbols(inputFactory, joinLeftInputs),
                             getHashBuilderFromSymbols(inputFactory, joinRightInputs),
                             rowAccounting,
-                            new BlockSizeCalculator(circuitBreaker, estimatedRowSizeForLeft, numberOfRowsForLeft)
+                            countBlocks(
+                                new BlockSizeCalculator(circuitBreaker, estimatedRowSizeForLeft, numberOfRowsForLeft),
+                                stats)
                         ), completionFuture);
                         nlResultConsumer.accept(joinIterator, null);
                     } catch (Exception e) {
@@ -97,6 +102,17 @@ public class HashJoinOperation implements CompletionListenable {
         return JoinOperations.getBatchConsumer(rightBatchIterator, true);
     }
 
+    /**
+     * The block size is requested once for every block of the left relation which is buffered,
+     * so counting the calls tells how often the right relation had to be iterated.
+     */
+    private static Supplier<Integer> countBlocks(Supplier<Integer> blockSizeSupplier, OperatorStats stats) {
+        return () -> {
+            stats.increment(OperatorStats.HASH_JOIN_BLOCKS);
+            return blockSizeSupplier.get();
+        };
+    }
+
     private static Function<Row, Integer> getHashBuilderFromSymbols(InputFactory inputFactory, List<Symbol> inputs) {
         InputFactory.Context<? extends CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns(inputs);
         Object[] values = new Object[ctx.topLevelInputs().size()];
@@ -120,7 +136,7 @@ public class HashJoinOperation implements CompletionListenable {
                                                              Function<Row, Integer> hashBuilderForLeft,
                                                              Function<Row, Integer> hashBuilderForRight,
                                                              RowAccounting rowAccounting,
-                                                             BlockSizeCalculator blockSizeCalculator) {
+                                                             Supplier<Integer> blockSizeSupplier) {
         CombinedRow combiner = new CombinedRow(leftNumCols, rightNumCols);
         return new HashInnerJoinBatchIterator<>(
             new RamAccountingBatchIterator<>(left, rowAccounting),
@@ -129,6 +145,6 @@ public class HashJoinOperation implements CompletionListenable {
             joinCondition,
             hashBuilderForLeft,
             hashBuilderForRight,
-            blockSizeCalculator);
+            blockSizeSupplier);
     }
 }
@@ -24,7 +24,12 @@ package io.crate.execution.engine.pipeline;
 
 import com.google.common.collect.Iterables;
 import io.crate.action.sql.SessionContext;
+import io.crate.analyze.FrameBoundDefinition;
+import io.crate.analyze.OrderBy;
+import io.crate.analyze.WindowDefinition;
+import io.crate.analyze.WindowFrameDefinition;
 import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowAccounting;
 import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.Row;
@@ -47,8 +52,10 @@ import io.crate.execution.dsl.projection.SourceIndexWriterProjection;
 import io.crate.execution.dsl.projection.SysUpdateProjection;
 import io.crate.execution.dsl.projection.TopNProjection;
 import io.crate.execution.dsl.projection.UpdateProjection;
+import io.crate.execution.dsl.projection.WindowAggProjection;
 import io.crate.execution.dsl.projection.WriterProjection;
 import io.crate.execution.engine.aggregation.AggregationContext;
+import io.crate.execution.engine.aggregation.AggregationFunction;
 import io.crate.execution.engine.aggregation.AggregationPipe;
 import io.crate.execution.engine.aggregation.GroupingProjector;
 import io.crate.execution.engine.collect.CollectExpression;
@@ -65,6 +72,10 @@ import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.execution.engine.sort.OrderingByPosition;
 import io.crate.execution.engine.sort.SortingProjector;
 import io.crate.execution.engine.sort.SortingTopNProjector;
+import io.crate.execution.engine.window.AggregateToWindowFunctionAdapter;
+import io.crate.execution.engine.window.WindowFrameState;
+import io.crate.execution.engine.window.WindowFunction;
+import io.crate.execution.engine.window.WindowProjector;
 import io.crate.execution.jobs.NodeJobsCounter;
 import io.crate.expression.InputFactory;
 import io.crate.expression.RowFilter;
@@ -76,6 +87,7 @@ import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.Symbols;
 import io.crate.expression.symbol.ValueSymbolVisitor;
 import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.FunctionImplementation;
 import io.crate.metadata.Functions;
 import io.crate.metadata.Reference;
 import io.crate.metadata.RelationName;
@@ -92,6 +104,7 @@ import org.elasticsearch.threadpool.ThreadPool;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -210,11 +223,109 @@ public class ProjectionToProjectorVisitor
             inputs,
             ctx.expressions(),
             numOutputs,
-            OrderingByPosition.arrayOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
-            projection.offset()
+            OrderingByPosition.rowOrdering(orderByIndices, projection.reverseFlags(), projection.nullsFirst()),
+            projection.offset(),
+            context.ramAccountingContext
         );
     }
 
+    @Override
+    public Projector visitWindowAgg(WindowAggProjection projection, Context context) {
+        /* Partition keys, order by symbols and function arguments are added to the source columns of a row:
+         *
+         * standalone:      [x, y]
+         * partitions:      [x]
+         * orderBy:         [y]
+         * windowFunctions: [lag(y, 2)]
+         *
+         * buffered row:       [x, y, x, y, y, 2]
+         * partitionPositions: [2]
+         * orderByPositions:      [3]
+         * argPositions:             [4, 5]
+         */
+        WindowDefinition windowDefinition = projection.windowDefinition();
+        InputFactory.Context<CollectExpression<Row, ?>> ctx = inputFactory.ctxForInputColumns();
+        int numSourceColumns = projection.standalone().size();
+        int position = numSourceColumns;
+
+        List<Symbol> partitions = windowDefinition.partitions();
+        ctx.add(partitions);
+        int[] partitionPositions = positions(position, partitions.size());
+        position += partitions.size();
+
+        OrderBy orderBy = windowDefinition.orderBy();
+        Comparator<Object[]> peerComparator = null;
+        if (orderBy != null) {
+            ctx.add(orderBy.orderBySymbols());
+            int[] orderByPositions = positions(position, orderBy.orderBySymbols().size());
+            position += orderByPositions.length;
+            peerComparator = OrderingByPosition.arrayOrdering(
+                orderByPositions, orderBy.reverseFlags(), orderBy.nullsFirst());
+        }
+
+        List<io.crate.expression.symbol.WindowFunction> windowFunctions = projection.windowFunctions();
+        WindowFunction[] functionImplementations = new WindowFunction[windowFunctions.size()];
+        int[][] argPositions = new int[windowFunctions.size()][];
+        for (int i = 0; i < windowFunctions.size(); i++) {
+            io.crate.expression.symbol.WindowFunction windowFunction = windowFunctions.get(i);
+            ctx.add(windowFunction.arguments());
+            argPositions[i] = positions(position, windowFunction.arguments().size());
+            position += argPositions[i].length;
+
+            FunctionImplementation impl = functions.getQualified(windowFunction.info().ident());
+            if (impl instanceof AggregationFunction) {
+                functionImplementations[i] = new AggregateToWindowFunctionAdapter(
+                    (AggregationFunction) impl, context.ramAccountingContext, indexVersionCreated, bigArrays);
+            } else {
+                functionImplementations[i] = (WindowFunction) impl;
+            }
+        }
+
+        WindowFrameDefinition frameDefinition = windowDefinition.windowFrame();
+        long startOffset = frameOffset(frameDefinition.start());
+        long endOffset = frameOffset(frameDefinition.end());
+        Comparator<Object[]> finalPeerComparator = peerComparator;
+        return new WindowProjector(
+            () -> new RowAccounting(Symbols.typeView(projection.standalone()), context.ramAccountingContext),
+            numSourceColumns,
+            ctx.topLevelInputs(),
+            ctx.expressions(),
+            partitionPositions,
+            () -> new WindowFrameState(
+                frameDefinition.type(),
+                frameDefinition.start().type(),
+                startOffset,
+                frameDefinition.end().type(),
+                endOffset,
+                finalPeerComparator),
+            functionImplementations,
+            argPositions
+        );
+    }
+
+    private static int[] positions(int start, int length) {
+        int[] positions = new int[length];
+        for (int i = 0; i < length; i++) {
+            positions[i] = start + i;
+        }
+        return positions;
+    }
+
+    private static long frameOffset(FrameBoundDefinition frameBound) {
+        Symbol offset = frameBound.offset();
+        if (offset == null) {
+            return 0L;
+        }
+        if (!(offset instanceof Literal)) {
+            throw new IllegalArgumentException("Frame offset must be a constant, got: " + offset);
+        }
+        Object value = ((Literal) offset).value();
+        if (value == null || ((Number) value).longValue() < 0) {
+            throw new IllegalArgumentException("Frame offset must not be null or negative");
+        }
+        return ((Number) value).longValue();
+    }
+
     @Override
     public Projector visitTopNProjection(TopNProjection projection, Context context) {
         assert projection.limit() > TopN.NO_LIMIT : "TopNProjection must have a limit";
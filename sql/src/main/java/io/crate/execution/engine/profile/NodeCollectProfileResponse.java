@@ -32,28 +32,28 @@ import java.util.Map;
 
 public class NodeCollectProfileResponse extends TransportResponse {
 
-    private Map<String, Long> durationByContextIdent = Collections.emptyMap();
+    private Map<String, Object> profilingResults = Collections.emptyMap();
 
-    NodeCollectProfileResponse(Map<String, Long> durationByContextIdent) {
-        this.durationByContextIdent = durationByContextIdent;
+    NodeCollectProfileResponse(Map<String, Object> profilingResults) {
+        this.profilingResults = profilingResults;
     }
 
     NodeCollectProfileResponse() {
     }
 
-    Map<String, Long> durationByContextIdent() {
-        return durationByContextIdent;
+    Map<String, Object> profilingResults() {
+        return profilingResults;
     }
 
     @Override
     public void readFrom(StreamInput in) throws IOException {
         super.readFrom(in);
-        durationByContextIdent = in.readMap(StreamInput::readString, StreamInput::readVLong);
+        profilingResults = in.readMap();
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         super.writeTo(out);
-        out.writeMap(durationByContextIdent, StreamOutput::writeString, StreamOutput::writeVLong);
+        out.writeMap(profilingResults);
     }
 }
@@ -39,9 +39,9 @@ public class TransportCollectProfileOperation implements CollectProfileOperation
     }
 
     @Override
-    public CompletableFuture<Map<String, Long>> collect(String nodeId) {
-        FutureActionListener<NodeCollectProfileResponse, Map<String, Long>> listener =
-            new FutureActionListener<>(NodeCollectProfileResponse::durationByContextIdent);
+    public CompletableFuture<Map<String, Object>> collect(String nodeId) {
+        FutureActionListener<NodeCollectProfileResponse, Map<String, Object>> listener =
+            new FutureActionListener<>(NodeCollectProfileResponse::profilingResults);
         transportAction.execute(nodeId, new NodeCollectProfileRequest(jobId), listener);
         return listener;
     }
@@ -23,62 +23,75 @@
 package io.crate.execution.engine.sort;
 
 import com.google.common.base.Preconditions;
+import io.crate.breaker.RamAccountingContext;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
 import io.crate.data.CollectingBatchIterator;
-import io.crate.data.CollectionBucket;
 import io.crate.data.Input;
 import io.crate.data.Projector;
 import io.crate.data.Row;
+import io.crate.data.RowPages;
 import io.crate.execution.engine.collect.CollectExpression;
+import org.apache.lucene.util.TimSorter;
 
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.List;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
 
 /**
  * Sort rows by ordering criteria and process given offset before emitting.
  * <p>
  * Compared to {@link SortingTopNProjector} this projector does not support limiting,
  * while the {@link SortingTopNProjector} does not work WITHOUT a limit.
+ * <p>
+ * The rows are copied into {@link RowPages} and only their indices are sorted.
  */
 public class SortingProjector implements Projector {
 
     private final Collection<? extends Input<?>> inputs;
     private final Iterable<? extends CollectExpression<Row, ?>> collectExpressions;
 
-    private final Comparator<Object[]> comparator;
+    private final Comparator<Row> comparator;
     private final int offset;
     private final int numOutputs;
+    private final RamAccountingContext ramAccountingContext;
 
     /**
-     * @param inputs             contains output {@link Input}s and orderBy {@link Input}s
-     * @param collectExpressions gathered from outputs and orderBy inputs
-     * @param numOutputs         <code>inputs</code> contains this much output {@link Input}s starting form index 0
-     * @param comparator         ordering that is used to compare the rows
-     * @param offset             the initial offset, this number of rows are skipped
+     * @param inputs               contains output {@link Input}s and orderBy {@link Input}s
+     * @param collectExpressions   gathered from outputs and orderBy inputs
+     * @param numOutputs           <code>inputs</code> contains this much output {@link Input}s starting form index 0
+     * @param comparator           ordering that is used to compare the rows
+     * @param offset               the initial offset, this number of rows are skipped
+     * @param ramAccountingContext used to account the pages the rows are stored in
      */
     public SortingProjector(Collection<? extends Input<?>> inputs,
                             Iterable<? extends CollectExpression<Row, ?>> collectExpressions,
                             int numOutputs,
-                            Comparator<Object[]> comparator,
-                            int offset) {
+                            Comparator<Row> comparator,
+                            int offset,
+                            RamAccountingContext ramAccountingContext) {
         Preconditions.checkArgument(offset >= 0, "invalid offset %s", offset);
         this.numOutputs = numOutputs;
         this.inputs = inputs;
         this.collectExpressions = collectExpressions;
         this.comparator = comparator;
         this.offset = offset;
+        this.ramAccountingContext = ramAccountingContext;
     }
 
 
     @Override
     public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
-        Collector<Row, ?, Bucket> collector = Collectors.mapping(
-            this::getCells,
-            Collectors.collectingAndThen(Collectors.toList(), this::sortAndCreateBucket));
+        Collector<Row, RowPages, Bucket> collector = Collector.of(
+            () -> new RowPages(inputs.size(), RowPages.DEFAULT_ROWS_PER_PAGE, ramAccountingContext::addBytes),
+            this::addRow,
+            (rows1, rows2) -> {
+                throw new UnsupportedOperationException("combine not supported");
+            },
+            this::sortAndCreateBucket
+        );
         return CollectingBatchIterator.newInstance(batchIterator, collector);
     }
 
@@ -87,23 +100,114 @@ public class SortingProjector implements Projector {
         return true;
     }
 
-    private Object[] getCells(Row row) {
+    private void addRow(RowPages rows, Row row) {
         for (CollectExpression<Row, ?> collectExpression : collectExpressions) {
             collectExpression.setNextRow(row);
         }
-        Object[] newRow = new Object[inputs.size()];
-        int i = 0;
-        for (Input<?> input : inputs) {
-            newRow[i++] = input.value();
+        rows.add(inputs);
+    }
+
+    private Bucket sortAndCreateBucket(RowPages rows) {
+        int[] order = new int[rows.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
         }
-        return newRow;
+        new RowIndexSorter(rows, order, comparator).sort(0, order.length);
+        return new SortedRowsBucket(rows, order, Math.min(offset, order.length), numOutputs);
     }
 
-    private Bucket sortAndCreateBucket(List<Object[]> rows) {
-        rows.sort(comparator.reversed());
-        if (offset == 0) {
-            return new CollectionBucket(rows, numOutputs);
+    /**
+     * Stable sort of the row indices, comparing the rows they point to.
+     */
+    private static class RowIndexSorter extends TimSorter {
+
+        private final int[] order;
+        private final int[] saved;
+        private final Comparator<Row> comparator;
+        private final RowPages.Cursor left;
+        private final RowPages.Cursor right;
+
+        RowIndexSorter(RowPages rows, int[] order, Comparator<Row> comparator) {
+            super(order.length / 2);
+            this.order = order;
+            this.saved = new int[order.length / 2];
+            this.comparator = comparator;
+            this.left = rows.newCursor();
+            this.right = rows.newCursor();
+        }
+
+        @Override
+        protected int compare(int i, int j) {
+            return comparator.compare(left.moveTo(order[i]), right.moveTo(order[j]));
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        @Override
+        protected void copy(int src, int dest) {
+            order[dest] = order[src];
+        }
+
+        @Override
+        protected void save(int i, int len) {
+            System.arraycopy(order, i, saved, 0, len);
+        }
+
+        @Override
+        protected void restore(int i, int j) {
+            order[j] = saved[i];
+        }
+
+        @Override
+        protected int compareSaved(int i, int j) {
+            return comparator.compare(left.moveTo(saved[i]), right.moveTo(order[j]));
+        }
+    }
+
+    private static class SortedRowsBucket implements Bucket {
+
+        private final RowPages rows;
+        private final int[] order;
+        private final int offset;
+        private final int numOutputs;
+
+        SortedRowsBucket(RowPages rows, int[] order, int offset, int numOutputs) {
+            this.rows = rows;
+            this.order = order;
+            this.offset = offset;
+            this.numOutputs = numOutputs;
+        }
+
+        @Override
+        public int size() {
+            return order.length - offset;
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            RowPages.Cursor cursor = rows.newCursor(numOutputs);
+            return new Iterator<Row>() {
+
+                int pos = offset;
+
+                @Override
+                public boolean hasNext() {
+                    return pos < order.length;
+                }
+
+                @Override
+                public Row next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException("Iterator is exhausted");
+                    }
+                    return cursor.moveTo(order[pos++]);
+                }
+            };
         }
-        return new CollectionBucket(rows.subList(offset, rows.size()), numOutputs);
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Input;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.CollectionType;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.util.BigArrays;
+
+/**
+ * Evaluates an {@link AggregationFunction} over the frame of each row of a partition.
+ * <p>
+ * If the frame starts at the beginning of the partition (e.g. running totals) the state is
+ * reused and only the rows which entered the frame are added. Otherwise the aggregation is
+ * computed for every frame from scratch.
+ */
+public class AggregateToWindowFunctionAdapter implements WindowFunction {
+
+    private final AggregationFunction aggregationFunction;
+    private final RamAccountingContext ramAccountingContext;
+    private final Version indexVersionCreated;
+    private final BigArrays bigArrays;
+
+    public AggregateToWindowFunctionAdapter(AggregationFunction aggregationFunction,
+                                            RamAccountingContext ramAccountingContext,
+                                            Version indexVersionCreated,
+                                            BigArrays bigArrays) {
+        this.aggregationFunction = aggregationFunction;
+        this.ramAccountingContext = ramAccountingContext;
+        this.indexVersionCreated = indexVersionCreated;
+        this.bigArrays = bigArrays;
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return aggregationFunction.info();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void execute(WindowFrameState frame, int[] argPositions, Object[] results) {
+        RowCellInput[] inputs = new RowCellInput[argPositions.length];
+        for (int i = 0; i < argPositions.length; i++) {
+            inputs[i] = new RowCellInput(argPositions[i]);
+        }
+        // the final value of collection types may be the state itself, so it must not be shared across rows
+        boolean incremental = frame.isFrameStartUnbounded()
+                              && !(info().returnType() instanceof CollectionType);
+        Object state = null;
+        int consumedUpTo = 0;
+        for (int i = 0; i < frame.size(); i++) {
+            frame.moveTo(i);
+            int from = frame.frameStart();
+            if (incremental) {
+                if (state == null) {
+                    state = aggregationFunction.newState(ramAccountingContext, indexVersionCreated, bigArrays);
+                }
+                from = consumedUpTo;
+            } else {
+                state = aggregationFunction.newState(ramAccountingContext, indexVersionCreated, bigArrays);
+            }
+            int to = frame.frameEnd();
+            for (int rowIdx = from; rowIdx < to; rowIdx++) {
+                Object[] row = frame.rowAt(rowIdx);
+                for (RowCellInput input : inputs) {
+                    input.row = row;
+                }
+                state = aggregationFunction.iterate(ramAccountingContext, state, inputs);
+            }
+            consumedUpTo = Math.max(consumedUpTo, to);
+            results[i] = aggregationFunction.terminatePartial(ramAccountingContext, state);
+        }
+    }
+
+    private static class RowCellInput implements Input<Object> {
+
+        private final int position;
+        private Object[] row;
+
+        RowCellInput(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public Object value() {
+            return row[position];
+        }
+    }
+}
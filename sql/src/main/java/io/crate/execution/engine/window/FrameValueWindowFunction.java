@@ -0,0 +1,77 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+/**
+ * first_value(value) and last_value(value).
+ * Returns the value of the first or last row of the frame, or NULL if the frame is empty.
+ */
+public class FrameValueWindowFunction implements WindowFunction {
+
+    public static final String FIRST_VALUE_NAME = "first_value";
+    public static final String LAST_VALUE_NAME = "last_value";
+
+    private final FunctionInfo info;
+    private final boolean first;
+
+    public static void register(WindowFunctionModule module) {
+        for (DataType type : DataTypes.PRIMITIVE_TYPES) {
+            module.register(new FrameValueWindowFunction(info(FIRST_VALUE_NAME, type), true));
+            module.register(new FrameValueWindowFunction(info(LAST_VALUE_NAME, type), false));
+        }
+    }
+
+    private static FunctionInfo info(String name, DataType type) {
+        return new FunctionInfo(new FunctionIdent(name, ImmutableList.of(type)), type, FunctionInfo.Type.WINDOW);
+    }
+
+    private FrameValueWindowFunction(FunctionInfo info, boolean first) {
+        this.info = info;
+        this.first = first;
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return info;
+    }
+
+    @Override
+    public void execute(WindowFrameState frame, int[] argPositions, Object[] results) {
+        int valuePos = argPositions[0];
+        for (int i = 0; i < frame.size(); i++) {
+            frame.moveTo(i);
+            if (frame.frameStart() < frame.frameEnd()) {
+                int idx = first ? frame.frameStart() : frame.frameEnd() - 1;
+                results[i] = frame.rowAt(idx)[valuePos];
+            } else {
+                results[i] = null;
+            }
+        }
+    }
+}
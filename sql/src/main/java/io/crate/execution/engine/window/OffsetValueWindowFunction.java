@@ -0,0 +1,97 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+/**
+ * lag(value [, offset [, default]]) and lead(value [, offset [, default]]).
+ * Returns the value of the row which is offset rows before (lag) or after (lead) the current row
+ * within the partition, or the default if there is no such row.
+ */
+public class OffsetValueWindowFunction implements WindowFunction {
+
+    public static final String LAG_NAME = "lag";
+    public static final String LEAD_NAME = "lead";
+
+    private final FunctionInfo info;
+    private final int direction;
+
+    public static void register(WindowFunctionModule module) {
+        for (DataType type : DataTypes.PRIMITIVE_TYPES) {
+            register(module, LAG_NAME, -1, type);
+            register(module, LEAD_NAME, 1, type);
+        }
+    }
+
+    private static void register(WindowFunctionModule module, String name, int direction, DataType type) {
+        module.register(new OffsetValueWindowFunction(
+            new FunctionInfo(new FunctionIdent(name, ImmutableList.of(type)), type, FunctionInfo.Type.WINDOW),
+            direction));
+        module.register(new OffsetValueWindowFunction(
+            new FunctionInfo(
+                new FunctionIdent(name, ImmutableList.of(type, DataTypes.INTEGER)), type, FunctionInfo.Type.WINDOW),
+            direction));
+        module.register(new OffsetValueWindowFunction(
+            new FunctionInfo(
+                new FunctionIdent(name, ImmutableList.of(type, DataTypes.INTEGER, type)), type, FunctionInfo.Type.WINDOW),
+            direction));
+    }
+
+    private OffsetValueWindowFunction(FunctionInfo info, int direction) {
+        this.info = info;
+        this.direction = direction;
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return info;
+    }
+
+    @Override
+    public void execute(WindowFrameState frame, int[] argPositions, Object[] results) {
+        int valuePos = argPositions[0];
+        for (int i = 0; i < frame.size(); i++) {
+            Object[] row = frame.rowAt(i);
+            int offset = 1;
+            if (argPositions.length > 1) {
+                Object offsetValue = row[argPositions[1]];
+                if (offsetValue == null) {
+                    results[i] = null;
+                    continue;
+                }
+                offset = (Integer) offsetValue;
+            }
+            int targetIdx = i + direction * offset;
+            if (targetIdx >= 0 && targetIdx < frame.size()) {
+                results[i] = frame.rowAt(targetIdx)[valuePos];
+            } else {
+                results[i] = argPositions.length > 2 ? row[argPositions[2]] : null;
+            }
+        }
+    }
+}
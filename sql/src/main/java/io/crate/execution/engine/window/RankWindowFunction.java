@@ -0,0 +1,71 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.DataTypes;
+
+import java.util.Collections;
+
+/**
+ * rank() and dense_rank(). Peers (rows which are equal according to the ORDER BY) get the same rank.
+ * rank() leaves gaps after peer groups, dense_rank() doesn't.
+ */
+public class RankWindowFunction implements WindowFunction {
+
+    public static final String RANK_NAME = "rank";
+    public static final String DENSE_RANK_NAME = "dense_rank";
+
+    private final FunctionInfo info;
+    private final boolean dense;
+
+    public static void register(WindowFunctionModule module) {
+        module.register(new RankWindowFunction(RANK_NAME, false));
+        module.register(new RankWindowFunction(DENSE_RANK_NAME, true));
+    }
+
+    private RankWindowFunction(String name, boolean dense) {
+        this.info = new FunctionInfo(
+            new FunctionIdent(name, Collections.emptyList()), DataTypes.LONG, FunctionInfo.Type.WINDOW);
+        this.dense = dense;
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return info;
+    }
+
+    @Override
+    public void execute(WindowFrameState frame, int[] argPositions, Object[] results) {
+        long denseRank = 0;
+        for (int i = 0; i < frame.size(); i++) {
+            frame.moveTo(i);
+            int peerStart = frame.peerStart();
+            if (peerStart == i) {
+                denseRank++;
+            }
+            results[i] = dense ? denseRank : (long) peerStart + 1;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.types.DataTypes;
+
+import java.util.Collections;
+
+/**
+ * Numbers the rows of a partition, starting with 1.
+ */
+public class RowNumberWindowFunction implements WindowFunction {
+
+    public static final String NAME = "row_number";
+
+    private static final FunctionInfo INFO = new FunctionInfo(
+        new FunctionIdent(NAME, Collections.emptyList()), DataTypes.LONG, FunctionInfo.Type.WINDOW);
+
+    public static void register(WindowFunctionModule module) {
+        module.register(new RowNumberWindowFunction());
+    }
+
+    private RowNumberWindowFunction() {
+    }
+
+    @Override
+    public FunctionInfo info() {
+        return INFO;
+    }
+
+    @Override
+    public void execute(WindowFrameState frame, int[] argPositions, Object[] results) {
+        for (int i = 0; i < frame.size(); i++) {
+            results[i] = (long) i + 1;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.execution.engine.collect.CollectExpression;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * BatchIterator which evaluates window functions over a source which is sorted by the partition keys
+ * (and the ORDER BY of the window definition within a partition).
+ * <p>
+ * Only the rows of the current partition are buffered. Once the first row of the next partition
+ * (or the end of the source) is encountered, the window functions are computed for the buffered partition
+ * and its rows are emitted, extended by the results of the window functions.
+ *
+ * <pre>
+ * buffered row:  [ source columns | window inputs (partition keys, order by symbols, function arguments) ]
+ * emitted row:   [ source columns | window function results ]
+ * </pre>
+ */
+public class WindowBatchIterator implements BatchIterator<Row> {
+
+    private final BatchIterator<Row> source;
+    private final RowAccounting rowAccounting;
+    private final int numSourceColumns;
+    private final List<? extends Input<?>> windowInputs;
+    private final Iterable<? extends CollectExpression<Row, ?>> expressions;
+    private final int[] partitionPositions;
+    private final WindowFrameState frame;
+    private final WindowFunction[] functions;
+    private final int[][] argPositions;
+
+    private final ArrayList<Object[]> partition = new ArrayList<>();
+    private final Object[][] results;
+    private final Object[] outputCells;
+    private final RowN outputRow;
+    private final RowN accountedRow;
+
+    private Object[] firstRowOfNextPartition;
+    private boolean sourceExhausted = false;
+    private int emitIdx = -1;
+    private int numToEmit = 0;
+
+    WindowBatchIterator(BatchIterator<Row> source,
+                        RowAccounting rowAccounting,
+                        int numSourceColumns,
+                        List<? extends Input<?>> windowInputs,
+                        Iterable<? extends CollectExpression<Row, ?>> expressions,
+                        int[] partitionPositions,
+                        WindowFrameState frame,
+                        WindowFunction[] functions,
+                        int[][] argPositions) {
+        assert functions.length == argPositions.length : "There must be argument positions for every function";
+        this.source = source;
+        this.rowAccounting = rowAccounting;
+        this.numSourceColumns = numSourceColumns;
+        this.windowInputs = windowInputs;
+        this.expressions = expressions;
+        this.partitionPositions = partitionPositions;
+        this.frame = frame;
+        this.functions = functions;
+        this.argPositions = argPositions;
+        this.results = new Object[functions.length][];
+        this.outputCells = new Object[numSourceColumns + functions.length];
+        this.outputRow = new RowN(outputCells);
+        this.accountedRow = new RowN(numSourceColumns);
+    }
+
+    @Override
+    public Row currentElement() {
+        return outputRow;
+    }
+
+    @Override
+    public void moveToStart() {
+        source.moveToStart();
+        partition.clear();
+        rowAccounting.release();
+        firstRowOfNextPartition = null;
+        sourceExhausted = false;
+        emitIdx = -1;
+        numToEmit = 0;
+    }
+
+    @Override
+    public boolean moveNext() {
+        while (true) {
+            if (emitIdx + 1 < numToEmit) {
+                emitIdx++;
+                Object[] cells = partition.get(emitIdx);
+                System.arraycopy(cells, 0, outputCells, 0, numSourceColumns);
+                for (int i = 0; i < functions.length; i++) {
+                    outputCells[numSourceColumns + i] = results[i][emitIdx];
+                }
+                return true;
+            }
+            if (numToEmit > 0) {
+                startNextPartition();
+            }
+            if (sourceExhausted) {
+                return false;
+            }
+            if (!bufferPartition()) {
+                if (!source.allLoaded()) {
+                    // caller has to load the next batch of the source
+                    return false;
+                }
+                sourceExhausted = true;
+                if (partition.isEmpty()) {
+                    return false;
+                }
+            }
+            computePartition();
+        }
+    }
+
+    /**
+     * Consumes rows of the source until the first row of the next partition is found.
+     *
+     * @return true if the current partition is complete
+     */
+    private boolean bufferPartition() {
+        while (source.moveNext()) {
+            Object[] cells = materialize(source.currentElement());
+            if (!partition.isEmpty() && !isSamePartition(partition.get(partition.size() - 1), cells)) {
+                // accounted once the current partition has been emitted and its memory released
+                firstRowOfNextPartition = cells;
+                return true;
+            }
+            addToPartition(cells);
+        }
+        return false;
+    }
+
+    private void addToPartition(Object[] cells) {
+        accountedRow.cells(cells);
+        rowAccounting.accountForAndMaybeBreak(accountedRow);
+        partition.add(cells);
+    }
+
+    private void startNextPartition() {
+        partition.clear();
+        rowAccounting.release();
+        emitIdx = -1;
+        numToEmit = 0;
+        if (firstRowOfNextPartition != null) {
+            addToPartition(firstRowOfNextPartition);
+            firstRowOfNextPartition = null;
+        }
+    }
+
+    private void computePartition() {
+        int size = partition.size();
+        frame.reset(partition);
+        for (int i = 0; i < functions.length; i++) {
+            Object[] functionResults = new Object[size];
+            functions[i].execute(frame, argPositions[i], functionResults);
+            results[i] = functionResults;
+        }
+        numToEmit = size;
+        emitIdx = -1;
+    }
+
+    private Object[] materialize(Row row) {
+        for (CollectExpression<Row, ?> expression : expressions) {
+            expression.setNextRow(row);
+        }
+        Object[] cells = new Object[numSourceColumns + windowInputs.size()];
+        for (int i = 0; i < numSourceColumns; i++) {
+            cells[i] = row.get(i);
+        }
+        for (int i = 0; i < windowInputs.size(); i++) {
+            cells[numSourceColumns + i] = windowInputs.get(i).value();
+        }
+        return cells;
+    }
+
+    private boolean isSamePartition(Object[] row1, Object[] row2) {
+        for (int position : partitionPositions) {
+            if (!Objects.deepEquals(row1[position], row2[position])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        rowAccounting.close();
+        source.close();
+    }
+
+    @Override
+    public CompletionStage<?> loadNextBatch() {
+        return source.loadNextBatch();
+    }
+
+    @Override
+    public boolean allLoaded() {
+        return source.allLoaded();
+    }
+
+    @Override
+    public void kill(@Nonnull Throwable throwable) {
+        rowAccounting.close();
+        source.kill(throwable);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.sql.tree.FrameBound;
+import io.crate.sql.tree.WindowFrame;
+
+import javax.annotation.Nullable;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The rows of a window partition and the frame of the row the state is positioned on.
+ * <p>
+ * Rows must be sorted by the ORDER BY of the window definition.
+ * Rows which compare equal according to the ORDER BY are peers; without ORDER BY all rows are peers.
+ */
+public final class WindowFrameState {
+
+    private final WindowFrame.Type type;
+    private final FrameBound.Type startType;
+    private final FrameBound.Type endType;
+    private final long startOffset;
+    private final long endOffset;
+
+    @Nullable
+    private final Comparator<Object[]> peerComparator;
+
+    private List<Object[]> rows;
+    private int[] peerStarts = new int[0];
+    private int[] peerEnds = new int[0];
+
+    private int currentRow;
+    private int frameStart;
+    private int frameEnd;
+
+    /**
+     * @param startOffset offset of the frame start, only used for {@link FrameBound.Type#PRECEDING}
+     *                    and {@link FrameBound.Type#FOLLOWING}
+     * @param endOffset   offset of the frame end, see startOffset
+     */
+    public WindowFrameState(WindowFrame.Type type,
+                            FrameBound.Type startType,
+                            long startOffset,
+                            FrameBound.Type endType,
+                            long endOffset,
+                            @Nullable Comparator<Object[]> peerComparator) {
+        this.type = type;
+        this.startType = startType;
+        this.startOffset = startOffset;
+        this.endType = endType;
+        this.endOffset = endOffset;
+        this.peerComparator = peerComparator;
+    }
+
+    /**
+     * Replaces the rows of the state with the rows of the next partition.
+     */
+    void reset(List<Object[]> rows) {
+        this.rows = rows;
+        int size = rows.size();
+        if (peerStarts.length < size) {
+            peerStarts = new int[size];
+            peerEnds = new int[size];
+        }
+        if (peerComparator == null) {
+            for (int i = 0; i < size; i++) {
+                peerStarts[i] = 0;
+                peerEnds[i] = size;
+            }
+        } else {
+            int groupStart = 0;
+            for (int i = 1; i <= size; i++) {
+                if (i == size || peerComparator.compare(rows.get(i - 1), rows.get(i)) != 0) {
+                    for (int j = groupStart; j < i; j++) {
+                        peerStarts[j] = groupStart;
+                        peerEnds[j] = i;
+                    }
+                    groupStart = i;
+                }
+            }
+        }
+        currentRow = 0;
+        frameStart = 0;
+        frameEnd = 0;
+    }
+
+    /**
+     * Positions the state on the row with the given index and computes the frame of that row.
+     */
+    public void moveTo(int rowIdx) {
+        currentRow = rowIdx;
+        frameStart = boundPosition(startType, startOffset, rowIdx, true);
+        frameEnd = boundPosition(endType, endOffset, rowIdx, false);
+        if (frameEnd < frameStart) {
+            frameEnd = frameStart;
+        }
+    }
+
+    private int boundPosition(FrameBound.Type boundType, long offset, int rowIdx, boolean isStart) {
+        int size = rows.size();
+        switch (boundType) {
+            case UNBOUNDED_PRECEDING:
+                return 0;
+
+            case UNBOUNDED_FOLLOWING:
+                return size;
+
+            case CURRENT_ROW:
+                if (type == WindowFrame.Type.RANGE) {
+                    return isStart ? peerStarts[rowIdx] : peerEnds[rowIdx];
+                }
+                return isStart ? rowIdx : rowIdx + 1;
+
+            case PRECEDING:
+                return (int) Math.max(0L, Math.min(size, rowIdx - offset + (isStart ? 0 : 1)));
+
+            case FOLLOWING:
+                return (int) Math.max(0L, Math.min(size, rowIdx + offset + (isStart ? 0 : 1)));
+
+            default:
+                throw new AssertionError("Unexpected frame bound type: " + boundType);
+        }
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public Object[] rowAt(int rowIdx) {
+        return rows.get(rowIdx);
+    }
+
+    public int currentRow() {
+        return currentRow;
+    }
+
+    /**
+     * @return index of the first row of the frame (inclusive)
+     */
+    public int frameStart() {
+        return frameStart;
+    }
+
+    /**
+     * @return index after the last row of the frame (exclusive)
+     */
+    public int frameEnd() {
+        return frameEnd;
+    }
+
+    /**
+     * @return index of the first peer of the current row (inclusive)
+     */
+    public int peerStart() {
+        return peerStarts[currentRow];
+    }
+
+    /**
+     * @return index after the last peer of the current row (exclusive)
+     */
+    public int peerEnd() {
+        return peerEnds[currentRow];
+    }
+
+    /**
+     * @return true if the frame of every row starts at the first row of the partition.
+     *         The end of the frame never moves backwards in that case.
+     */
+    public boolean isFrameStartUnbounded() {
+        return startType == FrameBound.Type.UNBOUNDED_PRECEDING;
+    }
+}
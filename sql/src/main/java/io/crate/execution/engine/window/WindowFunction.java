@@ -0,0 +1,43 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.metadata.FunctionImplementation;
+
+/**
+ * A function which is evaluated over the rows of a window partition.
+ * <p>
+ * Aggregate functions can be used as window functions as well,
+ * see {@link AggregateToWindowFunctionAdapter}.
+ */
+public interface WindowFunction extends FunctionImplementation {
+
+    /**
+     * Computes the value of the function for every row of the partition.
+     *
+     * @param frame        the rows of the partition. {@link WindowFrameState#moveTo(int)} positions the frame on a row.
+     * @param argPositions the positions of the argument values within the partition rows
+     * @param results      receives the value of the function for each row of the partition
+     */
+    void execute(WindowFrameState frame, int[] argPositions, Object[] results);
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Projector;
+import io.crate.data.Row;
+import io.crate.execution.engine.collect.CollectExpression;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Projector which evaluates window functions, see {@link WindowBatchIterator}.
+ * The input must be sorted by the partition keys and the ORDER BY of the window definition.
+ */
+public class WindowProjector implements Projector {
+
+    private final Supplier<RowAccounting> rowAccountingSupplier;
+    private final int numSourceColumns;
+    private final List<? extends Input<?>> windowInputs;
+    private final Iterable<? extends CollectExpression<Row, ?>> expressions;
+    private final int[] partitionPositions;
+    private final Supplier<WindowFrameState> frameSupplier;
+    private final WindowFunction[] functions;
+    private final int[][] argPositions;
+
+    public WindowProjector(Supplier<RowAccounting> rowAccountingSupplier,
+                           int numSourceColumns,
+                           List<? extends Input<?>> windowInputs,
+                           Iterable<? extends CollectExpression<Row, ?>> expressions,
+                           int[] partitionPositions,
+                           Supplier<WindowFrameState> frameSupplier,
+                           WindowFunction[] functions,
+                           int[][] argPositions) {
+        this.rowAccountingSupplier = rowAccountingSupplier;
+        this.numSourceColumns = numSourceColumns;
+        this.windowInputs = windowInputs;
+        this.expressions = expressions;
+        this.partitionPositions = partitionPositions;
+        this.frameSupplier = frameSupplier;
+        this.functions = functions;
+        this.argPositions = argPositions;
+    }
+
+    @Override
+    public BatchIterator<Row> apply(BatchIterator<Row> batchIterator) {
+        return new WindowBatchIterator(
+            batchIterator,
+            rowAccountingSupplier.get(),
+            numSourceColumns,
+            windowInputs,
+            expressions,
+            partitionPositions,
+            frameSupplier.get(),
+            functions,
+            argPositions
+        );
+    }
+}
@@ -79,6 +79,7 @@ import io.crate.metadata.Functions;
 import io.crate.metadata.Routing;
 import io.crate.planner.distribution.DistributionType;
 import io.crate.planner.node.StreamerVisitor;
+import io.crate.profile.OperatorStats;
 import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.cluster.service.ClusterService;
@@ -460,7 +461,7 @@ public class ContextPreparer extends AbstractComponent {
                 case BROADCAST:
                 case MODULO:
                     RowConsumer consumer = distributingConsumerFactory.create(
-                        nodeOperation, phase.distributionInfo(), jobId(), pageSize);
+                        nodeOperation, phase.distributionInfo(), jobId(), pageSize, operatorStats(phase));
                     traceGetBatchConsumer(phase, distributionType.toString(), nodeOperation, consumer);
                     return consumer;
 
@@ -522,6 +523,10 @@ public class ContextPreparer extends AbstractComponent {
             contextBuilder.addSubContext(subContext);
         }
 
+        OperatorStats operatorStats(ExecutionPhase phase) {
+            return contextBuilder.operatorStats(phase.phaseId(), phase.name());
+        }
+
         void registerLeaf(ExecutionPhase phase, RowConsumer consumer) {
             handlerConsumersByPhaseId.put(phase.phaseId(), consumer);
             leafs.add(phase);
@@ -615,7 +620,8 @@ public class ContextPreparer extends AbstractComponent {
                         RamAccountingContext.forExecutionPhase(circuitBreaker, phase))),
                 DataTypes.getStreamers(phase.inputTypes()),
                 ramAccountingContext,
-                phase.numUpstreams()
+                phase.numUpstreams(),
+                context.operatorStats(phase)
             ));
             return true;
         }
@@ -636,7 +642,8 @@ public class ContextPreparer extends AbstractComponent {
                 collectOperation,
                 ramAccountingContext,
                 consumer,
-                context.sharedShardContexts
+                context.sharedShardContexts,
+                context.operatorStats(phase)
             ));
             return true;
         }
@@ -650,7 +657,8 @@ public class ContextPreparer extends AbstractComponent {
                 collectOperation,
                 ramAccountingContext,
                 consumer,
-                context.sharedShardContexts
+                context.sharedShardContexts,
+                context.operatorStats(phase)
             ));
             return true;
         }
@@ -756,7 +764,8 @@ public class ContextPreparer extends AbstractComponent {
                 inputFactory,
                 circuitBreaker,
                 phase.estimatedRowSizeForLeft(),
-                phase.numberOfRowsForLeft());
+                phase.numberOfRowsForLeft(),
+                context.operatorStats(phase));
             PageDownstreamContext left = pageDownstreamContextForNestedLoop(
                 phase.phaseId(),
                 context,
@@ -825,7 +834,8 @@ public class ContextPreparer extends AbstractComponent {
                         RamAccountingContext.forExecutionPhase(circuitBreaker, mergePhase))),
                 StreamerVisitor.streamersFromOutputs(mergePhase),
                 ramAccountingContext,
-                mergePhase.numUpstreams()
+                mergePhase.numUpstreams(),
+                ctx.operatorStats(mergePhase)
             );
         }
     }
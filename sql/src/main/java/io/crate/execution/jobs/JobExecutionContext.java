@@ -30,6 +30,7 @@ import io.crate.concurrent.CompletionListenable;
 import io.crate.exceptions.ContextMissingException;
 import io.crate.exceptions.SQLExceptions;
 import io.crate.execution.engine.collect.stats.JobsLogs;
+import io.crate.profile.OperatorStats;
 import io.crate.profile.ProfilingContext;
 import io.crate.profile.TimeMeasurable;
 import org.apache.logging.log4j.Logger;
@@ -39,6 +40,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -54,6 +57,8 @@ public class JobExecutionContext implements CompletionListenable {
 
     private static final Logger LOGGER = Loggers.getLogger(JobExecutionContext.class);
 
+    public static final String OPERATORS_KEY = "Operators";
+
     private final UUID jobId;
     private final ConcurrentMap<Integer, ExecutionSubContext> subContexts;
     private final AtomicInteger numSubContexts;
@@ -65,12 +70,13 @@ public class JobExecutionContext implements CompletionListenable {
     private final AtomicBoolean killSubContextsOngoing = new AtomicBoolean(false);
     private final Collection<String> participatedNodes;
     private final ProfilingContext profiler;
+    private final ConcurrentHashMap<String, OperatorStats> operatorStats;
     private volatile Throwable failure;
 
     @Nullable
     private final ConcurrentHashMap<Integer, TimeMeasurable> subContextTimers;
     @Nullable
-    private final CompletableFuture<Map<String, Long>> profilingFuture;
+    private final CompletableFuture<Map<String, Object>> profilingFuture;
 
     public static class Builder {
 
@@ -79,6 +85,7 @@ public class JobExecutionContext implements CompletionListenable {
         private final JobsLogs jobsLogs;
         private final List<ExecutionSubContext> subContexts = new ArrayList<>();
         private final Collection<String> participatingNodes;
+        private final Map<String, OperatorStats> operatorStats = new LinkedHashMap<>();
 
         private boolean enableProfiling = false;
 
@@ -98,6 +105,14 @@ public class JobExecutionContext implements CompletionListenable {
             subContexts.add(subContext);
         }
 
+        /**
+         * Returns the stats of an operator of the given phase.
+         * They are part of the profiling results if profiling is enabled.
+         */
+        public OperatorStats operatorStats(int phaseId, String name) {
+            return operatorStats.computeIfAbsent(statsKey(phaseId, name), k -> new OperatorStats());
+        }
+
         boolean isEmpty() {
             return subContexts.isEmpty();
         }
@@ -107,7 +122,8 @@ public class JobExecutionContext implements CompletionListenable {
         }
 
         JobExecutionContext build() throws Exception {
-            return new JobExecutionContext(jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts, enableProfiling);
+            return new JobExecutionContext(
+                jobId, coordinatorNode, participatingNodes, jobsLogs, subContexts, operatorStats, enableProfiling);
         }
     }
 
@@ -117,6 +133,7 @@ public class JobExecutionContext implements CompletionListenable {
                                 Collection<String> participatingNodes,
                                 JobsLogs jobsLogs,
                                 List<ExecutionSubContext> orderedContexts,
+                                Map<String, OperatorStats> operatorStats,
                                 boolean enableProfiling) throws Exception {
         this.coordinatorNodeId = coordinatorNodeId;
         this.participatedNodes = participatingNodes;
@@ -126,6 +143,7 @@ public class JobExecutionContext implements CompletionListenable {
         int numContexts = orderedContexts.size();
 
         profiler = new ProfilingContext(enableProfiling);
+        this.operatorStats = new ConcurrentHashMap<>(operatorStats);
         if (profiler.enabled()) {
             subContextTimers = new ConcurrentHashMap<>(numContexts);
             profilingFuture = new CompletableFuture<>();
@@ -150,7 +168,7 @@ public class JobExecutionContext implements CompletionListenable {
             }
             if (profiler.enabled()) {
                 assert subContextTimers != null : "subContextTimers must not be null";
-                String subContextName = String.format(Locale.ROOT, "%d-%s", context.id(), context.name());
+                String subContextName = statsKey(context.id(), context.name());
                 if (subContextTimers.put(subContextId, profiler.createMeasurable(subContextName)) != null) {
                     throw new IllegalArgumentException("TimeMeasurable for " + subContextId + " already added");
                 }
@@ -263,13 +281,17 @@ public class JobExecutionContext implements CompletionListenable {
                 LOGGER.trace("Profiling results for job {}: {}", jobId, profiler.getAsMap());
             }
             assert profilingFuture != null : "profilingFuture must not be null";
-            profilingFuture.complete(executionTimes());
+            profilingFuture.complete(profilingResults());
         } else {
             close();
         }
     }
 
-    public CompletableFuture<Map<String, Long>> finishProfiling() {
+    /**
+     * @return a future which is completed with the execution times of the sub contexts (by id+name) and
+     *         the stats of their operators under the {@link #OPERATORS_KEY} key.
+     */
+    public CompletableFuture<Map<String, Object>> finishProfiling() {
         if (!profiler.enabled()) {
             // sanity check
             IllegalStateException stateException = new IllegalStateException(
@@ -285,6 +307,21 @@ public class JobExecutionContext implements CompletionListenable {
         return ImmutableMap.copyOf(profiler.getAsMap());
     }
 
+    @VisibleForTesting
+    Map<String, Object> profilingResults() {
+        Map<String, Object> results = new HashMap<>(executionTimes());
+        if (!operatorStats.isEmpty()) {
+            Map<String, Object> statsByOperator = new HashMap<>(operatorStats.size());
+            operatorStats.forEach((name, stats) -> statsByOperator.put(name, stats.toMap()));
+            results.put(OPERATORS_KEY, statsByOperator);
+        }
+        return results;
+    }
+
+    private static String statsKey(int id, String name) {
+        return String.format(Locale.ROOT, "%d-%s", id, name);
+    }
+
     @Override
     public CompletableFuture<Void> completionFuture() {
         return finishedFuture;
@@ -324,6 +361,13 @@ public class JobExecutionContext implements CompletionListenable {
         public void onSuccess(@Nullable CompletionState state) {
             assert state != null : "state must not be null";
             jobsLogs.operationFinished(id, jobId, null, state.bytesUsed());
+            if (profiler.enabled() && state.bytesUsed() > 0) {
+                ExecutionSubContext subContext = subContexts.get(id);
+                if (subContext != null) {
+                    operatorStats.computeIfAbsent(statsKey(id, subContext.name()), k -> new OperatorStats())
+                        .add(OperatorStats.BREAKER_BYTES, state.bytesUsed());
+                }
+            }
             removeAndFinishIfNeeded();
         }
 
@@ -26,9 +26,11 @@ import io.crate.breaker.RamAccountingContext;
 import io.crate.data.Bucket;
 import io.crate.data.Row;
 import io.crate.data.RowConsumer;
+import io.crate.execution.engine.distribution.StreamBucket;
 import io.crate.execution.engine.distribution.merge.BatchPagingIterator;
 import io.crate.execution.engine.distribution.merge.KeyIterable;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
+import io.crate.profile.OperatorStats;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nonnull;
@@ -61,9 +63,11 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     private final Map<Integer, Bucket> bucketsByIdx;
     private final RowConsumer consumer;
     private final BatchPagingIterator<Integer> batchPagingIterator;
+    private final OperatorStats stats;
 
     private Throwable lastThrowable = null;
     private volatile boolean receivingFirstPage = true;
+    private volatile long waitStartNanos = 0L;
 
     public PageDownstreamContext(Logger logger,
                                  String nodeName,
@@ -73,7 +77,8 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
                                  PagingIterator<Integer, Row> pagingIterator,
                                  Streamer<?>[] streamers,
                                  RamAccountingContext ramAccountingContext,
-                                 int numBuckets) {
+                                 int numBuckets,
+                                 OperatorStats stats) {
         super(id, logger);
         this.nodeName = nodeName;
         this.name = name;
@@ -93,6 +98,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
             () -> releaseListenersAndCloseContext(null)
         );
         this.consumer = rowConsumer;
+        this.stats = stats;
     }
 
     private void releaseListenersAndCloseContext(@Nullable Throwable throwable) {
@@ -111,6 +117,11 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
 
     @Override
     public void setBucket(int bucketIdx, Bucket rows, boolean isLast, PageResultListener pageResultListener) {
+        stats.increment(OperatorStats.PAGES_IN);
+        stats.add(OperatorStats.ROWS_IN, rows.size());
+        if (rows instanceof StreamBucket) {
+            stats.add(OperatorStats.BYTES_IN, ((StreamBucket) rows).serializedSize());
+        }
         synchronized (buckets) {
             buckets.add(bucketIdx);
             if (lastThrowable == null) {
@@ -167,6 +178,11 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
     }
 
     private void mergeAndTriggerConsumer() {
+        long waitStart = waitStartNanos;
+        if (waitStart > 0L) {
+            stats.add(OperatorStats.UPSTREAM_WAIT_NANOS, System.nanoTime() - waitStart);
+            waitStartNanos = 0L;
+        }
         try {
             mergeBuckets();
         } catch (Throwable t) {
@@ -196,6 +212,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
         if (allUpstreamsExhausted()) {
             return false;
         }
+        waitStartNanos = System.nanoTime();
         if (exhaustedBucket == null || exhausted.contains(exhaustedBucket)) {
             fetchFromUnExhausted();
         } else {
@@ -332,6 +349,7 @@ public class PageDownstreamContext extends AbstractExecutionSubContext implement
 
     @Override
     protected void innerStart() {
+        waitStartNanos = System.nanoTime();
         // E.g. If the upstreamPhase is a collectPhase for a partitioned table without any partitions
         // there won't be any executionNodes for that collectPhase
         // -> no upstreams -> just finish
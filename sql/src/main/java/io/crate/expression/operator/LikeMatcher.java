@@ -0,0 +1,108 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.expression.operator;
+
+import io.crate.expression.scalar.regex.PatternCache;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.StringHelper;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import static io.crate.expression.operator.LikeOperator.DEFAULT_ESCAPE;
+
+/**
+ * Creates matchers for LIKE patterns.
+ *
+ * Patterns without a {@code _} wildcard and with {@code %} wildcards only at the start and/or end are matched by
+ * comparing the UTF-8 bytes of the value with the literal part of the pattern (exact, prefix, suffix or contains).
+ * All other patterns are translated into a regular expression using {@link LikeOperator#patternToRegex}.
+ */
+public final class LikeMatcher {
+
+    private LikeMatcher() {
+    }
+
+    public static Predicate<BytesRef> compile(String pattern) {
+        StringBuilder literal = new StringBuilder(pattern.length());
+        boolean leadingWildcard = false;
+        boolean trailingWildcard = false;
+        boolean escaped = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (!escaped && c == DEFAULT_ESCAPE) {
+                escaped = true;
+            } else if (!escaped && c == '_') {
+                return regexMatcher(pattern);
+            } else if (!escaped && c == '%') {
+                if (literal.length() == 0) {
+                    leadingWildcard = true;
+                } else {
+                    trailingWildcard = true;
+                }
+            } else if (trailingWildcard) {
+                // wildcard in the middle of the pattern
+                return regexMatcher(pattern);
+            } else {
+                literal.append(c);
+                escaped = false;
+            }
+        }
+        BytesRef bytes = new BytesRef(literal);
+        if (leadingWildcard && trailingWildcard) {
+            return value -> contains(value, bytes);
+        } else if (leadingWildcard) {
+            return value -> StringHelper.endsWith(value, bytes);
+        } else if (trailingWildcard) {
+            return value -> StringHelper.startsWith(value, bytes);
+        } else {
+            return value -> value.bytesEquals(bytes);
+        }
+    }
+
+    private static Predicate<BytesRef> regexMatcher(String pattern) {
+        Pattern regex = PatternCache.compile(LikeOperator.patternToRegex(pattern, DEFAULT_ESCAPE, true), Pattern.DOTALL);
+        return value -> regex.matcher(value.utf8ToString()).matches();
+    }
+
+    private static boolean contains(BytesRef value, BytesRef part) {
+        if (part.length == 0) {
+            return true;
+        }
+        byte first = part.bytes[part.offset];
+        int last = value.offset + value.length - part.length;
+        for (int i = value.offset; i <= last; i++) {
+            if (value.bytes[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < part.length && value.bytes[i + j] == part.bytes[part.offset + j]) {
+                j++;
+            }
+            if (j == part.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -29,7 +29,7 @@ import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
 
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 public class LikeOperator extends Operator<BytesRef> {
 
@@ -76,12 +76,7 @@ public class LikeOperator extends Operator<BytesRef> {
             return null;
         }
 
-        return matches(expression.utf8ToString(), pattern.utf8ToString());
-    }
-
-    private boolean matches(String expression, String pattern) {
-        return Pattern.compile(
-            patternToRegex(pattern, DEFAULT_ESCAPE, true), Pattern.DOTALL).matcher(expression).matches();
+        return LikeMatcher.compile(pattern.utf8ToString()).test(expression);
     }
 
     public static String patternToRegex(String patternString, char escapeChar, boolean shouldEscape) {
@@ -141,11 +136,11 @@ public class LikeOperator extends Operator<BytesRef> {
 
     private static class CompiledLike extends Scalar<Boolean, BytesRef> {
         private final FunctionInfo info;
-        private final Pattern pattern;
+        private final Predicate<BytesRef> matcher;
 
         CompiledLike(FunctionInfo info, String pattern) {
             this.info = info;
-            this.pattern = Pattern.compile(patternToRegex(pattern, DEFAULT_ESCAPE, true), Pattern.DOTALL);
+            this.matcher = LikeMatcher.compile(pattern);
         }
 
         @Override
@@ -160,7 +155,7 @@ public class LikeOperator extends Operator<BytesRef> {
             if (value == null) {
                 return null;
             }
-            return pattern.matcher(value.utf8ToString()).matches();
+            return matcher.test(value);
         }
     }
 }
@@ -22,6 +22,7 @@
 package io.crate.expression.operator;
 
 import io.crate.data.Input;
+import io.crate.expression.scalar.regex.PatternCache;
 import io.crate.metadata.FunctionInfo;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
@@ -51,7 +52,7 @@ public class RegexpMatchCaseInsensitiveOperator extends Operator<BytesRef> {
             return null;
         }
 
-        Pattern p = Pattern.compile(pattern.utf8ToString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        Pattern p = PatternCache.compile(pattern.utf8ToString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
         return p.matcher(source.utf8ToString()).matches();
     }
 
@@ -22,11 +22,17 @@
 package io.crate.expression.operator;
 
 import io.crate.data.Input;
+import io.crate.expression.scalar.regex.PatternCache;
+import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.Scalar;
 import io.crate.types.DataTypes;
 import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.automaton.ByteRunAutomaton;
-import org.apache.lucene.util.automaton.RegExp;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import static io.crate.expression.scalar.regex.RegexMatcher.isPcrePattern;
 
@@ -52,13 +58,29 @@ public class RegexpMatchOperator extends Operator<BytesRef> {
         if (pattern == null) {
             return null;
         }
-        String sPattern = pattern.utf8ToString();
-        if (isPcrePattern(sPattern)) {
-            return source.utf8ToString().matches(sPattern);
+        return matcher(pattern.utf8ToString()).test(source);
+    }
+
+    @Override
+    public Scalar<Boolean, BytesRef> compile(List<Symbol> arguments) {
+        Symbol pattern = arguments.get(1);
+        if (pattern instanceof Input) {
+            Object value = ((Input) pattern).value();
+            if (value == null) {
+                return this;
+            }
+            return new CompiledRegexpMatch(matcher(((BytesRef) value).utf8ToString()));
+        }
+        return super.compile(arguments);
+    }
+
+    private static Predicate<BytesRef> matcher(String pattern) {
+        if (isPcrePattern(pattern)) {
+            Pattern regex = PatternCache.compile(pattern, 0);
+            return source -> regex.matcher(source.utf8ToString()).matches();
         } else {
-            RegExp regexp = new RegExp(sPattern);
-            ByteRunAutomaton regexpRunAutomaton = new ByteRunAutomaton(regexp.toAutomaton());
-            return regexpRunAutomaton.run(source.bytes, source.offset, source.length);
+            ByteRunAutomaton automaton = PatternCache.automaton(pattern);
+            return source -> automaton.run(source.bytes, source.offset, source.length);
         }
     }
 
@@ -66,4 +88,28 @@ public class RegexpMatchOperator extends Operator<BytesRef> {
     public FunctionInfo info() {
         return INFO;
     }
+
+    private static class CompiledRegexpMatch extends Scalar<Boolean, BytesRef> {
+
+        private final Predicate<BytesRef> matcher;
+
+        CompiledRegexpMatch(Predicate<BytesRef> matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public FunctionInfo info() {
+            return INFO;
+        }
+
+        @SafeVarargs
+        @Override
+        public final Boolean evaluate(Input<BytesRef>... args) {
+            BytesRef source = args[0].value();
+            if (source == null) {
+                return null;
+            }
+            return matcher.test(source);
+        }
+    }
 }
@@ -22,7 +22,7 @@
 package io.crate.expression.operator.any;
 
 import io.crate.data.Input;
-import io.crate.expression.operator.LikeOperator;
+import io.crate.expression.operator.LikeMatcher;
 import io.crate.expression.operator.Operator;
 import io.crate.expression.operator.OperatorModule;
 import io.crate.metadata.BaseFunctionResolver;
@@ -40,7 +40,7 @@ import org.apache.lucene.util.BytesRef;
 
 import java.util.List;
 import java.util.function.BiPredicate;
-import java.util.regex.Pattern;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.crate.expression.operator.any.AnyOperators.collectionValueToIterable;
@@ -50,22 +50,18 @@ public final class AnyLikeOperator extends Operator<Object> {
     public static final String LIKE = AnyOperator.OPERATOR_PREFIX + "like";
     public static final String NOT_LIKE = AnyOperator.OPERATOR_PREFIX + "not_like";
     private final FunctionInfo info;
-    private final BiPredicate<String, String> matches;
+    private final BiPredicate<Predicate<BytesRef>, BytesRef> matches;
 
     public static void register(OperatorModule operatorModule) {
         operatorModule.registerDynamicOperatorFunction(
             LIKE,
-            new AnyLikeResolver(LIKE, AnyLikeOperator::matches));
+            new AnyLikeResolver(LIKE, Predicate::test));
         operatorModule.registerDynamicOperatorFunction(
             NOT_LIKE,
-            new AnyLikeResolver(NOT_LIKE, ((BiPredicate<String, String>) AnyLikeOperator::matches).negate()));
+            new AnyLikeResolver(NOT_LIKE, ((BiPredicate<Predicate<BytesRef>, BytesRef>) Predicate::test).negate()));
     }
 
-    private static boolean matches(String expr, String pattern) {
-        return Pattern.matches(LikeOperator.patternToRegex(pattern, LikeOperator.DEFAULT_ESCAPE, true), expr);
-    }
-
-    AnyLikeOperator(FunctionInfo info, BiPredicate<String, String> matches) {
+    AnyLikeOperator(FunctionInfo info, BiPredicate<Predicate<BytesRef>, BytesRef> matches) {
         this.info = info;
         this.matches = matches;
     }
@@ -77,7 +73,7 @@ public final class AnyLikeOperator extends Operator<Object> {
 
     private Boolean doEvaluate(Object left, Iterable<?> rightIterable) {
         BytesRef rightBytesRef = (BytesRef) left;
-        String pattern = rightBytesRef.utf8ToString();
+        Predicate<BytesRef> pattern = LikeMatcher.compile(rightBytesRef.utf8ToString());
 
         boolean hasNull = false;
         for (Object elem : rightIterable) {
@@ -87,8 +83,8 @@ public final class AnyLikeOperator extends Operator<Object> {
             }
             assert elem instanceof BytesRef || elem instanceof String : "elem must be BytesRef or String";
 
-            String elemValue = elem instanceof BytesRef ? ((BytesRef) elem).utf8ToString() : (String) elem;
-            if (matches.test(elemValue, pattern)) {
+            BytesRef elemValue = elem instanceof BytesRef ? (BytesRef) elem : new BytesRef((String) elem);
+            if (matches.test(pattern, elemValue)) {
                 return true;
             }
         }
@@ -109,9 +105,9 @@ public final class AnyLikeOperator extends Operator<Object> {
     private static class AnyLikeResolver extends BaseFunctionResolver {
 
         private final String name;
-        private final BiPredicate<String, String> matches;
+        private final BiPredicate<Predicate<BytesRef>, BytesRef> matches;
 
-        AnyLikeResolver(String name, BiPredicate<String, String> matches) {
+        AnyLikeResolver(String name, BiPredicate<Predicate<BytesRef>, BytesRef> matches) {
             super(FuncParams.builder(
                 Param.ANY,
                 Param.of(
@@ -23,12 +23,15 @@
 package io.crate.expression.reference;
 
 import io.crate.auth.user.User;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.expressions.RowCollectExpressionFactory;
 
 import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -38,19 +41,29 @@ import static java.util.concurrent.CompletableFuture.completedFuture;
 
 public class StaticTableDefinition<T> {
 
-    private final Function<User, CompletableFuture<? extends Iterable<T>>> recordsForUser;
+    private final BiFunction<User, Symbol, CompletableFuture<? extends Iterable<T>>> recordsForUser;
     private final StaticTableReferenceResolver<T> referenceResolver;
 
     public StaticTableDefinition(Supplier<CompletableFuture<? extends Iterable<T>>> iterable,
                                  Map<ColumnIdent, ? extends RowCollectExpressionFactory<T>> expressionFactories) {
-        this.recordsForUser = (u) -> iterable.get();
+        this.recordsForUser = (u, where) -> iterable.get();
         this.referenceResolver = new StaticTableReferenceResolver<>(expressionFactories);
     }
 
     public StaticTableDefinition(Supplier<? extends Iterable<T>> iterable,
                                  BiPredicate<User, T> predicate,
                                  Map<ColumnIdent, ? extends RowCollectExpressionFactory<T>> expressionFactories) {
-        this.recordsForUser = (User u) -> completedFuture(() -> StreamSupport.stream(iterable.get().spliterator(), false)
+        this(where -> iterable.get(), expressionFactories, predicate);
+    }
+
+    /**
+     * @param lookup returns the records for the filter of a query. It may use the filter to skip records
+     *               which can't match, the filter is still evaluated for every returned record.
+     */
+    public StaticTableDefinition(Function<Symbol, ? extends Iterable<T>> lookup,
+                                 Map<ColumnIdent, ? extends RowCollectExpressionFactory<T>> expressionFactories,
+                                 BiPredicate<User, T> predicate) {
+        this.recordsForUser = (User u, Symbol where) -> completedFuture(() -> StreamSupport.stream(lookup.apply(where).spliterator(), false)
             .filter(t -> u == null || predicate.test(u, t)).iterator());
         this.referenceResolver = new StaticTableReferenceResolver<>(expressionFactories);
     }
@@ -58,7 +71,7 @@ public class StaticTableDefinition<T> {
     public StaticTableDefinition(Supplier<CompletableFuture<? extends Iterable<T>>> futureRecords,
                                  Map<ColumnIdent, ? extends RowCollectExpressionFactory<T>> expressionFactories,
                                  BiPredicate<User, T> predicate) {
-        this.recordsForUser = (User user) ->
+        this.recordsForUser = (User user, Symbol where) ->
             futureRecords.get().thenApply((records) ->
                 StreamSupport.stream(records.spliterator(), false)
                 .filter(record -> user == null || predicate.test(user, record))
@@ -68,7 +81,11 @@ public class StaticTableDefinition<T> {
     }
 
     public CompletableFuture<? extends Iterable<T>> retrieveRecords(@Nullable User user) {
-        return recordsForUser.apply(user);
+        return retrieveRecords(user, Literal.BOOLEAN_TRUE);
+    }
+
+    public CompletableFuture<? extends Iterable<T>> retrieveRecords(@Nullable User user, Symbol where) {
+        return recordsForUser.apply(user, where);
     }
 
     public StaticTableReferenceResolver<T> getReferenceResolver() {
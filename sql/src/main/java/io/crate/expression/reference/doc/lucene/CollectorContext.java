@@ -24,7 +24,6 @@ package io.crate.expression.reference.doc.lucene;
 import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
 import org.elasticsearch.index.fielddata.IndexFieldData;
 import org.elasticsearch.index.mapper.MappedFieldType;
-import org.elasticsearch.search.lookup.SourceLookup;
 
 import java.util.function.Function;
 
@@ -34,7 +33,7 @@ public class CollectorContext {
     private final CollectorFieldsVisitor fieldsVisitor;
     private final int jobSearchContextId;
 
-    private SourceLookup sourceLookup;
+    private SourcePathLookup sourceLookup;
 
     public CollectorContext(Function<MappedFieldType, IndexFieldData<?>> fieldDataGetter,
                             CollectorFieldsVisitor visitor) {
@@ -61,9 +60,12 @@ public class CollectorContext {
         return fieldDataGetter.apply(fieldType);
     }
 
-    public SourceLookup sourceLookup() {
+    /**
+     * Source lookup shared by all expressions of this context so that the source is parsed only once per document.
+     */
+    public SourcePathLookup sourceLookup() {
         if (sourceLookup == null) {
-            sourceLookup = new SourceLookup();
+            sourceLookup = new SourcePathLookup();
         }
         return sourceLookup;
     }
@@ -28,7 +28,6 @@ import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.common.xcontent.XContentHelper;
 import org.elasticsearch.common.xcontent.XContentType;
-import org.elasticsearch.search.lookup.SourceLookup;
 
 import java.util.Map;
 
@@ -83,7 +82,7 @@ public class DocCollectorExpression extends LuceneCollectorExpression<Map<String
     public abstract static class ChildDocCollectorExpression<ReturnType> extends
         LuceneCollectorExpression<ReturnType> {
 
-        protected SourceLookup sourceLookup;
+        protected SourcePathLookup sourceLookup;
         private LeafReaderContext context;
 
         ChildDocCollectorExpression(String columnName) {
@@ -103,6 +102,7 @@ public class DocCollectorExpression extends LuceneCollectorExpression<Map<String
         @Override
         public void startCollect(CollectorContext context) {
             sourceLookup = context.sourceLookup();
+            sourceLookup.register(columnName);
         }
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.expression.reference.doc.lucene;
+
+import io.crate.exceptions.GroupByOnArrayUnsupportedException;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedSetDocValues;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.index.fielddata.IndexOrdinalsFieldData;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+import java.io.IOException;
+
+/**
+ * Exposes the segment ordinal of a single valued string column instead of its value,
+ * so that consumers can group by the ordinal and resolve the value once per distinct ordinal.
+ */
+public class OrdinalsColumnReference extends FieldCacheExpression<IndexOrdinalsFieldData, BytesRef> {
+
+    public static final long NO_ORDINAL = -1L;
+
+    private SortedSetDocValues values;
+    private long ordinal = NO_ORDINAL;
+
+    public OrdinalsColumnReference(String columnName, MappedFieldType mappedFieldType) {
+        super(columnName, mappedFieldType);
+    }
+
+    /**
+     * @return the doc values of the current segment, the ordinals are only valid within them
+     */
+    public SortedSetDocValues values() {
+        return values;
+    }
+
+    /**
+     * @return the ordinal of the value of the current document or {@link #NO_ORDINAL} if it has no value
+     */
+    public long ordinal() {
+        return ordinal;
+    }
+
+    @Override
+    public BytesRef value() {
+        if (ordinal == NO_ORDINAL) {
+            return null;
+        }
+        try {
+            return BytesRef.deepCopyOf(values.lookupOrd(ordinal));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void setNextDocId(int docId) throws IOException {
+        super.setNextDocId(docId);
+        if (values.advanceExact(docId)) {
+            ordinal = values.nextOrd();
+            if (values.nextOrd() != SortedSetDocValues.NO_MORE_ORDS) {
+                throw new GroupByOnArrayUnsupportedException(columnName);
+            }
+        } else {
+            ordinal = NO_ORDINAL;
+        }
+    }
+
+    @Override
+    public void setNextReader(LeafReaderContext context) throws IOException {
+        super.setNextReader(context);
+        values = indexFieldData.load(context).getOrdinalsValues();
+        ordinal = NO_ORDINAL;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null)
+            return false;
+        if (obj == this)
+            return true;
+        if (!(obj instanceof OrdinalsColumnReference))
+            return false;
+        return columnName.equals(((OrdinalsColumnReference) obj).columnName);
+    }
+
+    @Override
+    public int hashCode() {
+        return columnName.hashCode();
+    }
+}
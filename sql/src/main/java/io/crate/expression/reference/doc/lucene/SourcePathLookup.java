@@ -0,0 +1,214 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.elasticsearch.ElasticsearchParseException;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.NamedXContentRegistry;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentParser;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.elasticsearch.index.fieldvisitor.FieldsVisitor;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source lookup which only extracts the registered column paths from the stored {@code _source}.
+ *
+ * <p>
+ * Instead of converting the whole source into a map the source is streamed and only the
+ * sub-trees on a registered path are materialized, all other objects and arrays are skipped.
+ * The result is parsed at most once per document and shared by all expressions of a row.
+ * </p>
+ *
+ * <p>
+ * {@link #extractValue(String)} has the same semantics as
+ * {@link org.elasticsearch.search.lookup.SourceLookup#extractValue(String)}
+ * </p>
+ */
+public final class SourcePathLookup {
+
+    private final PathNode root = new PathNode();
+    private final FieldsVisitor fieldsVisitor = new FieldsVisitor(true);
+
+    private LeafReaderContext readerContext;
+    private int docId = -1;
+    private Map<String, Object> source;
+
+    /**
+     * Registers a column path (e.g. {@code "o.a.b"}) which will be extracted from the source.
+     * Must be called before values are extracted.
+     */
+    public void register(String path) {
+        PathNode node = root;
+        for (String part : path.split("\\.")) {
+            node = node.children.computeIfAbsent(part, k -> new PathNode());
+        }
+        node.leaf = true;
+        source = null;
+    }
+
+    public void setSegmentAndDocument(LeafReaderContext context, int docId) {
+        if (this.readerContext == context && this.docId == docId) {
+            return;
+        }
+        this.readerContext = context;
+        this.docId = docId;
+        this.source = null;
+    }
+
+    public Object extractValue(String path) {
+        return XContentMapValues.extractValue(path, source());
+    }
+
+    private Map<String, Object> source() {
+        if (source == null) {
+            fieldsVisitor.reset();
+            try {
+                readerContext.reader().document(docId, fieldsVisitor);
+            } catch (IOException e) {
+                throw new ElasticsearchParseException("failed to load _source", e);
+            }
+            BytesReference bytes = fieldsVisitor.source();
+            source = bytes == null ? new HashMap<>() : parse(bytes);
+        }
+        return source;
+    }
+
+    /**
+     * Parses the given source into a map which only contains the registered paths.
+     */
+    Map<String, Object> parse(BytesReference bytes) {
+        XContentType xContentType = XContentFactory.xContentType(bytes);
+        if (xContentType == null) {
+            throw new ElasticsearchParseException("failed to detect the content type of _source");
+        }
+        try (XContentParser parser = XContentHelper.createParser(NamedXContentRegistry.EMPTY, bytes, xContentType)) {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new ElasticsearchParseException("_source must be an object");
+            }
+            return readObject(parser, root);
+        } catch (IOException e) {
+            throw new ElasticsearchParseException("failed to parse _source", e);
+        }
+    }
+
+    private static Map<String, Object> readObject(XContentParser parser, PathNode node) throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) == XContentParser.Token.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            token = parser.nextToken();
+            PathNode child = node.resolve(fieldName);
+            if (child == null) {
+                parser.skipChildren();
+            } else {
+                map.put(fieldName, readValue(parser, token, child));
+            }
+        }
+        return map;
+    }
+
+    private static List<Object> readList(XContentParser parser, PathNode node) throws IOException {
+        List<Object> list = new ArrayList<>();
+        XContentParser.Token token;
+        while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
+            list.add(readValue(parser, token, node));
+        }
+        return list;
+    }
+
+    @Nullable
+    private static Object readValue(XContentParser parser, XContentParser.Token token, PathNode node) throws IOException {
+        if (node.leaf) {
+            // the full value is requested, child paths are extracted from the materialized value
+            switch (token) {
+                case START_OBJECT:
+                    return parser.map();
+                case START_ARRAY:
+                    return parser.list();
+                default:
+                    return readScalar(parser, token);
+            }
+        }
+        switch (token) {
+            case START_OBJECT:
+                return readObject(parser, node);
+            case START_ARRAY:
+                return readList(parser, node);
+            default:
+                return readScalar(parser, token);
+        }
+    }
+
+    @Nullable
+    private static Object readScalar(XContentParser parser, XContentParser.Token token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.text();
+            case VALUE_NUMBER:
+                return parser.numberValue();
+            case VALUE_BOOLEAN:
+                return parser.booleanValue();
+            case VALUE_EMBEDDED_OBJECT:
+                return parser.binaryValue();
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new ElasticsearchParseException("unexpected token in _source: " + token);
+        }
+    }
+
+    private static final class PathNode {
+
+        private final Map<String, PathNode> children = new HashMap<>();
+        private boolean leaf = false;
+
+        /**
+         * Resolves a field name of the source to a node;
+         * field names may contain dots and span multiple levels of the path
+         */
+        @Nullable
+        PathNode resolve(String fieldName) {
+            PathNode child = children.get(fieldName);
+            if (child != null || fieldName.indexOf('.') == -1) {
+                return child;
+            }
+            PathNode node = this;
+            for (String part : fieldName.split("\\.")) {
+                node = node.children.get(part);
+                if (node == null) {
+                    return null;
+                }
+            }
+            return node;
+        }
+    }
+}
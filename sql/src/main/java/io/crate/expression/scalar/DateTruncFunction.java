@@ -167,7 +167,10 @@ public class DateTruncFunction extends Scalar<Long, Object> {
         return truncate(tzRounding, TimestampType.INSTANCE.value(value));
     }
 
-    private Rounding rounding(BytesRef interval, BytesRef timeZoneString) {
+    /**
+     * @return the rounding which truncates timestamps to the given interval in the given time zone
+     */
+    public static Rounding rounding(BytesRef interval, BytesRef timeZoneString) {
         DateTimeUnit intervalAsUnit = intervalAsUnit(interval);
         DateTimeZone timeZone = TimeZoneParser.parseTimeZone(timeZoneString);
 
@@ -185,7 +188,7 @@ public class DateTruncFunction extends Scalar<Long, Object> {
         return rounding.round(ts);
     }
 
-    private DateTimeUnit intervalAsUnit(BytesRef interval) {
+    private static DateTimeUnit intervalAsUnit(BytesRef interval) {
         if (interval == null) {
             throw new IllegalArgumentException(String.format(Locale.ENGLISH,
                 "invalid interval NULL for scalar '%s'", NAME));
@@ -0,0 +1,76 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.expression.scalar.regex;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.lucene.util.automaton.ByteRunAutomaton;
+import org.apache.lucene.util.automaton.RegExp;
+import org.elasticsearch.common.collect.Tuple;
+
+import java.util.regex.Pattern;
+
+/**
+ * Bounded cache of compiled regular expressions, shared by all LIKE and regular expression functions.
+ *
+ * Compiled {@link Pattern}s and {@link ByteRunAutomaton}s are immutable and can be used by multiple threads,
+ * so functions which receive their pattern per row (e.g. from a column or within a join) don't have to compile it
+ * for every row.
+ */
+public final class PatternCache {
+
+    private static final int MAX_SIZE = 1000;
+
+    private static final Cache<Tuple<String, Integer>, Pattern> PATTERNS = CacheBuilder.newBuilder()
+        .maximumSize(MAX_SIZE)
+        .build();
+
+    private static final Cache<String, ByteRunAutomaton> AUTOMATONS = CacheBuilder.newBuilder()
+        .maximumSize(MAX_SIZE)
+        .build();
+
+    private PatternCache() {
+    }
+
+    public static Pattern compile(String regex, int flags) {
+        Tuple<String, Integer> key = new Tuple<>(regex, flags);
+        Pattern pattern = PATTERNS.getIfPresent(key);
+        if (pattern == null) {
+            pattern = Pattern.compile(regex, flags);
+            PATTERNS.put(key, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * @return an automaton for a regular expression in the lucene {@link RegExp} syntax
+     */
+    public static ByteRunAutomaton automaton(String regex) {
+        ByteRunAutomaton automaton = AUTOMATONS.getIfPresent(regex);
+        if (automaton == null) {
+            automaton = new ByteRunAutomaton(new RegExp(regex).toAutomaton());
+            AUTOMATONS.put(regex, automaton);
+        }
+        return automaton;
+    }
+}
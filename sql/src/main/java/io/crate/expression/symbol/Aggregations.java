@@ -72,6 +72,11 @@ public final class Aggregations {
             return false;
         }
 
+        @Override
+        public Boolean visitWindowFunction(WindowFunction symbol, Void context) {
+            return true;
+        }
+
         @Override
         public Boolean visitAggregation(Aggregation symbol, Void context) {
             return true;
@@ -99,6 +104,19 @@ public final class Aggregations {
             return false;
         }
 
+        @Override
+        public Boolean visitWindowFunction(WindowFunction symbol, Void context) {
+            // the window function itself is evaluated after the aggregation, only nested aggregates count
+            for (Symbol argument : symbol.arguments()) {
+                if (process(argument, context)) {
+                    return true;
+                }
+            }
+            boolean[] found = new boolean[] { false };
+            symbol.windowDefinition().accept(s -> found[0] |= process(s, context));
+            return found[0];
+        }
+
         @Override
         public Boolean visitAggregation(Aggregation symbol, Void context) {
             return true;
@@ -132,6 +150,19 @@ public final class Aggregations {
             return isSymbolContained;
         }
 
+        @Override
+        public Boolean visitWindowFunction(WindowFunction symbol, List<Symbol> context) {
+            if (context.contains(symbol)) {
+                return true;
+            }
+            boolean[] isSymbolContained = new boolean[] { true };
+            for (Symbol argument : symbol.arguments()) {
+                isSymbolContained[0] &= process(argument, context);
+            }
+            symbol.windowDefinition().accept(s -> isSymbolContained[0] &= process(s, context));
+            return isSymbolContained[0];
+        }
+
         @Override
         public Boolean visitAggregation(Aggregation symbol, List<Symbol> context) {
             return true;
@@ -37,6 +37,15 @@ public abstract class DefaultTraversalSymbolVisitor<C, R> extends SymbolVisitor<
         return null;
     }
 
+    @Override
+    public R visitWindowFunction(WindowFunction symbol, C context) {
+        for (Symbol arg : symbol.arguments()) {
+            process(arg, context);
+        }
+        symbol.windowDefinition().accept(s -> process(s, context));
+        return null;
+    }
+
     @Override
     public R visitFetchReference(FetchReference fetchReference, C context) {
         process(fetchReference.fetchId(), context);
@@ -22,6 +22,8 @@
 
 package io.crate.expression.symbol;
 
+import io.crate.analyze.WindowDefinition;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -103,6 +105,13 @@ public abstract class FunctionCopyVisitor<C> extends SymbolVisitor<C, Symbol> {
         return processAndMaybeCopy(func, context);
     }
 
+    @Override
+    public Symbol visitWindowFunction(WindowFunction windowFunction, C context) {
+        Function function = processAndMaybeCopy(windowFunction, context);
+        WindowDefinition windowDefinition = windowFunction.windowDefinition().map(s -> process(s, context));
+        return new WindowFunction(function.info(), function.arguments(), windowDefinition);
+    }
+
     @Override
     public Symbol visitDynamicReference(DynamicReference ref, C context) {
         return visitReference(ref, context);
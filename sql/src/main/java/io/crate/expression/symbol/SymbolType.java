@@ -52,7 +52,8 @@ public enum SymbolType {
     PARAMETER(ParameterSymbol::new),
     SELECT_SYMBOL(in -> {
         throw new UnsupportedOperationException("SelectSymbol is not streamable");
-    });
+    }),
+    WINDOW_FUNCTION(WindowFunction::new);
 
     public static final List<SymbolType> VALUES = ImmutableList.copyOf(values());
 
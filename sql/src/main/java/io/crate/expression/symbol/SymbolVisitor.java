@@ -80,6 +80,10 @@ public class SymbolVisitor<C, R> {
         return visitSymbol(parameterSymbol, context);
     }
 
+    public R visitWindowFunction(WindowFunction symbol, C context) {
+        return visitFunction(symbol, context);
+    }
+
     public R visitSelectSymbol(SelectSymbol selectSymbol, C context) {
         return visitSymbol(selectSymbol, context);
     }
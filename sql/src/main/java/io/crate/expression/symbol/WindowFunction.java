@@ -0,0 +1,109 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.expression.symbol;
+
+import io.crate.analyze.WindowDefinition;
+import io.crate.metadata.FunctionInfo;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.elasticsearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A function call with an <pre>OVER (...)</pre> clause.
+ * The function is either a window function (e.g. row_number) or an aggregate function evaluated over a window frame.
+ */
+public class WindowFunction extends Function {
+
+    private final WindowDefinition windowDefinition;
+
+    /**
+     * @return true if the symbol is a window function or a function which contains a window function.
+     */
+    public static boolean containsWindowFunction(Symbol symbol) {
+        return SymbolVisitors.any(s -> s instanceof WindowFunction, symbol);
+    }
+
+    public static boolean containsWindowFunction(Collection<? extends Symbol> symbols) {
+        for (Symbol symbol : symbols) {
+            if (containsWindowFunction(symbol)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public WindowFunction(StreamInput in) throws IOException {
+        super(in);
+        windowDefinition = new WindowDefinition(in);
+    }
+
+    public WindowFunction(FunctionInfo info, List<Symbol> arguments, WindowDefinition windowDefinition) {
+        super(info, arguments);
+        this.windowDefinition = windowDefinition;
+    }
+
+    public WindowDefinition windowDefinition() {
+        return windowDefinition;
+    }
+
+    @Override
+    public boolean canBeCasted() {
+        return false;
+    }
+
+    @Override
+    public SymbolType symbolType() {
+        return SymbolType.WINDOW_FUNCTION;
+    }
+
+    @Override
+    public <C, R> R accept(SymbolVisitor<C, R> visitor, C context) {
+        return visitor.visitWindowFunction(this, context);
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        windowDefinition.writeTo(out);
+    }
+
+    @Override
+    public String representation() {
+        return super.representation() + " OVER " + windowDefinition;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+        WindowFunction that = (WindowFunction) o;
+        return windowDefinition.equals(that.windowDefinition);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + windowDefinition.hashCode();
+    }
+}
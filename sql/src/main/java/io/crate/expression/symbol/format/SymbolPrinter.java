@@ -22,8 +22,10 @@
 
 package io.crate.expression.symbol.format;
 
+import io.crate.analyze.OrderBy;
 import io.crate.analyze.QueriedTable;
 import io.crate.analyze.SQLPrinter;
+import io.crate.analyze.WindowDefinition;
 import io.crate.analyze.relations.AnalyzedRelation;
 import io.crate.analyze.relations.RelationPrinter;
 import io.crate.analyze.relations.TableFunctionRelation;
@@ -41,6 +43,7 @@ import io.crate.expression.symbol.LiteralValueFormatter;
 import io.crate.expression.symbol.SelectSymbol;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolVisitor;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.metadata.ColumnIdent;
 import io.crate.metadata.FunctionIdent;
 import io.crate.metadata.FunctionImplementation;
@@ -162,6 +165,38 @@ public final class SymbolPrinter {
             return null;
         }
 
+        @Override
+        public Void visitWindowFunction(WindowFunction function, SymbolPrinterContext context) {
+            printGenericFunction(function, context);
+            WindowDefinition windowDefinition = function.windowDefinition();
+            context.builder.append(" OVER ").append(PAREN_OPEN);
+            List<Symbol> partitions = windowDefinition.partitions();
+            if (!partitions.isEmpty()) {
+                context.builder.append("PARTITION BY ");
+                printArgs(partitions, context);
+                context.builder.append(WS);
+            }
+            OrderBy orderBy = windowDefinition.orderBy();
+            if (orderBy != null) {
+                context.builder.append("ORDER BY ");
+                List<Symbol> orderBySymbols = orderBy.orderBySymbols();
+                for (int i = 0; i < orderBySymbols.size(); i++) {
+                    orderBySymbols.get(i).accept(this, context);
+                    context.builder.append(orderBy.reverseFlags()[i] ? " DESC" : " ASC");
+                    Boolean nullsFirst = orderBy.nullsFirst()[i];
+                    if (nullsFirst != null) {
+                        context.builder.append(nullsFirst ? " NULLS FIRST" : " NULLS LAST");
+                    }
+                    if (i < orderBySymbols.size() - 1) {
+                        context.builder.append(COMMA).append(WS);
+                    }
+                }
+                context.builder.append(WS);
+            }
+            context.builder.append(windowDefinition.windowFrame()).append(PAREN_CLOSE);
+            return null;
+        }
+
         private void printGenericFunction(Function function, SymbolPrinterContext context) {
             FunctionFormatSpec functionFormatSpec = null;
             OperatorFormatSpec operatorFormatSpec = null;
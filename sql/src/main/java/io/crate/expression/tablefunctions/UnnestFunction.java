@@ -82,11 +82,12 @@ public class UnnestFunction {
          *                  e.g. [ [1, 2], [Marvin, Trillian] ]
          * @return Bucket containing the unnested rows.
          * [ [1, Marvin], [2, Trillian] ]
+         * The rows are created lazily while iterating, re-using a single row instance.
          */
         @Override
         public Bucket execute(Collection<? extends Input> arguments) {
-            final List<Object[]> values = extractValues(arguments);
-            final int numCols = arguments.size();
+            final Object[][] values = extractValues(arguments);
+            final int numCols = values.length;
             final int numRows = maxLength(values);
 
             return new Bucket() {
@@ -115,7 +116,7 @@ public class UnnestFunction {
                                 throw new NoSuchElementException("No more rows");
                             }
                             for (int c = 0; c < numCols; c++) {
-                                Object[] columnValues = values.get(c);
+                                Object[] columnValues = values[c];
                                 if (columnValues.length > currentRow) {
                                     cells[c] = columnValues[currentRow];
                                 } else {
@@ -136,13 +137,13 @@ public class UnnestFunction {
             };
         }
 
-        private static List<Object[]> extractValues(Collection<? extends Input> arguments) {
-            List<Object[]> values = new ArrayList<>(arguments.size());
+        private static Object[][] extractValues(Collection<? extends Input> arguments) {
+            Object[][] values = new Object[arguments.size()][];
+            int i = 0;
             for (Input argument : arguments) {
                 Object value = argument.value();
                 assert value instanceof Object[] : "must be an array because unnest only accepts array arguments";
-                Object[] columnValues = (Object[]) value;
-                values.add(columnValues);
+                values[i++] = (Object[]) value;
             }
             return values;
         }
@@ -181,7 +182,7 @@ public class UnnestFunction {
         }
     }
 
-    private static int maxLength(List<Object[]> values) {
+    private static int maxLength(Object[][] values) {
         int length = 0;
         for (Object[] value : values) {
             if (value.length > length) {
@@ -28,6 +28,9 @@ import io.crate.execution.engine.collect.collectors.CollectorFieldsVisitor;
 import io.crate.expression.InputCondition;
 import io.crate.expression.reference.doc.lucene.CollectorContext;
 import io.crate.expression.reference.doc.lucene.LuceneCollectorExpression;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.metadata.Reference;
 import org.apache.lucene.index.LeafReader;
 import org.apache.lucene.index.LeafReaderContext;
 import org.apache.lucene.index.Term;
@@ -48,14 +51,27 @@ import java.util.Set;
 /**
  * Query implementation which filters docIds by evaluating {@code condition} on each docId to verify if it matches.
  *
- * This query is very slow.
+ * This query is very slow. Its {@link TwoPhaseIterator#matchCost()} is estimated from the function tree so that
+ * within a conjunction the cheaper clauses are evaluated first.
+ *
+ * Queries of deterministic functions are equal if their functions are equal, so that the query cache of a shard can
+ * re-use their results. Queries containing non-deterministic functions are only equal to themselves.
  */
 class GenericFunctionQuery extends Query {
 
+    /**
+     * Estimated per document costs, relative to the cost of a doc-values lookup
+     */
+    private static final float FUNCTION_COST = 10f;
+    private static final float COLUMN_COST = 10f;
+    private static final float STORED_FIELDS_COST = 1000f;
+
     private final Function function;
     private final LuceneCollectorExpression[] expressions;
     private final CollectorContext collectorContext;
     private final Input<Boolean> condition;
+    private final boolean deterministic;
+    private final float matchCost;
 
     GenericFunctionQuery(Function function,
                          Collection<? extends LuceneCollectorExpression<?>> expressions,
@@ -66,6 +82,32 @@ class GenericFunctionQuery extends Query {
         this.expressions = expressions.toArray(new LuceneCollectorExpression[0]);
         this.collectorContext = collectorContext;
         this.condition = condition;
+        this.deterministic = !SymbolVisitors.any(
+            s -> s instanceof Function && !((Function) s).info().isDeterministic(), function);
+        CollectorFieldsVisitor fieldsVisitor = collectorContext.visitor();
+        float cost = matchCost(function);
+        if (fieldsVisitor != null && fieldsVisitor.required()) {
+            cost += STORED_FIELDS_COST;
+        }
+        this.matchCost = cost;
+    }
+
+    private static float matchCost(Symbol symbol) {
+        if (symbol instanceof Function) {
+            float cost = FUNCTION_COST;
+            for (Symbol argument : ((Function) symbol).arguments()) {
+                cost += matchCost(argument);
+            }
+            return cost;
+        }
+        if (symbol instanceof Reference) {
+            return COLUMN_COST;
+        }
+        return 0f;
+    }
+
+    float matchCost() {
+        return matchCost;
     }
 
     @Override
@@ -75,12 +117,13 @@ class GenericFunctionQuery extends Query {
 
         GenericFunctionQuery that = (GenericFunctionQuery) o;
 
-        return function.equals(that.function);
+        // cached results of non-deterministic functions must not be re-used
+        return deterministic && that.deterministic && function.equals(that.function);
     }
 
     @Override
     public int hashCode() {
-        return function.hashCode();
+        return deterministic ? function.hashCode() : System.identityHashCode(this);
     }
 
     @Override
@@ -119,7 +162,8 @@ class GenericFunctionQuery extends Query {
         for (LuceneCollectorExpression expression : expressions) {
             expression.setNextReader(context);
         }
-        return new FilteredTwoPhaseIterator(context.reader(), collectorContext.visitor(), condition, expressions);
+        return new FilteredTwoPhaseIterator(
+            context.reader(), collectorContext.visitor(), condition, expressions, matchCost);
     }
 
     @Override
@@ -134,17 +178,20 @@ class GenericFunctionQuery extends Query {
         private final Input<Boolean> condition;
         private final LuceneCollectorExpression[] expressions;
         private final boolean fieldsVisitorEnabled;
+        private final float matchCost;
 
         FilteredTwoPhaseIterator(LeafReader reader,
                                  @Nullable CollectorFieldsVisitor fieldsVisitor,
                                  Input<Boolean> condition,
-                                 LuceneCollectorExpression[] expressions) {
+                                 LuceneCollectorExpression[] expressions,
+                                 float matchCost) {
             super(DocIdSetIterator.all(reader.maxDoc()));
             this.reader = reader;
             this.fieldsVisitor = fieldsVisitor;
             this.fieldsVisitorEnabled = fieldsVisitor != null && fieldsVisitor.required();
             this.condition = condition;
             this.expressions = expressions;
+            this.matchCost = matchCost;
         }
 
         @Override
@@ -166,8 +213,7 @@ class GenericFunctionQuery extends Query {
 
         @Override
         public float matchCost() {
-            // Arbitrary number, we don't have a way to get the cost of the condition
-            return 10;
+            return matchCost;
         }
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.EqOperator;
+import io.crate.expression.operator.GtOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LtOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Reference;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.FloatPoint;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PointValues;
+import org.elasticsearch.index.mapper.MappedFieldType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Uses the minimum and maximum values which Lucene keeps for every point field of a segment
+ * to find segments which can't contain a document matching a query.
+ *
+ * Only conditions of the form {@code column <op> literal} with {@code op} being =, &lt;, &lt;=, &gt; or &gt;=
+ * on indexed numeric or timestamp columns which are part of the top-level conjunction of the query are used.
+ * The bounds are read from the segment metadata which is held in memory, so no documents are visited.
+ */
+public final class PointValueBounds {
+
+    private static final Set<String> COMPARISONS = ImmutableSet.of(
+        EqOperator.NAME, GtOperator.NAME, GteOperator.NAME, LtOperator.NAME, LteOperator.NAME);
+
+    private final List<Condition> conditions;
+
+    private PointValueBounds(List<Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    public static PointValueBounds of(Symbol query, FieldTypeLookup fieldTypeLookup) {
+        List<Condition> conditions = new ArrayList<>();
+        collectConditions(query, fieldTypeLookup, conditions);
+        return new PointValueBounds(conditions);
+    }
+
+    /**
+     * @return true if there is no condition which can be used to exclude segments
+     */
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * @return the number of segments of the reader which can't contain a document matching the query
+     */
+    public int countNonMatchingSegments(IndexReader reader) throws IOException {
+        if (conditions.isEmpty()) {
+            return 0;
+        }
+        int nonMatching = 0;
+        for (LeafReaderContext leaf : reader.leaves()) {
+            if (!canMatch(leaf.reader())) {
+                nonMatching++;
+            }
+        }
+        return nonMatching;
+    }
+
+    private boolean canMatch(LeafReader reader) throws IOException {
+        for (Condition condition : conditions) {
+            if (!condition.canMatch(reader)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void collectConditions(Symbol query, FieldTypeLookup fieldTypeLookup, List<Condition> conditions) {
+        if (!(query instanceof Function)) {
+            return;
+        }
+        Function function = (Function) query;
+        String name = function.info().ident().name();
+        List<Symbol> args = function.arguments();
+        if (name.equals(AndOperator.NAME)) {
+            collectConditions(args.get(0), fieldTypeLookup, conditions);
+            collectConditions(args.get(1), fieldTypeLookup, conditions);
+            return;
+        }
+        if (!COMPARISONS.contains(name) || args.size() != 2) {
+            return;
+        }
+        Symbol first = args.get(0);
+        Symbol second = args.get(1);
+        Condition condition = null;
+        if (first instanceof Reference && second instanceof Literal) {
+            condition = Condition.of(name, (Reference) first, (Literal) second, fieldTypeLookup);
+        } else if (first instanceof Literal && second instanceof Reference) {
+            condition = Condition.of(swapped(name), (Reference) second, (Literal) first, fieldTypeLookup);
+        }
+        if (condition != null) {
+            conditions.add(condition);
+        }
+    }
+
+    private static String swapped(String name) {
+        switch (name) {
+            case GtOperator.NAME:
+                return LtOperator.NAME;
+            case GteOperator.NAME:
+                return LteOperator.NAME;
+            case LtOperator.NAME:
+                return GtOperator.NAME;
+            case LteOperator.NAME:
+                return GteOperator.NAME;
+            default:
+                return name;
+        }
+    }
+
+    private enum PointType {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE;
+
+        static PointType of(String fieldTypeName) {
+            switch (fieldTypeName) {
+                case "byte":
+                case "short":
+                case "integer":
+                    return INT;
+                case "long":
+                case "date":
+                    return LONG;
+                case "float":
+                    return FLOAT;
+                case "double":
+                    return DOUBLE;
+                default:
+                    return null;
+            }
+        }
+
+        int compare(byte[] packedValue, Number value) {
+            switch (this) {
+                case INT:
+                    return Long.compare(IntPoint.decodeDimension(packedValue, 0), value.longValue());
+                case LONG:
+                    return Long.compare(LongPoint.decodeDimension(packedValue, 0), value.longValue());
+                case FLOAT:
+                    return Double.compare(FloatPoint.decodeDimension(packedValue, 0), value.doubleValue());
+                case DOUBLE:
+                    return Double.compare(DoublePoint.decodeDimension(packedValue, 0), value.doubleValue());
+                default:
+                    throw new AssertionError("Unexpected point type: " + this);
+            }
+        }
+    }
+
+    private static final class Condition {
+
+        private final String field;
+        private final PointType pointType;
+        private final String operator;
+        private final Number value;
+
+        private Condition(String field, PointType pointType, String operator, Number value) {
+            this.field = field;
+            this.pointType = pointType;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        static Condition of(String operator, Reference ref, Literal literal, FieldTypeLookup fieldTypeLookup) {
+            Object value = literal.value();
+            if (!(value instanceof Number) || !literal.valueType().equals(ref.valueType())) {
+                return null;
+            }
+            if (value instanceof Double && ((Double) value).isNaN() || value instanceof Float && ((Float) value).isNaN()) {
+                return null;
+            }
+            String field = ref.column().fqn();
+            MappedFieldType fieldType = fieldTypeLookup.get(field);
+            if (fieldType == null || fieldType.indexOptions() == IndexOptions.NONE) {
+                return null;
+            }
+            PointType pointType = PointType.of(fieldType.typeName());
+            if (pointType == null) {
+                return null;
+            }
+            return new Condition(field, pointType, operator, (Number) value);
+        }
+
+        boolean canMatch(LeafReader reader) throws IOException {
+            FieldInfo fieldInfo = reader.getFieldInfos().fieldInfo(field);
+            if (fieldInfo == null) {
+                // no document of the segment has a value, the condition is null for all of them
+                return false;
+            }
+            if (fieldInfo.getPointDimensionCount() != 1) {
+                return true;
+            }
+            PointValues points = reader.getPointValues(field);
+            if (points == null) {
+                return false;
+            }
+            byte[] min = points.getMinPackedValue();
+            byte[] max = points.getMaxPackedValue();
+            switch (operator) {
+                case EqOperator.NAME:
+                    return pointType.compare(min, value) <= 0 && pointType.compare(max, value) >= 0;
+                case GtOperator.NAME:
+                    return pointType.compare(max, value) > 0;
+                case GteOperator.NAME:
+                    return pointType.compare(max, value) >= 0;
+                case LtOperator.NAME:
+                    return pointType.compare(min, value) < 0;
+                case LteOperator.NAME:
+                    return pointType.compare(min, value) <= 0;
+                default:
+                    return true;
+            }
+        }
+    }
+}
@@ -153,7 +153,8 @@ public class FunctionInfo implements Comparable<FunctionInfo>, Streamable {
     public enum Type {
         SCALAR,
         AGGREGATE,
-        TABLE
+        TABLE,
+        WINDOW
     }
 
     public enum Feature {
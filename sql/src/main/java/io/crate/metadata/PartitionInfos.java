@@ -31,23 +31,35 @@ import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cluster.ClusterChangedEvent;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.metadata.MappingMetaData;
 import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.collect.Tuple;
 import org.elasticsearch.common.logging.Loggers;
 import org.elasticsearch.common.lucene.BytesRefs;
+import org.elasticsearch.index.Index;
+
+import javax.annotation.Nullable;
 
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.StreamSupport;
 
+/**
+ * Iterates over the partitions of the current cluster state.
+ *
+ * Building a {@link PartitionInfo} requires parsing the mapping of the partition,
+ * so they're cached for as long as the {@link IndexMetaData} of the partition doesn't change.
+ */
 public class PartitionInfos implements Iterable<PartitionInfo> {
 
     private final ClusterService clusterService;
     private static final Logger LOGGER = Loggers.getLogger(PartitionInfos.class);
+    private final Map<String, CachedPartitionInfo> cache = new ConcurrentHashMap<>();
 
     public PartitionInfos(ClusterService clusterService) {
         this.clusterService = clusterService;
@@ -58,11 +70,31 @@ public class PartitionInfos implements Iterable<PartitionInfo> {
         // get a fresh one for each iteration
         return StreamSupport.stream(clusterService.state().metaData().indices().spliterator(), false)
             .filter(entry -> IndexParts.isPartitioned(entry.key))
-            .map(PartitionInfos::createPartitionInfo)
+            .map(this::cachedPartitionInfo)
             .filter(Objects::nonNull)
             .iterator();
     }
 
+    /**
+     * Drops the cached infos of deleted partitions
+     */
+    public void clusterChanged(ClusterChangedEvent event) {
+        for (Index index : event.indicesDeleted()) {
+            cache.remove(index.getName());
+        }
+    }
+
+    @Nullable
+    private PartitionInfo cachedPartitionInfo(ObjectObjectCursor<String, IndexMetaData> indexMetaDataEntry) {
+        CachedPartitionInfo cached = cache.get(indexMetaDataEntry.key);
+        // IndexMetaData instances are carried over to new cluster states as long as they don't change
+        if (cached == null || cached.indexMetaData != indexMetaDataEntry.value) {
+            cached = new CachedPartitionInfo(indexMetaDataEntry.value, createPartitionInfo(indexMetaDataEntry));
+            cache.put(indexMetaDataEntry.key, cached);
+        }
+        return cached.partitionInfo;
+    }
+
     private static PartitionInfo createPartitionInfo(ObjectObjectCursor<String, IndexMetaData> indexMetaDataEntry) {
         PartitionName partitionName = PartitionName.fromIndexOrTemplate(indexMetaDataEntry.key);
         try {
@@ -102,4 +134,16 @@ public class PartitionInfos implements Iterable<PartitionInfo> {
         }
         return valuesMap;
     }
+
+    private static class CachedPartitionInfo {
+
+        private final IndexMetaData indexMetaData;
+        @Nullable
+        private final PartitionInfo partitionInfo;
+
+        CachedPartitionInfo(IndexMetaData indexMetaData, @Nullable PartitionInfo partitionInfo) {
+            this.indexMetaData = indexMetaData;
+            this.partitionInfo = partitionInfo;
+        }
+    }
 }
@@ -51,6 +51,7 @@ import io.crate.metadata.RowGranularity;
 import io.crate.metadata.TransactionContext;
 import io.crate.metadata.table.ColumnPolicy;
 import io.crate.metadata.table.Operation;
+import io.crate.metadata.view.MaterializedViewMetaData;
 import io.crate.sql.parser.SqlParser;
 import io.crate.sql.tree.Expression;
 import io.crate.types.ArrayType;
@@ -116,6 +117,9 @@ public class DocIndexMetaData {
     private ColumnPolicy columnPolicy = ColumnPolicy.DYNAMIC;
     private Map<String, String> generatedColumns;
 
+    @Nullable
+    private final MaterializedViewMetaData materializedView;
+
     @Nullable
     private final Version versionCreated;
     @Nullable
@@ -135,6 +139,7 @@ public class DocIndexMetaData {
         indicesMap = Maps.getNested(metaMap, "indices", ImmutableMap.<String, Object>of());
         partitionedByList = Maps.getNested(metaMap, "partitioned_by", ImmutableList.<List<String>>of());
         generatedColumns = Maps.getNested(metaMap, "generated_columns", ImmutableMap.<String, String>of());
+        materializedView = MaterializedViewMetaData.fromMetaMap(metaMap);
         IndexMetaData.State state = isClosed(metaData, mappingMap, !partitionedByList.isEmpty()) ?
             IndexMetaData.State.CLOSE : IndexMetaData.State.OPEN;
         if (isAlias && partitionedByList.isEmpty()) {
@@ -713,4 +718,9 @@ public class DocIndexMetaData {
     public boolean isClosed() {
         return closed;
     }
+
+    @Nullable
+    public MaterializedViewMetaData materializedView() {
+        return materializedView;
+    }
 }
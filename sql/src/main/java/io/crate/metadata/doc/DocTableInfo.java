@@ -46,6 +46,7 @@ import io.crate.metadata.table.Operation;
 import io.crate.metadata.table.ShardedTable;
 import io.crate.metadata.table.StoredTable;
 import io.crate.metadata.table.TableInfo;
+import io.crate.metadata.view.MaterializedViewMetaData;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.cluster.ClusterState;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
@@ -143,9 +144,15 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
 
     private final boolean closed;
 
+    @Nullable
+    private final MaterializedViewMetaData materializedView;
+
     private final ColumnPolicy columnPolicy;
     private final IndexNameExpressionResolver indexNameExpressionResolver;
 
+    @Nullable
+    private volatile PartitionIndex partitionIndex;
+
     public DocTableInfo(RelationName ident,
                         List<Reference> columns,
                         List<Reference> partitionedByColumns,
@@ -170,7 +177,8 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
                         @Nullable Version versionCreated,
                         @Nullable Version versionUpgraded,
                         boolean closed,
-                        Set<Operation> supportedOperations) {
+                        Set<Operation> supportedOperations,
+                        @Nullable MaterializedViewMetaData materializedView) {
         this.indexNameExpressionResolver = indexNameExpressionResolver;
         assert (partitionedBy.size() ==
                 partitionedByColumns.size()) : "partitionedBy and partitionedByColumns must have same amount of items in list";
@@ -199,6 +207,7 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         this.versionUpgraded = versionUpgraded;
         this.closed = closed;
         this.supportedOperations = supportedOperations;
+        this.materializedView = materializedView;
         if (isPartitioned) {
             tableParameterInfo = PartitionedTableParameterInfo.INSTANCE;
         } else {
@@ -329,6 +338,18 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         return partitions;
     }
 
+    /**
+     * Index over the values of {@link #partitions()}, created on first use
+     */
+    public PartitionIndex partitionIndex() {
+        PartitionIndex index = partitionIndex;
+        if (index == null) {
+            index = new PartitionIndex(partitions, partitionedByColumns);
+            partitionIndex = index;
+        }
+        return index;
+    }
+
     /**
      * returns <code>true</code> if this table is a partitioned table,
      * <code>false</code> otherwise
@@ -384,6 +405,15 @@ public class DocTableInfo implements TableInfo, ShardedTable, StoredTable {
         return closed;
     }
 
+    /**
+     * @return the definition of the materialized view if this table holds the result of a materialized view,
+     *         otherwise null
+     */
+    @Nullable
+    public MaterializedViewMetaData materializedView() {
+        return materializedView;
+    }
+
     public TableParameterInfo tableParameterInfo() {
         return tableParameterInfo;
     }
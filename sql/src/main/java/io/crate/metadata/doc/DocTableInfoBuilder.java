@@ -203,6 +203,7 @@ class DocTableInfoBuilder {
             md.versionCreated(),
             md.versionUpgraded(),
             md.isClosed(),
-            md.supportedOperations());
+            md.supportedOperations(),
+            md.materializedView());
     }
 }
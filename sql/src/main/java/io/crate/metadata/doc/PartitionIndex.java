@@ -0,0 +1,146 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.metadata.doc;
+
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.types.DataType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Partitions of a table sorted by the values of each partitioned by column.
+ *
+ * Used to look up the partitions which can match equality, range or IN conditions on partitioned by columns
+ * using binary searches instead of evaluating the condition for each partition.
+ * Partitions are identified by their position within {@link DocTableInfo#partitions()}.
+ */
+public final class PartitionIndex {
+
+    private final int numPartitions;
+    private final List<Reference> columns;
+
+    // per column: partition positions sorted by value and the values in the same order. null values are left out.
+    private final int[][] sortedPositions;
+    private final Object[][] sortedValues;
+
+    PartitionIndex(List<PartitionName> partitions, List<Reference> partitionedByColumns) {
+        this.numPartitions = partitions.size();
+        this.columns = partitionedByColumns;
+        this.sortedPositions = new int[partitionedByColumns.size()][];
+        this.sortedValues = new Object[partitionedByColumns.size()][];
+        for (int col = 0; col < partitionedByColumns.size(); col++) {
+            DataType type = partitionedByColumns.get(col).valueType();
+            List<Integer> positions = new ArrayList<>(numPartitions);
+            Object[] values = new Object[numPartitions];
+            for (int i = 0; i < numPartitions; i++) {
+                Object value = type.value(partitions.get(i).values().get(col));
+                if (value != null) {
+                    positions.add(i);
+                    values[i] = value;
+                }
+            }
+            //noinspection unchecked
+            positions.sort((p1, p2) -> type.compareValueTo(values[p1], values[p2]));
+            int[] sorted = new int[positions.size()];
+            Object[] sortedColumnValues = new Object[positions.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = positions.get(i);
+                sortedColumnValues[i] = values[sorted[i]];
+            }
+            sortedPositions[col] = sorted;
+            sortedValues[col] = sortedColumnValues;
+        }
+    }
+
+    public int numPartitions() {
+        return numPartitions;
+    }
+
+    /**
+     * @return the position of the column within the partitioned by columns or -1 if it is no partitioned by column
+     */
+    public int columnIndex(Reference reference) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).column().equals(reference.column())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the positions of the partitions whose value of the given column is within the bounds.
+     *         A null bound is unbounded.
+     */
+    public BitSet range(int column,
+                        @Nullable Object lower,
+                        boolean lowerInclusive,
+                        @Nullable Object upper,
+                        boolean upperInclusive) {
+        Object[] values = sortedValues[column];
+        DataType type = columns.get(column).valueType();
+        int from = lower == null ? 0 : firstIndex(values, type, lower, !lowerInclusive);
+        int to = upper == null ? values.length : firstIndex(values, type, upper, upperInclusive);
+        BitSet result = new BitSet(numPartitions);
+        for (int i = from; i < to; i++) {
+            result.set(sortedPositions[column][i]);
+        }
+        return result;
+    }
+
+    /**
+     * @return the positions of the partitions whose value of the given column equals one of the values
+     */
+    public BitSet anyOf(int column, Iterable<?> values) {
+        BitSet result = new BitSet(numPartitions);
+        for (Object value : values) {
+            if (value != null) {
+                result.or(range(column, value, true, value, true));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the first value which is greater than (or equal to, if not {@code afterEqual}) the bound
+     */
+    @SuppressWarnings("unchecked")
+    private static int firstIndex(Object[] values, DataType type, Object bound, boolean afterEqual) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = type.compareValueTo(values[mid], bound);
+            if (cmp < 0 || (afterEqual && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -48,11 +48,11 @@ public class InformationSchemaTableDefinitions {
             InformationSchemataTableInfo.expressions()
         ));
         tableDefinitions.put(InformationTablesTableInfo.IDENT, new StaticTableDefinition<>(
-            informationSchemaIterables::relations,
+            where -> informationSchemaIterables.relations(where),
+            InformationTablesTableInfo.expressions(),
             (user, t) -> user.hasAnyPrivilege(Privilege.Clazz.TABLE, t.ident().fqn())
                          // we also need to check for views which have privileges set
-                         || user.hasAnyPrivilege(Privilege.Clazz.VIEW, t.ident().fqn()),
-            InformationTablesTableInfo.expressions()
+                         || user.hasAnyPrivilege(Privilege.Clazz.VIEW, t.ident().fqn())
         ));
         tableDefinitions.put(InformationViewsTableInfo.IDENT, new StaticTableDefinition<>(
             informationSchemaIterables::views,
@@ -65,16 +65,16 @@ public class InformationSchemaTableDefinitions {
             InformationPartitionsTableInfo.expressions()
         ));
         tableDefinitions.put(InformationColumnsTableInfo.IDENT, new StaticTableDefinition<>(
-            informationSchemaIterables::columns,
+            where -> informationSchemaIterables.columns(where),
+            InformationColumnsTableInfo.expression(),
             (user, c) -> user.hasAnyPrivilege(Privilege.Clazz.TABLE, c.tableInfo.ident().fqn())
                          // we also need to check for views which have privileges set
-                         || user.hasAnyPrivilege(Privilege.Clazz.VIEW, c.tableInfo.ident().fqn()),
-            InformationColumnsTableInfo.expression()
+                         || user.hasAnyPrivilege(Privilege.Clazz.VIEW, c.tableInfo.ident().fqn())
         ));
         tableDefinitions.put(InformationTableConstraintsTableInfo.IDENT, new StaticTableDefinition<>(
-            informationSchemaIterables::constraints,
-            (user, t) -> user.hasAnyPrivilege(Privilege.Clazz.TABLE, t.tableIdent().fqn()),
-            InformationTableConstraintsTableInfo.expressions()
+            where -> informationSchemaIterables.constraints(where),
+            InformationTableConstraintsTableInfo.expressions(),
+            (user, t) -> user.hasAnyPrivilege(Privilege.Clazz.TABLE, t.tableIdent().fqn())
         ));
         tableDefinitions.put(InformationRoutinesTableInfo.IDENT, new StaticTableDefinition<>(
             informationSchemaIterables::routines,
@@ -27,6 +27,7 @@ import com.google.common.base.Joiner;
 import io.crate.breaker.CrateCircuitBreakerService;
 import io.crate.cluster.gracefulstop.DecommissioningService;
 import io.crate.execution.engine.collect.stats.JobsLogService;
+import io.crate.execution.engine.indexing.PartitionPreCreationService;
 import io.crate.execution.engine.indexing.ShardingUpsertExecutor;
 import io.crate.expression.NestableInput;
 import io.crate.expression.reference.NestedObjectExpression;
@@ -92,6 +93,8 @@ public final class CrateSettings implements ClusterStateListener {
 
             // BULK
             ShardingUpsertExecutor.BULK_REQUEST_TIMEOUT_SETTING,
+            PartitionPreCreationService.PRECREATION_COUNT_SETTING,
+            PartitionPreCreationService.PRECREATION_INTERVAL_SETTING,
 
             // GRACEFUL STOP
             DecommissioningService.DECOMMISSION_INTERNAL_SETTING_GROUP,
@@ -28,6 +28,7 @@ import io.crate.analyze.TableParameterInfo;
 import org.elasticsearch.cluster.metadata.IndexMetaData;
 import org.elasticsearch.cluster.routing.allocation.decider.MaxRetryAllocationDecider;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.ByteSizeValue;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.translog.Translog;
 
@@ -70,6 +71,20 @@ public final class CrateTableSettings {
     public static final ByteSizeSetting FLUSH_THRESHOLD_SIZE = new ByteSizeSetting(
         TableParameterInfo.FLUSH_THRESHOLD_SIZE, INDEX_TRANSLOG_FLUSH_THRESHOLD_SIZE_SETTING.getDefault(Settings.EMPTY));
 
+    public static final ByteSizeSetting BLOBS_PACK_THRESHOLD = new ByteSizeSetting(
+        TableParameterInfo.BLOBS_PACK_THRESHOLD, new ByteSizeValue(0)) {
+
+        @Override
+        long maxValue() {
+            return Integer.MAX_VALUE;
+        }
+
+        @Override
+        long minValue() {
+            return 0;
+        }
+    };
+
     public static final BoolSetting WARMER_ENABLED = new BoolSetting(TableParameterInfo.WARMER_ENABLED, true);
 
     public static final TimeSetting TRANSLOG_SYNC_INTERVAL = new TimeSetting() {
@@ -0,0 +1,124 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.WhereClause;
+import io.crate.blob.BlobCache;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RoutingProvider;
+import io.crate.metadata.RowContextCollectorExpression;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.expressions.RowCollectExpressionFactory;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+public class SysBlobCacheTableInfo extends StaticTableInfo {
+
+    public static final RelationName IDENT = new RelationName(SysSchemaInfo.NAME, "blob_cache");
+
+    public static class Columns {
+        static final ColumnIdent NODE = new ColumnIdent("node");
+        static final ColumnIdent NODE_ID = new ColumnIdent("node", "id");
+        static final ColumnIdent NODE_NAME = new ColumnIdent("node", "name");
+        static final ColumnIdent SIZE = new ColumnIdent("size");
+        static final ColumnIdent USED_BYTES = new ColumnIdent("used_bytes");
+        static final ColumnIdent ENTRIES = new ColumnIdent("entries");
+        static final ColumnIdent HITS = new ColumnIdent("hits");
+        static final ColumnIdent MISSES = new ColumnIdent("misses");
+        static final ColumnIdent HIT_RATIO = new ColumnIdent("hit_ratio");
+        static final ColumnIdent EVICTIONS = new ColumnIdent("evictions");
+        static final ColumnIdent REJECTIONS = new ColumnIdent("rejections");
+    }
+
+    public static ImmutableMap<ColumnIdent, RowCollectExpressionFactory<BlobCache>> expressions(Supplier<DiscoveryNode> localNode) {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory<BlobCache>>builder()
+            .put(Columns.NODE, () -> RowContextCollectorExpression.forFunction(ignored -> ImmutableMap.of(
+                "id", new BytesRef(localNode.get().getId()),
+                "name", new BytesRef(localNode.get().getName())
+            )))
+            .put(Columns.NODE_ID, () -> RowContextCollectorExpression.forFunction(ignored -> new BytesRef(localNode.get().getId())))
+            .put(Columns.NODE_NAME, () -> RowContextCollectorExpression.forFunction(ignored -> new BytesRef(localNode.get().getName())))
+            .put(Columns.SIZE,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::capacity))
+            .put(Columns.USED_BYTES,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::usedBytes))
+            .put(Columns.ENTRIES,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::size))
+            .put(Columns.HITS,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::hits))
+            .put(Columns.MISSES,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::misses))
+            .put(Columns.HIT_RATIO,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::hitRatio))
+            .put(Columns.EVICTIONS,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::evictions))
+            .put(Columns.REJECTIONS,
+                () -> RowContextCollectorExpression.forFunction(BlobCache::rejections))
+            .build();
+    }
+
+    SysBlobCacheTableInfo() {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+            .register(Columns.NODE, DataTypes.OBJECT)
+            .register(Columns.NODE_ID, DataTypes.STRING)
+            .register(Columns.NODE_NAME, DataTypes.STRING)
+            .register(Columns.SIZE, DataTypes.LONG)
+            .register(Columns.USED_BYTES, DataTypes.LONG)
+            .register(Columns.ENTRIES, DataTypes.INTEGER)
+            .register(Columns.HITS, DataTypes.LONG)
+            .register(Columns.MISSES, DataTypes.LONG)
+            .register(Columns.HIT_RATIO, DataTypes.DOUBLE)
+            .register(Columns.EVICTIONS, DataTypes.LONG)
+            .register(Columns.REJECTIONS, DataTypes.LONG), Collections.emptyList());
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public RelationName ident() {
+        return IDENT;
+    }
+
+    @Override
+    public Routing getRouting(ClusterState clusterState,
+                              RoutingProvider routingProvider,
+                              WhereClause whereClause,
+                              RoutingProvider.ShardSelection shardSelection,
+                              SessionContext sessionContext) {
+        return Routing.forTableOnAllNodes(IDENT, clusterState.getNodes());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.sys;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.action.sql.SessionContext;
+import io.crate.analyze.WhereClause;
+import io.crate.execution.engine.collect.stats.StatementMetrics;
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Routing;
+import io.crate.metadata.RoutingProvider;
+import io.crate.metadata.RowContextCollectorExpression;
+import io.crate.metadata.RowGranularity;
+import io.crate.metadata.expressions.RowCollectExpressionFactory;
+import io.crate.metadata.table.ColumnRegistrar;
+import io.crate.metadata.table.StaticTableInfo;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.cluster.ClusterState;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+
+import java.util.Collections;
+import java.util.function.Supplier;
+
+public class SysJobsMetricsTableInfo extends StaticTableInfo {
+
+    public static final RelationName IDENT = new RelationName(SysSchemaInfo.NAME, "jobs_metrics");
+
+    public static class Columns {
+        static final ColumnIdent NODE = new ColumnIdent("node");
+        static final ColumnIdent NODE_ID = new ColumnIdent("node", "id");
+        static final ColumnIdent NODE_NAME = new ColumnIdent("node", "name");
+        public static final ColumnIdent TYPE = new ColumnIdent("type");
+        static final ColumnIdent TOTAL_COUNT = new ColumnIdent("total_count");
+        static final ColumnIdent FAILED_COUNT = new ColumnIdent("failed_count");
+        static final ColumnIdent SUM_OF_DURATIONS = new ColumnIdent("sum_of_durations");
+        static final ColumnIdent MEAN_DURATION = new ColumnIdent("mean_duration");
+        static final ColumnIdent MAX_DURATION = new ColumnIdent("max_duration");
+        static final ColumnIdent P50_DURATION = new ColumnIdent("p50_duration");
+        static final ColumnIdent P95_DURATION = new ColumnIdent("p95_duration");
+        static final ColumnIdent P99_DURATION = new ColumnIdent("p99_duration");
+    }
+
+    public static ImmutableMap<ColumnIdent, RowCollectExpressionFactory<StatementMetrics>> expressions(Supplier<DiscoveryNode> localNode) {
+        return ImmutableMap.<ColumnIdent, RowCollectExpressionFactory<StatementMetrics>>builder()
+            .put(Columns.NODE, () -> RowContextCollectorExpression.forFunction(ignored -> ImmutableMap.of(
+                "id", new BytesRef(localNode.get().getId()),
+                "name", new BytesRef(localNode.get().getName())
+            )))
+            .put(Columns.NODE_ID, () -> RowContextCollectorExpression.forFunction(ignored -> new BytesRef(localNode.get().getId())))
+            .put(Columns.NODE_NAME, () -> RowContextCollectorExpression.forFunction(ignored -> new BytesRef(localNode.get().getName())))
+            .put(Columns.TYPE,
+                () -> RowContextCollectorExpression.objToBytesRef(StatementMetrics::type))
+            .put(Columns.TOTAL_COUNT,
+                () -> RowContextCollectorExpression.forFunction(StatementMetrics::totalCount))
+            .put(Columns.FAILED_COUNT,
+                () -> RowContextCollectorExpression.forFunction(StatementMetrics::failedCount))
+            .put(Columns.SUM_OF_DURATIONS,
+                () -> RowContextCollectorExpression.forFunction(StatementMetrics::sumOfDurations))
+            .put(Columns.MEAN_DURATION,
+                () -> RowContextCollectorExpression.forFunction(StatementMetrics::meanDuration))
+            .put(Columns.MAX_DURATION,
+                () -> RowContextCollectorExpression.forFunction(StatementMetrics::maxDuration))
+            .put(Columns.P50_DURATION,
+                () -> RowContextCollectorExpression.forFunction(m -> m.percentile(50.0)))
+            .put(Columns.P95_DURATION,
+                () -> RowContextCollectorExpression.forFunction(m -> m.percentile(95.0)))
+            .put(Columns.P99_DURATION,
+                () -> RowContextCollectorExpression.forFunction(m -> m.percentile(99.0)))
+            .build();
+    }
+
+    SysJobsMetricsTableInfo() {
+        super(IDENT, new ColumnRegistrar(IDENT, RowGranularity.DOC)
+            .register(Columns.NODE, DataTypes.OBJECT)
+            .register(Columns.NODE_ID, DataTypes.STRING)
+            .register(Columns.NODE_NAME, DataTypes.STRING)
+            .register(Columns.TYPE, DataTypes.STRING)
+            .register(Columns.TOTAL_COUNT, DataTypes.LONG)
+            .register(Columns.FAILED_COUNT, DataTypes.LONG)
+            .register(Columns.SUM_OF_DURATIONS, DataTypes.LONG)
+            .register(Columns.MEAN_DURATION, DataTypes.DOUBLE)
+            .register(Columns.MAX_DURATION, DataTypes.LONG)
+            .register(Columns.P50_DURATION, DataTypes.LONG)
+            .register(Columns.P95_DURATION, DataTypes.LONG)
+            .register(Columns.P99_DURATION, DataTypes.LONG), Collections.emptyList());
+    }
+
+    @Override
+    public RowGranularity rowGranularity() {
+        return RowGranularity.DOC;
+    }
+
+    @Override
+    public RelationName ident() {
+        return IDENT;
+    }
+
+    @Override
+    public Routing getRouting(ClusterState clusterState,
+                              RoutingProvider routingProvider,
+                              WhereClause whereClause,
+                              RoutingProvider.ShardSelection shardSelection,
+                              SessionContext sessionContext) {
+        return Routing.forTableOnAllNodes(IDENT, clusterState.getNodes());
+    }
+}
@@ -46,6 +46,7 @@ public class SysSchemaInfo implements SchemaInfo {
         tableInfos.put(SysShardsTableInfo.IDENT.name(), new SysShardsTableInfo());
         tableInfos.put(SysJobsTableInfo.IDENT.name(), new SysJobsTableInfo());
         tableInfos.put(SysJobsLogTableInfo.IDENT.name(), new SysJobsLogTableInfo());
+        tableInfos.put(SysJobsMetricsTableInfo.IDENT.name(), new SysJobsMetricsTableInfo());
         tableInfos.put(SysOperationsTableInfo.IDENT.name(), new SysOperationsTableInfo());
         tableInfos.put(SysOperationsLogTableInfo.IDENT.name(), new SysOperationsLogTableInfo());
         tableInfos.put(SysChecksTableInfo.IDENT.name(), new SysChecksTableInfo());
@@ -55,6 +56,7 @@ public class SysSchemaInfo implements SchemaInfo {
         tableInfos.put(SysSummitsTableInfo.IDENT.name(), new SysSummitsTableInfo());
         tableInfos.put(SysAllocationsTableInfo.IDENT.name(), new SysAllocationsTableInfo());
         tableInfos.put(SysHealthTableInfo.IDENT.name(), new SysHealthTableInfo());
+        tableInfos.put(SysBlobCacheTableInfo.IDENT.name(), new SysBlobCacheTableInfo());
     }
 
     @Override
@@ -24,6 +24,7 @@ package io.crate.metadata.sys;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.crate.analyze.user.Privilege;
+import io.crate.blob.BlobCache;
 import io.crate.execution.engine.collect.files.SummitsIterable;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.expression.reference.StaticTableDefinition;
@@ -38,6 +39,7 @@ import org.elasticsearch.cluster.service.ClusterService;
 import org.elasticsearch.common.inject.Inject;
 import org.elasticsearch.repositories.RepositoriesService;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -58,7 +60,8 @@ public class SysTableDefinitions {
                                RepositoriesService repositoriesService,
                                SysSnapshots sysSnapshots,
                                SysAllocations sysAllocations,
-                               TableHealthService tableHealthService) {
+                               TableHealthService tableHealthService,
+                               BlobCache blobCache) {
         tableDefinitions.put(SysJobsTableInfo.IDENT, new StaticTableDefinition<>(
             () -> completedFuture(jobsLogs.activeJobs()),
             SysJobsTableInfo.expressions(clusterService::localNode)
@@ -67,6 +70,10 @@ public class SysTableDefinitions {
             () -> completedFuture(jobsLogs.jobsLog()),
             SysJobsLogTableInfo.expressions()
         ));
+        tableDefinitions.put(SysJobsMetricsTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(jobsLogs.metrics()),
+            SysJobsMetricsTableInfo.expressions(clusterService::localNode)
+        ));
         tableDefinitions.put(SysOperationsTableInfo.IDENT, new StaticTableDefinition<>(
             () -> completedFuture(jobsLogs.activeOperations()),
             SysOperationsTableInfo.expressions(clusterService::localNode)
@@ -112,6 +119,11 @@ public class SysTableDefinitions {
             SysHealthTableInfo.expressions(),
             (user, tableHealth) -> user.hasAnyPrivilege(Privilege.Clazz.TABLE, tableHealth.fqn())
         ));
+
+        tableDefinitions.put(SysBlobCacheTableInfo.IDENT, new StaticTableDefinition<>(
+            () -> completedFuture(Collections.singletonList(blobCache)),
+            SysBlobCacheTableInfo.expressions(clusterService::localNode)
+        ));
     }
 
     public StaticTableDefinition<?> get(RelationName relationName) {
@@ -0,0 +1,147 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.metadata.view;
+
+import io.crate.core.collections.Maps;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Definition of a materialized view.
+ *
+ * A materialized view is a regular table which holds the result of a grouping query. The definition is
+ * stored within the <code>_meta</code> of the mapping of that table:
+ *
+ * <pre>
+ *     {
+ *       "_meta": {
+ *         "materialized_view": {
+ *           "stmt": "SELECT doc.t.x, count(*) FROM doc.t GROUP BY doc.t.x",
+ *           "incremental_column": "ts",
+ *           "incremental_delay": 10000
+ *         }
+ *       }
+ *     }
+ * </pre>
+ *
+ * <ul>
+ *     <li>value of "stmt" is the analyzed SELECT statement</li>
+ *     <li>value of "incremental_column" is the (optional) column of the source table which is used as watermark
+ *     to only aggregate rows which have been added since the last refresh</li>
+ *     <li>value of "incremental_delay" is the time in milliseconds a row may take to become visible after its
+ *     incremental column has been assigned; a refresh only aggregates rows which are older than that</li>
+ * </ul>
+ */
+public final class MaterializedViewMetaData {
+
+    public static final String META_KEY = "materialized_view";
+
+    /**
+     * Column of the materialized view table which holds the value of the incremental column up to which
+     * the source rows have been aggregated into a group.
+     */
+    public static final String WATERMARK_COLUMN = "mv_watermark";
+
+    public static final long DEFAULT_INCREMENTAL_DELAY = 10_000L;
+
+    private static final String STMT = "stmt";
+    private static final String INCREMENTAL_COLUMN = "incremental_column";
+    private static final String INCREMENTAL_DELAY = "incremental_delay";
+
+    private final String stmt;
+    @Nullable
+    private final String incrementalColumn;
+    private final long incrementalDelay;
+
+    public MaterializedViewMetaData(String stmt, @Nullable String incrementalColumn) {
+        this(stmt, incrementalColumn, DEFAULT_INCREMENTAL_DELAY);
+    }
+
+    public MaterializedViewMetaData(String stmt, @Nullable String incrementalColumn, long incrementalDelay) {
+        this.stmt = stmt;
+        this.incrementalColumn = incrementalColumn;
+        this.incrementalDelay = incrementalDelay;
+    }
+
+    @Nullable
+    public static MaterializedViewMetaData fromMetaMap(@Nullable Map<String, Object> metaMap) {
+        Map<String, Object> definition = Maps.getNested(metaMap, META_KEY, null);
+        if (definition == null) {
+            return null;
+        }
+        Number incrementalDelay = (Number) definition.get(INCREMENTAL_DELAY);
+        return new MaterializedViewMetaData(
+            (String) definition.get(STMT),
+            (String) definition.get(INCREMENTAL_COLUMN),
+            incrementalDelay == null ? DEFAULT_INCREMENTAL_DELAY : incrementalDelay.longValue()
+        );
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> definition = new HashMap<>();
+        definition.put(STMT, stmt);
+        if (incrementalColumn != null) {
+            definition.put(INCREMENTAL_COLUMN, incrementalColumn);
+            definition.put(INCREMENTAL_DELAY, incrementalDelay);
+        }
+        return definition;
+    }
+
+    public String stmt() {
+        return stmt;
+    }
+
+    @Nullable
+    public String incrementalColumn() {
+        return incrementalColumn;
+    }
+
+    /**
+     * @return the time in milliseconds after which a row is expected to be visible, see {@link #isIncremental()}
+     */
+    public long incrementalDelay() {
+        return incrementalDelay;
+    }
+
+    public boolean isIncremental() {
+        return incrementalColumn != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MaterializedViewMetaData that = (MaterializedViewMetaData) o;
+        return incrementalDelay == that.incrementalDelay &&
+               Objects.equals(stmt, that.stmt) &&
+               Objects.equals(incrementalColumn, that.incrementalColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(stmt, incrementalColumn, incrementalDelay);
+    }
+}
@@ -45,6 +45,7 @@ import io.crate.analyze.InsertFromValuesAnalyzedStatement;
 import io.crate.analyze.KillAnalyzedStatement;
 import io.crate.profile.TimeMeasurable;
 import io.crate.profile.ProfilingContext;
+import io.crate.analyze.RefreshMaterializedViewAnalyzedStatement;
 import io.crate.analyze.ResetAnalyzedStatement;
 import io.crate.analyze.SetAnalyzedStatement;
 import io.crate.analyze.ShowCreateTableAnalyzedStatement;
@@ -301,6 +302,15 @@ public class Planner extends AnalyzedStatementVisitor<PlannerContext, Plan> {
         return new CreateViewPlan(createViewStmt);
     }
 
+    @Override
+    public Plan visitRefreshMaterializedView(RefreshMaterializedViewAnalyzedStatement refreshMaterializedView,
+                                             PlannerContext context) {
+        return new RefreshMaterializedViewPlan(
+            refreshMaterializedView,
+            plan(refreshMaterializedView.insert(), context)
+        );
+    }
+
     @Override
     public Plan visitDropView(DropViewStmt dropViewStmt, PlannerContext context) {
         return new DropViewPlan(dropViewStmt);
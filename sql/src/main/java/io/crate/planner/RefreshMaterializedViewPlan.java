@@ -0,0 +1,81 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner;
+
+import io.crate.analyze.RefreshMaterializedViewAnalyzedStatement;
+import io.crate.analyze.RefreshTableAnalyzedStatement;
+import io.crate.data.CollectingRowConsumer;
+import io.crate.data.Row;
+import io.crate.data.Row1;
+import io.crate.data.RowConsumer;
+import io.crate.execution.ddl.DDLStatementDispatcher;
+import io.crate.execution.engine.FirstColumnConsumers;
+import io.crate.execution.support.OneRowActionListener;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.planner.operators.SubQueryResults;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Refreshes a materialized view by upserting the result of its query into the table of the view.
+ *
+ * <ol>
+ *     <li>The source table is refreshed so that all rows written before the
+ *     <code>REFRESH MATERIALIZED VIEW</code> statement are included.</li>
+ *     <li>The insert plan is executed.</li>
+ *     <li>The table of the view is refreshed so that a following incremental refresh sees the new watermark.</li>
+ * </ol>
+ */
+public final class RefreshMaterializedViewPlan implements Plan {
+
+    private final RefreshMaterializedViewAnalyzedStatement statement;
+    private final Plan insertPlan;
+
+    RefreshMaterializedViewPlan(RefreshMaterializedViewAnalyzedStatement statement, Plan insertPlan) {
+        this.statement = statement;
+        this.insertPlan = insertPlan;
+    }
+
+    @Override
+    public void execute(DependencyCarrier executor,
+                        PlannerContext plannerContext,
+                        RowConsumer consumer,
+                        Row params,
+                        SubQueryResults subQueryResults) {
+        DDLStatementDispatcher ddlAction = executor.ddlAction();
+        ddlAction.apply(refreshTable(statement.source()), params)
+            .thenCompose(ignored -> {
+                CollectingRowConsumer<Object[], Object> insertConsumer = FirstColumnConsumers.createSingleRowConsumer();
+                insertPlan.execute(executor, plannerContext, insertConsumer, params, subQueryResults);
+                return insertConsumer.resultFuture();
+            })
+            .thenCompose(rowCount -> ddlAction.apply(refreshTable(statement.view()), params)
+                .thenApply(ignored -> rowCount))
+            .whenComplete(new OneRowActionListener<>(consumer, Row1::new));
+    }
+
+    private static RefreshTableAnalyzedStatement refreshTable(DocTableInfo table) {
+        return new RefreshTableAnalyzedStatement(new HashSet<>(Arrays.asList(table.concreteIndices())));
+    }
+}
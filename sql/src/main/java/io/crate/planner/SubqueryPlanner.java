@@ -29,7 +29,9 @@ import io.crate.expression.symbol.Symbol;
 import io.crate.planner.operators.LogicalPlan;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -55,10 +57,14 @@ public class SubqueryPlanner {
     private class Visitor extends DefaultTraversalSymbolVisitor<Symbol, Void> implements Consumer<Symbol> {
 
         private final Map<LogicalPlan, SelectSymbol> subQueries = new HashMap<>();
+        private final Set<SelectSymbol> planned = new HashSet<>();
 
         @Override
         public Void visitSelectSymbol(SelectSymbol selectSymbol, Symbol parent) {
-            planSubquery(selectSymbol, subQueries);
+            // a sub-select referenced multiple times (e.g. by a runtime filter) is only executed once
+            if (planned.add(selectSymbol)) {
+                planSubquery(selectSymbol, subQueries);
+            }
             return null;
         }
 
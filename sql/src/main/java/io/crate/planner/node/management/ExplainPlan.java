@@ -144,7 +144,7 @@ public class ExplainPlan implements Plan {
         return (ignored, t) -> {
             context.stopAndAddMeasurable(timeMeasurable);
             if (t == null) {
-                OneRowActionListener<Map<String, Map<String, Long>>> actionListener =
+                OneRowActionListener<Map<String, Map<String, Object>>> actionListener =
                     new OneRowActionListener<>(consumer, resp -> buildResponse(context.getAsMap(), resp));
                 collectTimingResults(jobId, executor, operationTree.nodeOperations())
                     .whenComplete(actionListener);
@@ -160,7 +160,7 @@ public class ExplainPlan implements Plan {
         return new TransportCollectProfileOperation(nodeAction, jobId);
     }
 
-    private Row buildResponse(Map<String, Long> apeTimings, Map<String, Map<String, Long>> nodeTimings) {
+    private Row buildResponse(Map<String, Long> apeTimings, Map<String, Map<String, Object>> nodeTimings) {
         MapBuilder<String, Object> mapBuilder = MapBuilder.newMapBuilder();
         apeTimings.forEach(mapBuilder::put);
 
@@ -172,16 +172,16 @@ public class ExplainPlan implements Plan {
         return new Row1(mapBuilder.immutableMap());
     }
 
-    private CompletableFuture<Map<String, Map<String, Long>>> collectTimingResults(UUID jobId,
-                                                                                   DependencyCarrier executor,
-                                                                                   Collection<NodeOperation> nodeOperations) {
+    private CompletableFuture<Map<String, Map<String, Object>>> collectTimingResults(UUID jobId,
+                                                                                     DependencyCarrier executor,
+                                                                                     Collection<NodeOperation> nodeOperations) {
         Set<String> nodeIds = NodeOperationGrouper.groupByServer(nodeOperations).keySet();
 
         if (nodeIds.size() > 0) {
-            CompletableFuture<Map<String, Map<String, Long>>> resultFuture = new CompletableFuture<>();
+            CompletableFuture<Map<String, Map<String, Object>>> resultFuture = new CompletableFuture<>();
             TransportCollectProfileOperation collectProfileOperation = getTransportCollectProfileOperation(executor, jobId);
 
-            ConcurrentHashMap<String, Map<String, Long>> mergedMap = new ConcurrentHashMap<>(nodeIds.size());
+            ConcurrentHashMap<String, Map<String, Object>> mergedMap = new ConcurrentHashMap<>(nodeIds.size());
             AtomicInteger counter = new AtomicInteger(nodeIds.size());
 
             for (String nodeId : nodeIds) {
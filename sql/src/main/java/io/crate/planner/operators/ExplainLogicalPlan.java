@@ -200,6 +200,14 @@ public class ExplainLogicalPlan {
                 .put("source", explainMap(logicalPlan.source, context)));
         }
 
+        @Override
+        public ImmutableMap.Builder<String, Object> visitWindowAgg(WindowAgg logicalPlan, Context context) {
+            return createMap(logicalPlan, createSubMap()
+                .put("windowFunctions", ExplainLeaf.printList(logicalPlan.windowFunctions))
+                .put("window", logicalPlan.windowDefinition.toString())
+                .put("source", explainMap(logicalPlan.source, context)));
+        }
+
         @Override
         public ImmutableMap.Builder<String, Object> visitHashAggregate(HashAggregate logicalPlan, Context context) {
             return createMap(logicalPlan, createSubMap()
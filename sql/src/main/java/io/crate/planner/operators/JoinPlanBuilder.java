@@ -129,6 +129,10 @@ public class JoinPlanBuilder implements LogicalPlan.Builder {
         } else {
             joinType = maybeInvertPair(rhsName, joinLhsRhs);
             joinCondition = joinLhsRhs.condition();
+            if (isHashJoinPossible(joinType, joinCondition, txnCtx.sessionContext())) {
+                lhs = RuntimeFilters.tryAddKeyRangeFilter(lhs, rhs, joinCondition, tableStats, functions);
+                rhs = RuntimeFilters.tryAddKeyRangeFilter(rhs, lhs, joinCondition, tableStats, functions);
+            }
         }
 
         Set<Symbol> usedFromLeft = new LinkedHashSet<>();
@@ -194,20 +194,23 @@ public class LogicalPlanner {
             FetchOrEval.create(
                 Limit.create(
                     Order.create(
-                        Filter.create(
-                            groupByOrAggregate(
-                                collectAndFilter(
-                                    relation,
-                                    splitPoints.toCollect(),
-                                    relation.where(),
-                                    subqueryPlanner,
-                                    fetchMode,
-                                    functions,
-                                    txnCtx
-                                ),
-                                relation.groupBy(),
-                                splitPoints.aggregates()),
-                            relation.having()
+                        WindowAgg.create(
+                            Filter.create(
+                                groupByOrAggregate(
+                                    collectAndFilter(
+                                        relation,
+                                        splitPoints.toCollect(),
+                                        relation.where(),
+                                        subqueryPlanner,
+                                        fetchMode,
+                                        functions,
+                                        txnCtx
+                                    ),
+                                    relation.groupBy(),
+                                    splitPoints.aggregates()),
+                                relation.having()
+                            ),
+                            splitPoints.windowFunctions()
                         ),
                         relation.orderBy()
                     ),
@@ -0,0 +1,208 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import com.google.common.collect.ImmutableSet;
+import io.crate.analyze.QueriedTable;
+import io.crate.analyze.QuerySpec;
+import io.crate.analyze.WhereClause;
+import io.crate.analyze.relations.DocTableRelation;
+import io.crate.analyze.relations.QueriedRelation;
+import io.crate.collections.Lists2;
+import io.crate.execution.engine.aggregation.impl.MaximumAggregation;
+import io.crate.execution.engine.aggregation.impl.MinimumAggregation;
+import io.crate.expression.operator.AndOperator;
+import io.crate.expression.operator.GteOperator;
+import io.crate.expression.operator.LteOperator;
+import io.crate.expression.scalar.SubscriptFunction;
+import io.crate.expression.scalar.arithmetic.ArrayFunction;
+import io.crate.expression.symbol.Field;
+import io.crate.expression.symbol.Function;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.SelectSymbol;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.SymbolVisitors;
+import io.crate.metadata.Functions;
+import io.crate.metadata.Reference;
+import io.crate.planner.TableStats;
+import io.crate.types.ArrayType;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds runtime filters to the probe side of a hash join.
+ * <p>
+ * If one side of an equi-join is a filtered table which is smaller than the other side, the value range of the
+ * join key is computed upfront by a single sub-select on the smaller side and pushed into the WHERE clause of the
+ * bigger side:
+ *
+ * <pre>
+ *     select * from big b inner join small s on b.x = s.x where s.y = 10
+ *
+ *     bounds: (select [min(x), max(x)] from small where y = 10)
+ *     big:    where b.x >= bounds[1] and b.x <= bounds[2]
+ * </pre>
+ *
+ * The range is converted into a Lucene range query on collect, so rows of the bigger side which can't
+ * match are neither loaded nor sent to the join nodes.
+ */
+final class RuntimeFilters {
+
+    private static final Set<DataType> SUPPORTED_KEY_TYPES = ImmutableSet.of(
+        DataTypes.BYTE,
+        DataTypes.SHORT,
+        DataTypes.INTEGER,
+        DataTypes.LONG,
+        DataTypes.TIMESTAMP,
+        DataTypes.STRING
+    );
+
+    private RuntimeFilters() {
+    }
+
+    /**
+     * @return the probe relation with an additional key range filter or the unchanged probe relation if
+     *         a runtime filter is not applicable.
+     */
+    static QueriedRelation tryAddKeyRangeFilter(QueriedRelation probe,
+                                                QueriedRelation build,
+                                                Symbol joinCondition,
+                                                TableStats tableStats,
+                                                Functions functions) {
+        if (!isFilterable(probe) || !isFilterable(build)) {
+            return probe;
+        }
+        QueriedTable<?> probeTable = (QueriedTable<?>) probe;
+        QueriedTable<?> buildTable = (QueriedTable<?>) build;
+        if (!isSmallerAndFiltered(buildTable, probeTable, tableStats)) {
+            return probe;
+        }
+        List<Symbol> probeKeys = HashJoinConditionSymbolsExtractor.extract(joinCondition).get(probe);
+        List<Symbol> buildKeys = HashJoinConditionSymbolsExtractor.extract(joinCondition).get(build);
+        if (probeKeys == null || buildKeys == null || probeKeys.size() != buildKeys.size()) {
+            return probe;
+        }
+        for (int i = 0; i < probeKeys.size(); i++) {
+            Reference probeKey = resolveReference(probeKeys.get(i), probe);
+            Reference buildKey = resolveReference(buildKeys.get(i), build);
+            if (probeKey != null && buildKey != null
+                && probeKey.valueType().equals(buildKey.valueType())
+                && SUPPORTED_KEY_TYPES.contains(probeKey.valueType())) {
+                return addKeyRangeFilter(probeTable, probeKey, buildTable, buildKey, functions);
+            }
+        }
+        return probe;
+    }
+
+    private static boolean isFilterable(QueriedRelation relation) {
+        if (!(relation instanceof QueriedTable)
+            || !(((QueriedTable<?>) relation).tableRelation() instanceof DocTableRelation)) {
+            return false;
+        }
+        QuerySpec querySpec = ((QueriedTable<?>) relation).querySpec();
+        return querySpec.limit() == null
+               && querySpec.offset() == null
+               && querySpec.groupBy().isEmpty()
+               && !querySpec.hasAggregates()
+               && !querySpec.where().noMatch();
+    }
+
+    private static boolean isSmallerAndFiltered(QueriedTable<?> build, QueriedTable<?> probe, TableStats tableStats) {
+        WhereClause buildWhere = build.where();
+        if (!buildWhere.hasQuery() || SymbolVisitors.any(s -> s instanceof SelectSymbol, buildWhere.query())) {
+            return false;
+        }
+        long buildRows = tableStats.numDocs(build.tableRelation().tableInfo().ident());
+        long probeRows = tableStats.numDocs(probe.tableRelation().tableInfo().ident());
+        return buildRows >= 0 && probeRows > buildRows;
+    }
+
+    @Nullable
+    private static Reference resolveReference(Symbol joinKey, QueriedRelation relation) {
+        if (!(joinKey instanceof Field)) {
+            return null;
+        }
+        Symbol output = relation.outputs().get(((Field) joinKey).index());
+        return output instanceof Reference ? (Reference) output : null;
+    }
+
+    private static QueriedRelation addKeyRangeFilter(QueriedTable<?> probe,
+                                                     Reference probeKey,
+                                                     QueriedTable<?> build,
+                                                     Reference buildKey,
+                                                     Functions functions) {
+        DataType keyType = probeKey.valueType();
+        Symbol keyBounds = keyBounds(build, buildKey, functions);
+        Symbol keyRange = AndOperator.of(
+            compare(GteOperator.NAME, probeKey, element(keyBounds, 1, keyType, functions), keyType, functions),
+            compare(LteOperator.NAME, probeKey, element(keyBounds, 2, keyType, functions), keyType, functions)
+        );
+        WhereClause where = probe.where();
+        WhereClause newWhere = new WhereClause(
+            where.hasQuery() ? AndOperator.of(where.query(), keyRange) : keyRange,
+            where.partitions(),
+            where.clusteredBy()
+        );
+        QuerySpec querySpec = probe.querySpec().copyAndReplace(s -> s).where(newWhere);
+        return new QueriedTable<>(probe.tableRelation(), Lists2.copyAndReplace(probe.fields(), Field::path), querySpec);
+    }
+
+    /**
+     * @return a sub-select computing both bounds of the build side keys in a single scan: {@code [min(key), max(key)]}
+     */
+    private static Symbol keyBounds(QueriedTable<?> build, Reference buildKey, Functions functions) {
+        DataType keyType = buildKey.valueType();
+        List<Symbol> keyArgs = Collections.singletonList(buildKey);
+        List<DataType> keyTypes = Collections.singletonList(keyType);
+        Function bounds = new Function(
+            functions.getBuiltin(ArrayFunction.NAME, Arrays.asList(keyType, keyType)).info(),
+            Arrays.asList(
+                new Function(functions.getBuiltin(MinimumAggregation.NAME, keyTypes).info(), keyArgs),
+                new Function(functions.getBuiltin(MaximumAggregation.NAME, keyTypes).info(), keyArgs)
+            ));
+        QuerySpec querySpec = new QuerySpec()
+            .outputs(Collections.singletonList(bounds))
+            .where(build.where())
+            .hasAggregates(true);
+        QueriedTable<?> subRelation = new QueriedTable<>(build.tableRelation(), querySpec);
+        return new SelectSymbol(
+            subRelation, new ArrayType(new ArrayType(keyType)), SelectSymbol.ResultType.SINGLE_COLUMN_SINGLE_VALUE);
+    }
+
+    private static Symbol element(Symbol array, int position, DataType type, Functions functions) {
+        return new Function(
+            functions.getBuiltin(SubscriptFunction.NAME, Arrays.asList(new ArrayType(type), DataTypes.INTEGER)).info(),
+            Arrays.asList(array, Literal.of(position)));
+    }
+
+    private static Symbol compare(String operator, Symbol left, Symbol right, DataType type, Functions functions) {
+        List<Symbol> args = Arrays.asList(left, right);
+        return new Function(functions.getBuiltin(operator, Arrays.asList(type, type)).info(), args);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.analyze.OrderBy;
+import io.crate.analyze.WindowDefinition;
+import io.crate.collections.Lists2;
+import io.crate.data.Row;
+import io.crate.execution.dsl.phases.ExecutionPhases;
+import io.crate.execution.dsl.phases.MergePhase;
+import io.crate.execution.dsl.projection.OrderedTopNProjection;
+import io.crate.execution.dsl.projection.Projection;
+import io.crate.execution.dsl.projection.WindowAggProjection;
+import io.crate.execution.dsl.projection.builder.InputColumns;
+import io.crate.execution.dsl.projection.builder.ProjectionBuilder;
+import io.crate.execution.engine.pipeline.TopN;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Symbol;
+import io.crate.expression.symbol.WindowFunction;
+import io.crate.planner.ExecutionPlan;
+import io.crate.planner.Merge;
+import io.crate.planner.PlannerContext;
+import io.crate.planner.ResultDescription;
+import io.crate.planner.distribution.DistributionInfo;
+import io.crate.planner.distribution.DistributionType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static io.crate.planner.operators.LogicalPlanner.NO_LIMIT;
+import static io.crate.planner.operators.LogicalPlanner.extractColumns;
+
+/**
+ * Evaluates window functions which share the same {@link WindowDefinition}.
+ * <p>
+ * The rows are sorted by the partition keys and the ORDER BY of the window definition and the window functions
+ * are evaluated one partition at a time. If the window definition contains a PARTITION BY, the rows are
+ * distributed by the first partition key so that the partitions are evaluated in parallel on all involved nodes.
+ */
+class WindowAgg extends OneInputPlan {
+
+    private static final String DISTRIBUTED_WINDOW_PHASE_NAME = "distributed window";
+
+    final WindowDefinition windowDefinition;
+    final List<WindowFunction> windowFunctions;
+
+    /**
+     * Creates one WindowAgg per distinct window definition of the window functions.
+     */
+    static LogicalPlan.Builder create(LogicalPlan.Builder source, List<WindowFunction> windowFunctions) {
+        if (windowFunctions.isEmpty()) {
+            return source;
+        }
+        Map<WindowDefinition, List<WindowFunction>> functionsByDefinition = new LinkedHashMap<>();
+        for (WindowFunction windowFunction : windowFunctions) {
+            functionsByDefinition
+                .computeIfAbsent(windowFunction.windowDefinition(), k -> new ArrayList<>())
+                .add(windowFunction);
+        }
+        LogicalPlan.Builder lastBuilder = source;
+        for (Map.Entry<WindowDefinition, List<WindowFunction>> entry : functionsByDefinition.entrySet()) {
+            LogicalPlan.Builder sourceBuilder = lastBuilder;
+            WindowDefinition windowDefinition = entry.getKey();
+            List<WindowFunction> functions = entry.getValue();
+            lastBuilder = (tableStats, usedColumns) -> {
+                Set<Symbol> allUsedColumns = new LinkedHashSet<>();
+                allUsedColumns.addAll(extractColumns(functions));
+                allUsedColumns.addAll(usedColumns);
+                return new WindowAgg(sourceBuilder.build(tableStats, allUsedColumns), windowDefinition, functions);
+            };
+        }
+        return lastBuilder;
+    }
+
+    private WindowAgg(LogicalPlan source, WindowDefinition windowDefinition, List<WindowFunction> windowFunctions) {
+        super(source, Lists2.concat(source.outputs(), windowFunctions));
+        this.windowDefinition = windowDefinition;
+        this.windowFunctions = windowFunctions;
+    }
+
+    @Override
+    public ExecutionPlan build(PlannerContext plannerContext,
+                               ProjectionBuilder projectionBuilder,
+                               int limit,
+                               int offset,
+                               @Nullable OrderBy order,
+                               @Nullable Integer pageSizeHint,
+                               Row params,
+                               SubQueryResults subQueryResults) {
+        ExecutionPlan executionPlan = source.build(
+            plannerContext, projectionBuilder, NO_LIMIT, 0, null, null, params, subQueryResults);
+        if (executionPlan.resultDescription().hasRemainingLimitOrOffset()) {
+            executionPlan = Merge.ensureOnHandler(executionPlan, plannerContext);
+        }
+        List<Symbol> sourceOutputs = source.outputs();
+        InputColumns.SourceSymbols sourceSymbols = new InputColumns.SourceSymbols(sourceOutputs);
+        SubQueryAndParamBinder binder = new SubQueryAndParamBinder(params, subQueryResults);
+        List<WindowFunction> boundFunctions = new ArrayList<>(windowFunctions.size());
+        for (WindowFunction windowFunction : windowFunctions) {
+            WindowFunction bound = (WindowFunction) binder.apply(windowFunction);
+            boundFunctions.add(new WindowFunction(
+                bound.info(),
+                InputColumns.create(bound.arguments(), sourceSymbols),
+                bound.windowDefinition().map(s -> InputColumns.create(s, sourceSymbols))
+            ));
+        }
+        WindowDefinition boundDefinition = boundFunctions.get(0).windowDefinition();
+        List<Symbol> standalone = InputColumn.fromSymbols(sourceOutputs);
+        WindowAggProjection windowAggProjection = new WindowAggProjection(boundDefinition, standalone, boundFunctions);
+        OrderedTopNProjection sortProjection = createSortProjection(boundDefinition, standalone);
+
+        ResultDescription resultDescription = executionPlan.resultDescription();
+        int distributeByColumn = windowDefinition.partitions().isEmpty()
+            ? -1
+            : sourceOutputs.indexOf(windowDefinition.partitions().get(0));
+        if (distributeByColumn == -1
+            || ExecutionPhases.executesOnHandler(plannerContext.handlerNode(), resultDescription.nodeIds())) {
+            executionPlan = Merge.ensureOnHandler(executionPlan, plannerContext);
+            if (sortProjection != null) {
+                executionPlan.addProjection(sortProjection);
+            }
+            executionPlan.addProjection(windowAggProjection);
+            return executionPlan;
+        }
+
+        // all rows of a partition end up on the same node; each node sorts and evaluates its partitions
+        executionPlan.setDistributionInfo(new DistributionInfo(DistributionType.MODULO, distributeByColumn));
+        List<Projection> projections = sortProjection == null
+            ? Collections.singletonList(windowAggProjection)
+            : Arrays.asList(sortProjection, windowAggProjection);
+        return new Merge(
+            executionPlan,
+            new MergePhase(
+                plannerContext.jobId(),
+                plannerContext.nextExecutionPhaseId(),
+                DISTRIBUTED_WINDOW_PHASE_NAME,
+                resultDescription.nodeIds().size(),
+                1,
+                resultDescription.nodeIds(),
+                resultDescription.streamOutputs(),
+                projections,
+                DistributionInfo.DEFAULT_BROADCAST,
+                null
+            ),
+            TopN.NO_LIMIT,
+            TopN.NO_OFFSET,
+            this.outputs.size(),
+            TopN.NO_LIMIT,
+            null
+        );
+    }
+
+    @Nullable
+    private static OrderedTopNProjection createSortProjection(WindowDefinition windowDefinition,
+                                                              List<Symbol> standalone) {
+        List<Symbol> partitions = windowDefinition.partitions();
+        OrderBy orderBy = windowDefinition.orderBy();
+        int numOrderBy = orderBy == null ? 0 : orderBy.orderBySymbols().size();
+        if (partitions.isEmpty() && numOrderBy == 0) {
+            return null;
+        }
+        List<Symbol> sortSymbols = new ArrayList<>(partitions.size() + numOrderBy);
+        boolean[] reverseFlags = new boolean[partitions.size() + numOrderBy];
+        Boolean[] nullsFirst = new Boolean[partitions.size() + numOrderBy];
+        sortSymbols.addAll(partitions);
+        if (orderBy != null) {
+            sortSymbols.addAll(orderBy.orderBySymbols());
+            System.arraycopy(orderBy.reverseFlags(), 0, reverseFlags, partitions.size(), numOrderBy);
+            System.arraycopy(orderBy.nullsFirst(), 0, nullsFirst, partitions.size(), numOrderBy);
+        }
+        return new OrderedTopNProjection(
+            TopN.NO_LIMIT,
+            TopN.NO_OFFSET,
+            standalone,
+            sortSymbols,
+            reverseFlags,
+            nullsFirst
+        );
+    }
+
+    @Override
+    protected LogicalPlan updateSource(LogicalPlan newSource, SymbolMapper mapper) {
+        return new WindowAgg(newSource, windowDefinition, windowFunctions);
+    }
+
+    @Override
+    public <C, R> R accept(LogicalPlanVisitor<C, R> visitor, C context) {
+        return visitor.visitWindowAgg(this, context);
+    }
+
+    @Override
+    public String toString() {
+        return "WindowAgg{" +
+               "src=" + source +
+               ", window=" + windowDefinition +
+               ", functions=" + windowFunctions +
+               '}';
+    }
+}
@@ -24,6 +24,7 @@ package io.crate.plugin;
 import io.crate.execution.ddl.DDLStatementDispatcher;
 import io.crate.action.sql.SQLOperations;
 import io.crate.execution.ddl.TransportSchemaUpdateAction;
+import io.crate.execution.engine.indexing.PartitionPreCreationService;
 import io.crate.ingestion.IngestionService;
 import io.crate.metadata.FulltextAnalyzerResolver;
 import io.crate.ingestion.TransportCreateIngestRuleAction;
@@ -51,6 +52,7 @@ public class SQLModule extends AbstractModule {
         bind(Planner.class).asEagerSingleton();
         bind(TableStats.class).asEagerSingleton();
         bind(TableStatsService.class).asEagerSingleton();
+        bind(PartitionPreCreationService.class).asEagerSingleton();
         bind(UserDefinedFunctionService.class).asEagerSingleton();
         bind(TransportCreateUserDefinedFunctionAction.class).asEagerSingleton();
         bind(TransportDropUserDefinedFunctionAction.class).asEagerSingleton();
@@ -118,17 +118,25 @@ public class TransportCreatePartitionsAction
     private final NamedXContentRegistry xContentRegistry;
     private final Environment environment;
     private final BulkActiveShardsObserver activeShardsObserver;
+    /**
+     * Creates the partitions of all pending requests in one cluster state update.
+     * The shards of all new partitions are allocated by a single reroute.
+     */
     private final ClusterStateTaskExecutor<CreatePartitionsRequest> executor = (currentState, tasks) -> {
         ClusterStateTaskExecutor.ClusterTasksResult.Builder<CreatePartitionsRequest> builder = ClusterStateTaskExecutor.ClusterTasksResult.builder();
+        ClusterState newState = currentState;
         for (CreatePartitionsRequest request : tasks) {
             try {
-                currentState = executeCreateIndices(currentState, request);
+                newState = addIndices(newState, request);
                 builder.success(request);
             } catch (Exception e) {
                 builder.failure(request, e);
             }
         }
-        return builder.build(currentState);
+        if (newState != currentState) {
+            newState = allocationService.reroute(newState, "bulk-index-creation");
+        }
+        return builder.build(newState);
     };
 
     @Inject
@@ -197,11 +205,21 @@ public class TransportCreatePartitionsAction
         }, listener::onFailure));
     }
 
+    private ClusterState executeCreateIndices(ClusterState currentState, CreatePartitionsRequest request) throws Exception {
+        ClusterState newState = addIndices(currentState, request);
+        if (newState == currentState) {
+            return currentState;
+        }
+        return allocationService.reroute(newState, "bulk-index-creation");
+    }
+
     /**
      * This code is more or less the same as the stuff in {@link MetaDataCreateIndexService}
      * but optimized for bulk operation without separate mapping/alias/index settings.
+     *
+     * The indices are added to the metadata and routing table, but their shards are not yet allocated.
      */
-    private ClusterState executeCreateIndices(ClusterState currentState, CreatePartitionsRequest request) throws Exception {
+    private ClusterState addIndices(ClusterState currentState, CreatePartitionsRequest request) throws Exception {
         List<String> indicesToCreate = new ArrayList<>(request.indices().size());
         List<String> removalReasons = new ArrayList<>(request.indices().size());
         List<Index> createdIndices = new ArrayList<>(request.indices().size());
@@ -307,9 +325,7 @@ public class TransportCreatePartitionsAction
             for (String index : indicesToCreate) {
                 routingTableBuilder.addAsNew(updatedState.metaData().index(index));
             }
-            updatedState = allocationService.reroute(
-                ClusterState.builder(updatedState).routingTable(routingTableBuilder.build()).build(), "bulk-index-creation");
-            return updatedState;
+            return ClusterState.builder(updatedState).routingTable(routingTableBuilder.build()).build();
         } finally {
             for (int i = 0; i < createdIndices.size(); i++) {
                 // Index was already partially created - need to clean up
@@ -111,6 +111,15 @@ public class BlobTableAnalyzerTest extends CrateDummyClusterServiceUnitTest {
             is("/tmp/crate_blob_data"));
     }
 
+    @Test
+    public void testCreateBlobTableWithPackThreshold() {
+        CreateBlobTableAnalyzedStatement analysis = e.analyze(
+            "create blob table screenshots with (blobs_pack_threshold='64kb')");
+
+        assertThat(analysis.tableParameter().settings().getAsBytesSize(
+            BlobIndicesService.SETTING_INDEX_BLOBS_PACK_THRESHOLD.getKey(), null).getBytes(), is(65536L));
+    }
+
     @Test
     public void testCreateBlobTableWithPathInvalidType() {
         expectedException.expect(IllegalArgumentException.class);
@@ -673,6 +673,31 @@ public class InsertFromValuesAnalyzerTest extends CrateDummyClusterServiceUnitTe
         assertThat((Long) analysis.sourceMaps().get(1)[0], is(2L));
     }
 
+    @Test
+    public void testInsertLiteralsAndParametersConvertedToColumnTypes() throws Exception {
+        InsertFromValuesAnalyzedStatement analysis = e.analyze(
+            "insert into users (id, name, awesome, shorts, floats, date) values " +
+            "(1, 'Arthur', true, -2, -1.5, '2017-03-13'), " +
+            "(?, ?, ?, ?, ?, ?), " +
+            "(3, null, null, 4, 1, 0)",
+            new Object[]{2, "Trillian", false, 3, 2.5, "2017-03-14"});
+        assertThat(analysis.sourceMaps().size(), is(3));
+        assertThat(analysis.sourceMaps().get(0),
+            is(new Object[]{1L, new BytesRef("Arthur"), true, (short) -2, -1.5f, 1489363200000L}));
+        assertThat(analysis.sourceMaps().get(1),
+            is(new Object[]{2L, new BytesRef("Trillian"), false, (short) 3, 2.5f, 1489449600000L}));
+        assertThat(analysis.sourceMaps().get(2),
+            is(new Object[]{3L, null, null, (short) 4, 1.0f, 0L}));
+        assertThat(analysis.ids(), contains("1", "2", "3"));
+    }
+
+    @Test
+    public void testInsertWithLiteralTypeMissMatchInLaterRow() throws Exception {
+        expectedException.expect(ColumnValidationException.class);
+        expectedException.expectMessage("Validation failed for shorts: Cannot cast 'foo' to type short");
+        e.analyze("insert into users (id, shorts) values (1, 1), (2, 'foo')");
+    }
+
     @Test
     public void testInsertWithBulkArgsTypeMissMatch() throws Exception {
         expectedException.expect(ColumnValidationException.class);
@@ -0,0 +1,140 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.analyze;
+
+import io.crate.metadata.ColumnIdent;
+import io.crate.metadata.view.MaterializedViewMetaData;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class MaterializedViewAnalyzerTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void setUpExecutor() throws IOException {
+        e = SQLExecutor.builder(clusterService)
+            .addTable("create table t1 (x int, y long, ts timestamp generated always as current_timestamp, " +
+                      "created timestamp, name string)")
+            .build();
+    }
+
+    @Test
+    public void testCreateMaterializedViewCreatesTableWithGroupKeysAsPrimaryKey() {
+        CreateTableAnalyzedStatement stmt = e.analyze(
+            "create materialized view mv as select x, name, count(*) as cnt from t1 group by x, name");
+
+        assertThat(stmt.tableIdent().name(), is("mv"));
+        assertThat(stmt.primaryKeys(), containsInAnyOrder("x", "name"));
+        MaterializedViewMetaData materializedView = stmt.materializedView();
+        assertThat(materializedView, notNullValue());
+        assertThat(materializedView.isIncremental(), is(false));
+        assertThat(stmt.hasColumnDefinition(new ColumnIdent(MaterializedViewMetaData.WATERMARK_COLUMN)),
+            is(false));
+    }
+
+    @Test
+    public void testCreateIncrementalMaterializedViewAddsWatermarkColumn() {
+        CreateTableAnalyzedStatement stmt = e.analyze(
+            "create materialized view mv with (incremental_column = 'ts') as " +
+            "select x, sum(y) as s, max(y) as m from t1 group by x");
+
+        MaterializedViewMetaData materializedView = stmt.materializedView();
+        assertThat(materializedView.isIncremental(), is(true));
+        assertThat(materializedView.incrementalColumn(), is("ts"));
+        assertThat(materializedView.incrementalDelay(), is(MaterializedViewMetaData.DEFAULT_INCREMENTAL_DELAY));
+        assertThat(stmt.hasColumnDefinition(new ColumnIdent(MaterializedViewMetaData.WATERMARK_COLUMN)),
+            is(true));
+    }
+
+    @Test
+    public void testMaterializedViewRequiresGroupBy() {
+        expectedException.expect(UnsupportedOperationException.class);
+        expectedException.expectMessage("The query of a materialized view must contain a GROUP BY clause");
+        e.analyze("create materialized view mv as select x from t1");
+    }
+
+    @Test
+    public void testGroupKeysMustBeSelected() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("GROUP BY expression 'name' must be part of the outputs of a materialized view");
+        e.analyze("create materialized view mv as select x, count(*) as cnt from t1 group by x, name");
+    }
+
+    @Test
+    public void testIncrementalMaterializedViewRejectsNonMergeableAggregates() {
+        expectedException.expect(UnsupportedOperationException.class);
+        expectedException.expectMessage("'a' cannot be refreshed incrementally");
+        e.analyze("create materialized view mv with (incremental_column = 'ts') as " +
+                  "select x, avg(y) as a from t1 group by x");
+    }
+
+    @Test
+    public void testIncrementalColumnMustExist() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Incremental column 'missing' does not exist in table 'doc.t1'");
+        e.analyze("create materialized view mv with (incremental_column = 'missing') as " +
+                  "select x, count(*) as cnt from t1 group by x");
+    }
+
+    @Test
+    public void testIncrementalColumnMustBeAssignedOnInsert() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage(
+            "Incremental column 'created' must be a column generated always as CURRENT_TIMESTAMP");
+        e.analyze("create materialized view mv with (incremental_column = 'created') as " +
+                  "select x, count(*) as cnt from t1 group by x");
+    }
+
+    @Test
+    public void testCreateIncrementalMaterializedViewWithDelay() {
+        CreateTableAnalyzedStatement stmt = e.analyze(
+            "create materialized view mv with (incremental_column = 'ts', incremental_delay = '2m') as " +
+            "select x, count(*) as cnt from t1 group by x");
+
+        assertThat(stmt.materializedView().incrementalDelay(), is(120_000L));
+    }
+
+    @Test
+    public void testIncrementalDelayRequiresIncrementalColumn() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("'incremental_delay' requires 'incremental_column' to be set");
+        e.analyze("create materialized view mv with (incremental_delay = '2m') as " +
+                  "select x, count(*) as cnt from t1 group by x");
+    }
+
+    @Test
+    public void testRefreshOfRegularTableIsRejected() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Relation 'doc.t1' is not a materialized view");
+        e.analyze("refresh materialized view t1");
+    }
+}
@@ -93,7 +93,8 @@ public class MetaDataToASTNodeResolverTest extends CrateUnitTest {
                 Version.CURRENT,
                 null,
                 false,
-                Operation.ALL);
+                Operation.ALL,
+                null);
         }
     }
 
@@ -50,6 +50,7 @@ import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
 import io.crate.expression.symbol.SymbolType;
+import io.crate.expression.symbol.WindowFunction;
 import io.crate.expression.udf.UserDefinedFunctionService;
 import io.crate.metadata.FunctionInfo;
 import io.crate.metadata.Functions;
@@ -1941,4 +1942,54 @@ public class SelectStatementAnalyzerTest extends CrateDummyClusterServiceUnitTes
         expectedException.expectMessage("Relation 'doc.a' unknown");
         analyze("select doc.a.x from t1 as a");
     }
+    @Test
+    public void testWindowFunctionInSelectList() {
+        QueriedRelation relation = analyze(
+            "select name, row_number() over (partition by id order by name) from users");
+        Symbol windowFunction = relation.querySpec().outputs().get(1);
+        assertThat(windowFunction, instanceOf(WindowFunction.class));
+        assertThat(((WindowFunction) windowFunction).windowDefinition().partitions(), contains(isReference("id")));
+        assertThat(relation.querySpec().hasWindowFunctions(), is(true));
+    }
+
+    @Test
+    public void testAggregateFunctionCanBeUsedAsWindowFunction() {
+        QueriedRelation relation = analyze("select sum(id) over (order by name) from users");
+        assertThat(relation.querySpec().outputs().get(0), instanceOf(WindowFunction.class));
+        assertThat(relation.querySpec().hasAggregates(), is(false));
+    }
+
+    @Test
+    public void testWindowFunctionsAreNotAllowedInWhereClause() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Window functions are not allowed in WHERE");
+        analyze("select name from users where row_number() over () > 1");
+    }
+
+    @Test
+    public void testWindowFunctionRequiresOverClause() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Window function row_number requires an OVER clause");
+        analyze("select row_number() from users");
+    }
+
+    @Test
+    public void testRangeFrameWithOffsetIsNotSupported() {
+        expectedException.expect(UnsupportedFeatureException.class);
+        analyze("select sum(id) over (order by id range between 1 preceding and current row) from users");
+    }
+
+    @Test
+    public void testNegativeFrameOffsetIsNotAllowed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Frame offset must not be negative");
+        analyze("select sum(id) over (order by id rows between -1 preceding and current row) from users");
+    }
+
+    @Test
+    public void testNullFrameOffsetIsNotAllowed() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("Frame offset must not be NULL");
+        analyze("select sum(id) over (order by id rows between null preceding and current row) from users");
+    }
 }
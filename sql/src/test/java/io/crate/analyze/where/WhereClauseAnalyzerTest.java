@@ -293,6 +293,20 @@ public class WhereClauseAnalyzerTest extends CrateDummyClusterServiceUnitTest {
         assertTrue(whereClause.hasQuery());
         assertFalse(whereClause.noMatch());
 
+        whereClause = analyzeSelectWhere("select id, name from parted where date > 1395874800000 and date <= 1395961200000");
+        assertEquals(ImmutableList.of(partition2), whereClause.partitions());
+        assertFalse(whereClause.hasQuery());
+        assertFalse(whereClause.noMatch());
+
+        whereClause = analyzeSelectWhere("select id, name from parted where 1395961200000 <= date and id = 1");
+        assertEquals(ImmutableList.of(partition2), whereClause.partitions());
+        assertTrue(whereClause.hasQuery());
+        assertFalse(whereClause.noMatch());
+
+        whereClause = analyzeSelectWhere("select id, name from parted where date > 1395961200000 and id = 1");
+        assertEquals(ImmutableList.of(), whereClause.partitions());
+        assertTrue(whereClause.noMatch());
+
         whereClause = analyzeSelectWhere("select id, name from parted where date is null and id = 1");
         assertEquals(ImmutableList.of(partition3), whereClause.partitions());
         assertTrue(whereClause.hasQuery());
@@ -62,6 +62,7 @@ import org.elasticsearch.index.VersionType;
 import org.elasticsearch.index.engine.VersionConflictEngineException;
 import org.elasticsearch.index.mapper.ContentPath;
 import org.elasticsearch.index.mapper.Mapper;
+import org.elasticsearch.index.mapper.Mapping;
 import org.elasticsearch.index.mapper.ObjectMapper;
 import org.elasticsearch.index.mapper.SourceToParse;
 import org.elasticsearch.index.shard.IndexShard;
@@ -136,7 +137,8 @@ public class TransportShardUpsertActionTest extends CrateDummyClusterServiceUnit
                                               IndexShard indexShard,
                                               boolean tryInsertFirst,
                                               Collection<ColumnIdent> notUsedNonGeneratedColumns,
-                                              boolean isRetry) throws ElasticsearchException {
+                                              boolean isRetry,
+                                              Consumer<Mapping> onMappingUpdate) throws ElasticsearchException {
             throw new VersionConflictEngineException(
                 indexShard.shardId(),
                 request.type(),
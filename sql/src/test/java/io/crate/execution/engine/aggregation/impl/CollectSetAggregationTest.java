@@ -22,19 +22,24 @@
 package io.crate.execution.engine.aggregation.impl;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.breaker.RamAccountingContext;
 import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.expression.symbol.Literal;
 import io.crate.operation.aggregation.AggregationTest;
 import io.crate.types.DataType;
 import io.crate.types.DataTypes;
 import io.crate.types.SetType;
 import org.apache.lucene.util.BytesRef;
 import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.util.BigArrays;
 import org.junit.Test;
 
 import java.util.Set;
 
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
 
 public class CollectSetAggregationTest extends AggregationTest {
@@ -136,4 +141,69 @@ public class CollectSetAggregationTest extends AggregationTest {
         assertEquals(2, ((Set) result[0][0]).size());
         assertFalse(((Set) result[0][0]).contains(null));
     }
+
+    private Object streamPartialState(AggregationFunction impl, Object state) throws Exception {
+        BytesStreamOutput streamOutput = new BytesStreamOutput();
+        impl.partialType().streamer().writeValueTo(streamOutput, state);
+        return impl.partialType().streamer().readValueFrom(streamOutput.bytes().streamInput());
+    }
+
+    @Test
+    public void testPrimitiveStatesAreStreamedAndReduced() throws Exception {
+        for (DataType type : ImmutableList.of(DataTypes.BYTE, DataTypes.SHORT, DataTypes.INTEGER, DataTypes.LONG,
+                                              DataTypes.TIMESTAMP, DataTypes.STRING, DataTypes.IP)) {
+            AggregationFunction impl
+                = (AggregationFunction) functions.getBuiltin("collect_set", ImmutableList.of(type));
+            assertThat(impl.partialType(), is(new SetType(type)));
+
+            Object state1 = impl.newState(ramAccountingContext, Version.CURRENT, BigArrays.NON_RECYCLING_INSTANCE);
+            Object state2 = impl.newState(ramAccountingContext, Version.CURRENT, BigArrays.NON_RECYCLING_INSTANCE);
+            Object[] values = type.equals(DataTypes.IP)
+                ? new Object[]{new BytesRef("127.0.0.1"), new BytesRef("10.0.0.1"), new BytesRef("::1")}
+                : new Object[]{type.value(-3), type.value(0), type.value(100)};
+            impl.iterate(ramAccountingContext, state1, Literal.of(type, values[0]));
+            impl.iterate(ramAccountingContext, state1, Literal.of(type, values[1]));
+            impl.iterate(ramAccountingContext, state2, Literal.of(type, values[1]));
+            impl.iterate(ramAccountingContext, state2, Literal.of(type, values[2]));
+
+            Object reduced = impl.reduce(
+                ramAccountingContext, streamPartialState(impl, state1), streamPartialState(impl, state2));
+            Set result = (Set) impl.terminatePartial(ramAccountingContext, reduced);
+
+            assertThat(result.size(), is(3));
+            assertThat((Iterable<Object>) result, containsInAnyOrder(values));
+
+            // a partial set from another node is merged into the local primitive state
+            Object mixed = impl.reduce(ramAccountingContext, state1, streamPartialState(impl, state2));
+            assertThat(mixed, instanceOf(PrimitiveSetState.class));
+            assertThat((Iterable<Object>) mixed, containsInAnyOrder(values));
+        }
+    }
+
+    @Test
+    public void testManyStringsAreAddedOnlyOnce() throws Exception {
+        Object[][] data = new Object[20_000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new Object[]{new BytesRef("value" + (i % 5_000))};
+        }
+        Set result = (Set) executeAggregation(DataTypes.STRING, data)[0][0];
+
+        assertThat(result.size(), is(5_000));
+        assertTrue(result.contains(new BytesRef("value0")));
+        assertTrue(result.contains(new BytesRef("value4999")));
+        assertFalse(result.contains(new BytesRef("value5000")));
+    }
+
+    @Test
+    public void testMemoryOfPrimitiveStateIsAccountedExactly() throws Exception {
+        AggregationFunction impl
+            = (AggregationFunction) functions.getBuiltin("collect_set", ImmutableList.of(DataTypes.STRING));
+        RamAccountingContext memoryCtx = new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+
+        Object state = impl.newState(memoryCtx, Version.CURRENT, BigArrays.NON_RECYCLING_INSTANCE);
+        for (int i = 0; i < 1_000; i++) {
+            impl.iterate(memoryCtx, state, Literal.of(DataTypes.STRING, new BytesRef("value" + i)));
+        }
+        assertThat(memoryCtx.totalBytes(), is(((PrimitiveSetState) state).ramBytesUsed()));
+    }
 }
@@ -56,6 +56,10 @@ public class PercentileAggregationTest extends AggregationTest {
         return executeAggregation(name, valueType, rows, ImmutableList.of(valueType, new ArrayType(DataTypes.DOUBLE)));
     }
 
+    private Object[][] execSketchPercentile(DataType valueType, DataType fractionType, Object[][] rows) throws Exception {
+        return executeAggregation(NAME, valueType, rows, ImmutableList.of(valueType, fractionType, DataTypes.DOUBLE));
+    }
+
     @Test
     public void testReturnTypes() throws Exception {
         assertEquals(DataTypes.DOUBLE,
@@ -200,4 +204,40 @@ public class PercentileAggregationTest extends AggregationTest {
 
         assertThat("result must be an array", result.getClass().isArray(), is(true));
     }
+
+    @Test
+    public void testSketchPercentileIsWithinRelativeAccuracy() throws Exception {
+        Object[][] rows = new Object[1000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{(long) i + 1, new Double[]{0.5, 0.99}, 0.01};
+        }
+        Object[][] result = execSketchPercentile(DataTypes.LONG, new ArrayType(DataTypes.DOUBLE), rows);
+        Object[] percentiles = (Object[]) result[0][0];
+        assertEquals(500.0, (double) percentiles[0], 5.0);
+        assertEquals(990.0, (double) percentiles[1], 9.9);
+    }
+
+    @Test
+    public void testSketchPercentileWithSingleFraction() throws Exception {
+        Object[][] result = execSketchPercentile(DataTypes.INTEGER, DataTypes.DOUBLE, new Object[][]{
+            {-10, 0.5, 0.02},
+            {null, 0.5, 0.02},
+            {-20, 0.5, 0.02},
+            {-30, 0.5, 0.02}
+        });
+        assertEquals(-20.0, (double) result[0][0], 0.4);
+    }
+
+    @Test
+    public void testSketchPercentileWithoutRowsReturnsNull() throws Exception {
+        Object[][] result = execSketchPercentile(DataTypes.INTEGER, DataTypes.DOUBLE, new Object[][]{});
+        assertThat(result[0][0], is(nullValue()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSketchPercentileWithInvalidAccuracy() throws Exception {
+        execSketchPercentile(DataTypes.INTEGER, DataTypes.DOUBLE, new Object[][]{
+            {1, 0.5, 1.5}
+        });
+    }
 }
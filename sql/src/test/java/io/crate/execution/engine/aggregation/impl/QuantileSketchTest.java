@@ -0,0 +1,110 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+
+package io.crate.execution.engine.aggregation.impl;
+
+import io.crate.Streamer;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
+import org.elasticsearch.common.io.stream.StreamInput;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testQuantilesAreWithinRelativeAccuracy() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.init(0.01, new double[]{0.5});
+        for (int i = 1; i <= 100_000; i++) {
+            sketch.add(i);
+        }
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.75, 0.99, 1.0}) {
+            double expected = Math.ceil(q * 99_999) + 1;
+            assertEquals(expected, sketch.quantile(q), expected * 0.01);
+        }
+    }
+
+    @Test
+    public void testMergeEqualsAddingAllValues() {
+        QuantileSketch sketch1 = new QuantileSketch();
+        sketch1.init(0.02, new double[]{0.5});
+        QuantileSketch sketch2 = new QuantileSketch();
+        sketch2.init(0.02, new double[]{0.5});
+        QuantileSketch all = new QuantileSketch();
+        all.init(0.02, new double[]{0.5});
+        for (int i = -500; i < 500; i++) {
+            (i % 2 == 0 ? sketch1 : sketch2).add(i * 1.5);
+            all.add(i * 1.5);
+        }
+        sketch1.merge(sketch2);
+
+        assertThat(sketch1.count(), is(all.count()));
+        for (double q : new double[]{0.0, 0.1, 0.5, 0.9, 1.0}) {
+            assertThat(sketch1.quantile(q), is(all.quantile(q)));
+        }
+    }
+
+    @Test
+    public void testRelativeAccuracyBelowLowerBoundIsRejected() {
+        QuantileSketch sketch = new QuantileSketch();
+        try {
+            sketch.init(1e-5, new double[]{0.5});
+            fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("relative accuracy must be at least 1.0E-4 and less than 1, got 1.0E-5"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeWithDifferentAccuracyFails() {
+        QuantileSketch sketch1 = new QuantileSketch();
+        sketch1.init(0.01, new double[]{0.5});
+        QuantileSketch sketch2 = new QuantileSketch();
+        sketch2.init(0.02, new double[]{0.5});
+        sketch1.merge(sketch2);
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        QuantileSketch sketch1 = new QuantileSketch();
+        sketch1.init(0.01, new double[]{0.5, 0.8});
+        for (int i = -100; i < 1000; i++) {
+            sketch1.add(i);
+        }
+        BytesStreamOutput out = new BytesStreamOutput();
+        Streamer streamer = QuantileSketchType.INSTANCE.streamer();
+        streamer.writeValueTo(out, sketch1);
+        StreamInput in = out.bytes().streamInput();
+        QuantileSketch sketch2 = (QuantileSketch) streamer.readValueFrom(in);
+
+        assertThat(sketch2.relativeAccuracy(), is(sketch1.relativeAccuracy()));
+        assertThat(sketch2.fractions(), is(sketch1.fractions()));
+        assertThat(sketch2.count(), is(sketch1.count()));
+        assertThat(sketch2.quantile(0.5), is(sketch1.quantile(0.5)));
+        assertThat(sketch2.quantile(0.8), is(sketch1.quantile(0.8)));
+    }
+}
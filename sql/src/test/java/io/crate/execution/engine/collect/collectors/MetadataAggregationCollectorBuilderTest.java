@@ -0,0 +1,227 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.crate.analyze.relations.TableRelation;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.Row;
+import io.crate.execution.engine.aggregation.AggregationContext;
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.aggregation.impl.MaximumAggregation;
+import io.crate.execution.engine.aggregation.impl.MinimumAggregation;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.InputFactory;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.IntegerColumnReference;
+import io.crate.expression.symbol.Aggregation;
+import io.crate.expression.symbol.InputColumn;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.lucene.FieldTypeLookup;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.FunctionInfo;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Schemas;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.TestingTableInfo;
+import io.crate.sql.tree.QualifiedName;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.SqlExpressions;
+import io.crate.testing.TestingRowConsumer;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.SortedNumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.hasToString;
+import static org.hamcrest.Matchers.is;
+
+public class MetadataAggregationCollectorBuilderTest extends CrateUnitTest {
+
+    private SqlExpressions expressions;
+    private FieldTypeLookup fieldTypeLookup;
+    private RAMDirectory directory;
+    private DirectoryReader reader;
+    private List<Symbol> toCollect;
+
+    @Before
+    public void prepare() throws Exception {
+        DocTableInfo table = TestingTableInfo.builder(new RelationName(Schemas.DOC_SCHEMA_NAME, "t"), null)
+            .add("x", DataTypes.INTEGER)
+            .add("tenant", DataTypes.STRING)
+            .build();
+        TableRelation relation = new TableRelation(table);
+        expressions = new SqlExpressions(ImmutableMap.of(new QualifiedName("t"), relation), relation);
+        toCollect = ImmutableList.of(expressions.normalize(expressions.asSymbol("x")));
+
+        Map<String, MappedFieldType> fieldTypes = new HashMap<>();
+        MappedFieldType x = new NumberFieldMapper.NumberFieldType(NumberFieldMapper.NumberType.INTEGER);
+        x.setName("x");
+        x.setIndexOptions(IndexOptions.DOCS);
+        fieldTypes.put("x", x);
+        MappedFieldType tenant = new KeywordFieldMapper.KeywordFieldType();
+        tenant.setName("tenant");
+        tenant.setIndexOptions(IndexOptions.DOCS);
+        fieldTypes.put("tenant", tenant);
+        fieldTypeLookup = fieldTypes::get;
+
+        // three segments: x in [0, 9] of tenant a, x in [100, 109] of tenant a and b,
+        // x in [1000, 1001] of tenant c with a deleted document holding the smallest value
+        directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory,
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+        for (int i = 0; i < 10; i++) {
+            writer.addDocument(doc(i, "a"));
+        }
+        writer.commit();
+        for (int i = 100; i < 110; i++) {
+            writer.addDocument(doc(i, i % 2 == 0 ? "a" : "b"));
+        }
+        writer.commit();
+        writer.addDocument(doc(1000, "c"));
+        writer.addDocument(doc(1001, "c"));
+        writer.addDocument(doc(-5, "c"));
+        writer.commit();
+        writer.deleteDocuments(new Term("id", "-5"));
+        writer.commit();
+        writer.close();
+        reader = DirectoryReader.open(directory);
+        assertThat(reader.leaves().size(), is(3));
+    }
+
+    @After
+    public void closeReader() throws Exception {
+        reader.close();
+        directory.close();
+    }
+
+    private static Document doc(int x, String tenant) {
+        Document doc = new Document();
+        doc.add(new IntPoint("x", x));
+        doc.add(new SortedNumericDocValuesField("x", x));
+        doc.add(new StringField("tenant", tenant, Field.Store.NO));
+        doc.add(new StringField("id", String.valueOf(x), Field.Store.NO));
+        return doc;
+    }
+
+    private static Aggregation aggregation(String name) {
+        FunctionInfo info = new FunctionInfo(
+            new FunctionIdent(name, ImmutableList.of(DataTypes.INTEGER)), DataTypes.INTEGER, FunctionInfo.Type.AGGREGATE);
+        return new Aggregation(info, DataTypes.INTEGER, ImmutableList.<Symbol>of(new InputColumn(0, DataTypes.INTEGER)));
+    }
+
+    private static Aggregation countStar() {
+        return new Aggregation(CountAggregation.COUNT_STAR_FUNCTION, DataTypes.LONG, Collections.emptyList());
+    }
+
+    private Object[] collect(String where, Query query, Aggregation... aggregations) throws Exception {
+        List<Aggregation> aggregationList = ImmutableList.copyOf(aggregations);
+        Symbol whereSymbol = where == null ? Literal.BOOLEAN_TRUE : expressions.normalize(expressions.asSymbol(where));
+        IndexMetadataAggregations metadataAggregations =
+            IndexMetadataAggregations.of(toCollect, aggregationList, whereSymbol, fieldTypeLookup);
+
+        InputFactory.Context<CollectExpression<Row, ?>> aggregationCtx =
+            new InputFactory(getFunctions()).ctxForAggregations();
+        aggregationCtx.add(aggregationList);
+        IntegerColumnReference xReference = new IntegerColumnReference("x");
+        MetadataAggregationCollectorBuilder builder = new MetadataAggregationCollectorBuilder(
+            new IndexSearcher(reader),
+            query,
+            metadataAggregations,
+            new CollectorContext(mappedFieldType -> null, new CollectorFieldsVisitor(0)),
+            new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy")),
+            Collections.singletonList(xReference),
+            Collections.singletonList(xReference),
+            aggregationCtx.expressions(),
+            aggregationCtx.aggregations().toArray(new AggregationContext[0]),
+            Version.CURRENT,
+            BigArrays.NON_RECYCLING_INSTANCE
+        );
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        builder.build(consumer).doCollect();
+        List<Object[]> result = consumer.getResult();
+        assertThat(result.size(), is(1));
+        return result.get(0);
+    }
+
+    @Test
+    public void testSegmentStatesAreMergedWithScannedSegmentWithDeletions() throws Exception {
+        Object[] states = collect(
+            null,
+            new MatchAllDocsQuery(),
+            aggregation(MinimumAggregation.NAME),
+            aggregation(MaximumAggregation.NAME),
+            countStar());
+
+        // the deleted document is still part of the point values of the last segment, so it must be scanned;
+        // the other segments are only merged from their metadata and not scanned as well
+        assertThat(states[0], hasToString("0"));
+        assertThat(states[1], hasToString("1001"));
+        assertThat(states[2], hasToString("22"));
+    }
+
+    @Test
+    public void testOnlySegmentsWithPartialTermMatchesAreScanned() throws Exception {
+        Object[] states = collect(
+            "tenant = 'a'",
+            new TermQuery(new Term("tenant", "a")),
+            aggregation(MinimumAggregation.NAME),
+            aggregation(MaximumAggregation.NAME),
+            countStar());
+
+        assertThat(states[0], hasToString("0"));
+        assertThat(states[1], hasToString("108"));
+        assertThat(states[2], hasToString("15"));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.collectors;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.data.BatchIterator;
+import io.crate.data.BatchIterators;
+import io.crate.data.CollectingBatchIterator;
+import io.crate.data.Input;
+import io.crate.data.Row;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.execution.engine.aggregation.impl.CountAggregation;
+import io.crate.execution.engine.collect.CollectExpression;
+import io.crate.expression.reference.doc.lucene.CollectorContext;
+import io.crate.expression.reference.doc.lucene.OrdinalsColumnReference;
+import io.crate.expression.symbol.AggregateMode;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.SortedSetDocValuesField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.store.RAMDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.util.BigArrays;
+import org.elasticsearch.index.IndexService;
+import org.elasticsearch.index.fielddata.IndexFieldDataService;
+import org.elasticsearch.index.mapper.KeywordFieldMapper;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.test.ESSingleNodeTestCase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+
+public class OrdinalsGroupingCollectorTest extends ESSingleNodeTestCase {
+
+    private IndexFieldDataService ifd;
+    private IndexWriter writer;
+    private DirectoryReader reader;
+
+    @Before
+    public void prepare() throws Exception {
+        Settings settings = Settings.builder().put("index.fielddata.cache", "none").build();
+        IndexService indexService = createIndex("test", settings);
+        ifd = indexService.fieldData();
+        writer = new IndexWriter(new RAMDirectory(),
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+
+        // the keys of both segments overlap, so their ordinals differ for the same value
+        addDocuments("a", "b", "a", null);
+        addDocuments("b", "c", "d");
+        reader = DirectoryReader.open(writer);
+        assertThat(reader.leaves().size(), is(2));
+    }
+
+    private void addDocuments(String... keys) throws Exception {
+        for (String key : keys) {
+            Document doc = new Document();
+            if (key != null) {
+                doc.add(new SortedSetDocValuesField("k", new BytesRef(key)));
+            }
+            writer.addDocument(doc);
+        }
+        writer.commit();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        reader.close();
+        writer.close();
+        writer.getDirectory().close();
+        ifd.clear();
+    }
+
+    @Test
+    public void testGroupByOrdinalsMergesSegments() throws Exception {
+        MappedFieldType fieldType = KeywordFieldMapper.Defaults.FIELD_TYPE.clone();
+        fieldType.setHasDocValues(true);
+        fieldType.setName("k");
+        OrdinalsColumnReference keyExpression = new OrdinalsColumnReference("k", fieldType);
+        RamAccountingContext ramAccountingContext = new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+        AggregationFunction count = (AggregationFunction) getFunctions().getQualified(
+            CountAggregation.COUNT_STAR_FUNCTION.ident());
+
+        OrdinalsGroupingCollector collector = new OrdinalsGroupingCollector(
+            keyExpression,
+            new CollectExpression[0],
+            new AggregationFunction[] { count },
+            AggregateMode.ITER_FINAL,
+            new Input[][] { new Input[0] },
+            ramAccountingContext,
+            Version.CURRENT,
+            BigArrays.NON_RECYCLING_INSTANCE
+        );
+        BatchIterator<Row> batchIterator = new LuceneBatchIterator(
+            new IndexSearcher(reader),
+            new MatchAllDocsQuery(),
+            null,
+            false,
+            new CollectorContext(ifd::getForField, new CollectorFieldsVisitor(0)),
+            ramAccountingContext,
+            Collections.emptyList(),
+            Collections.singletonList(keyExpression)
+        );
+        List<Object[]> rows = BatchIterators.collect(
+            CollectingBatchIterator.newInstance(batchIterator, collector),
+            Collectors.mapping(Row::materialize, Collectors.toList())
+        ).get(10, TimeUnit.SECONDS);
+
+        assertThat(rows, containsInAnyOrder(
+            new Object[] { new BytesRef("a"), 2L },
+            new Object[] { new BytesRef("b"), 2L },
+            new Object[] { new BytesRef("c"), 1L },
+            new Object[] { new BytesRef("d"), 1L },
+            new Object[] { null, 1L }
+        ));
+    }
+}
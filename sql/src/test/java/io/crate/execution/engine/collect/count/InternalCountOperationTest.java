@@ -67,4 +67,49 @@ public class InternalCountOperationTest extends SQLTransportIntegrationTest {
         Symbol filter = sqlExpressions.normalize(sqlExpressions.asSymbol("name = 'Marvin'"));
         assertThat(countOperation.count(index, 0, filter), is(1L));
     }
+
+    @Test
+    public void testCountTermWithDeletedDocs() throws Exception {
+        execute("create table t (name string) clustered into 1 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into t (name) values ('Marvin'), ('Marvin'), ('Arthur')");
+        execute("refresh table t");
+        execute("delete from t where name = 'Arthur'");
+        execute("refresh table t");
+
+        CountOperation countOperation = internalCluster().getDataNodeInstance(CountOperation.class);
+        ClusterService clusterService = internalCluster().getDataNodeInstance(ClusterService.class);
+        Index index = clusterService.state().getMetaData().index(getFqn("t")).getIndex();
+
+        Schemas schemas = internalCluster().getInstance(Schemas.class);
+        TableInfo tableInfo = schemas.getTableInfo(new RelationName(sqlExecutor.getDefaultSchema(), "t"));
+        TableRelation tableRelation = new TableRelation(tableInfo);
+        Map<QualifiedName, AnalyzedRelation> tableSources = ImmutableMap.<QualifiedName, AnalyzedRelation>of(new QualifiedName(tableInfo.ident().name()), tableRelation);
+        SqlExpressions sqlExpressions = new SqlExpressions(tableSources, tableRelation);
+
+        assertThat(countOperation.count(index, 0, sqlExpressions.normalize(sqlExpressions.asSymbol("name = 'Arthur'"))), is(0L));
+        assertThat(countOperation.count(index, 0, sqlExpressions.normalize(sqlExpressions.asSymbol("name = 'Marvin'"))), is(2L));
+        // answered from the cached segment count
+        assertThat(countOperation.count(index, 0, sqlExpressions.normalize(sqlExpressions.asSymbol("name = 'Marvin'"))), is(2L));
+
+        execute("delete from t where name = 'Marvin'");
+        execute("refresh table t");
+        assertThat(countOperation.count(index, 0, sqlExpressions.normalize(sqlExpressions.asSymbol("name = 'Marvin'"))), is(0L));
+        assertThat(countOperation.count(index, 0, Literal.BOOLEAN_FALSE), is(0L));
+    }
+
+    @Test
+    public void testCountPartitionedTableFilteredByPartitionColumn() throws Exception {
+        execute("create table p (id int, p int) partitioned by (p) clustered into 1 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into p (id, p) values (1, 1), (2, 1), (3, 2)");
+        execute("refresh table p");
+
+        execute("select count(*) from p where p = 1");
+        assertThat(response.rows()[0][0], is(2L));
+        execute("select count(*) from p where p = 1 or p = 2");
+        assertThat(response.rows()[0][0], is(3L));
+        execute("select count(*) from p where p = 3");
+        assertThat(response.rows()[0][0], is(0L));
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.sources;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.analyze.OrderBy;
+import io.crate.breaker.RamAccountingContext;
+import io.crate.exceptions.SQLExceptions;
+import io.crate.execution.dsl.phases.TableFunctionCollectPhase;
+import io.crate.execution.engine.collect.JobCollectContext;
+import io.crate.expression.symbol.Literal;
+import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Functions;
+import io.crate.metadata.Routing;
+import io.crate.metadata.tablefunctions.TableFunctionImplementation;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.TestingRowConsumer;
+import io.crate.types.ArrayType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.elasticsearch.common.breaker.MemoryCircuitBreaker;
+import org.elasticsearch.common.logging.Loggers;
+import org.elasticsearch.common.unit.ByteSizeUnit;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TableFunctionCollectSourceTest extends CrateUnitTest {
+
+    private final Functions functions = getFunctions();
+    private long originalBufferSize;
+
+    @Before
+    public void reduceFlushBufferSize() throws Exception {
+        originalBufferSize = RamAccountingContext.FLUSH_BUFFER_SIZE;
+        RamAccountingContext.FLUSH_BUFFER_SIZE = 20;
+    }
+
+    @After
+    public void resetFlushBufferSize() throws Exception {
+        RamAccountingContext.FLUSH_BUFFER_SIZE = originalBufferSize;
+    }
+
+    private TableFunctionCollectPhase unnestPhase(Object[] values) {
+        ArrayType arrayType = new ArrayType(DataTypes.INTEGER);
+        TableFunctionImplementation unnest =
+            (TableFunctionImplementation) functions.getBuiltin("unnest", ImmutableList.of(arrayType));
+        List<Symbol> outputs = new ArrayList<>(unnest.createTableInfo().columns());
+        return new TableFunctionCollectPhase(
+            UUID.randomUUID(),
+            1,
+            Routing.forTableOnSingleNode(unnest.createTableInfo().ident(), "n1"),
+            unnest,
+            ImmutableList.of(Literal.of(values, arrayType)),
+            Collections.emptyList(),
+            outputs,
+            Literal.BOOLEAN_TRUE
+        );
+    }
+
+    private TestingRowConsumer collect(TableFunctionCollectPhase phase, RamAccountingContext ramAccountingContext) {
+        JobCollectContext jobCollectContext = mock(JobCollectContext.class);
+        when(jobCollectContext.queryPhaseRamAccountingContext()).thenReturn(ramAccountingContext);
+        TestingRowConsumer consumer = new TestingRowConsumer();
+        new TableFunctionCollectSource(functions).getCollector(phase, consumer, jobCollectContext).doCollect();
+        return consumer;
+    }
+
+    @Test
+    public void testUnsortedUnnestStreamsRows() throws Exception {
+        TableFunctionCollectPhase phase = unnestPhase(new Object[]{3, 1, 2});
+
+        TestingRowConsumer consumer = collect(phase, null);
+
+        assertThat(printedTable(consumer.getBucket()), is(
+            "3\n" +
+            "1\n" +
+            "2\n"));
+    }
+
+    @Test
+    public void testSortedUnnestReturnsSortedRows() throws Exception {
+        TableFunctionCollectPhase phase = unnestPhase(new Object[]{3, 1, 2});
+        phase.orderBy(new OrderBy(phase.toCollect(), new boolean[]{false}, new Boolean[]{null}));
+
+        TestingRowConsumer consumer = collect(phase, new RamAccountingContext(
+            "test", new MemoryCircuitBreaker(
+                new ByteSizeValue(1, ByteSizeUnit.MB), 1.0, Loggers.getLogger(TableFunctionCollectSourceTest.class))));
+
+        assertThat(printedTable(consumer.getBucket()), is(
+            "1\n" +
+            "2\n" +
+            "3\n"));
+    }
+
+    @Test
+    public void testSortedUnnestAccountsMemoryAndTripsBreaker() throws Exception {
+        Object[] values = new Object[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+        }
+        TableFunctionCollectPhase phase = unnestPhase(values);
+        phase.orderBy(new OrderBy(phase.toCollect(), new boolean[]{true}, new Boolean[]{null}));
+
+        TestingRowConsumer consumer = collect(phase, new RamAccountingContext(
+            "test", new MemoryCircuitBreaker(
+                new ByteSizeValue(10, ByteSizeUnit.BYTES), 1.01, Loggers.getLogger(TableFunctionCollectSourceTest.class))));
+
+        try {
+            consumer.getResult();
+            fail("Sorting the rows must trip the circuit breaker");
+        } catch (Exception e) {
+            assertThat(SQLExceptions.unwrap(e), instanceOf(CircuitBreakingException.class));
+        }
+    }
+}
@@ -252,6 +252,23 @@ public class JobsLogsTest extends CrateDummyClusterServiceUnitTest {
         assertThat(jobsLogEntries.get(0).errorMessage(), is("stmt error"));
     }
 
+    @Test
+    public void testMetricsAreRecordedIfStatsAreDisabled() {
+        JobsLogs jobsLogs = new JobsLogs(() -> false);
+        User user = User.of("arthur");
+
+        UUID jobId = UUID.randomUUID();
+        jobsLogs.logExecutionStart(jobId, "  SELECT 1", user);
+        jobsLogs.logExecutionEnd(jobId, null);
+        jobsLogs.logPreExecutionFailure(UUID.randomUUID(), "insert into foo (x) values (1)", "stmt error", user);
+
+        assertThat(jobsLogs.metrics(StatementType.SELECT).totalCount(), is(1L));
+        assertThat(jobsLogs.metrics(StatementType.SELECT).failedCount(), is(0L));
+        assertThat(jobsLogs.metrics(StatementType.INSERT).totalCount(), is(1L));
+        assertThat(jobsLogs.metrics(StatementType.INSERT).failedCount(), is(1L));
+        assertThat(jobsLogs.metrics(StatementType.UNCLASSIFIED).totalCount(), is(0L));
+    }
+
     @Test
     public void testUniqueOperationIdsInOperationsTable() {
         JobsLogs jobsLogs = new JobsLogs(() -> true);
@@ -0,0 +1,77 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.collect.stats;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class LatencyHistogramTest extends CrateUnitTest {
+
+    @Test
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.count(), is(0L));
+        assertThat(histogram.mean(), is(0.0));
+        assertThat(histogram.max(), is(0L));
+        assertThat(histogram.percentile(99.0), is(0L));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 20; i++) {
+            histogram.record(i);
+        }
+        assertThat(histogram.count(), is(20L));
+        assertThat(histogram.sum(), is(210L));
+        assertThat(histogram.max(), is(20L));
+        assertThat(histogram.percentile(50.0), is(10L));
+        assertThat(histogram.percentile(95.0), is(19L));
+        assertThat(histogram.percentile(100.0), is(20L));
+    }
+
+    @Test
+    public void testPercentilesOfLargeValuesAreWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        long p99 = histogram.percentile(99.0);
+        assertThat(Math.abs(p99 - 9900) / 9900.0, lessThanOrEqualTo(1.0 / 16));
+        assertThat(histogram.percentile(100.0), is(10_000L));
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        for (long value : new long[] { 0L, 31L, 32L, 33L, 1000L, 123_456_789L, Long.MAX_VALUE }) {
+            int bucketIdx = LatencyHistogram.bucketIdx(value);
+            assertThat(value <= LatencyHistogram.highestEquivalentValue(bucketIdx), is(true));
+            if (bucketIdx > 0) {
+                assertThat(value > LatencyHistogram.highestEquivalentValue(bucketIdx - 1), is(true));
+            }
+        }
+    }
+}
@@ -29,6 +29,7 @@ import io.crate.data.CollectionBucket;
 import io.crate.data.Row;
 import io.crate.execution.jobs.PageDownstreamContext;
 import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
+import io.crate.profile.OperatorStats;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.BatchSimulatingIterator;
 import io.crate.testing.FailingBatchIterator;
@@ -137,7 +138,8 @@ public class DistributingConsumerTest extends CrateUnitTest {
             Collections.singletonList("n1"),
             distributedResultAction,
             streamers,
-            2 // pageSize
+            2, // pageSize
+            new OperatorStats()
         );
     }
 
@@ -151,7 +153,8 @@ public class DistributingConsumerTest extends CrateUnitTest {
                 PassThroughPagingIterator.oneShot(),
                 streamers,
                 new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy")),
-                1
+                1,
+                new OperatorStats()
             );
     }
 
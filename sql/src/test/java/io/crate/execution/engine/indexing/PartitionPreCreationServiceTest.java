@@ -0,0 +1,92 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.execution.engine.indexing;
+
+import io.crate.analyze.QueriedTable;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+public class PartitionPreCreationServiceTest extends CrateDummyClusterServiceUnitTest {
+
+    // 2018-03-31T22:00:00Z
+    private static final long NOW = 1522533600000L;
+
+    private SQLExecutor e;
+
+    @Before
+    public void prepare() throws Exception {
+        e = SQLExecutor.builder(clusterService)
+            .addPartitionedTable(
+                "create table parted_by_day (ts timestamp, day as date_trunc('day', ts)) partitioned by (day)")
+            .addPartitionedTable(
+                "create table parted_by_month (ts timestamp, month as date_trunc('month', ts)) partitioned by (month)")
+            .addPartitionedTable("create table parted (id int, ts timestamp) partitioned by (ts)")
+            .build();
+    }
+
+    private DocTableInfo table(String name) {
+        QueriedTable queriedTable = e.analyze("select * from " + name);
+        return (DocTableInfo) queriedTable.tableRelation().tableInfo();
+    }
+
+    private static String partition(String table, long value) {
+        return new PartitionName(
+            new RelationName("doc", table), singletonList(new BytesRef(Long.toString(value)))).asIndexName();
+    }
+
+    @Test
+    public void testUpcomingPartitionsOfTablePartitionedByDay() {
+        assertThat(PartitionPreCreationService.upcomingPartitions(table("parted_by_day"), NOW, 2), contains(
+            partition("parted_by_day", 1522540800000L), // 2018-04-01
+            partition("parted_by_day", 1522627200000L)  // 2018-04-02
+        ));
+    }
+
+    @Test
+    public void testUpcomingPartitionsOfTablePartitionedByMonth() {
+        assertThat(PartitionPreCreationService.upcomingPartitions(table("parted_by_month"), NOW, 2), contains(
+            partition("parted_by_month", 1522540800000L), // 2018-04-01
+            partition("parted_by_month", 1525132800000L)  // 2018-05-01
+        ));
+    }
+
+    @Test
+    public void testNoUpcomingPartitionsIfNotPartitionedByGeneratedDateTrunc() {
+        assertThat(PartitionPreCreationService.upcomingPartitions(table("parted"), NOW, 2), empty());
+    }
+
+    @Test
+    public void testNoUpcomingPartitionsIfCountIsZero() {
+        assertThat(PartitionPreCreationService.upcomingPartitions(table("parted_by_day"), NOW, 0), empty());
+    }
+}
@@ -26,6 +26,7 @@ import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.common.io.stream.StreamInput;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -36,9 +37,12 @@ public class NodeCollectProfileResponseTest {
 
     @Test
     public void testStreaming() throws Exception {
-        Map<String, Long> timings = new HashMap<>();
-        timings.put("node1", 1000L);
-        NodeCollectProfileResponse originalResponse = new NodeCollectProfileResponse(timings);
+        Map<String, Object> results = new HashMap<>();
+        results.put("node1", 1000L);
+        Map<String, Object> operatorStats = new HashMap<>();
+        operatorStats.put("rows_in", 10L);
+        results.put("Operators", Collections.singletonMap("1-collect", operatorStats));
+        NodeCollectProfileResponse originalResponse = new NodeCollectProfileResponse(results);
 
         BytesStreamOutput out = new BytesStreamOutput();
         originalResponse.writeTo(out);
@@ -48,6 +52,6 @@ public class NodeCollectProfileResponseTest {
         NodeCollectProfileResponse streamed = new NodeCollectProfileResponse();
         streamed.readFrom(in);
 
-        assertThat(originalResponse.durationByContextIdent(), is(streamed.durationByContextIdent()));
+        assertThat(originalResponse.profilingResults(), is(streamed.profilingResults()));
     }
 }
@@ -23,6 +23,7 @@
 package io.crate.execution.engine.sort;
 
 import com.google.common.collect.ImmutableList;
+import io.crate.breaker.RamAccountingContext;
 import io.crate.expression.symbol.Literal;
 import io.crate.data.BatchIterator;
 import io.crate.data.Bucket;
@@ -32,6 +33,7 @@ import io.crate.execution.engine.collect.InputCollectExpression;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.TestingBatchIterators;
 import io.crate.testing.TestingRowConsumer;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
 import org.junit.Test;
 
 import static io.crate.testing.TestingHelpers.isRow;
@@ -47,8 +49,9 @@ public class SortingProjectorTest extends CrateUnitTest {
             ImmutableList.of(input, Literal.of(true)),
             ImmutableList.<CollectExpression<Row, ?>>of(input),
             numOutputs,
-            OrderingByPosition.arrayOrdering(0, false, null),
-            offset
+            OrderingByPosition.rowOrdering(new int[]{0}, new boolean[]{false}, new Boolean[]{null}),
+            offset,
+            new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"))
         );
     }
 
@@ -86,6 +89,6 @@ public class SortingProjectorTest extends CrateUnitTest {
         expectedException.expect(IllegalArgumentException.class);
         expectedException.expectMessage("invalid offset -1");
 
-        new SortingProjector(null, null, 2, null, -1);
+        new SortingProjector(null, null, 2, null, -1, null);
     }
 }
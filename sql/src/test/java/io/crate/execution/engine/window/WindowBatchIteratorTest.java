@@ -0,0 +1,151 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.execution.engine.window;
+
+import io.crate.breaker.RamAccountingContext;
+import io.crate.breaker.RowAccounting;
+import io.crate.data.BatchIterator;
+import io.crate.data.InMemoryBatchIterator;
+import io.crate.data.Row;
+import io.crate.data.RowN;
+import io.crate.data.SentinelRow;
+import io.crate.execution.engine.aggregation.AggregationFunction;
+import io.crate.execution.engine.collect.InputCollectExpression;
+import io.crate.execution.engine.sort.OrderingByPosition;
+import io.crate.metadata.FunctionIdent;
+import io.crate.metadata.Functions;
+import io.crate.sql.tree.FrameBound;
+import io.crate.sql.tree.WindowFrame;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.BatchIteratorTester;
+import io.crate.types.DataType;
+import io.crate.types.DataTypes;
+import org.elasticsearch.Version;
+import org.elasticsearch.common.breaker.NoopCircuitBreaker;
+import org.elasticsearch.common.util.BigArrays;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static io.crate.testing.TestingHelpers.getFunctions;
+import static org.hamcrest.Matchers.is;
+
+public class WindowBatchIteratorTest extends CrateUnitTest {
+
+    private static final List<DataType> SOURCE_TYPES = Arrays.asList(DataTypes.LONG, DataTypes.LONG);
+
+    // [partition, value], sorted by partition and value
+    private static final List<Object[]> SOURCE_ROWS = Arrays.asList(
+        new Object[]{1L, 1L},
+        new Object[]{1L, 2L},
+        new Object[]{1L, 2L},
+        new Object[]{2L, 5L},
+        new Object[]{2L, 6L}
+    );
+
+    private final Functions functions = getFunctions();
+
+    private BatchIterator<Row> createIterator(List<Object[]> sourceRows) {
+        return createIterator(sourceRows, new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy")));
+    }
+
+    private BatchIterator<Row> createIterator(List<Object[]> sourceRows, RamAccountingContext rowsRamAccountingContext) {
+        RamAccountingContext ramAccountingContext =
+            new RamAccountingContext("dummy", new NoopCircuitBreaker("dummy"));
+        InputCollectExpression partitionInput = new InputCollectExpression(0);
+        InputCollectExpression orderByInput = new InputCollectExpression(1);
+        InputCollectExpression sumArgInput = new InputCollectExpression(1);
+
+        // buffered row layout: [partition, value | partition, order by value, sum(value)]
+        WindowFrameState frame = new WindowFrameState(
+            WindowFrame.Type.RANGE,
+            FrameBound.Type.UNBOUNDED_PRECEDING,
+            0L,
+            FrameBound.Type.CURRENT_ROW,
+            0L,
+            OrderingByPosition.arrayOrdering(new int[]{3}, new boolean[]{false}, new Boolean[]{null})
+        );
+        AggregationFunction sum = (AggregationFunction) functions.getQualified(
+            new FunctionIdent("sum", Collections.singletonList(DataTypes.LONG)));
+        WindowFunction[] windowFunctions = new WindowFunction[]{
+            (WindowFunction) functions.getQualified(new FunctionIdent("row_number", Collections.emptyList())),
+            (WindowFunction) functions.getQualified(new FunctionIdent("rank", Collections.emptyList())),
+            new AggregateToWindowFunctionAdapter(sum, ramAccountingContext, Version.CURRENT, BigArrays.NON_RECYCLING_INSTANCE)
+        };
+        return new WindowBatchIterator(
+            InMemoryBatchIterator.of(
+                sourceRows.stream().map(RowN::new).collect(Collectors.toList()), SentinelRow.SENTINEL),
+            new RowAccounting(SOURCE_TYPES, rowsRamAccountingContext),
+            2,
+            Arrays.asList(partitionInput, orderByInput, sumArgInput),
+            Arrays.asList(partitionInput, orderByInput, sumArgInput),
+            new int[]{2},
+            frame,
+            windowFunctions,
+            new int[][]{new int[0], new int[0], new int[]{4}}
+        );
+    }
+
+    @Test
+    public void testWindowFunctionsAreComputedPerPartition() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(() -> createIterator(SOURCE_ROWS));
+        tester.verifyResultAndEdgeCaseBehaviour(Arrays.asList(
+            new Object[]{1L, 1L, 1L, 1L, 1L},
+            new Object[]{1L, 2L, 2L, 2L, 5L},
+            new Object[]{1L, 2L, 3L, 2L, 5L},
+            new Object[]{2L, 5L, 1L, 1L, 5L},
+            new Object[]{2L, 6L, 2L, 2L, 11L}
+        ));
+    }
+
+    @Test
+    public void testOnlyRowsOfTheBufferedPartitionAreAccounted() throws Exception {
+        RamAccountingContext rowsRamAccountingContext =
+            new RamAccountingContext("rows", new NoopCircuitBreaker("dummy"));
+        BatchIterator<Row> iterator = createIterator(SOURCE_ROWS, rowsRamAccountingContext);
+
+        RamAccountingContext expectedRamAccountingContext =
+            new RamAccountingContext("expected", new NoopCircuitBreaker("dummy"));
+        RowAccounting expectedRowAccounting = new RowAccounting(SOURCE_TYPES, expectedRamAccountingContext);
+        for (Object[] cells : SOURCE_ROWS.subList(3, 5)) {
+            expectedRowAccounting.accountForAndMaybeBreak(new RowN(cells));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(iterator.moveNext(), is(true));
+        }
+        // the rows of the first partition are released, the rows of the second partition are buffered
+        assertThat(iterator.currentElement().get(0), is(2L));
+        assertThat(rowsRamAccountingContext.totalBytes(), is(expectedRamAccountingContext.totalBytes()));
+        iterator.close();
+    }
+
+    @Test
+    public void testEmptySourceResultsInNoRows() throws Exception {
+        BatchIteratorTester tester = new BatchIteratorTester(() -> createIterator(Collections.emptyList()));
+        tester.verifyResultAndEdgeCaseBehaviour(Collections.emptyList());
+    }
+}
@@ -30,6 +30,7 @@ import io.crate.execution.engine.collect.MapSideDataCollectOperation;
 import io.crate.execution.engine.collect.stats.JobsLogs;
 import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
 import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.profile.OperatorStats;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.TestingRowConsumer;
 import io.crate.types.IntegerType;
@@ -40,6 +41,7 @@ import org.mockito.Mockito;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentMap;
 
@@ -135,7 +137,8 @@ public class JobExecutionContextTest extends CrateUnitTest {
             PassThroughPagingIterator.oneShot(),
             new Streamer[]{IntegerType.INSTANCE.streamer()},
             mock(RamAccountingContext.class),
-            1));
+            1,
+            new OperatorStats()));
 
         builder.addSubContext(jobCollectContext);
         builder.addSubContext(pageDownstreamContext);
@@ -175,4 +178,25 @@ public class JobExecutionContextTest extends CrateUnitTest {
         assertTrue(jobExecutionContext.executionTimes().containsKey("2-TestingExecutionSubContext"));
         assertThat(jobExecutionContext.executionTimes().get("2-TestingExecutionSubContext"), Matchers.greaterThan(0L));
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testProfilingResultsContainOperatorStats() throws Throwable {
+        JobExecutionContext.Builder builder =
+            new JobExecutionContext.Builder(UUID.randomUUID(), coordinatorNode, Collections.emptySet(), mock(JobsLogs.class));
+        builder.enableProfiling(true);
+
+        AbstractExecutionSubContextTest.TestingExecutionSubContext ctx1 = new AbstractExecutionSubContextTest.TestingExecutionSubContext(1);
+        builder.addSubContext(ctx1);
+        OperatorStats stats = builder.operatorStats(1, ctx1.name());
+        stats.add(OperatorStats.ROWS_IN, 10L);
+        stats.increment(OperatorStats.PAGES_IN);
+        JobExecutionContext jobExecutionContext = builder.build();
+
+        Map<String, Object> results = jobExecutionContext.profilingResults();
+        Map<String, Object> operators = (Map<String, Object>) results.get(JobExecutionContext.OPERATORS_KEY);
+        Map<String, Long> ctx1Stats = (Map<String, Long>) operators.get("1-TestingExecutionSubContext");
+        assertThat(ctx1Stats.get(OperatorStats.ROWS_IN), is(10L));
+        assertThat(ctx1Stats.get(OperatorStats.PAGES_IN), is(1L));
+    }
 }
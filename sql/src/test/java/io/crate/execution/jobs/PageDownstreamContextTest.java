@@ -35,6 +35,7 @@ import io.crate.execution.engine.distribution.merge.KeyIterable;
 import io.crate.execution.engine.distribution.merge.PagingIterator;
 import io.crate.execution.engine.distribution.merge.PassThroughPagingIterator;
 import io.crate.execution.engine.distribution.merge.SortedPagingIterator;
+import io.crate.profile.OperatorStats;
 import io.crate.test.integration.CrateUnitTest;
 import io.crate.testing.TestingHelpers;
 import io.crate.testing.TestingRowConsumer;
@@ -75,7 +76,8 @@ public class PageDownstreamContextTest extends CrateUnitTest {
             pagingIterator,
             new Streamer[1],
             RAM_ACCOUNTING_CONTEXT,
-            numBuckets
+            numBuckets,
+            new OperatorStats()
         );
     }
 
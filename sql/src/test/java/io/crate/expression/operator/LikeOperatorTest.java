@@ -144,4 +144,32 @@ public class LikeOperatorTest extends AbstractScalarFunctionsTest {
         assertEvaluate("'foobarbaz' like name", null, Literal.NULL);
         assertEvaluate("name like 'foobarbaz'", null, Literal.NULL);
     }
+
+    @Test
+    public void testLikeWithPrefixSuffixAndContainsPatterns() {
+        assertEvaluate("'Zürich Hauptbahnhof' like 'Zü%'", true);
+        assertEvaluate("'Zürich Hauptbahnhof' like '%bahnhof'", true);
+        assertEvaluate("'Zürich Hauptbahnhof' like '%rich Haupt%'", true);
+        assertEvaluate("'Zürich Hauptbahnhof' like '%Zurich%'", false);
+        assertEvaluate("'Zürich' like 'Zürich'", true);
+        assertEvaluate("'Zürich' like 'Zürich '", false);
+        assertEvaluate("'' like '%'", true);
+        assertEvaluate("'' like ''", true);
+        assertEvaluate("'a' like ''", false);
+    }
+
+    @Test
+    public void testLikeWithEscapedWildcardsInSimplePatterns() {
+        assertEvaluate("'50% off' like '%\\%%'", true);
+        assertEvaluate("'50 off' like '%\\%%'", false);
+        assertEvaluate("'foo_bar' like 'foo\\_%'", true);
+        assertEvaluate("'fooxbar' like 'foo\\_%'", false);
+    }
+
+    @Test
+    public void testLikeWithPatternFromColumn() throws Exception {
+        assertEvaluate("name like timezone", true, Literal.of("foobar"), Literal.of("%oba%"));
+        assertEvaluate("name like timezone", true, Literal.of("foobar"), Literal.of("f%r"));
+        assertEvaluate("name like timezone", false, Literal.of("foobar"), Literal.of("%bar_"));
+    }
 }
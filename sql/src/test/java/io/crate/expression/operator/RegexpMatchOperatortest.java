@@ -25,8 +25,10 @@ import io.crate.action.sql.SessionContext;
 import io.crate.expression.symbol.Function;
 import io.crate.expression.symbol.Literal;
 import io.crate.expression.symbol.Symbol;
+import io.crate.metadata.Scalar;
 import io.crate.metadata.TransactionContext;
 import io.crate.test.integration.CrateUnitTest;
+import org.apache.lucene.util.BytesRef;
 import org.junit.Test;
 
 import java.util.Arrays;
@@ -87,4 +89,18 @@ public class RegexpMatchOperatortest extends CrateUnitTest {
         assertThat(regexpEvaluate("foo", null), is(nullValue()));
         assertThat(regexpEvaluate(null, null), is(nullValue()));
     }
+
+    @Test
+    public void testCompileWithLiteralPattern() throws Exception {
+        RegexpMatchOperator op = new RegexpMatchOperator();
+        Scalar<Boolean, BytesRef> compiled = op.compile(Arrays.<Symbol>asList(Literal.of("foo"), Literal.of("a.c")));
+
+        assertThat(compiled.evaluate(Literal.of("abc"), Literal.of("a.c")), is(true));
+        assertThat(compiled.evaluate(Literal.of("abd"), Literal.of("a.c")), is(false));
+        assertThat(compiled.evaluate(Literal.of((String) null), Literal.of("a.c")), is(nullValue()));
+
+        compiled = op.compile(Arrays.<Symbol>asList(Literal.of("foo"), Literal.of("\\d+")));
+        assertThat(compiled.evaluate(Literal.of("123"), Literal.of("\\d+")), is(true));
+        assertThat(compiled.evaluate(Literal.of("12a"), Literal.of("\\d+")), is(false));
+    }
 }
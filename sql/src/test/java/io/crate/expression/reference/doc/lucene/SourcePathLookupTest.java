@@ -0,0 +1,117 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+package io.crate.expression.reference.doc.lucene;
+
+import io.crate.test.integration.CrateUnitTest;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.common.xcontent.support.XContentMapValues;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class SourcePathLookupTest extends CrateUnitTest {
+
+    private static final BytesReference SOURCE = new BytesArray(
+        "{\"x\": 1, " +
+        "\"o\": {\"a\": {\"b\": \"foo\", \"c\": [1, 2]}, \"d\": true}, " +
+        "\"arr\": [{\"y\": 1, \"z\": 10}, {\"y\": 2}, {\"z\": 30}], " +
+        "\"dotted.key\": \"bar\", " +
+        "\"large\": {\"ignored\": [{\"nested\": \"value\"}, [1, 2, 3]]}}");
+
+    private static Map<String, Object> parse(String... paths) {
+        SourcePathLookup lookup = new SourcePathLookup();
+        for (String path : paths) {
+            lookup.register(path);
+        }
+        return lookup.parse(SOURCE);
+    }
+
+    private static void assertSameValueAsFullSource(Map<String, Object> pruned, String path) {
+        Map<String, Object> full = XContentHelper.convertToMap(SOURCE, false, XContentType.JSON).v2();
+        assertThat(XContentMapValues.extractValue(path, pruned), is(XContentMapValues.extractValue(path, full)));
+    }
+
+    @Test
+    public void testOnlyRegisteredPathsAreMaterialized() {
+        Map<String, Object> source = parse("o.a.b", "x");
+
+        assertThat(source.keySet().size(), is(2));
+        assertThat(((Map<?, ?>) source.get("o")).keySet().size(), is(1));
+        assertSameValueAsFullSource(source, "o.a.b");
+        assertSameValueAsFullSource(source, "x");
+    }
+
+    @Test
+    public void testObjectPathIncludesAllChildren() {
+        Map<String, Object> source = parse("o.a", "o.a.c");
+
+        assertSameValueAsFullSource(source, "o.a");
+        assertSameValueAsFullSource(source, "o.a.c");
+        assertThat(XContentMapValues.extractValue("o.d", source), nullValue());
+    }
+
+    @Test
+    public void testPathThroughArrayOfObjects() {
+        Map<String, Object> source = parse("arr.y", "arr.z");
+
+        assertSameValueAsFullSource(source, "arr.y");
+        assertSameValueAsFullSource(source, "arr.z");
+        assertThat(XContentMapValues.extractValue("arr.z", source), is(Arrays.asList(10, 30)));
+    }
+
+    @Test
+    public void testFieldNamesContainingDots() {
+        Map<String, Object> source = parse("dotted.key");
+
+        assertSameValueAsFullSource(source, "dotted.key");
+    }
+
+    @Test
+    public void testUnknownPathResultsInNull() {
+        Map<String, Object> source = parse("missing.column");
+
+        assertThat(source.isEmpty(), is(true));
+        assertThat(XContentMapValues.extractValue("missing.column", source), nullValue());
+    }
+
+    @Test
+    public void testSmileSourceIsParsed() throws IOException {
+        Map<String, Object> full = XContentHelper.convertToMap(SOURCE, false, XContentType.JSON).v2();
+        BytesReference smileSource = XContentFactory.contentBuilder(XContentType.SMILE).map(full).bytes();
+        SourcePathLookup lookup = new SourcePathLookup();
+        lookup.register("o.a.b");
+
+        Map<String, Object> source = lookup.parse(smileSource);
+
+        assertThat(source.keySet().size(), is(1));
+        assertThat(XContentMapValues.extractValue("o.a.b", source), is("foo"));
+    }
+}
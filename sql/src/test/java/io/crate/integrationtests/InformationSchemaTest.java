@@ -61,7 +61,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
     @Test
     public void testDefaultTables() {
         execute("select * from information_schema.tables order by table_schema, table_name");
-        assertEquals(26L, response.rowCount());
+        assertEquals(28L, response.rowCount());
 
         assertThat(TestingHelpers.printedTable(response.rows()), is(
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| information_schema| columns| information_schema| BASE TABLE| NULL\n" +
@@ -77,11 +77,13 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| information_schema| views| information_schema| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| pg_catalog| pg_type| pg_catalog| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| allocations| sys| BASE TABLE| NULL\n" +
+            "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| blob_cache| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| checks| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| cluster| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| health| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| jobs| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| jobs_log| sys| BASE TABLE| NULL\n" +
+            "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| jobs_metrics| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| node_checks| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| nodes| sys| BASE TABLE| NULL\n" +
             "NULL| NULL| NULL| strict| NULL| NULL| NULL| SYSTEM GENERATED| NULL| NULL| NULL| sys| operations| sys| BASE TABLE| NULL\n" +
@@ -186,13 +188,13 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
     @Test
     public void testSearchInformationSchemaTablesRefresh() {
         execute("select * from information_schema.tables");
-        assertEquals(26L, response.rowCount());
+        assertEquals(28L, response.rowCount());
 
         execute("create table t4 (col1 integer, col2 string) with(number_of_replicas=0)");
         ensureYellow(getFqn("t4"));
 
         execute("select * from information_schema.tables");
-        assertEquals(27L, response.rowCount());
+        assertEquals(29L, response.rowCount());
     }
 
     @Test
@@ -369,7 +371,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
                 "is_deferrable", "table_catalog", "table_name", "table_schema"));
         execute("SELECT constraint_name, constraint_type, table_name, table_schema FROM " +
                 "information_schema.table_constraints ORDER BY table_schema ASC, table_name ASC");
-        assertEquals(28L, response.rowCount());
+        assertEquals(29L, response.rowCount());
         assertThat(TestingHelpers.printedTable(response.rows()),
             is(
                 "columns_pk| PRIMARY KEY| columns| information_schema\n" +
@@ -691,6 +693,28 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
         assertEquals("test2", response.rows()[4][0]);
     }
 
+    @Test
+    public void testSelectFromTableColumnsByTableNameAfterAlterTable() {
+        execute("create table test (col1 integer)");
+        execute("create table test2 (col1 integer)");
+        ensureGreen();
+        execute("select column_name from information_schema.columns where table_schema = ? and table_name = 'test'",
+            new Object[]{sqlExecutor.getDefaultSchema()});
+        assertThat(TestingHelpers.printedTable(response.rows()), is("col1\n"));
+
+        execute("alter table test add column col2 string");
+        execute("select column_name from information_schema.columns where table_schema = ? and table_name = 'test' " +
+                "order by column_name", new Object[]{sqlExecutor.getDefaultSchema()});
+        assertThat(TestingHelpers.printedTable(response.rows()), is("col1\ncol2\n"));
+
+        execute("drop table test");
+        execute("select column_name from information_schema.columns where table_schema = ? and table_name = 'test'",
+            new Object[]{sqlExecutor.getDefaultSchema()});
+        assertThat(response.rowCount(), is(0L));
+        execute("select count(*) from information_schema.columns where table_name = 'test2'");
+        assertThat(response.rows()[0][0], is(1L));
+    }
+
     @Test
     public void testSelectFromTableColumnsMultiField() {
         execute("create table test (col1 string, col2 string," +
@@ -785,7 +809,7 @@ public class InformationSchemaTest extends SQLTransportIntegrationTest {
         ensureYellow();
         execute("select count(*) from information_schema.tables");
         assertEquals(1, response.rowCount());
-        assertEquals(29L, response.rows()[0][0]);
+        assertEquals(31L, response.rows()[0][0]);
     }
 
     @Test
@@ -895,6 +895,56 @@ public class InsertIntoIntegrationTest extends SQLTransportIntegrationTest {
         assertThat(response.rowCount(), is(4L));
     }
 
+    @Test
+    public void testInsertRowsWithDifferentNewObjectColumnsAddsAllColumns() throws Exception {
+        execute("create table t (id int, o object(dynamic)) " +
+                "clustered into 1 shards with (number_of_replicas = 0)");
+        ensureYellow();
+
+        execute("insert into t (id, o) values (1, {a=1}), (2, {b='foo'}), (3, {a=2, c=true})");
+        assertThat(response.rowCount(), is(3L));
+
+        execute("select column_name, data_type from information_schema.columns " +
+                "where table_name = 't' order by column_name");
+        assertThat(TestingHelpers.printedTable(response.rows()), is(
+            "id| integer\n" +
+            "o| object\n" +
+            "o['a']| long\n" +
+            "o['b']| string\n" +
+            "o['c']| boolean\n"));
+        refresh();
+        execute("select count(*) from t");
+        assertThat(response.rows()[0][0], is(3L));
+    }
+
+    @Test
+    public void testInsertRowsWithNewColumnsOnConflictDoNothingAddsColumnsOfIgnoredRows() throws Exception {
+        execute("create table t (id int primary key, o object(dynamic)) " +
+                "clustered into 1 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into t (id, o) values (1, {a=1})");
+        refresh();
+
+        // the columns of ignored rows are added just like when the rows are indexed one by one
+        execute("insert into t (id, o) values (2, {b='foo'}), (1, {c=true}), (2, {d=1.5}) ON CONFLICT DO NOTHING");
+        assertThat(response.rowCount(), is(1L));
+
+        execute("select column_name, data_type from information_schema.columns " +
+                "where table_name = 't' order by column_name");
+        assertThat(TestingHelpers.printedTable(response.rows()), is(
+            "id| integer\n" +
+            "o| object\n" +
+            "o['a']| long\n" +
+            "o['b']| string\n" +
+            "o['c']| boolean\n" +
+            "o['d']| double\n"));
+        refresh();
+        execute("select id, o from t order by id");
+        assertThat(TestingHelpers.printedTable(response.rows()), is(
+            "1| {a=1}\n" +
+            "2| {b=foo}\n"));
+    }
+
     @Test
     public void testBulkInsertWithMultiValue() throws Exception {
         execute("create table t (x int)");
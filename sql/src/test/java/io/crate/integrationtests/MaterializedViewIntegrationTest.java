@@ -0,0 +1,73 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.integrationtests;
+
+import org.junit.Test;
+
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.is;
+
+public class MaterializedViewIntegrationTest extends SQLTransportIntegrationTest {
+
+    @Test
+    public void testIncrementalRefreshAggregatesRowsWithEqualTimestampsExactlyOnce() throws Exception {
+        execute("create table t1 (x int, y long, ts timestamp generated always as current_timestamp) " +
+                "with (number_of_replicas = 0)");
+        execute("create materialized view mv with (incremental_column = 'ts', incremental_delay = '1s') as " +
+                "select src.x, count(*) as cnt, sum(src.y) as s from t1 as src group by src.x");
+        ensureYellow();
+
+        // all rows of a statement share the same timestamp
+        execute("insert into t1 (x, y) values (1, 10), (1, 20), (2, 5)");
+        execute("refresh table t1");
+        // repeated refreshes must neither skip nor double count rows, whether they run before or after
+        // the rows have passed the delay
+        assertBusy(() -> {
+            execute("refresh materialized view mv");
+            execute("refresh table mv");
+            execute("select x, cnt, s from mv order by x");
+            assertThat(printedTable(response.rows()), is(
+                "1| 2| 30\n" +
+                "2| 1| 5\n"));
+        });
+
+        execute("insert into t1 (x, y) values (1, 1), (3, 7)");
+        execute("refresh table t1");
+        assertBusy(() -> {
+            execute("refresh materialized view mv");
+            execute("refresh table mv");
+            execute("select x, cnt, s from mv order by x");
+            assertThat(printedTable(response.rows()), is(
+                "1| 3| 31\n" +
+                "2| 1| 5\n" +
+                "3| 1| 7\n"));
+        });
+        execute("refresh materialized view mv");
+        execute("refresh table mv");
+        execute("select x, cnt, s from mv order by x");
+        assertThat(printedTable(response.rows()), is(
+            "1| 3| 31\n" +
+            "2| 1| 5\n" +
+            "3| 1| 7\n"));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.integrationtests;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.crate.testing.TestingHelpers.printedTable;
+import static org.hamcrest.Matchers.is;
+
+public class WindowFunctionsIntegrationTest extends SQLTransportIntegrationTest {
+
+    @Before
+    public void initTestData() throws Exception {
+        execute("create table t (g int, v int) clustered into 2 shards with (number_of_replicas = 0)");
+        ensureYellow();
+        execute("insert into t (g, v) values (1, 1), (1, 2), (1, 2), (2, 5), (2, 6), (3, 7)");
+        execute("refresh table t");
+    }
+
+    @Test
+    public void testWindowFunctionsArePartitioned() throws Exception {
+        execute("select g, v, " +
+                "   row_number() over (partition by g order by v), " +
+                "   rank() over (partition by g order by v), " +
+                "   sum(v) over (partition by g order by v) " +
+                "from t " +
+                "order by g, v, 3");
+        assertThat(printedTable(response.rows()), is(
+            "1| 1| 1| 1| 1\n" +
+            "1| 2| 2| 2| 5\n" +
+            "1| 2| 3| 2| 5\n" +
+            "2| 5| 1| 1| 5\n" +
+            "2| 6| 2| 2| 11\n" +
+            "3| 7| 1| 1| 7\n"));
+    }
+
+    @Test
+    public void testWindowFunctionWithoutPartitionBy() throws Exception {
+        execute("select v, sum(v) over (order by v) from t order by v");
+        assertThat(printedTable(response.rows()), is(
+            "1| 1\n" +
+            "2| 5\n" +
+            "2| 5\n" +
+            "5| 10\n" +
+            "6| 16\n" +
+            "7| 23\n"));
+    }
+}
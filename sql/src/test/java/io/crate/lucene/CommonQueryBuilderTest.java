@@ -54,9 +54,11 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.startsWith;
 
 public class CommonQueryBuilderTest extends LuceneQueryBuilderTest {
@@ -339,6 +341,29 @@ public class CommonQueryBuilderTest extends LuceneQueryBuilderTest {
         assertThat(query, instanceOf(GenericFunctionQuery.class));
     }
 
+    @Test
+    public void testGenericFunctionQueriesOfDeterministicFunctionsAreEqual() throws Exception {
+        Query query = convert("name = name");
+        Query otherQuery = convert("name = name");
+        assertThat(query, is(otherQuery));
+        assertThat(query.hashCode(), is(otherQuery.hashCode()));
+    }
+
+    @Test
+    public void testGenericFunctionQueriesOfNonDeterministicFunctionsAreNotEqual() throws Exception {
+        Query query = convert("random() > 0.5");
+        assertThat(query, instanceOf(GenericFunctionQuery.class));
+        assertThat(query, is(query));
+        assertThat(query, not(convert("random() > 0.5")));
+    }
+
+    @Test
+    public void testGenericFunctionQueryLoadingSourceIsMoreExpensive() throws Exception {
+        GenericFunctionQuery docValuesQuery = (GenericFunctionQuery) convert("name = name");
+        GenericFunctionQuery sourceQuery = (GenericFunctionQuery) convert("_doc = {\"name\"='foo'}");
+        assertThat(sourceQuery.matchCost(), greaterThan(docValuesQuery.matchCost()));
+    }
+
     @Test
     public void testWhereInIsOptimized() throws Exception {
         Query query = convert("name in ('foo', 'bar')");
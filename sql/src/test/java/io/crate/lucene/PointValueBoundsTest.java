@@ -0,0 +1,158 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.lucene;
+
+import com.google.common.collect.ImmutableMap;
+import io.crate.analyze.relations.TableRelation;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.Schemas;
+import io.crate.metadata.doc.DocTableInfo;
+import io.crate.metadata.table.TestingTableInfo;
+import io.crate.sql.tree.QualifiedName;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.testing.SqlExpressions;
+import io.crate.types.DataTypes;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.NoMergePolicy;
+import org.apache.lucene.store.RAMDirectory;
+import org.elasticsearch.index.mapper.MappedFieldType;
+import org.elasticsearch.index.mapper.NumberFieldMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+
+public class PointValueBoundsTest extends CrateUnitTest {
+
+    private SqlExpressions expressions;
+    private FieldTypeLookup fieldTypeLookup;
+    private RAMDirectory directory;
+    private DirectoryReader reader;
+
+    @Before
+    public void prepare() throws Exception {
+        DocTableInfo table = TestingTableInfo.builder(new RelationName(Schemas.DOC_SCHEMA_NAME, "t"), null)
+            .add("x", DataTypes.INTEGER)
+            .add("d", DataTypes.DOUBLE)
+            .add("name", DataTypes.STRING)
+            .build();
+        TableRelation relation = new TableRelation(table);
+        expressions = new SqlExpressions(ImmutableMap.of(new QualifiedName("t"), relation), relation);
+
+        Map<String, MappedFieldType> fieldTypes = new HashMap<>();
+        fieldTypes.put("x", numberFieldType("x", NumberFieldMapper.NumberType.INTEGER));
+        fieldTypes.put("d", numberFieldType("d", NumberFieldMapper.NumberType.DOUBLE));
+        fieldTypeLookup = fieldTypes::get;
+
+        // two segments: x in [0, 9] and x in [100, 109], d is only set in the first one
+        directory = new RAMDirectory();
+        IndexWriter writer = new IndexWriter(directory,
+            new IndexWriterConfig(new StandardAnalyzer()).setMergePolicy(NoMergePolicy.INSTANCE));
+        for (int i = 0; i < 10; i++) {
+            Document doc = new Document();
+            doc.add(new IntPoint("x", i));
+            doc.add(new DoublePoint("d", i + 0.5));
+            doc.add(new StringField("name", "foo", Field.Store.NO));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+        for (int i = 100; i < 110; i++) {
+            Document doc = new Document();
+            doc.add(new IntPoint("x", i));
+            writer.addDocument(doc);
+        }
+        writer.commit();
+        writer.close();
+        reader = DirectoryReader.open(directory);
+        assertThat(reader.leaves().size(), is(2));
+    }
+
+    @After
+    public void closeReader() throws Exception {
+        reader.close();
+        directory.close();
+    }
+
+    private static MappedFieldType numberFieldType(String name, NumberFieldMapper.NumberType type) {
+        MappedFieldType fieldType = new NumberFieldMapper.NumberFieldType(type);
+        fieldType.setName(name);
+        fieldType.setIndexOptions(IndexOptions.DOCS);
+        return fieldType;
+    }
+
+    private int nonMatchingSegments(String query) throws Exception {
+        PointValueBounds bounds = PointValueBounds.of(
+            expressions.normalize(expressions.asSymbol(query)), fieldTypeLookup);
+        return bounds.countNonMatchingSegments(reader);
+    }
+
+    @Test
+    public void testComparisonsExcludeSegmentsOutsideOfTheirBounds() throws Exception {
+        assertThat(nonMatchingSegments("x > 9"), is(1));
+        assertThat(nonMatchingSegments("x >= 9"), is(0));
+        assertThat(nonMatchingSegments("x < 100"), is(1));
+        assertThat(nonMatchingSegments("x <= 100"), is(0));
+        assertThat(nonMatchingSegments("x = 50"), is(2));
+        assertThat(nonMatchingSegments("x = 105"), is(1));
+    }
+
+    @Test
+    public void testLiteralOnTheLeftSide() throws Exception {
+        assertThat(nonMatchingSegments("9 < x"), is(1));
+        assertThat(nonMatchingSegments("200 < x"), is(2));
+    }
+
+    @Test
+    public void testAllConditionsOfConjunctionAreUsed() throws Exception {
+        assertThat(nonMatchingSegments("x > 5 and x < 8"), is(1));
+        assertThat(nonMatchingSegments("x > 5 and x > 200"), is(2));
+    }
+
+    @Test
+    public void testSegmentWithoutValuesCanNotMatch() throws Exception {
+        assertThat(nonMatchingSegments("d > 0.0"), is(1));
+        assertThat(nonMatchingSegments("d > 9.5"), is(2));
+    }
+
+    @Test
+    public void testOtherConditionsAreIgnored() throws Exception {
+        PointValueBounds bounds = PointValueBounds.of(
+            expressions.normalize(expressions.asSymbol("x > 200 or name = 'foo'")), fieldTypeLookup);
+        assertThat(bounds.isEmpty(), is(true));
+        assertThat(bounds.countNonMatchingSegments(reader), is(0));
+        assertThat(nonMatchingSegments("name = 'bar'"), is(0));
+    }
+}
@@ -55,7 +55,8 @@ public class DocTableInfoTest extends CrateUnitTest {
             Version.CURRENT,
             null,
             false,
-            Operation.ALL
+            Operation.ALL,
+            null
         );
 
         Reference foobar = info.getReference(new ColumnIdent("o", ImmutableList.of("foobar")));
@@ -110,7 +111,8 @@ public class DocTableInfoTest extends CrateUnitTest {
             Version.CURRENT,
             null,
             false,
-            Operation.ALL
+            Operation.ALL,
+            null
         );
 
 
@@ -0,0 +1,110 @@
+/*
+ * Licensed to CRATE Technology GmbH ("Crate") under one or more contributor
+ * license agreements.  See the NOTICE file distributed with this work for
+ * additional information regarding copyright ownership.  Crate licenses
+ * this file to you under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial agreement.
+ */
+
+
+package io.crate.metadata.doc;
+
+import com.google.common.collect.ImmutableList;
+import io.crate.metadata.PartitionName;
+import io.crate.metadata.Reference;
+import io.crate.metadata.ReferenceIdent;
+import io.crate.metadata.RelationName;
+import io.crate.metadata.RowGranularity;
+import io.crate.test.integration.CrateUnitTest;
+import io.crate.types.DataTypes;
+import org.apache.lucene.util.BytesRef;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+
+public class PartitionIndexTest extends CrateUnitTest {
+
+    private static final RelationName RELATION_NAME = new RelationName("doc", "parted");
+
+    private PartitionIndex index;
+
+    @Before
+    public void prepareIndex() {
+        List<PartitionName> partitions = new ArrayList<>();
+        // partitions in descending order of p, the last one has a null value
+        for (int i = 999; i >= 0; i--) {
+            partitions.add(new PartitionName(RELATION_NAME, ImmutableList.of(
+                new BytesRef(Long.toString(i * 10L)), new BytesRef("name" + (i % 2)))));
+        }
+        partitions.add(new PartitionName(RELATION_NAME, Arrays.asList(null, new BytesRef("name0"))));
+        index = new PartitionIndex(partitions, ImmutableList.of(
+            new Reference(new ReferenceIdent(RELATION_NAME, "p"), RowGranularity.PARTITION, DataTypes.LONG),
+            new Reference(new ReferenceIdent(RELATION_NAME, "name"), RowGranularity.PARTITION, DataTypes.STRING)
+        ));
+    }
+
+    private static int position(long p) {
+        return 999 - (int) (p / 10);
+    }
+
+    @Test
+    public void testRange() {
+        BitSet result = index.range(0, 100L, true, 200L, false);
+        assertThat(result.cardinality(), is(10));
+        assertThat(result.get(position(100L)), is(true));
+        assertThat(result.get(position(190L)), is(true));
+        assertThat(result.get(position(200L)), is(false));
+
+        result = index.range(0, 100L, false, 200L, true);
+        assertThat(result.cardinality(), is(10));
+        assertThat(result.get(position(100L)), is(false));
+        assertThat(result.get(position(200L)), is(true));
+
+        result = index.range(0, 105L, true, 105L, true);
+        assertThat(result.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testUnboundedRangeDoesNotContainNullValues() {
+        BitSet result = index.range(0, null, false, 50L, true);
+        assertThat(result.cardinality(), is(6));
+
+        result = index.range(0, 9990L, false, null, false);
+        assertThat(result.isEmpty(), is(true));
+
+        result = index.range(0, null, false, null, false);
+        assertThat(result.cardinality(), is(1000));
+        assertThat(result.get(1000), is(false));
+    }
+
+    @Test
+    public void testAnyOf() {
+        BitSet result = index.anyOf(0, Arrays.asList(0L, 500L, 505L, null));
+        assertThat(result.cardinality(), is(2));
+        assertThat(result.get(position(0L)), is(true));
+        assertThat(result.get(position(500L)), is(true));
+
+        result = index.anyOf(1, Collections.singletonList(new BytesRef("name1")));
+        assertThat(result.cardinality(), is(500));
+    }
+}
@@ -87,7 +87,7 @@ public class TestingTableInfo extends DocTableInfo {
               hasAutoGeneratedPrimaryKey, concreteIndices, concreteIndices, new IndexNameExpressionResolver(Settings.EMPTY),
               numberOfShards, numberOfReplicas, tableParameters, partitionedBy, partitions, columnPolicy,
               Version.CURRENT, null, false,
-              isAlias ? Operation.SYS_READ_ONLY : Operation.ALL);
+              isAlias ? Operation.SYS_READ_ONLY : Operation.ALL, null);
         this.routing = routing;
     }
 
@@ -190,6 +190,82 @@ public class JoinTest extends CrateDummyClusterServiceUnitTest {
             is("[IC{1, long}, IC{2, long}, IC{0, long}]"));
     }
 
+    @Test
+    public void testHashJoin_KeyRangeOfSmallerFilteredSideIsPushedIntoBiggerSide() {
+        MultiSourceSelect mss = e.analyze("select users.name, locations.id " +
+                                          "from users " +
+                                          "join locations on users.id = locations.id " +
+                                          "where locations.id > 10");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(TableDefinitions.USER_TABLE_IDENT, new TableStats.Stats(10_000, 0));
+        rowCountByTable.put(TableDefinitions.TEST_DOC_LOCATIONS_TABLE_IDENT, new TableStats.Stats(10, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator, instanceOf(HashJoin.class));
+        // min and max of locations.id are computed upfront by a single sub-select to filter users
+        assertThat(operator.dependencies().size(), is(1));
+        assertThat(((HashJoin) operator).rhs.dependencies().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testHashJoin_KeyRangeIsPushedIntoRightHandSideIfItIsBigger() {
+        MultiSourceSelect mss = e.analyze("select users.name, locations.id " +
+                                          "from locations " +
+                                          "join users on locations.id = users.id " +
+                                          "where locations.id > 10");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(TableDefinitions.USER_TABLE_IDENT, new TableStats.Stats(10_000, 0));
+        rowCountByTable.put(TableDefinitions.TEST_DOC_LOCATIONS_TABLE_IDENT, new TableStats.Stats(10, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator, instanceOf(HashJoin.class));
+        assertThat(((HashJoin) operator).lhs.dependencies().isEmpty(), is(true));
+        assertThat(((HashJoin) operator).rhs.dependencies().size(), is(1));
+    }
+
+    @Test
+    public void testHashJoin_NoKeyRangeFilterForUnsupportedKeyType() throws Exception {
+        e = SQLExecutor.builder(clusterService)
+            .addTable("create table doc.big (d double)")
+            .addTable("create table doc.small (d double, x int)")
+            .build();
+        plannerCtx = e.getPlannerContext(clusterService.state());
+        MultiSourceSelect mss = e.analyze("select big.d from big join small on big.d = small.d where small.x = 1");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(new RelationName("doc", "big"), new TableStats.Stats(10_000, 0));
+        rowCountByTable.put(new RelationName("doc", "small"), new TableStats.Stats(10, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator, instanceOf(HashJoin.class));
+        // the key range filter only supports integral and string keys
+        assertThat(operator.dependencies().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testHashJoin_NoKeyRangeFilterIfSmallerSideIsNotFiltered() {
+        MultiSourceSelect mss = e.analyze("select users.name, locations.id " +
+                                          "from users " +
+                                          "join locations on users.id = locations.id");
+
+        TableStats tableStats = new TableStats();
+        ObjectObjectHashMap<RelationName, TableStats.Stats> rowCountByTable = new ObjectObjectHashMap<>();
+        rowCountByTable.put(TableDefinitions.USER_TABLE_IDENT, new TableStats.Stats(10_000, 0));
+        rowCountByTable.put(TableDefinitions.TEST_DOC_LOCATIONS_TABLE_IDENT, new TableStats.Stats(10, 0));
+        tableStats.updateTableStats(rowCountByTable);
+
+        LogicalPlan operator = createLogicalPlan(mss, tableStats);
+        assertThat(operator.dependencies().isEmpty(), is(true));
+    }
+
     @Test
     public void testMultipleHashJoins() {
         MultiSourceSelect mss = e.analyze("select * " +
@@ -0,0 +1,78 @@
+/*
+ * Licensed to Crate under one or more contributor license agreements.
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.  Crate licenses this file
+ * to you under the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.  You may
+ * obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.  See the License for the specific language governing
+ * permissions and limitations under the License.
+ *
+ * However, if you have executed another commercial license agreement
+ * with Crate these terms will supersede the license and you may use the
+ * software solely pursuant to the terms of the relevant commercial
+ * agreement.
+ */
+
+package io.crate.planner.operators;
+
+import io.crate.analyze.TableDefinitions;
+import io.crate.execution.dsl.phases.MergePhase;
+import io.crate.execution.dsl.phases.RoutedCollectPhase;
+import io.crate.execution.dsl.projection.OrderedTopNProjection;
+import io.crate.execution.dsl.projection.WindowAggProjection;
+import io.crate.planner.Merge;
+import io.crate.planner.distribution.DistributionInfo;
+import io.crate.planner.distribution.DistributionType;
+import io.crate.planner.node.dql.Collect;
+import io.crate.test.integration.CrateDummyClusterServiceUnitTest;
+import io.crate.testing.SQLExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.crate.testing.SymbolMatchers.isReference;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class WindowAggTest extends CrateDummyClusterServiceUnitTest {
+
+    private SQLExecutor e;
+
+    @Before
+    public void setUpExecutor() {
+        e = SQLExecutor.builder(clusterService)
+            .addDocTable(TableDefinitions.USER_TABLE_INFO)
+            .build();
+    }
+
+    @Test
+    public void testWindowFunctionWithPartitionByIsEvaluatedDistributedByThePartitionKey() {
+        Merge localMerge = e.plan("select name, row_number() over (partition by id order by name) from users");
+        Merge distributedMerge = (Merge) localMerge.subPlan();
+        MergePhase windowPhase = distributedMerge.mergePhase();
+        assertThat(windowPhase.name(), is("distributed window"));
+        assertThat(windowPhase.nodeIds().size(), is(2));
+        assertThat(windowPhase.numUpstreams(), is(2));
+        assertThat(windowPhase.projections().get(0), instanceOf(OrderedTopNProjection.class));
+        assertThat(windowPhase.projections().get(1), instanceOf(WindowAggProjection.class));
+
+        RoutedCollectPhase collectPhase = (RoutedCollectPhase) ((Collect) distributedMerge.subPlan()).collectPhase();
+        DistributionInfo distributionInfo = collectPhase.distributionInfo();
+        assertThat(distributionInfo.distributionType(), is(DistributionType.MODULO));
+        assertThat(collectPhase.toCollect().get(distributionInfo.distributeByColumn()), isReference("id"));
+    }
+
+    @Test
+    public void testWindowFunctionWithoutPartitionByIsEvaluatedOnTheHandler() {
+        Merge localMerge = e.plan("select name, row_number() over (order by name) from users");
+        assertThat(localMerge.subPlan(), instanceOf(Collect.class));
+        assertThat(localMerge.mergePhase().projections().get(0), instanceOf(OrderedTopNProjection.class));
+        assertThat(localMerge.mergePhase().projections().get(1), instanceOf(WindowAggProjection.class));
+    }
+}
@@ -35,6 +35,7 @@ import io.crate.auth.user.User;
 import io.crate.data.Row;
 import io.crate.data.RowN;
 import io.crate.execution.engine.aggregation.impl.AggregationImplModule;
+import io.crate.execution.engine.window.WindowFunctionModule;
 import io.crate.expression.eval.EvaluatingNormalizer;
 import io.crate.expression.operator.OperatorModule;
 import io.crate.expression.predicate.PredicateModule;
@@ -86,6 +87,7 @@ public class SqlExpressions {
             .add(new AggregationImplModule())
             .add(new ScalarFunctionModule())
             .add(new TableFunctionModule())
+            .add(new WindowFunctionModule())
             .add(new PredicateModule());
         if (additionalModules != null) {
             for (AbstractModule module : additionalModules) {
@@ -40,6 +40,7 @@ import io.crate.metadata.RelationName;
 import io.crate.metadata.RowGranularity;
 import io.crate.metadata.Schemas;
 import io.crate.execution.engine.aggregation.impl.AggregationImplModule;
+import io.crate.execution.engine.window.WindowFunctionModule;
 import io.crate.expression.operator.OperatorModule;
 import io.crate.expression.predicate.PredicateModule;
 import io.crate.expression.scalar.ScalarFunctionModule;
@@ -163,6 +164,7 @@ public class TestingHelpers {
             .add(new AggregationImplModule())
             .add(new PredicateModule())
             .add(new TableFunctionModule())
+            .add(new WindowFunctionModule())
             .add(new ScalarFunctionModule())
             .add(new OperatorModule()).createInjector().getInstance(Functions.class);
     }